@@ -10,7 +10,8 @@ import picocli.CommandLine.Command;
         subcommands = {
                 ValidateCommand.class,
                 TestCommand.class,
-                RunCommand.class
+                RunCommand.class,
+                WorkerCommand.class
         }
 )
 public class Main implements Runnable {
@@ -1,27 +1,46 @@
 package de.uni_passau.apr.cli;
 
+import de.uni_passau.apr.core.algorithm.ArchiveSettings;
+import de.uni_passau.apr.core.algorithm.BestFirstPrioritizer;
+import de.uni_passau.apr.core.algorithm.Budget;
+import de.uni_passau.apr.core.algorithm.EnumerationEngine;
 import de.uni_passau.apr.core.algorithm.GenProgEngine;
+import de.uni_passau.apr.core.algorithm.IslandModelEngine;
+import de.uni_passau.apr.core.algorithm.LocalSearchEngine;
+import de.uni_passau.apr.core.algorithm.RepairAlgorithm;
 import de.uni_passau.apr.core.algorithm.RepairResult;
+import de.uni_passau.apr.core.algorithm.RestartPolicy;
 import de.uni_passau.apr.core.algorithm.RunConfig;
 import de.uni_passau.apr.core.benchmark.BenchmarkLoader;
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.CheckpointableRandom;
 import de.uni_passau.apr.core.crossover.SingleEditCrossover;
 import de.uni_passau.apr.core.evaluator.Evaluator;
 import de.uni_passau.apr.core.evaluator.WorkspaceMavenEvaluator;
+import de.uni_passau.apr.core.evaluator.remote.RemoteEvaluationCoordinator;
 import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
 import de.uni_passau.apr.core.faultlocalization.json.JsonFaultLocProvider;
 import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
 import de.uni_passau.apr.core.mutation.SingleEditMutator;
 import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.selection.IndexSelector;
 import de.uni_passau.apr.core.selection.PopulationInitializer;
 import de.uni_passau.apr.core.service.LoadedBenchmark;
 import de.uni_passau.apr.core.service.RepairService;
+import de.uni_passau.apr.core.surrogate.PatchFeatures;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
 import de.uni_passau.apr.core.testrunner.MavenTestRunner;
 import de.uni_passau.apr.core.testrunner.TestRunner;
 import de.uni_passau.apr.core.workspace.WorkspaceBuilder;
+import de.uni_passau.apr.core.workspace.WorkspaceManager;
 import picocli.CommandLine;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
 
@@ -32,6 +51,40 @@ import java.util.concurrent.Callable;
 )
 public class RunCommand implements Callable<Integer> {
 
+    enum Algorithm {
+        /** genetic search, optionally as an island model */
+        GENPROG,
+        /** every single-edit patch, best fault-localization rank first */
+        ENUMERATE,
+        /** first-improvement hill climbing from the best initial candidates */
+        LOCAL,
+        /** genetic search until it stagnates, then hill climbing from its best candidates */
+        HYBRID
+    }
+
+    enum EvaluationOrder {
+        /** children in the order they were bred */
+        SLOT,
+        /** children covered by the failing tests, with heavy fault-localization weight and fit parents first */
+        BEST_FIRST
+    }
+
+    enum OperatorSelection {
+        /** mutation moves uniformly, 10% deletes in fresh patches */
+        UNIFORM,
+        /** probability matching on the compile success and fitness gain each operator's patches achieved */
+        ADAPTIVE
+    }
+
+    enum Selection {
+        /** fittest of --tournament-size uniformly drawn members */
+        TOURNAMENT,
+        /** linear ranking with --rank-pressure */
+        RANK,
+        /** uniform among the --truncation fittest members */
+        TRUNCATION
+    }
+
     @CommandLine.Option(
             names = {"-br", "--benchmarks-root"},
             description = "Root directory where benchmarks are stored.",
@@ -54,7 +107,7 @@ public class RunCommand implements Callable<Integer> {
 
     @CommandLine.Option(
             names = {"-t", "--timeout-seconds"},
-            description = "Timeout in seconds for each benchmark run.",
+            description = "Timeout in seconds for each test run.",
             defaultValue = "20"
     )
     private int timeoutSeconds;
@@ -66,6 +119,29 @@ public class RunCommand implements Callable<Integer> {
     )
     private boolean keepWorkspace;
 
+    @CommandLine.Option(
+            names = { "--workspace-root" },
+            description = "Directory for candidate workspaces, e.g. the tmpfs /dev/shm (default: the system temp directory).",
+            defaultValue = ""
+    )
+    private String workspaceRoot;
+
+    @CommandLine.Option(
+            names = { "--workspace-quota-mb" },
+            description = "Wait for background deletions before creating a workspace while the undeleted ones are "
+                    + "estimated to take this many MB. 0 for no quota.",
+            defaultValue = "2048"
+    )
+    private long workspaceQuotaMb;
+
+    @CommandLine.Option(
+            names = { "--maven-reactor" },
+            description = "Test each generation's candidates as modules of one Maven reactor (mvn -T <jobs> -fae test), "
+                    + "starting Maven once per generation instead of once per candidate.",
+            defaultValue = "false"
+    )
+    private boolean mavenReactor;
+
     @CommandLine.Option(
             names = {"-s", "--seed"},
             description = "Random seed for reproducibility.",
@@ -80,6 +156,363 @@ public class RunCommand implements Callable<Integer> {
     )
     private int populationSize;
 
+    @CommandLine.Option(
+            names = { "-e", "--elite-count" },
+            description = "Fittest individuals carried unchanged into the next generation (0 disables elitism).",
+            defaultValue = "0"
+    )
+    private int eliteCount;
+
+    @CommandLine.Option(
+            names = { "-g", "--max-generations" },
+            description = "Maximum number of generations per benchmark.",
+            defaultValue = "50"
+    )
+    private int maxGenerations;
+
+    @CommandLine.Option(
+            names = { "--max-wall-seconds" },
+            description = "Wall-clock budget per benchmark in seconds; running tests are killed when it expires, "
+                    + "jobs already sent to remote workers finish there. 0 means unlimited.",
+            defaultValue = "0"
+    )
+    private long maxWallSeconds;
+
+    @CommandLine.Option(
+            names = { "--max-evaluations" },
+            description = "Maximum number of candidate evaluations per benchmark. 0 means unlimited.",
+            defaultValue = "0"
+    )
+    private int maxEvaluations;
+
+    @CommandLine.Option(
+            names = { "--max-cpu-seconds" },
+            description = "CPU-time budget per benchmark (this process plus test runs) in seconds; running tests are killed "
+                    + "when it is used up, jobs already sent to remote workers finish there. 0 means unlimited.",
+            defaultValue = "0"
+    )
+    private long maxCpuSeconds;
+
+    @CommandLine.Option(
+            names = { "--algorithm" },
+            description = "Search algorithm: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "GENPROG"
+    )
+    private Algorithm algorithm;
+
+    @CommandLine.Option(
+            names = { "--start-index" },
+            description = "With --algorithm ENUMERATE: rank (0-based) to start the enumeration at.",
+            defaultValue = "0"
+    )
+    private int startIndex;
+
+    @CommandLine.Option(
+            names = { "--neighbours" },
+            description = "With --algorithm LOCAL/HYBRID: neighbours evaluated per local step.",
+            defaultValue = "12"
+    )
+    private int neighbours;
+
+    @CommandLine.Option(
+            names = { "--local-seeds" },
+            description = "With --algorithm LOCAL/HYBRID: best candidates to climb from.",
+            defaultValue = "3"
+    )
+    private int localSeeds;
+
+    @CommandLine.Option(
+            names = { "--patience" },
+            description = "With --algorithm LOCAL/HYBRID: local steps without improvement before the next seed.",
+            defaultValue = "2"
+    )
+    private int patience;
+
+    @CommandLine.Option(
+            names = { "--switch-after" },
+            description = "With --algorithm HYBRID: generations without improvement before switching to local search.",
+            defaultValue = "5"
+    )
+    private int switchAfter;
+
+    @CommandLine.Option(
+            names = { "--evaluation-order" },
+            description = "Order in which each generation is evaluated; the whole generation is still scored. ${COMPLETION-CANDIDATES}.",
+            defaultValue = "BEST_FIRST"
+    )
+    private EvaluationOrder evaluationOrder;
+
+    @CommandLine.Option(
+            names = { "--operator-selection" },
+            description = "How mutation moves and the edit kind of fresh patches are chosen. ${COMPLETION-CANDIDATES}.",
+            defaultValue = "UNIFORM"
+    )
+    private OperatorSelection operatorSelection;
+
+    @CommandLine.Option(
+            names = { "--operator-min-probability" },
+            description = "Chance every operator keeps with ADAPTIVE operator selection.",
+            defaultValue = "0.05"
+    )
+    private double operatorMinProbability;
+
+    @CommandLine.Option(
+            names = { "--operator-adaptation" },
+            description = "Weight of the latest reward in an operator's credit with ADAPTIVE operator selection.",
+            defaultValue = "0.2"
+    )
+    private double operatorAdaptation;
+
+    @CommandLine.Option(
+            names = { "--selection" },
+            description = "Parent selection. ${COMPLETION-CANDIDATES}.",
+            defaultValue = "TOURNAMENT"
+    )
+    private Selection selection;
+
+    @CommandLine.Option(
+            names = { "--tournament-size" },
+            description = "Members drawn per TOURNAMENT selection.",
+            defaultValue = "3"
+    )
+    private int tournamentSize;
+
+    @CommandLine.Option(
+            names = { "--rank-pressure" },
+            description = "How much likelier the fittest member is picked than under uniform selection with RANK selection, in [1, 2].",
+            defaultValue = "1.5"
+    )
+    private double rankPressure;
+
+    @CommandLine.Option(
+            names = { "--truncation" },
+            description = "Fraction of the fittest members TRUNCATION selection picks from, in (0, 1].",
+            defaultValue = "0.5"
+    )
+    private double truncation;
+
+    @CommandLine.Option(
+            names = { "--explored-capacity" },
+            description = "Remember up to this many evaluated patches exactly (a Bloom filter covers the rest) and breed "
+                    + "children away from them. 0 (default) only avoids duplicates within a generation. The patches "
+                    + "are not checkpointed: --resume remembers only the restored population, so it does not repeat "
+                    + "the original run exactly.",
+            defaultValue = "0"
+    )
+    private int exploredCapacity;
+
+    @CommandLine.Option(
+            names = { "--spill-dir" },
+            description = "Directory for the compressed test output of evaluated candidates (default: the system temp directory).",
+            defaultValue = ""
+    )
+    private String spillDir;
+
+    @CommandLine.Option(
+            names = { "--keep-output-in-memory" },
+            description = "Keep every candidate's full test output in memory instead of spilling it to --spill-dir.",
+            defaultValue = "false"
+    )
+    private boolean keepOutputInMemory;
+
+    @CommandLine.Option(
+            names = { "--show-test-output" },
+            description = "Print the test output of the repair (or best candidate) at the end.",
+            defaultValue = "false"
+    )
+    private boolean showTestOutput;
+
+    @CommandLine.Option(
+            names = { "--output-head-bytes" },
+            description = "Keep this many bytes from the start of each test run's Maven output.",
+            defaultValue = "16384"
+    )
+    private int outputHeadBytes;
+
+    @CommandLine.Option(
+            names = { "--output-tail-bytes" },
+            description = "Keep this many bytes from the end of each test run's Maven output.",
+            defaultValue = "49152"
+    )
+    private int outputTailBytes;
+
+    @CommandLine.Option(
+            names = { "--max-output-bytes" },
+            description = "Stop a test run that prints more than this many bytes. 0 for no limit.",
+            defaultValue = "67108864"
+    )
+    private long maxOutputBytes;
+
+    @CommandLine.Option(
+            names = { "--save-test-output" },
+            description = "Also write each test run's whole Maven output to " + MavenTestRunner.SPILL_FILE
+                    + " in its workspace (kept for failing candidates).",
+            defaultValue = "false"
+    )
+    private boolean saveTestOutput;
+
+    @CommandLine.Option(
+            names = { "--fl-feedback" },
+            description = "Reweight fault-localization targets by how their evaluated patches did; the prior weight counts "
+                    + "as this many observations. 0 keeps the weights fixed.",
+            defaultValue = "0"
+    )
+    private double flFeedback;
+
+    @CommandLine.Option(
+            names = { "--restart-after" },
+            description = "Restart the population after this many generations without a better fitness, keeping an elite archive. "
+                    + "0 (the default) never restarts, so a seed gives the same result as in earlier versions.",
+            defaultValue = "0"
+    )
+    private int restartAfter;
+
+    @CommandLine.Option(
+            names = { "--restart-min-diversity" },
+            description = "Restart a stuck population early once its share of distinct patches drops below this value.",
+            defaultValue = "0.3"
+    )
+    private double restartMinDiversity;
+
+    @CommandLine.Option(
+            names = { "--restart-archive" },
+            description = "Fittest distinct candidates kept across restarts.",
+            defaultValue = "2"
+    )
+    private int restartArchive;
+
+    @CommandLine.Option(
+            names = { "--restart-boost" },
+            description = "Extra weight of rarely tried fault-localization targets when re-seeding.",
+            defaultValue = "2.0"
+    )
+    private double restartBoost;
+
+    @CommandLine.Option(
+            names = { "--surrogate-skip" },
+            description = "Share of each generation's children (lowest surrogate score first) that is not evaluated. 0 disables the surrogate.",
+            defaultValue = "0"
+    )
+    private double surrogateSkip;
+
+    @CommandLine.Option(
+            names = { "--surrogate-exploration" },
+            description = "Probability that a child picked for skipping is evaluated anyway.",
+            defaultValue = "0.1"
+    )
+    private double surrogateExploration;
+
+    @CommandLine.Option(
+            names = { "--surrogate-warmup" },
+            description = "Evaluations the surrogate learns from before it skips anything.",
+            defaultValue = "30"
+    )
+    private int surrogateWarmup;
+
+    @CommandLine.Option(
+            names = { "-j", "--jobs" },
+            description = "Candidates evaluated (and, with --rng SPLIT, children bred) in parallel. Does not change the result of a seed.",
+            defaultValue = "1"
+    )
+    private int jobs;
+
+    @CommandLine.Option(
+            names = { "--rng" },
+            description = "Random streams: SHARED (the default) draws everything from one generator, so a seed gives "
+                    + "the same result as in earlier versions; SPLIT keys every individual by (generation, slot, operator) "
+                    + "and lets --jobs breed children in parallel, but gives different results for the same seed. "
+                    + "${COMPLETION-CANDIDATES}.",
+            defaultValue = "SHARED"
+    )
+    private RunConfig.RngMode rngMode;
+
+    @CommandLine.Option(
+            names = { "-i", "--islands" },
+            description = "Number of islands (parallel populations). 1 runs a single GenProg population.",
+            defaultValue = "1"
+    )
+    private int islands;
+
+    @CommandLine.Option(
+            names = { "--migration-interval" },
+            description = "Generations between two migrations in the island model.",
+            defaultValue = "5"
+    )
+    private int migrationInterval;
+
+    @CommandLine.Option(
+            names = { "--migrants" },
+            description = "Number of top individuals each island sends per migration.",
+            defaultValue = "2"
+    )
+    private int migrants;
+
+    @CommandLine.Option(
+            names = { "--topology" },
+            description = "Migration topology of the island model: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "RING"
+    )
+    private IslandModelEngine.Topology topology;
+
+    @CommandLine.Option(
+            names = { "--remote-port" },
+            description = "Listen on this port and send candidates to 'worker' processes instead of running Maven locally. 0 evaluates locally.",
+            defaultValue = "0"
+    )
+    private int remotePort;
+
+    @CommandLine.Option(
+            names = { "--bind" },
+            description = "Address the --remote-port coordinator listens on, e.g. 0.0.0.0 for all interfaces.",
+            defaultValue = "127.0.0.1"
+    )
+    private String bindAddress;
+
+    @CommandLine.Option(
+            names = { "--secret" },
+            description = "Shared secret 'worker' processes must know to connect (default: the APR_REMOTE_SECRET "
+                    + "environment variable, none if unset).",
+            defaultValue = "${env:APR_REMOTE_SECRET:-}"
+    )
+    private String secret;
+
+    @CommandLine.Option(
+            names = { "--checkpoint-dir" },
+            description = "Directory for the per-generation checkpoints of single-population runs.",
+            defaultValue = ".apr-checkpoints"
+    )
+    private String checkpointDir;
+
+    @CommandLine.Option(
+            names = { "--resume" },
+            description = "Continue each benchmark from its latest checkpoint (same seed required).",
+            defaultValue = "false"
+    )
+    private boolean resume;
+
+    @CommandLine.Option(
+            names = { "--archive-size" },
+            description = "Fittest distinct patches of each benchmark kept in <checkpoint-dir>/<benchmark>.archive.json "
+                    + "by single-population runs. 0 keeps no archive.",
+            defaultValue = "20"
+    )
+    private int archiveSize;
+
+    @CommandLine.Option(
+            names = { "--warm-start" },
+            description = "Seed the initial population from the benchmark's patch archive; entries are not evaluated "
+                    + "again while the benchmark content is unchanged.",
+            defaultValue = "false"
+    )
+    private boolean warmStart;
+
+    @CommandLine.Option(
+            names = { "--warm-start-fraction" },
+            description = "Share of the initial population taken from the archive with --warm-start.",
+            defaultValue = "0.5"
+    )
+    private double warmStartFraction;
+
     @Override
     public Integer call() {
         if (!runAll && (benchmarkName == null || benchmarkName.isEmpty())) {
@@ -90,13 +523,116 @@ public class RunCommand implements Callable<Integer> {
             System.err.println("Error: Cannot specify --benchmark-name when --all is set to true.");
             return 2;
         }
+        if (maxGenerations <= 0 || maxWallSeconds < 0 || maxEvaluations < 0 || maxCpuSeconds < 0) {
+            System.err.println("Error: --max-generations must be > 0 and the budgets must not be negative.");
+            return 2;
+        }
+        if (eliteCount < 0 || eliteCount >= populationSize) {
+            System.err.println("Error: --elite-count must be >= 0 and smaller than --population-size.");
+            return 2;
+        }
+        if (jobs <= 0) {
+            System.err.println("Error: --jobs must be > 0.");
+            return 2;
+        }
+        if (startIndex < 0) {
+            System.err.println("Error: --start-index must be >= 0.");
+            return 2;
+        }
+        if (neighbours <= 0 || localSeeds <= 0 || patience <= 0 || switchAfter <= 0) {
+            System.err.println("Error: --neighbours, --local-seeds, --patience and --switch-after must be > 0.");
+            return 2;
+        }
+        if (surrogateSkip < 0 || surrogateSkip >= 1 || surrogateExploration < 0 || surrogateExploration > 1
+                || surrogateWarmup < 0) {
+            System.err.println("Error: --surrogate-skip must be in [0, 1), --surrogate-exploration in [0, 1] "
+                    + "and --surrogate-warmup >= 0.");
+            return 2;
+        }
+        if (restartAfter < 0 || restartMinDiversity < 0 || restartMinDiversity > 1 || restartArchive < 0 || restartBoost < 0) {
+            System.err.println("Error: --restart-after, --restart-archive and --restart-boost must not be negative "
+                    + "and --restart-min-diversity must be in [0, 1].");
+            return 2;
+        }
+        if (operatorMinProbability < 0 || operatorMinProbability * SingleEditMutator.Move.values().length >= 1
+                || operatorAdaptation <= 0 || operatorAdaptation > 1) {
+            System.err.println("Error: --operator-min-probability must be in [0, 1/3) and --operator-adaptation in (0, 1].");
+            return 2;
+        }
+        if (tournamentSize < 2 || rankPressure < 1 || rankPressure > 2 || truncation <= 0 || truncation > 1) {
+            System.err.println("Error: --tournament-size must be >= 2, --rank-pressure in [1, 2] and --truncation in (0, 1].");
+            return 2;
+        }
+        if (exploredCapacity < 0) {
+            System.err.println("Error: --explored-capacity must not be negative.");
+            return 2;
+        }
+        if (flFeedback < 0) {
+            System.err.println("Error: --fl-feedback must not be negative.");
+            return 2;
+        }
+        if (archiveSize < 0 || warmStartFraction < 0 || warmStartFraction > 1) {
+            System.err.println("Error: --archive-size must not be negative and --warm-start-fraction must be in [0, 1].");
+            return 2;
+        }
+        if (warmStart && archiveSize == 0) {
+            System.err.println("Error: --warm-start needs an archive, --archive-size must be > 0.");
+            return 2;
+        }
+        if (workspaceQuotaMb < 0) {
+            System.err.println("Error: --workspace-quota-mb must not be negative.");
+            return 2;
+        }
+        if (outputHeadBytes < 0 || outputTailBytes < 0 || maxOutputBytes < 0) {
+            System.err.println("Error: --output-head-bytes, --output-tail-bytes and --max-output-bytes must not be negative.");
+            return 2;
+        }
         System.out.println("Running APR tool in root: " + benchmarkRoot);
         BenchmarkLoader loader = new BenchmarkLoader(java.nio.file.Path.of(benchmarkRoot));
-        WorkspaceBuilder workspaceBuilder = new WorkspaceBuilder();
-        TestRunner testRunner = new MavenTestRunner(Duration.ofSeconds(20));
-        Evaluator evaluator = new WorkspaceMavenEvaluator(workspaceBuilder, testRunner, keepWorkspace, true);
+        TestRunner testRunner = new MavenTestRunner(Duration.ofSeconds(timeoutSeconds))
+                .withOutputCapture(outputHeadBytes, outputTailBytes, maxOutputBytes)
+                .withOutputSpill(saveTestOutput)
+                .withReactorThreads(jobs);
+        RemoteEvaluationCoordinator coordinator = null;
+        WorkspaceManager workspaces = null;
+        Evaluator evaluator;
+        if (remotePort > 0) {
+            try {
+                coordinator = new RemoteEvaluationCoordinator(InetAddress.getByName(bindAddress), remotePort,
+                        Duration.ofSeconds(timeoutSeconds), Duration.ofSeconds(timeoutSeconds * 3L), secret);
+            } catch (IOException e) {
+                System.err.println("Error: cannot listen on " + bindAddress + ":" + remotePort + ": " + e.getMessage());
+                return 1;
+            }
+            evaluator = coordinator;
+        } else {
+            try {
+                workspaces = new WorkspaceManager(workspaceRoot.isBlank()
+                        ? Path.of(System.getProperty("java.io.tmpdir"))
+                        : Path.of(workspaceRoot), workspaceQuotaMb * 1024 * 1024);
+            } catch (IOException e) {
+                System.err.println("Error: cannot use workspace root " + workspaceRoot + ": " + e.getMessage());
+                return 1;
+            }
+            System.out.println("Workspaces in: " + workspaces.session());
+            evaluator = new WorkspaceMavenEvaluator(new WorkspaceBuilder(workspaces, mavenReactor), testRunner,
+                    keepWorkspace, true);
+        }
+        try {
+            return runBenchmarks(loader, evaluator);
+        } finally {
+            if (coordinator != null) {
+                coordinator.close();
+            }
+            if (workspaces != null) {
+                workspaces.close();
+            }
+        }
+    }
+
+    private int runBenchmarks(BenchmarkLoader loader, Evaluator evaluator) {
         RepairService repairService = new RepairService(loader, evaluator, new JsonFaultLocProvider());
-        Random random = new Random(seed);
+        Random random = new CheckpointableRandom(seed);
         int resultCode = 0;
         if (!runAll) {
             System.out.println("Running single benchmark: " + benchmarkName);
@@ -132,10 +668,81 @@ public class RunCommand implements Callable<Integer> {
         StatementCollector statementCollector = StatementCollector.fromFile(
                 benchmark.config().getBuggyProgramPath()
         );
+        RepairAlgorithm repairAlgorithm;
+        RunConfig runConfig = new RunConfig(maxGenerations, populationSize, timeoutSeconds, random)
+                .withBudget(new Budget(
+                        maxWallSeconds > 0 ? Duration.ofSeconds(maxWallSeconds) : null,
+                        maxEvaluations,
+                        maxCpuSeconds > 0 ? Duration.ofSeconds(maxCpuSeconds) : null))
+                .withEliteCount(eliteCount)
+                .withRngMode(rngMode)
+                .withJobs(jobs)
+                .withRestart(restartAfter > 0
+                        ? new RestartPolicy(restartAfter, restartMinDiversity, restartArchive, restartBoost)
+                        : null);
+        if (algorithm == Algorithm.ENUMERATE) {
+            if (islands > 1) {
+                System.out.println("Warning: --islands is ignored with --algorithm ENUMERATE.");
+            }
+            FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(
+                    benchmark.faultLocalization(), statementCollector, random);
+            repairAlgorithm = new EnumerationEngine(statementCollector, sampler, evaluator, new FitnessEvaluator(),
+                    EnumerationEngine.DonorPrior.proximity(), startIndex);
+            runConfig = runConfig.withCheckpoints(new CheckpointStore(Path.of(checkpointDir)), resume);
+        } else if (algorithm == Algorithm.LOCAL || algorithm == Algorithm.HYBRID) {
+            if (islands > 1 || resume) {
+                System.out.println("Warning: --islands and --resume are ignored with --algorithm " + algorithm + ".");
+            }
+            repairAlgorithm = new LocalSearchEngine(newGenProgEngine(benchmark, statementCollector, evaluator, random),
+                    neighbours, localSeeds, patience, algorithm == Algorithm.HYBRID ? switchAfter : 0);
+        } else if (islands > 1) {
+            if (resume) {
+                System.out.println("Warning: --resume is ignored with more than one island, islands are not checkpointed.");
+            }
+            repairAlgorithm = new IslandModelEngine(
+                    (island, rng) -> newGenProgEngine(benchmark, statementCollector, evaluator, rng),
+                    islands,
+                    migrationInterval,
+                    migrants,
+                    topology
+            );
+        } else {
+            repairAlgorithm = newGenProgEngine(benchmark, statementCollector, evaluator, random);
+            CheckpointStore store = new CheckpointStore(Path.of(checkpointDir));
+            runConfig = runConfig.withCheckpoints(store, resume)
+                    .withArchive(archiveSize > 0
+                            ? new ArchiveSettings(store, archiveSize, warmStart ? warmStartFraction : 0.0)
+                            : null);
+        }
+        if (warmStart && runConfig.archive() == null) {
+            System.out.println("Warning: --warm-start only applies to single-population GENPROG runs, ignoring it.");
+        }
+        RepairResult result = repairAlgorithm.run(benchmark, runConfig);
+
+        if (showTestOutput && result.evaluationResult().getTestResult() != null) {
+            // read back from the spill log only now
+            System.out.println("Test output of the " + (result.repairedSuccessfully() ? "repair" : "best candidate")
+                    + ":\n" + result.evaluationResult().getTestResult().getOutput());
+        }
+        if (result.repairedSuccessfully()) {
+            System.out.println("Repair successful for benchmark: " + benchmarkName);
+            System.out.println("Repaired Source Code:\n" + result.bestCandidateSource());
+            return 0;
+        } else {
+            System.out.println("Repair failed for benchmark: " + benchmarkName + " (stopped: " + result.stopReason() + ")");
+            return 1;
+        }
+    }
+
+    private GenProgEngine newGenProgEngine(LoadedBenchmark benchmark,
+                                           StatementCollector statementCollector,
+                                           Evaluator evaluator,
+                                           Random random) {
         FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(
                 benchmark.faultLocalization(),
                 statementCollector,
-                random
+                random,
+                flFeedback
         );
         PopulationInitializer initializer = new PopulationInitializer(
                 populationSize,
@@ -145,21 +752,44 @@ public class RunCommand implements Callable<Integer> {
                 0.10,
                 true
         );
-        RepairResult result = new GenProgEngine(
+        SingleEditMutator mutator = new SingleEditMutator(0.06, random, statementCollector, sampler, false);
+        if (operatorSelection == OperatorSelection.ADAPTIVE) {
+            initializer = initializer.withScheduler(new OperatorScheduler<>(PopulationInitializer.EditKind.class,
+                    Map.of(PopulationInitializer.EditKind.DELETE, 0.10, PopulationInitializer.EditKind.REPLACE, 0.90),
+                    operatorMinProbability, operatorAdaptation));
+            mutator = mutator.withScheduler(new OperatorScheduler<>(SingleEditMutator.Move.class,
+                    operatorMinProbability, operatorAdaptation));
+        }
+        SurrogateFilter surrogate = surrogateSkip > 0
+                ? new SurrogateFilter(new PatchFeatures(statementCollector, sampler.targetWeights()),
+                        surrogateSkip, surrogateExploration, surrogateWarmup)
+                : null;
+        GenProgEngine engine = new GenProgEngine(
                 initializer,
                 new FitnessEvaluator(),
                 evaluator,
                 new SingleEditCrossover(random, statementCollector, true),
-                new SingleEditMutator(0.06, random, statementCollector, sampler, false)
-        ).run(benchmark, new RunConfig(50, populationSize, timeoutSeconds, random));
-
-        if (result.repairedSuccessfully()) {
-            System.out.println("Repair successful for benchmark: " + benchmarkName);
-            System.out.println("Repaired Source Code:\n" + result.bestCandidateSource());
-            return 0;
-        } else {
-            System.out.println("Repair failed for benchmark: " + benchmarkName);
-            return 1;
+                mutator,
+                surrogate
+        );
+        if (flFeedback > 0) {
+            engine = engine.withTargetFeedback(sampler);
+        }
+        if (exploredCapacity > 0) {
+            engine = engine.withExploredRegistry(exploredCapacity);
+        }
+        if (!keepOutputInMemory) {
+            engine = engine.withOutputSpill(spillDir.isBlank()
+                    ? Path.of(System.getProperty("java.io.tmpdir"))
+                    : Path.of(spillDir));
         }
+        engine = engine.withSelection(switch (selection) {
+            case TOURNAMENT -> IndexSelector.tournament(tournamentSize);
+            case RANK -> IndexSelector.rank(rankPressure);
+            case TRUNCATION -> IndexSelector.truncation(truncation);
+        });
+        return evaluationOrder == EvaluationOrder.BEST_FIRST
+                ? engine.withPrioritizer(new BestFirstPrioritizer(sampler.targetWeights()))
+                : engine;
     }
 }
@@ -0,0 +1,160 @@
+package de.uni_passau.apr.cli;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkLoader;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.evaluator.WorkspaceMavenEvaluator;
+import de.uni_passau.apr.core.evaluator.remote.RemoteEvaluationWorker;
+import de.uni_passau.apr.core.testrunner.MavenTestRunner;
+import de.uni_passau.apr.core.workspace.WorkspaceBuilder;
+import de.uni_passau.apr.core.workspace.WorkspaceManager;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(
+        name = "worker",
+        mixinStandardHelpOptions = true,
+        description = "Evaluates candidates for a remote 'run --remote-port' coordinator."
+)
+public class WorkerCommand implements Callable<Integer> {
+
+    @CommandLine.Option(
+            names = {"-c", "--coordinator"},
+            description = "Coordinator address as host:port.",
+            required = true
+    )
+    private String coordinator;
+
+    @CommandLine.Option(
+            names = {"-br", "--benchmarks-root"},
+            description = "Root directory where benchmarks are stored.",
+            defaultValue = "benchmarks"
+    )
+    private String benchmarkRoot;
+
+    @CommandLine.Option(
+            names = {"-t", "--timeout-seconds"},
+            description = "Timeout in seconds for each test run.",
+            defaultValue = "20"
+    )
+    private int timeoutSeconds;
+
+    @CommandLine.Option(
+            names = {"-kp", "--keep-workspace"},
+            description = "Keep the workspace after execution for debugging purposes.",
+            defaultValue = "false"
+    )
+    private boolean keepWorkspace;
+
+    @CommandLine.Option(
+            names = { "--workspace-root" },
+            description = "Directory for candidate workspaces, e.g. the tmpfs /dev/shm (default: the system temp directory).",
+            defaultValue = ""
+    )
+    private String workspaceRoot;
+
+    @CommandLine.Option(
+            names = { "--workspace-quota-mb" },
+            description = "Wait for background deletions before creating a workspace while the undeleted ones are "
+                    + "estimated to take this many MB. 0 for no quota.",
+            defaultValue = "2048"
+    )
+    private long workspaceQuotaMb;
+
+    @CommandLine.Option(
+            names = {"--name"},
+            description = "Worker name shown in the coordinator log.",
+            defaultValue = "worker"
+    )
+    private String name;
+
+    @CommandLine.Option(
+            names = {"--connect-attempts"},
+            description = "Consecutive failed connection attempts (one per second) before the worker exits.",
+            defaultValue = "30"
+    )
+    private int connectAttempts;
+
+    @CommandLine.Option(
+            names = {"--secret"},
+            description = "Shared secret of the coordinator (default: the APR_REMOTE_SECRET environment variable, "
+                    + "none if unset).",
+            defaultValue = "${env:APR_REMOTE_SECRET:-}"
+    )
+    private String secret;
+
+    @Override
+    public Integer call() {
+        int sep = coordinator.lastIndexOf(':');
+        if (sep <= 0 || sep == coordinator.length() - 1) {
+            System.err.println("Error: --coordinator must be given as host:port.");
+            return 2;
+        }
+        String host = coordinator.substring(0, sep);
+        int port;
+        try {
+            port = Integer.parseInt(coordinator.substring(sep + 1));
+        } catch (NumberFormatException e) {
+            System.err.println("Error: invalid coordinator port: " + coordinator.substring(sep + 1));
+            return 2;
+        }
+
+        if (workspaceQuotaMb < 0) {
+            System.err.println("Error: --workspace-quota-mb must not be negative.");
+            return 2;
+        }
+
+        Path root = workspaceRoot.isBlank() ? Path.of(System.getProperty("java.io.tmpdir")) : Path.of(workspaceRoot);
+        try (WorkspaceManager workspaces = new WorkspaceManager(root, workspaceQuotaMb * 1024 * 1024)) {
+            BenchmarkLoader loader = new BenchmarkLoader(Path.of(benchmarkRoot));
+            Evaluator evaluator = new WorkspaceMavenEvaluator(new WorkspaceBuilder(workspaces),
+                    new MavenTestRunner(Duration.ofSeconds(timeoutSeconds)), keepWorkspace, true);
+            StatusPrinter status = new StatusPrinter(name);
+            new RemoteEvaluationWorker(host, port, loader, evaluator, name, connectAttempts, Duration.ofSeconds(1),
+                    secret).withListener(status).run();
+            return status.failed ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("Error: cannot use workspace root " + root + ": " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /** Prints the worker's connection events and remembers whether it stopped on an error. */
+    static final class StatusPrinter implements RemoteEvaluationWorker.Listener {
+        private final String name;
+        private boolean failed = false;
+
+        StatusPrinter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void connected(String host, int port) {
+            System.out.println("Worker " + name + " connected to " + host + ":" + port);
+        }
+
+        @Override
+        public void rejected(String reason) {
+            failed = true;
+            System.err.println("Error: worker " + name + " rejected by the coordinator: " + reason);
+        }
+
+        @Override
+        public void gaveUp(int attempts, String reason) {
+            failed = true;
+            System.err.println("Error: worker " + name + " giving up after " + attempts
+                    + " failed connection attempts: " + reason);
+        }
+
+        @Override
+        public void stopped(int jobsDone) {
+            System.out.println("Worker " + name + " stopped after " + jobsDone + " jobs.");
+        }
+    }
+}
@@ -54,6 +54,399 @@ class RunCommandTest {
         assertEquals(42L, (long) getField(cmd, "seed"));
         assertEquals(20, (int) getField(cmd, "timeoutSeconds"));
         assertEquals(10, (int) getField(cmd, "populationSize"));
+        assertEquals(1, (int) getField(cmd, "islands"));
+        assertEquals(5, (int) getField(cmd, "migrationInterval"));
+        assertEquals(2, (int) getField(cmd, "migrants"));
+        assertEquals("RING", getField(cmd, "topology").toString());
+        assertEquals(0, (int) getField(cmd, "remotePort"));
+        assertEquals("127.0.0.1", getField(cmd, "bindAddress"));
+        assertEquals(".apr-checkpoints", getField(cmd, "checkpointDir"));
+        assertEquals(false, (boolean) getField(cmd, "resume"));
+        assertEquals(50, (int) getField(cmd, "maxGenerations"));
+        assertEquals(0L, (long) getField(cmd, "maxWallSeconds"));
+        assertEquals(0, (int) getField(cmd, "maxEvaluations"));
+        assertEquals(0L, (long) getField(cmd, "maxCpuSeconds"));
+        assertEquals(0, (int) getField(cmd, "eliteCount"));
+        assertEquals(1, (int) getField(cmd, "jobs"));
+        assertEquals("SHARED", getField(cmd, "rngMode").toString());
+        assertEquals("GENPROG", getField(cmd, "algorithm").toString());
+        assertEquals(0, (int) getField(cmd, "startIndex"));
+        assertEquals(12, (int) getField(cmd, "neighbours"));
+        assertEquals(3, (int) getField(cmd, "localSeeds"));
+        assertEquals(2, (int) getField(cmd, "patience"));
+        assertEquals(5, (int) getField(cmd, "switchAfter"));
+        assertEquals(0.0, (double) getField(cmd, "surrogateSkip"));
+        assertEquals(0.1, (double) getField(cmd, "surrogateExploration"));
+        assertEquals(30, (int) getField(cmd, "surrogateWarmup"));
+        assertEquals("BEST_FIRST", getField(cmd, "evaluationOrder").toString());
+        assertEquals(0, (int) getField(cmd, "restartAfter"));
+        assertEquals(0.3, (double) getField(cmd, "restartMinDiversity"));
+        assertEquals(2, (int) getField(cmd, "restartArchive"));
+        assertEquals(2.0, (double) getField(cmd, "restartBoost"));
+        assertEquals(20, (int) getField(cmd, "archiveSize"));
+        assertFalse((boolean) getField(cmd, "warmStart"));
+        assertEquals(0.5, (double) getField(cmd, "warmStartFraction"));
+        assertEquals("UNIFORM", getField(cmd, "operatorSelection").toString());
+        assertEquals(0.05, (double) getField(cmd, "operatorMinProbability"));
+        assertEquals(0.2, (double) getField(cmd, "operatorAdaptation"));
+        assertEquals(0.0, (double) getField(cmd, "flFeedback"));
+        assertEquals("TOURNAMENT", getField(cmd, "selection").toString());
+        assertEquals(3, (int) getField(cmd, "tournamentSize"));
+        assertEquals(1.5, (double) getField(cmd, "rankPressure"));
+        assertEquals(0.5, (double) getField(cmd, "truncation"));
+        assertEquals(0, (int) getField(cmd, "exploredCapacity"));
+        assertEquals("", getField(cmd, "spillDir"));
+        assertFalse((boolean) getField(cmd, "keepOutputInMemory"));
+        assertFalse((boolean) getField(cmd, "showTestOutput"));
+        assertEquals(16384, (int) getField(cmd, "outputHeadBytes"));
+        assertEquals(49152, (int) getField(cmd, "outputTailBytes"));
+        assertEquals(67108864L, (long) getField(cmd, "maxOutputBytes"));
+        assertFalse((boolean) getField(cmd, "saveTestOutput"));
+        assertEquals("", getField(cmd, "workspaceRoot"));
+        assertEquals(2048L, (long) getField(cmd, "workspaceQuotaMb"));
+        assertFalse((boolean) getField(cmd, "mavenReactor"));
+    }
+
+    @Test
+    void execute_negativeExploredCapacity_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--explored-capacity", "-1");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--explored-capacity must not be negative"));
+        }
+    }
+
+    @Test
+    void execute_negativeWorkspaceQuota_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--workspace-quota-mb", "-1");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--workspace-quota-mb must not be negative"));
+        }
+    }
+
+    @Test
+    void execute_negativeMaxOutputBytes_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--max-output-bytes", "-1");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--max-output-bytes must not be negative"));
+        }
+    }
+
+    @Test
+    void parsing_selectionOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--selection", "RANK", "--tournament-size", "5", "--rank-pressure", "1.8",
+                "--truncation", "0.2");
+
+        assertEquals("RANK", getField(cmd, "selection").toString());
+        assertEquals(5, (int) getField(cmd, "tournamentSize"));
+        assertEquals(1.8, (double) getField(cmd, "rankPressure"));
+        assertEquals(0.2, (double) getField(cmd, "truncation"));
+    }
+
+    @Test
+    void execute_rankPressureOutOfRange_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--selection", "RANK", "--rank-pressure", "2.5");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--rank-pressure in [1, 2]"));
+        }
+    }
+
+    @Test
+    void parsing_flFeedback_isApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--fl-feedback", "4");
+
+        assertEquals(4.0, (double) getField(cmd, "flFeedback"));
+    }
+
+    @Test
+    void parsing_operatorSelectionOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--operator-selection", "ADAPTIVE", "--operator-min-probability", "0.1",
+                "--operator-adaptation", "0.5");
+
+        assertEquals("ADAPTIVE", getField(cmd, "operatorSelection").toString());
+        assertEquals(0.1, (double) getField(cmd, "operatorMinProbability"));
+        assertEquals(0.5, (double) getField(cmd, "operatorAdaptation"));
+    }
+
+    @Test
+    void execute_operatorMinProbabilityTooLarge_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--operator-min-probability", "0.4");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--operator-min-probability must be in [0, 1/3)"));
+        }
+    }
+
+    @Test
+    void parsing_warmStartOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--warm-start", "--warm-start-fraction", "0.25", "--archive-size", "8");
+
+        assertTrue((boolean) getField(cmd, "warmStart"));
+        assertEquals(0.25, (double) getField(cmd, "warmStartFraction"));
+        assertEquals(8, (int) getField(cmd, "archiveSize"));
+    }
+
+    @Test
+    void execute_warmStartWithoutArchive_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--warm-start", "--archive-size", "0");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--warm-start needs an archive"));
+        }
+    }
+
+    @Test
+    void parsing_restartOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--restart-after", "4", "--restart-min-diversity", "0.5",
+                "--restart-archive", "3", "--restart-boost", "1.5");
+
+        assertEquals(4, (int) getField(cmd, "restartAfter"));
+        assertEquals(0.5, (double) getField(cmd, "restartMinDiversity"));
+        assertEquals(3, (int) getField(cmd, "restartArchive"));
+        assertEquals(1.5, (double) getField(cmd, "restartBoost"));
+    }
+
+    @Test
+    void execute_restartDiversityOutOfRange_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--restart-min-diversity", "2");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--restart-min-diversity must be in [0, 1]"));
+        }
+    }
+
+    @Test
+    void parsing_evaluationOrder_isApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--evaluation-order", "SLOT");
+
+        assertEquals("SLOT", getField(cmd, "evaluationOrder").toString());
+    }
+
+    @Test
+    void parsing_surrogateOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--surrogate-skip", "0.3", "--surrogate-exploration", "0.2", "--surrogate-warmup", "10");
+
+        assertEquals(0.3, (double) getField(cmd, "surrogateSkip"));
+        assertEquals(0.2, (double) getField(cmd, "surrogateExploration"));
+        assertEquals(10, (int) getField(cmd, "surrogateWarmup"));
+    }
+
+    @Test
+    void execute_surrogateSkipOutOfRange_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--surrogate-skip", "1");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--surrogate-skip must be in [0, 1)"));
+        }
+    }
+
+    @Test
+    void parsing_localSearchOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--algorithm", "HYBRID", "--neighbours", "8", "--local-seeds", "2",
+                "--patience", "4", "--switch-after", "3");
+
+        assertEquals("HYBRID", getField(cmd, "algorithm").toString());
+        assertEquals(8, (int) getField(cmd, "neighbours"));
+        assertEquals(2, (int) getField(cmd, "localSeeds"));
+        assertEquals(4, (int) getField(cmd, "patience"));
+        assertEquals(3, (int) getField(cmd, "switchAfter"));
+    }
+
+    @Test
+    void execute_nonPositiveNeighbours_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--algorithm", "LOCAL", "--neighbours", "0");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--neighbours, --local-seeds, --patience and --switch-after must be > 0"));
+        }
+    }
+
+    @Test
+    void parsing_enumerationOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--algorithm", "ENUMERATE", "--start-index", "25");
+
+        assertEquals("ENUMERATE", getField(cmd, "algorithm").toString());
+        assertEquals(25, (int) getField(cmd, "startIndex"));
+    }
+
+    @Test
+    void execute_negativeStartIndex_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--algorithm", "ENUMERATE", "--start-index", "-1");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--start-index must be >= 0"));
+        }
+    }
+
+    @Test
+    void parsing_parallelOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "-j", "32", "--rng", "SPLIT");
+
+        assertEquals(32, (int) getField(cmd, "jobs"));
+        assertEquals("SPLIT", getField(cmd, "rngMode").toString());
+    }
+
+    @Test
+    void execute_nonPositiveJobs_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--jobs", "0");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--jobs must be > 0"));
+        }
+    }
+
+    @Test
+    void parsing_budgetOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "-g", "7", "--max-wall-seconds", "600", "--max-evaluations", "200",
+                "--max-cpu-seconds", "1200");
+
+        assertEquals(7, (int) getField(cmd, "maxGenerations"));
+        assertEquals(600L, (long) getField(cmd, "maxWallSeconds"));
+        assertEquals(200, (int) getField(cmd, "maxEvaluations"));
+        assertEquals(1200L, (long) getField(cmd, "maxCpuSeconds"));
+    }
+
+    @Test
+    void execute_eliteCountNotBelowPopulationSize_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "-p", "4", "--elite-count", "4");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("--elite-count must be >= 0 and smaller than --population-size"));
+        }
+    }
+
+    @Test
+    void execute_negativeBudget_returns2() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-n", "bm1", "--max-evaluations", "-1");
+
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("budgets must not be negative"));
+        }
+    }
+
+    @Test
+    void parsing_checkpointOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-n", "bm1", "--checkpoint-dir", "ckpt", "--resume");
+
+        assertEquals("ckpt", getField(cmd, "checkpointDir"));
+        assertEquals(true, (boolean) getField(cmd, "resume"));
+    }
+
+    @Test
+    void parsing_islandOptions_areApplied() {
+        RunCommand cmd = new RunCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("--all", "-i", "4", "--migration-interval", "3", "--migrants", "1", "--topology", "RANDOM");
+
+        assertEquals(4, (int) getField(cmd, "islands"));
+        assertEquals(3, (int) getField(cmd, "migrationInterval"));
+        assertEquals(1, (int) getField(cmd, "migrants"));
+        assertEquals("RANDOM", getField(cmd, "topology").toString());
     }
 
     @Test
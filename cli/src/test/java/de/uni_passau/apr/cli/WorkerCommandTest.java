@@ -0,0 +1,131 @@
+package de.uni_passau.apr.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkerCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsing_withoutCoordinator_fails() {
+        WorkerCommand cmd = new WorkerCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute();
+            assertNotEquals(0, exit);
+            assertTrue(io.err().contains("--coordinator"));
+        }
+    }
+
+    @Test
+    void execute_coordinatorWithoutPort_returns2() {
+        WorkerCommand cmd = new WorkerCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-c", "localhost");
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("host:port"));
+        }
+    }
+
+    @Test
+    void execute_invalidPort_returns2() {
+        WorkerCommand cmd = new WorkerCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-c", "localhost:abc");
+            assertEquals(2, exit);
+            assertTrue(io.err().contains("invalid coordinator port"));
+        }
+    }
+
+    @Test
+    void execute_unreachableCoordinator_givesUpAndReturns1() throws Exception {
+        int port;
+        try (ServerSocket s = new ServerSocket(0)) {
+            port = s.getLocalPort();
+        }
+        WorkerCommand cmd = new WorkerCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        CapturedIO io = new CapturedIO();
+        try (io) {
+            int exit = cli.execute("-c", "localhost:" + port, "--connect-attempts", "1", "--name", "w1",
+                    "-br", tempDir.toString(), "--workspace-root", tempDir.toString());
+            assertEquals(1, exit);
+            assertTrue(io.err().contains("worker w1 giving up after 1 failed connection attempts"));
+            assertTrue(io.out().contains("Worker w1 stopped after 0 jobs."));
+        }
+    }
+
+    @Test
+    void parsing_defaults_areSet() {
+        WorkerCommand cmd = new WorkerCommand();
+        CommandLine cli = new CommandLine(cmd);
+
+        cli.parseArgs("-c", "localhost:7000");
+
+        assertEquals("localhost:7000", getField(cmd, "coordinator"));
+        assertEquals("benchmarks", getField(cmd, "benchmarkRoot"));
+        assertEquals(20, (int) getField(cmd, "timeoutSeconds"));
+        assertEquals(30, (int) getField(cmd, "connectAttempts"));
+        assertEquals("worker", getField(cmd, "name"));
+        assertEquals(System.getenv().getOrDefault("APR_REMOTE_SECRET", ""), getField(cmd, "secret"));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static Object getField(Object target, String fieldName) {
+        try {
+            var f = target.getClass().getDeclaredField(fieldName);
+            f.setAccessible(true);
+            return f.get(target);
+        } catch (Exception e) {
+            throw new AssertionError("Cannot read field: " + fieldName, e);
+        }
+    }
+
+    private static final class CapturedIO implements AutoCloseable {
+        private final PrintStream oldOut = System.out;
+        private final PrintStream oldErr = System.err;
+
+        private final ByteArrayOutputStream outBuf = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream errBuf = new ByteArrayOutputStream();
+
+        CapturedIO() {
+            System.setOut(new PrintStream(outBuf, true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(errBuf, true, StandardCharsets.UTF_8));
+        }
+
+        String out() {
+            return outBuf.toString(StandardCharsets.UTF_8);
+        }
+
+        String err() {
+            return errBuf.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() {
+            System.setOut(oldOut);
+            System.setErr(oldErr);
+        }
+    }
+}
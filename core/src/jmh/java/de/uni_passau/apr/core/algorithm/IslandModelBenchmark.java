@@ -0,0 +1,140 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * One big GenProg population against the island model with the same total population size,
+ * on the clamp benchmark of IslandModelEngineTest with a simulated evaluation cost. Each
+ * measured iteration is one whole run with the next seed; the evaluations and repairs
+ * counters show how much work each engine needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IslandModelBenchmark {
+
+    private static final int ISLAND_POPULATION = 10;
+    private static final int GENERATIONS = 30;
+    // the fix as it appears in the repaired source with all whitespace and comments removed
+    private static final String FIX = "if(x>high){returnhigh;";
+
+    @Param({"4"})
+    public int islands;
+
+    /** Simulated cost of one evaluation. */
+    @Param({"0", "20"})
+    public long costMs;
+
+    private Path dir;
+    private LoadedBenchmark benchmark;
+    private StatementCollector collector;
+    private PrintStream out;
+    private long seed;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long evaluations;
+        public long repairs;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("apr-island-bench");
+        benchmark = IslandModelEngineTest.clampBenchmark(dir, "clamp");
+        collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        // the engines log every candidate
+        out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+    }
+
+    @Setup(Level.Iteration)
+    public void nextSeed() {
+        seed++;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(out);
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public RepairResult single(Counters counters) throws Exception {
+        SimulatedEvaluator evaluator = new SimulatedEvaluator(costMs);
+        int totalPopulation = ISLAND_POPULATION * islands;
+        RepairResult result = IslandModelEngineTest.newEngine(benchmark, collector, evaluator, new Random(seed), totalPopulation)
+                .run(benchmark, new RunConfig(GENERATIONS, totalPopulation, 60, new Random(seed)));
+        count(counters, evaluator, result);
+        return result;
+    }
+
+    @Benchmark
+    public RepairResult islands(Counters counters) throws Exception {
+        SimulatedEvaluator evaluator = new SimulatedEvaluator(costMs);
+        RepairResult result = new IslandModelEngine(
+                (island, rng) -> IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, ISLAND_POPULATION),
+                islands, 5, 2, IslandModelEngine.Topology.RING)
+                .run(benchmark, new RunConfig(GENERATIONS, ISLAND_POPULATION, 60, new Random(seed)));
+        count(counters, evaluator, result);
+        return result;
+    }
+
+    private static void count(Counters counters, SimulatedEvaluator evaluator, RepairResult result) {
+        counters.evaluations += evaluator.calls.get();
+        if (result.repairedSuccessfully()) counters.repairs++;
+    }
+
+    /** Repaired iff the candidate contains the fix (ignoring comments and blanks). */
+    private static final class SimulatedEvaluator implements Evaluator {
+        private final long costMs;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        SimulatedEvaluator(long costMs) {
+            this.costMs = costMs;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(costMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean ok = candidateSource.replaceAll("//.*", "").replaceAll("\\s+", "").contains(FIX);
+            TestResult tr = new TestResult(0, "", ok, false);
+            tr.setTestsRun(3);
+            tr.setFailures(ok ? 0 : 1);
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
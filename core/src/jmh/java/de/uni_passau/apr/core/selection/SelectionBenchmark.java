@@ -0,0 +1,79 @@
+package de.uni_passau.apr.core.selection;
+
+import de.uni_passau.apr.core.patch.models.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parent selection for one generation: build the selection population from the evaluated
+ * patches and draw two parents per member. The list of Individual with TournamentSelection
+ * is what EvolutionRun did before PopulationStore; the others select on the store's indices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private Patch[] patches;
+    private double[] fitness;
+    private final PopulationStore store = new PopulationStore();
+    private final IndexSelector tournament = IndexSelector.tournament(3);
+    private final IndexSelector rank = IndexSelector.rank(1.5);
+    private final IndexSelector truncation = IndexSelector.truncation(0.5);
+    private Random rng;
+
+    @Setup
+    public void setUp() {
+        Random values = new Random(1);
+        patches = new Patch[size];
+        fitness = new double[size];
+        for (int i = 0; i < size; i++) {
+            StatementId target = new StatementId(i, 1, i, 20);
+            patches[i] = values.nextBoolean()
+                    ? new Patch(List.of(new DeleteOp(target)))
+                    : new Patch(List.of(new ReplaceOp(target, new StatementId(i + 1, 1, i + 1, 20))));
+            // few distinct values, like the pass counts behind real fitness
+            fitness[i] = values.nextInt(20);
+        }
+        rng = new Random(7);
+    }
+
+    @Benchmark
+    public void individualsTournament(Blackhole bh) {
+        List<Individual> population = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) population.add(new Individual(patches[i], fitness[i]));
+        TournamentSelection<Individual> ts = TournamentSelection.maximize(rng, 3, Individual::fitness);
+        for (int i = 0; i < 2 * size; i++) bh.consume(ts.selectOne(population).patch());
+    }
+
+    @Benchmark
+    public void storeTournament(Blackhole bh) {
+        select(tournament, bh);
+    }
+
+    @Benchmark
+    public void storeRank(Blackhole bh) {
+        select(rank, bh);
+    }
+
+    @Benchmark
+    public void storeTruncation(Blackhole bh) {
+        select(truncation, bh);
+    }
+
+    private void select(IndexSelector selector, Blackhole bh) {
+        store.clear();
+        for (int i = 0; i < size; i++) store.add(patches[i], fitness[i]);
+        selector.prepare(store);
+        for (int i = 0; i < 2 * size; i++) bh.consume(store.patch(selector.select(store, rng)));
+    }
+}
@@ -0,0 +1,147 @@
+package de.uni_passau.apr.core.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Parsing one synthetic Surefire report directory: the streaming SurefireReportParser against
+ * the DOM parser it replaced (a new DocumentBuilderFactory per call, the whole document in
+ * memory, getElementsByTagName per testcase). Run with -prof gc to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class SurefireReportParserBenchmark {
+
+    @Param({"1000", "20000"})
+    public int tests;
+
+    /** Size of each report's suite-level system-out, like a chatty test class. */
+    @Param({"0", "32"})
+    public int systemOutMb;
+
+    private Path reports;
+
+    @Setup
+    public void setUp() throws IOException {
+        reports = Files.createTempDirectory("apr-surefire-bench");
+        int classes = 4;
+        for (int c = 0; c < classes; c++) {
+            writeReport(reports.resolve("TEST-demo.Suite" + c + ".xml"), "demo.Suite" + c, tests / classes);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(reports)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public TestReportSummary stax() throws IOException {
+        return SurefireReportParser.parse(reports);
+    }
+
+    @Benchmark
+    public TestReportSummary dom() throws Exception {
+        TestReportSummary summary = new TestReportSummary();
+        LinkedHashSet<String> failTestsIds = new LinkedHashSet<>();
+        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+        dbFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        dbFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        dbFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        dbFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        List<Path> reportFiles;
+        try (var paths = Files.list(reports)) {
+            reportFiles = paths.filter(p -> p.getFileName().toString().startsWith("TEST-")).toList();
+        }
+        var dBuilder = dbFactory.newDocumentBuilder();
+        for (Path p : reportFiles) {
+            var doc = dBuilder.parse(p.toFile());
+            doc.getDocumentElement().normalize();
+            var testSuite = doc.getDocumentElement();
+            summary.setTestsRun(summary.getTestsRun() + Integer.parseInt(testSuite.getAttribute("tests")));
+            summary.setFailures(summary.getFailures() + Integer.parseInt(testSuite.getAttribute("failures")));
+            summary.setErrors(summary.getErrors() + Integer.parseInt(testSuite.getAttribute("errors")));
+            summary.setSkipped(summary.getSkipped() + Integer.parseInt(testSuite.getAttribute("skipped")));
+            var testCases = testSuite.getElementsByTagName("testcase");
+            for (int i = 0; i < testCases.getLength(); i++) {
+                Element testCase = (Element) testCases.item(i);
+                boolean isFailed = testCase.getElementsByTagName("failure").getLength() > 0
+                        || testCase.getElementsByTagName("error").getLength() > 0;
+                if (isFailed) {
+                    failTestsIds.add(testCase.getAttribute("classname") + "#" + testCase.getAttribute("name"));
+                }
+            }
+        }
+        summary.setFailedTestIds(failTestsIds.stream().toList());
+        return summary;
+    }
+
+    // every 20th test fails with a stack trace, every 50th errors, every 100th is skipped
+    private void writeReport(Path file, String className, int count) throws IOException {
+        int failures = 0;
+        int errors = 0;
+        int skipped = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % 50 == 0) errors++;
+            else if (i % 20 == 0) failures++;
+            else if (i % 100 == 1) skipped++;
+        }
+        String trace = ("\tat " + className + ".test(Suite.java:42)\n").repeat(40);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<testsuite name=\"" + className + "\" time=\"12.5\" tests=\"" + count + "\" errors=\"" + errors
+                    + "\" skipped=\"" + skipped + "\" failures=\"" + failures + "\">\n");
+            out.write("  <properties>\n");
+            for (int i = 0; i < 60; i++) {
+                out.write("    <property name=\"prop." + i + "\" value=\"value " + i + "\"/>\n");
+            }
+            out.write("  </properties>\n");
+            for (int i = 0; i < count; i++) {
+                out.write("  <testcase name=\"test" + i + "\" classname=\"" + className + "\" time=\"0.00" + (i % 10)
+                        + "\"");
+                if (i % 50 == 0) {
+                    out.write(">\n    <error type=\"java.lang.IllegalStateException\">" + trace + "</error>\n  </testcase>\n");
+                } else if (i % 20 == 0) {
+                    out.write(">\n    <failure message=\"expected: &lt;1&gt; but was: &lt;2&gt;\" "
+                            + "type=\"org.opentest4j.AssertionFailedError\">" + trace + "</failure>\n"
+                            + "    <system-out><![CDATA[debug line for test " + i + "\n]]></system-out>\n  </testcase>\n");
+                } else if (i % 100 == 1) {
+                    out.write(">\n    <skipped/>\n  </testcase>\n");
+                } else {
+                    out.write("/>\n");
+                }
+            }
+            out.write("  <system-out><![CDATA[");
+            String line = "2024-01-01 12:00:00 DEBUG some log line the test printed while running\n";
+            long lines = systemOutMb * 1024L * 1024L / line.length();
+            for (long i = 0; i < lines; i++) out.write(line);
+            out.write("]]></system-out>\n");
+            out.write("</testsuite>\n");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+
+import java.util.Objects;
+
+/**
+ * Where GenProgEngine keeps each benchmark's PatchArchive and how it uses it.
+ *
+ * @param store             directory of the archives (usually the checkpoint directory)
+ * @param size              fittest distinct patches kept per benchmark; every finished run merges its best into the archive
+ * @param warmStartFraction share of the initial population taken from the archive, 0 starts from scratch.
+ *                          Entries keep their evaluation while the benchmark fingerprint matches, otherwise
+ *                          they are evaluated again
+ */
+public record ArchiveSettings(CheckpointStore store, int size, double warmStartFraction) {
+
+    public ArchiveSettings {
+        Objects.requireNonNull(store, "store");
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be > 0");
+        }
+        if (warmStartFraction < 0 || warmStartFraction > 1) {
+            throw new IllegalArgumentException("warmStartFraction must be in [0, 1]");
+        }
+    }
+}
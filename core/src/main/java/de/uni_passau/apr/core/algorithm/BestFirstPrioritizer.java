@@ -0,0 +1,80 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.patch.models.*;
+
+import java.util.*;
+
+/**
+ * Evaluates likely repairs first, from signals that cost no test run:
+ * -whether an edit's target is covered by the failing tests (has a fault-localization entry)
+ * -the target's fault-localization weight, relative to the heaviest
+ * -how a parent editing the same statement ranked in its population
+ * A candidate's score is the best over its edits; ties keep slot order.
+ */
+public final class BestFirstPrioritizer implements CandidatePrioritizer {
+
+    private final Map<StatementId, Double> flWeights;
+    private final double maxWeight;
+
+    /** @param flWeights fault-localization weight per statement, e.g. FaultLocPrioratizedSampler.targetWeights() */
+    public BestFirstPrioritizer(Map<StatementId, Double> flWeights) {
+        this.flWeights = Map.copyOf(Objects.requireNonNull(flWeights));
+        this.maxWeight = this.flWeights.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+    }
+
+    @Override
+    public int[] order(List<Patch> patches, List<EvaluatedCandidate> parents) {
+        Map<StatementId, Double> parentRank = parentRanks(parents);
+        double[] score = new double[patches.size()];
+        List<Integer> order = new ArrayList<>(patches.size());
+        for (int i = 0; i < patches.size(); i++) {
+            score[i] = score(patches.get(i), parentRank);
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble((Integer i) -> score[i]).reversed());
+        return order.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private double score(Patch patch, Map<StatementId, Double> parentRank) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (EditOp op : patch.edits()) {
+            StatementId target = target(op);
+            Double weight = flWeights.get(target);
+            double s = (weight != null ? 2.0 : 0.0)
+                    + (weight != null && maxWeight > 0 ? weight / maxWeight : 0.0)
+                    + parentRank.getOrDefault(target, 0.0);
+            best = Math.max(best, s);
+        }
+        return best;
+    }
+
+    /** Per edited statement, the best fitness percentile (0 worst, 1 best) of a parent editing it. */
+    private static Map<StatementId, Double> parentRanks(List<EvaluatedCandidate> parents) {
+        Map<StatementId, Double> out = new HashMap<>();
+        if (parents.size() < 2) return out;
+        double[] sorted = parents.stream().mapToDouble(EvaluatedCandidate::fitness).sorted().toArray();
+        for (EvaluatedCandidate p : parents) {
+            int below = lowerBound(sorted, p.fitness());
+            double rank = (double) below / (sorted.length - 1);
+            for (EditOp op : p.patch().edits()) {
+                out.merge(target(op), rank, Math::max);
+            }
+        }
+        return out;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static StatementId target(EditOp op) {
+        return op instanceof DeleteOp d ? d.target() : ((ReplaceOp) op).target();
+    }
+}
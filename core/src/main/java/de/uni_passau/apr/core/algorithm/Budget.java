@@ -0,0 +1,27 @@
+package de.uni_passau.apr.core.algorithm;
+
+import java.time.Duration;
+
+/**
+ * Resource limits of one repair run. Null durations and a zero evaluation count mean unlimited.
+ *
+ * @param wallClock      time from the start of the run after which it is stopped
+ * @param maxEvaluations number of candidate evaluations after which no new one is started
+ * @param cpuTime        CPU time of this JVM plus the test processes it started
+ */
+public record Budget(Duration wallClock, int maxEvaluations, Duration cpuTime) {
+
+    public static final Budget UNLIMITED = new Budget(null, 0, null);
+
+    public Budget {
+        if (wallClock != null && (wallClock.isNegative() || wallClock.isZero())) {
+            throw new IllegalArgumentException("wallClock must be a positive duration");
+        }
+        if (maxEvaluations < 0) {
+            throw new IllegalArgumentException("maxEvaluations must be >= 0");
+        }
+        if (cpuTime != null && (cpuTime.isNegative() || cpuTime.isZero())) {
+            throw new IllegalArgumentException("cpuTime must be a positive duration");
+        }
+    }
+}
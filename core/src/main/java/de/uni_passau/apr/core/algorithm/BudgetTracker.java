@@ -0,0 +1,123 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Enforces a Budget for one run. The wall-clock deadline and the CPU budget cancel the
+ * token, which aborts in-flight test runs; the evaluation limit only prevents new ones.
+ * The CPU budget is checked after every evaluation and polled by the watchdog, which also
+ * counts test processes still running, so a long test run cannot overshoot it by much.
+ * Jobs already sent to remote workers are not recalled, only no longer waited for.
+ * Thread safe, so the islands of an island-model run can share one tracker.
+ */
+final class BudgetTracker implements AutoCloseable {
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "apr-budget-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static final long CPU_POLL_MILLIS = 500;
+
+    private final Budget budget;
+    private final CancellationToken token = new CancellationToken();
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private final AtomicLong testCpuMillis = new AtomicLong();
+    private final AtomicReference<StopReason> reason = new AtomicReference<>();
+    private final long ownCpuAtStart;
+    private final ScheduledFuture<?> deadline;
+    private final LongSupplier runningCpuMillis;
+    private final ScheduledFuture<?> cpuPoll;
+
+    BudgetTracker(Budget budget) {
+        this(budget, BudgetTracker::childCpuMillis, CPU_POLL_MILLIS);
+    }
+
+    /**
+     * @param runningCpuMillis CPU time of the test processes still running, not yet reported to recordEvaluation
+     * @param pollMillis       how often the watchdog checks the CPU budget
+     */
+    BudgetTracker(Budget budget, LongSupplier runningCpuMillis, long pollMillis) {
+        this.budget = Objects.requireNonNull(budget, "budget");
+        this.runningCpuMillis = Objects.requireNonNull(runningCpuMillis, "runningCpuMillis");
+        this.ownCpuAtStart = ownCpuMillis();
+        this.deadline = budget.wallClock() == null ? null
+                : WATCHDOG.schedule(() -> stop(StopReason.WALL_CLOCK),
+                budget.wallClock().toMillis(), TimeUnit.MILLISECONDS);
+        this.cpuPoll = budget.cpuTime() == null ? null
+                : WATCHDOG.scheduleWithFixedDelay(this::pollCpu, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    CancellationToken token() {
+        return token;
+    }
+
+    int evaluations() {
+        return evaluations.get();
+    }
+
+    /** Count a finished evaluation and the CPU time its test run reported. */
+    void recordEvaluation(long cpuMillis) {
+        int n = evaluations.incrementAndGet();
+        testCpuMillis.addAndGet(Math.max(0, cpuMillis));
+        if (budget.maxEvaluations() > 0 && n >= budget.maxEvaluations()) {
+            reason.compareAndSet(null, StopReason.MAX_EVALUATIONS);
+        }
+        if (budget.cpuTime() != null && cpuMillis() >= budget.cpuTime().toMillis()) {
+            stop(StopReason.CPU_BUDGET);
+        }
+    }
+
+    /** Why the run has to stop, or null while it is within budget. */
+    StopReason stopReason() {
+        return reason.get();
+    }
+
+    /** CPU time used so far by this JVM and the test processes. */
+    long cpuMillis() {
+        return ownCpuMillis() - ownCpuAtStart + testCpuMillis.get();
+    }
+
+    /** End of the run: evaluations still in flight (parallel jobs) are aborted as well. */
+    @Override
+    public void close() {
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+        if (cpuPoll != null) {
+            cpuPoll.cancel(false);
+        }
+        token.cancel();
+    }
+
+    private void stop(StopReason r) {
+        reason.compareAndSet(null, r);
+        token.cancel();
+    }
+
+    private void pollCpu() {
+        if (cpuMillis() + runningCpuMillis.getAsLong() >= budget.cpuTime().toMillis()) {
+            stop(StopReason.CPU_BUDGET);
+        }
+    }
+
+    // test processes report their CPU time when they end, until then it is only visible here
+    private static long childCpuMillis() {
+        return ProcessHandle.current().descendants()
+                .mapToLong(h -> h.info().totalCpuDuration().map(Duration::toMillis).orElse(0L))
+                .sum();
+    }
+
+    private static long ownCpuMillis() {
+        return ProcessHandle.current().info().totalCpuDuration().map(Duration::toMillis).orElse(0L);
+    }
+}
@@ -0,0 +1,31 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.patch.models.Patch;
+
+import java.util.List;
+
+/**
+ * Order in which the candidates of one batch (initial population or a generation's
+ * children) are evaluated. The run stops at the first repair, so trying likely repairs
+ * first shortens the time to repair; the population itself keeps slot order and every
+ * candidate is still scored, so selection does not change.
+ */
+@FunctionalInterface
+public interface CandidatePrioritizer {
+
+    /**
+     * @param patches the batch, in slot order
+     * @param parents the evaluated population the batch was bred from, empty for the initial population
+     * @return a permutation of 0..patches.size()-1, the slot to evaluate first at index 0
+     */
+    int[] order(List<Patch> patches, List<EvaluatedCandidate> parents);
+
+    /** Slot order, as produced. */
+    static CandidatePrioritizer slotOrder() {
+        return (patches, parents) -> {
+            int[] order = new int[patches.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            return order;
+        };
+    }
+}
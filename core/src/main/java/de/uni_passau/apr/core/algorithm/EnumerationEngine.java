@@ -0,0 +1,320 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.benchmark.BenchmarkFingerprint;
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.RunCheckpoint;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.patch.models.DeleteOp;
+import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.patch.models.ReplaceOp;
+import de.uni_passau.apr.core.patch.models.StatementId;
+import de.uni_passau.apr.core.patch.operators.PatchApplier;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestCatalog;
+import de.uni_passau.apr.core.testrunner.TestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Exhaustive single-edit search for small programs:
+ * -list every DeleteOp and type-compatible ReplaceOp over the fault-localized targets
+ * -rank them by fault-localization weight times a donor prior
+ * -evaluate best-first, runConfig.jobs() at a time, skipping patches that produce an already seen source
+ * -stop at the first repair in rank order, when the list is exhausted or the budget runs out
+ * Only the budget, jobs and checkpoint settings of the RunConfig apply; a checkpoint holds the
+ * position in the ranked list, so --resume continues from there.
+ */
+public final class EnumerationEngine implements RepairAlgorithm {
+
+    /** Relative prior that an edit of target fixes the bug; donor is null for a delete. */
+    @FunctionalInterface
+    public interface DonorPrior {
+        double weight(StatementId target, StatementId donor);
+
+        /**
+         * Fix ingredients tend to sit close to the fault: 1 / (1 + line distance).
+         * A delete counts as much as a donor nine lines away, about the 10% delete share
+         * the GenProg initializer uses.
+         */
+        static DonorPrior proximity() {
+            return (target, donor) -> donor == null
+                    ? 0.1
+                    : 1.0 / (1 + Math.abs(donor.beginLine() - target.beginLine()));
+        }
+    }
+
+    /** One candidate of the ranked list. */
+    record RankedEdit(Patch patch, double score) { }
+
+    /**
+     * Outcome of the last run.
+     * @param skipped candidates not evaluated because their source was seen before or the patch did not apply
+     * @param fixRank 1-based rank of the repair in the ranked list, -1 if none was found
+     */
+    public record Stats(int candidates, int nextIndex, int evaluations, int skipped, int fixRank) { }
+
+    private final StatementCollector collector;
+    private final FaultLocPrioratizedSampler sampler;
+    private final Evaluator evaluator;
+    private final FitnessEvaluator fitnessEvaluator;
+    private final DonorPrior prior;
+    private final int startIndex;
+
+    private volatile Stats lastStats = new Stats(0, 0, 0, 0, -1);
+
+    /**
+     * @param startIndex rank to start at (0 = best ranked); a checkpoint found with --resume takes precedence
+     */
+    public EnumerationEngine(StatementCollector collector,
+                             FaultLocPrioratizedSampler sampler,
+                             Evaluator evaluator,
+                             FitnessEvaluator fitnessEvaluator,
+                             DonorPrior prior,
+                             int startIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("startIndex must be >= 0");
+        }
+        this.collector = Objects.requireNonNull(collector);
+        this.sampler = Objects.requireNonNull(sampler);
+        this.evaluator = Objects.requireNonNull(evaluator);
+        this.fitnessEvaluator = Objects.requireNonNull(fitnessEvaluator);
+        this.prior = Objects.requireNonNull(prior);
+        this.startIndex = startIndex;
+    }
+
+    public Stats lastStats() {
+        return lastStats;
+    }
+
+    @Override
+    public RepairResult run(LoadedBenchmark benchmark, RunConfig runConfig) {
+        Objects.requireNonNull(benchmark, "benchmark");
+        Objects.requireNonNull(runConfig, "runConfig");
+
+        BenchmarkConfig config = benchmark.config();
+        Path buggyFile = config.getBuggyProgramPath();
+        List<RankedEdit> ranked = rank();
+        TestCatalog catalog = EvolutionRun.discoverTests(config);
+        // kept apart from GenProg checkpoints of the same benchmark
+        CheckpointStore checkpoints = runConfig.checkpoints() == null ? null
+                : new CheckpointStore(runConfig.checkpoints().getDirectory().resolve("enumeration"));
+
+        int next = startIndex;
+        EvaluatedCandidate best = null;
+        RunCheckpoint resumeFrom = runConfig.resume() ? resumableCheckpoint(checkpoints, benchmark) : null;
+        if (resumeFrom != null) {
+            next = resumeFrom.generation();
+            best = resumeFrom.best() == null ? null : resumeFrom.best().toCandidate();
+        }
+        next = Math.min(next, ranked.size());
+        System.out.println("Starting EnumerationEngine on benchmark: " + config.getName() + " with "
+                + ranked.size() + " ranked single-edit candidates, starting at rank " + (next + 1) + ".");
+
+        // sources of the ranks already done, so a resumed run skips their duplicates too
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < next; i++) {
+            String src = sourceOf(buggyFile, ranked.get(i).patch());
+            if (src != null) seen.add(src);
+        }
+
+        int evaluations = 0;
+        int skipped = 0;
+        ExecutorService pool = EvolutionRun.evaluationPool(runConfig.jobs());
+        Deque<InFlight> window = new ArrayDeque<>();
+        int submitted = next;
+        try (BudgetTracker budget = new BudgetTracker(runConfig.budget())) {
+            while (true) {
+                // keep jobs evaluations running ahead of the rank being taken over
+                while (window.size() < runConfig.jobs() && submitted < ranked.size() && budget.stopReason() == null) {
+                    int rank = submitted++;
+                    String src = sourceOf(buggyFile, ranked.get(rank).patch());
+                    if (src == null || !seen.add(src)) {
+                        window.addLast(new InFlight(rank, null, null));
+                        continue;
+                    }
+                    window.addLast(new InFlight(rank, src, submit(pool, config, src, budget)));
+                }
+                if (window.isEmpty()) break;
+
+                InFlight head = window.removeFirst();
+                if (head.source() == null) {
+                    skipped++;
+                    next = head.rank() + 1;
+                    continue;
+                }
+                EvaluationResult eval = await(head.result());
+                // a test run killed half way tells nothing about the patch
+                if (eval == null || budget.token().isCancelled()) break;
+
+                evaluations++;
+                TestResult tr = eval.getTestResult();
+                budget.recordEvaluation(tr == null ? 0 : tr.getCpuMillis());
+                EvaluatedCandidate cand = new EvaluatedCandidate(
+                        ranked.get(head.rank()).patch(), fitnessEvaluator.computeFitness(eval, catalog), eval);
+                next = head.rank() + 1;
+                if (best == null || cand.fitness() > best.fitness()) {
+                    best = cand;
+                }
+
+                if (isSuccessful(eval)) {
+                    cancelAll(window);
+                    lastStats = new Stats(ranked.size(), next, evaluations, skipped, head.rank() + 1);
+                    System.out.println("Repair found at rank " + (head.rank() + 1) + " of " + ranked.size()
+                            + " after " + evaluations + " evaluations (" + skipped + " skipped as duplicates or not applicable).");
+                    delete(checkpoints, config.getName());
+                    return new RepairResult(head.source(), eval, true);
+                }
+                save(checkpoints, benchmark, next, best);
+            }
+            cancelAll(window);
+
+            lastStats = new Stats(ranked.size(), next, evaluations, skipped, -1);
+            StopReason reason = budget.stopReason();
+            if (reason == null) {
+                reason = StopReason.EXHAUSTED;
+                delete(checkpoints, config.getName());
+            }
+            System.out.println("Enumeration stopped (" + reason + ") at rank " + next + " of " + ranked.size()
+                    + " after " + evaluations + " evaluations (" + skipped + " skipped as duplicates or not applicable).");
+            return bestSoFar(buggyFile, best, reason);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /** Every single-edit candidate over the fault-localized targets, best ranked first. */
+    List<RankedEdit> rank() {
+        List<RankedEdit> out = new ArrayList<>();
+        List<StatementId> all = collector.allStatementIds();
+        for (Map.Entry<StatementId, Double> e : sampler.targetWeights().entrySet()) {
+            StatementId target = e.getKey();
+            double weight = e.getValue();
+            out.add(new RankedEdit(new Patch(List.of(new DeleteOp(target))), weight * prior.weight(target, null)));
+
+            Class<?> targetType = collector.getStatement(target).getClass();
+            for (StatementId donor : all) {
+                if (donor.equals(target) || !collector.getStatement(donor).getClass().equals(targetType)) continue;
+                out.add(new RankedEdit(new Patch(List.of(new ReplaceOp(target, donor))), weight * prior.weight(target, donor)));
+            }
+        }
+        // stable, so equal scores keep fault-localization then source order
+        out.sort(Comparator.comparingDouble(RankedEdit::score).reversed());
+        return out;
+    }
+
+    //-------------Helpers----------------
+
+    private record InFlight(int rank, String source, Future<EvaluationResult> result) { }
+
+    private Future<EvaluationResult> submit(ExecutorService pool, BenchmarkConfig config, String src, BudgetTracker budget) {
+        Callable<EvaluationResult> task = () -> {
+            try {
+                return evaluator.evaluate(config, src, budget.token());
+            } catch (CancellationException e) {
+                return null;
+            }
+        };
+        if (pool != null) {
+            return pool.submit(task);
+        }
+        FutureTask<EvaluationResult> inline = new FutureTask<>(task);
+        inline.run();
+        return inline;
+    }
+
+    private static EvaluationResult await(Future<EvaluationResult> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Enumeration interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Evaluation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void cancelAll(Deque<InFlight> window) {
+        for (InFlight f : window) {
+            if (f.result() != null) f.result().cancel(false);
+        }
+        window.clear();
+    }
+
+    /** Patched source, null if the patch cannot be applied. */
+    private static String sourceOf(Path buggyFile, Patch patch) {
+        try {
+            return PatchApplier.apply(buggyFile, patch);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean isSuccessful(EvaluationResult eval) {
+        TestResult tr = eval.getTestResult();
+        return tr != null && tr.isAllPassed() && !tr.isTimedOut();
+    }
+
+    private static RepairResult bestSoFar(Path buggyFile, EvaluatedCandidate best, StopReason reason) {
+        if (best == null || best.evaluation() == null) {
+            return new RepairResult("", new EvaluationResult(), false, reason);
+        }
+        String src = sourceOf(buggyFile, best.patch());
+        return new RepairResult(src == null ? "" : src, best.evaluation(), false, reason);
+    }
+
+    //-------------Checkpoints----------------
+
+    private static RunCheckpoint resumableCheckpoint(CheckpointStore checkpoints, LoadedBenchmark benchmark) {
+        String name = benchmark.config().getName();
+        try {
+            Optional<RunCheckpoint> loaded = checkpoints.load(name);
+            if (loaded.isEmpty()) {
+                System.out.println("No enumeration checkpoint found for " + name + ", starting at the configured rank.");
+                return null;
+            }
+            if (!loaded.get().fingerprint().equals(BenchmarkFingerprint.of(benchmark.config()))) {
+                System.err.println("Warning: checkpoint for " + name + " was taken on different benchmark content, starting over.");
+                return null;
+            }
+            System.out.println("Resuming " + name + " from enumeration checkpoint at rank " + (loaded.get().generation() + 1) + ".");
+            return loaded.get();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: cannot read checkpoint for " + name + ", starting over: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void save(CheckpointStore checkpoints, LoadedBenchmark benchmark, int next, EvaluatedCandidate best) {
+        if (checkpoints == null) return;
+        RunCheckpoint.CandidateState b = best == null ? null : RunCheckpoint.CandidateState.of(best);
+        RunCheckpoint checkpoint = new RunCheckpoint(RunCheckpoint.CURRENT_VERSION, benchmark.config().getName(),
+                BenchmarkFingerprint.of(benchmark.config()), 0L, 0L, next,
+                b == null ? List.of() : List.of(b), b);
+        try {
+            checkpoints.save(checkpoint);
+        } catch (IOException e) {
+            // losing a checkpoint must not lose the run
+            System.err.println("Warning: failed to write enumeration checkpoint at rank " + next + ": " + e.getMessage());
+        }
+    }
+
+    private static void delete(CheckpointStore checkpoints, String name) {
+        if (checkpoints == null) return;
+        try {
+            checkpoints.delete(name);
+        } catch (IOException e) {
+            System.err.println("Warning: failed to remove checkpoint: " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,12 @@ package de.uni_passau.apr.core.algorithm;
 
 import de.uni_passau.apr.core.evaluator.EvaluationResult;
 import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.testrunner.OutputLog;
+import de.uni_passau.apr.core.testrunner.SpilledTestResult;
+import de.uni_passau.apr.core.testrunner.TestCatalog;
+import de.uni_passau.apr.core.testrunner.TestResult;
+
+import java.util.List;
 
 /**
  * Class to hold evaluated candidate
@@ -9,4 +15,45 @@ import de.uni_passau.apr.core.patch.models.Patch;
  * - its fitness (higher is better)
  * - the full evaluation result
  */
-public record EvaluatedCandidate(Patch patch, double fitness, EvaluationResult evaluation) { }
+public record EvaluatedCandidate(Patch patch, double fitness, EvaluationResult evaluation) {
+
+    /**
+     * Same candidate with its test result spilled (see SpilledTestResult): only counts, flags
+     * and the failed tests' bitset stay in memory, the output is read back from log when asked for.
+     */
+    public EvaluatedCandidate compact(OutputLog log, TestCatalog catalog) {
+        if (evaluation == null) return this;
+        TestResult tr = evaluation.getTestResult();
+        TestResult spilled = SpilledTestResult.of(tr, log, catalog);
+        if (spilled == tr) return this;
+        return new EvaluatedCandidate(patch, fitness,
+                new EvaluationResult(spilled, evaluation.getWorkspaceDir(), evaluation.isWorkSpaceKept()));
+    }
+
+    /**
+     * Same candidate without the passed and errored test ids. They are only read to score fitness
+     * and to build the outcome bitsets when spilling; a result kept in memory needs no more than
+     * the failed ids. The evaluator's TestResult may be shared (caches, inherited evaluations), so
+     * the ids are dropped from a copy.
+     */
+    public EvaluatedCandidate withoutOutcomeIds() {
+        if (evaluation == null || evaluation.getTestResult() == null) return this;
+        TestResult tr = evaluation.getTestResult();
+        if (isEmpty(tr.getPassedTests()) && isEmpty(tr.getErroredTests())) return this;
+        TestResult copy = new TestResult(tr.getExitCode(), tr.getOutput(), tr.isAllPassed(), tr.isTimedOut());
+        copy.setTestsRun(tr.getTestsRun());
+        copy.setFailures(tr.getFailures());
+        copy.setErrors(tr.getErrors());
+        copy.setSkipped(tr.getSkipped());
+        copy.setCpuMillis(tr.getCpuMillis());
+        copy.setFailedTests(tr.getFailedTests());
+        copy.setPassedTests(List.of());
+        copy.setErroredTests(List.of());
+        return new EvaluatedCandidate(patch, fitness,
+                new EvaluationResult(copy, evaluation.getWorkspaceDir(), evaluation.isWorkSpaceKept()));
+    }
+
+    private static boolean isEmpty(List<String> ids) {
+        return ids == null || ids.isEmpty();
+    }
+}
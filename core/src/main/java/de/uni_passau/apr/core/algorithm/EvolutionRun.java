@@ -0,0 +1,832 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.benchmark.BenchmarkFingerprint;
+import de.uni_passau.apr.core.checkpoint.RunCheckpoint;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.models.*;
+import de.uni_passau.apr.core.patch.operators.PatchApplier;
+import de.uni_passau.apr.core.patch.utils.PatchUtils;
+import de.uni_passau.apr.core.random.RngStreams;
+import de.uni_passau.apr.core.selection.FingerprintRegistry;
+import de.uni_passau.apr.core.selection.NextGenerationProducer;
+import de.uni_passau.apr.core.selection.NextGenerationProducerFactory;
+import de.uni_passau.apr.core.selection.PopulationStore;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+import de.uni_passau.apr.core.testrunner.OutputLog;
+import de.uni_passau.apr.core.testrunner.TestCatalog;
+import de.uni_passau.apr.core.testrunner.TestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * State of one GenProg population, advanced one generation at a time.
+ * GenProgEngine drives a single run to completion; the island model
+ * drives several of them side by side and exchanges migrants in between.
+ * With RNG streams the individuals are keyed by (generation, slot) instead of drawn
+ * from the shared generator; with an evaluation pool the candidates of a generation
+ * are evaluated in parallel but always taken over in the prioritizer's order, so neither
+ * changes which population or repair a seed leads to. The population itself is kept in
+ * slot order whatever order the candidates were evaluated in.
+ */
+final class EvolutionRun {
+
+    private final GenProgEngine engine;
+    private final BenchmarkConfig config;
+    private final Path buggyFile;
+    private final Random rand;
+    private final RngStreams streams;
+    private final BudgetTracker budget;
+    private final int eliteCount;
+    private final ExecutorService evaluationPool;
+    private ForkJoinPool breedingPool;
+    private final BooleanSupplier stopRequested;
+    private final String label;
+
+    private List<EvaluatedCandidate> population = new ArrayList<>();
+    private EvaluatedCandidate bestSoFar;
+    private int generation = 0;
+    // set from pool threads as well
+    private volatile boolean stopped = false;
+    private int evaluationsSaved = 0;
+    // every patch evaluated by local search steps, so no neighbour is run twice
+    private final Map<Patch, EvaluatedCandidate> localArchive = new HashMap<>();
+    // children the surrogate skipped; their placeholder fitness is never inherited
+    private final Set<Patch> surrogateSkipped = new HashSet<>();
+    // how often each statement was a target in a population so far, restarts boost the rare ones
+    private final Map<StatementId, Integer> targetCounts = new HashMap<>();
+    // fittest unique candidates seen at restarts, they survive every later restart
+    private final List<EvaluatedCandidate> restartArchive = new ArrayList<>();
+    // fittest distinct evaluated candidates of the whole run, best first, for the patch archive
+    private final List<EvaluatedCandidate> hallOfFame = new ArrayList<>();
+    private int hallOfFameSize = 0;
+    // selection view of the population, refilled every generation; the producer stays bound to it
+    private final PopulationStore selectionPop = new PopulationStore();
+    private NextGenerationProducer<Patch> producer;
+    private int producerChildCount;
+    // every patch the run evaluated, children are bred away from them; null if the engine keeps none
+    private final FingerprintRegistry explored;
+    // test output of evaluated candidates and the ids of their failed tests; null keeps both in memory
+    private final OutputLog outputLog;
+    private final TestCatalog testCatalog;
+
+    /**
+     * Outcome of one local-search step.
+     * @param repair      a successful repair, or null
+     * @param improvement the first neighbour fitter than the starting point, or null at a local optimum
+     */
+    record LocalStep(RepairResult repair, EvaluatedCandidate improvement) { }
+
+    /**
+     * @param streams        per-individual RNG streams, null to draw everything from rand
+     * @param evaluationPool threads evaluating candidates in parallel, null to evaluate one by one
+     */
+    EvolutionRun(GenProgEngine engine,
+                 LoadedBenchmark benchmark,
+                 Random rand,
+                 RngStreams streams,
+                 BudgetTracker budget,
+                 int eliteCount,
+                 ExecutorService evaluationPool,
+                 BooleanSupplier stopRequested,
+                 String label) {
+        this.engine = Objects.requireNonNull(engine);
+        this.config = Objects.requireNonNull(benchmark).config();
+        this.buggyFile = config.getBuggyProgramPath();
+        this.rand = Objects.requireNonNull(rand);
+        this.streams = streams;
+        this.budget = Objects.requireNonNull(budget);
+        if (eliteCount < 0) {
+            throw new IllegalArgumentException("eliteCount must be >= 0");
+        }
+        this.eliteCount = eliteCount;
+        this.evaluationPool = evaluationPool;
+        this.stopRequested = Objects.requireNonNull(stopRequested);
+        this.label = label == null ? "" : label;
+        this.explored = engine.exploredCapacity() > 0 ? new FingerprintRegistry(engine.exploredCapacity(), engine.mutator().codec())
+                : null;
+        this.outputLog = engine.spillDir() != null ? openOutputLog(engine.spillDir()) : null;
+        this.testCatalog = discoverTests(config);
+    }
+
+    /**
+     * Build and evaluate the initial population.
+     * @return a successful repair if one was found, otherwise null
+     */
+    RepairResult initialize() {
+        return initialize(List.of(), Map.of());
+    }
+
+    /**
+     * Build and evaluate the initial population, with the seeds in its first slots.
+     * @param known evaluations that are taken over instead of running the tests again
+     * @return a successful repair if one was found, otherwise null
+     */
+    RepairResult initialize(List<Patch> seeds, Map<Patch, EvaluatedCandidate> known) {
+        stopped = false;
+        List<Patch> patches = streams == null
+                ? engine.populationInitializer().initialize(seeds)
+                : engine.populationInitializer().initialize(streams::forInitialSlot, seeds);
+        population = new ArrayList<>(patches.size());
+        System.out.println(label + "Initialized population with " + patches.size() + " patches"
+                + (seeds.isEmpty() ? "." : ", " + Math.min(seeds.size(), patches.size()) + " of them from the archive."));
+
+        int[] order = engine.prioritizer().order(patches, List.of());
+        EvaluatedCandidate[] evaluated = new EvaluatedCandidate[patches.size()];
+        Evaluations evaluations = new Evaluations(patches, known, order, this::successful);
+        for (int idx : order) {
+            EvaluatedCandidate cand = evaluations.get(idx);
+            if (cand == null) {
+                addInSlotOrder(population, evaluated);
+                return null;
+            }
+            System.out.println(label + "Evaluated initial population candidate " + idx + " with fitness: " + cand.fitness());
+            evaluated[idx] = cand;
+
+            remember(cand);
+
+            RepairResult success = successResultIfAny(cand);
+            if (success != null) {
+                System.out.println(label + "Found successful repair in initial population.");
+                return success;
+            }
+        }
+        addInSlotOrder(population, evaluated);
+        countTargets(population);
+        double median = medianFitness(population);
+        if (engine.surrogate() != null) {
+            for (EvaluatedCandidate cand : population) {
+                engine.surrogate().observe(cand.patch(), isSurrogatePositive(cand, median));
+            }
+        }
+        for (EvaluatedCandidate cand : population) {
+            credit(cand, median);
+        }
+        forgetUncredited();
+        System.out.println(label + "Initial population evaluation complete. Best fitness so far: " +
+                (bestSoFar != null ? bestSoFar.fitness() : "N/A") + operatorReport());
+        return null;
+    }
+
+    /**
+     * Run one generation (selection + crossover + mutation + evaluation).
+     * The eliteCount fittest parents survive as they are; children identical to
+     * an evaluated parent take over its evaluation instead of being run again.
+     * @return a successful repair if one was found, otherwise null
+     */
+    RepairResult step() {
+        stopped = false;
+        generation++;
+        int gen = generation;
+        System.out.println(label + "Generation " + gen + " started. Best fitness so far: " + bestSoFar.fitness());
+
+        // Refill the selection population (patch handle + fitness arrays)
+        selectionPop.clear();
+        for (EvaluatedCandidate c : population) {
+            selectionPop.add(c.patch(), c.fitness());
+        }
+        engine.selection().prepare(selectionPop);
+        System.out.println(label + "Selection population prepared with " + selectionPop.size() + " individuals.");
+
+        // at least one child per generation, otherwise nothing ever changes
+        List<EvaluatedCandidate> elites = top(Math.min(eliteCount, population.size() - 1));
+
+        // Produce next generation patches (selection + crossover + mutation)
+        int childCount = population.size() - elites.size();
+        if (producer == null || producerChildCount != childCount) {
+            producer = NextGenerationProducerFactory.producer(selectionPop, childCount, engine.selection(), rand,
+                    engine.crossover(), engine.mutator());
+            if (explored != null) producer = producer.withExplored(explored);
+            producerChildCount = childCount;
+        }
+        List<Patch> childrenPatches = streams == null
+                ? producer.produce(selectionPop.patches())
+                : producer.produce(selectionPop.patches(), slot -> streams.forChild(gen, slot), breedingPool);
+        System.out.println(label + "Produced " + childrenPatches.size() + " children patches for generation " + gen + ".");
+
+        Map<Patch, EvaluatedCandidate> evaluatedParents = new HashMap<>();
+        for (EvaluatedCandidate parent : population) {
+            if (!surrogateSkipped.contains(parent.patch())) {
+                evaluatedParents.putIfAbsent(parent.patch(), parent);
+            }
+        }
+        double parentMedian = medianFitness(population);
+        Set<Patch> skippedNow = skipHopeless(childrenPatches, evaluatedParents, gen);
+
+        List<EvaluatedCandidate> childPopulation = new ArrayList<>(elites.size() + childrenPatches.size());
+        childPopulation.addAll(elites);
+
+        int compiledCandidates = 0;
+        int compiledFailures = 0;
+        int inherited = 0;
+        int skipped = 0;
+        // Evaluate children
+        int[] order = engine.prioritizer().order(childrenPatches, population);
+        EvaluatedCandidate[] children = new EvaluatedCandidate[childrenPatches.size()];
+        Evaluations evaluations = new Evaluations(childrenPatches, evaluatedParents, order, this::successful);
+        for (int slot : order) {
+            EvaluatedCandidate child = evaluations.get(slot);
+            if (child == null) {
+                return null;
+            }
+            if (skippedNow.contains(child.patch())) {
+                skipped++;
+            } else if (evaluations.inherited(slot)) {
+                inherited++;
+            } else {
+                credit(child, parentMedian);
+                if (engine.surrogate() != null) {
+                    engine.surrogate().observe(child.patch(), isSurrogatePositive(child, parentMedian));
+                }
+            }
+            if (child.evaluation() != null) {
+                if (child.evaluation().getTestResult().getTestsRun() > 0) {
+                    compiledCandidates++;
+                } else if (child.evaluation().getTestResult().getExitCode() != 0) {
+                    compiledFailures++;
+                }
+            }
+
+            System.out.println(label + "Evaluated child candidate " + slot + " with fitness: " + child.fitness());
+            children[slot] = child;
+
+            remember(child);
+
+            RepairResult success = successResultIfAny(child);
+            if (success != null) {
+                return success;
+            }
+        }
+        addInSlotOrder(childPopulation, children);
+        int saved = elites.size() + inherited;
+        evaluationsSaved += saved;
+        System.out.println(label + "Generation " + gen + " evaluation complete. \nCompiled candidates: "
+                + compiledCandidates + ", \nCompile failures: " + compiledFailures +
+                ", \nEvaluations saved: " + saved + " (" + elites.size() + " elites, " + inherited
+                + " children identical to a parent)" +
+                (engine.surrogate() != null ? ", \nSkipped by surrogate: " + skipped + " (" + engine.surrogate().stats() + ")" : "") +
+                ". \nBest fitness so far: " + bestSoFar.fitness() + operatorReport());
+
+        forgetUncredited();
+        population = childPopulation;
+        countTargets(population);
+        surrogateSkipped.retainAll(new HashSet<>(population.stream().map(EvaluatedCandidate::patch).toList()));
+        return null;
+    }
+
+    /**
+     * One first-improvement (1+lambda) step around current: up to lambda single-move
+     * neighbours (change target, change donor, flip type in turn) are evaluated in parallel
+     * and the first one, in slot order, that is fitter than current is taken.
+     * Neighbours evaluated by an earlier step are not generated again.
+     */
+    LocalStep localStep(EvaluatedCandidate current, int lambda) {
+        stopped = false;
+        generation++;
+        int gen = generation;
+        for (EvaluatedCandidate c : population) {
+            localArchive.putIfAbsent(c.patch(), c);
+        }
+        localArchive.putIfAbsent(current.patch(), current);
+
+        SingleEditMutator.Move[] moves = SingleEditMutator.Move.values();
+        Set<Patch> fresh = new LinkedHashSet<>();
+        for (int slot = 0; slot < lambda; slot++) {
+            Random r = streams == null ? rand : streams.forChild(gen, slot).mutation();
+            SingleEditMutator.Move move = moves[slot % moves.length];
+            for (int attempt = 0; attempt < 5; attempt++) {
+                Patch n = engine.mutator().apply(current.patch(), move, r);
+                if (n != null && !localArchive.containsKey(n) && fresh.add(n)) break;
+            }
+        }
+        List<Patch> neighbours = new ArrayList<>(fresh);
+        System.out.println(label + "Local step " + gen + ": " + neighbours.size() + " new neighbours of a candidate with fitness "
+                + current.fitness() + ".");
+
+        Evaluations evaluations = new Evaluations(neighbours, Map.of(), CandidatePrioritizer.slotOrder().order(neighbours, List.of()),
+                n -> successful(n) || n.fitness() > current.fitness());
+        for (int slot = 0; slot < neighbours.size(); slot++) {
+            EvaluatedCandidate n = evaluations.get(slot);
+            if (n == null) {
+                return new LocalStep(null, null);
+            }
+            localArchive.put(n.patch(), n);
+            remember(n);
+
+            RepairResult success = successResultIfAny(n);
+            if (success != null) {
+                return new LocalStep(success, n);
+            }
+            if (n.fitness() > current.fitness()) {
+                System.out.println(label + "Local step " + gen + " moved to fitness " + n.fitness() + ".");
+                return new LocalStep(null, n);
+            }
+        }
+        return new LocalStep(null, null);
+    }
+
+    /**
+     * Restart a stagnating population: the archive (the fittest unique candidates of this and
+     * earlier restarts, at most archiveSize) survives with its evaluation, the other slots are
+     * re-seeded by the PopulationInitializer with rarely tried fault-localization targets
+     * boosted, and evaluated. Counts as a generation, like step().
+     * @return a successful repair if one of the fresh candidates is one, otherwise null
+     */
+    RepairResult restart(RestartPolicy policy) {
+        stopped = false;
+        generation++;
+        int gen = generation;
+
+        Map<Patch, EvaluatedCandidate> unique = new LinkedHashMap<>();
+        List<EvaluatedCandidate> pool = new ArrayList<>(restartArchive);
+        pool.addAll(population);
+        pool.sort(Comparator.comparingDouble(EvaluatedCandidate::fitness).reversed());
+        for (EvaluatedCandidate c : pool) {
+            if (unique.size() >= Math.min(policy.archiveSize(), population.size() - 1)) break;
+            if (c.evaluation() != null && !surrogateSkipped.contains(c.patch())) unique.putIfAbsent(c.patch(), c);
+        }
+        restartArchive.clear();
+        restartArchive.addAll(unique.values());
+
+        int fresh = population.size() - restartArchive.size();
+        List<Patch> patches = engine.populationInitializer().reseed(fresh,
+                streams == null ? slot -> rand : slot -> streams.stream(gen, slot, RngStreams.Purpose.INIT.ordinal()),
+                targetCounts, policy.boost(), unique.keySet());
+        System.out.println(label + "Restart at generation " + gen + ": kept " + restartArchive.size()
+                + " archived candidates, re-seeded " + patches.size() + ".");
+
+        double median = medianFitness(population);
+        List<EvaluatedCandidate> next = new ArrayList<>(restartArchive);
+        int[] order = engine.prioritizer().order(patches, List.of());
+        EvaluatedCandidate[] evaluated = new EvaluatedCandidate[patches.size()];
+        Evaluations evaluations = new Evaluations(patches, Map.of(), order, this::successful);
+        for (int slot : order) {
+            EvaluatedCandidate cand = evaluations.get(slot);
+            if (cand == null) {
+                return null;
+            }
+            evaluated[slot] = cand;
+            remember(cand);
+            credit(cand, median);
+
+            RepairResult success = successResultIfAny(cand);
+            if (success != null) {
+                return success;
+            }
+        }
+        addInSlotOrder(next, evaluated);
+        forgetUncredited();
+        population = next;
+        countTargets(population);
+        surrogateSkipped.clear();
+        return null;
+    }
+
+    /** Share of distinct patches in the population, 1 if every member is different. */
+    double diversity() {
+        if (population.isEmpty()) return 0.0;
+        return (double) population.stream().map(EvaluatedCandidate::patch).distinct().count() / population.size();
+    }
+
+    /** Best-so-far result once the run stops without a full repair. */
+    RepairResult finish(StopReason reason) {
+        // If everything failed apply/evaluate (or the budget ran out first), avoid NPE
+        if (population.isEmpty() || bestSoFar == null) {
+            return new RepairResult("", new EvaluationResult(), false, reason);
+        }
+
+        String bestCandidateSource;
+        try {
+            bestCandidateSource = PatchApplier.apply(buggyFile, bestSoFar.patch());
+        } catch (Exception ex) {
+            bestCandidateSource = "";
+        }
+        return new RepairResult(bestCandidateSource, bestSoFar.evaluation(), false, reason);
+    }
+
+    /** The k fittest members of the current population, best first. */
+    List<EvaluatedCandidate> top(int k) {
+        return population.stream()
+                .sorted(Comparator.comparingDouble(EvaluatedCandidate::fitness).reversed())
+                .limit(Math.max(0, k))
+                .toList();
+    }
+
+    /**
+     * Replace the weakest members of the population with already evaluated immigrants.
+     * Immigrants keep their fitness, so they are not evaluated again.
+     */
+    void acceptMigrants(List<EvaluatedCandidate> migrants) {
+        if (migrants == null || migrants.isEmpty() || population.isEmpty()) return;
+
+        population.sort(Comparator.comparingDouble(EvaluatedCandidate::fitness));
+        int n = Math.min(migrants.size(), population.size());
+        for (int i = 0; i < n; i++) {
+            EvaluatedCandidate m = migrants.get(i);
+            population.set(i, m);
+            remember(m);
+        }
+    }
+
+    /**
+     * Checkpoint of the state after the last completed generation.
+     * The caller supplies the RNG states and its restart counters, the run only shares the generator.
+     */
+    RunCheckpoint snapshot(long startRngState, long rngState, int stagnant, int restarts) {
+        List<RunCheckpoint.CandidateState> pop = new ArrayList<>(population.size());
+        for (EvaluatedCandidate c : population) {
+            pop.add(RunCheckpoint.CandidateState.of(c));
+        }
+        List<RunCheckpoint.CandidateState> archive = new ArrayList<>(restartArchive.size());
+        for (EvaluatedCandidate c : restartArchive) {
+            archive.add(RunCheckpoint.CandidateState.of(c));
+        }
+        Map<String, Integer> targets = new HashMap<>();
+        targetCounts.forEach((id, n) -> targets.put(PatchUtils.formatId(id), n));
+        return new RunCheckpoint(RunCheckpoint.CURRENT_VERSION, config.getName(), BenchmarkFingerprint.of(config),
+                startRngState, rngState, generation, pop,
+                bestSoFar == null ? null : RunCheckpoint.CandidateState.of(bestSoFar),
+                new RunCheckpoint.RestartState(stagnant, restarts, archive, targets),
+                RunCheckpoint.OperatorState.of(engine.mutator().scheduler(), engine.populationInitializer().scheduler()),
+                targetFeedback(), surrogateState());
+    }
+
+    private Map<String, FaultLocPrioratizedSampler.Feedback> targetFeedback() {
+        if (engine.targetFeedback() == null) return null;
+        Map<String, FaultLocPrioratizedSampler.Feedback> out = new HashMap<>();
+        engine.targetFeedback().feedback().forEach((id, f) -> out.put(PatchUtils.formatId(id), f));
+        return out;
+    }
+
+    private RunCheckpoint.SurrogateState surrogateState() {
+        SurrogateFilter surrogate = engine.surrogate();
+        if (surrogate == null) return null;
+        List<Double> weights = new ArrayList<>();
+        for (double w : surrogate.weights()) weights.add(w);
+        List<String> skipped = population.stream().map(EvaluatedCandidate::patch)
+                .filter(surrogateSkipped::contains).distinct().map(PatchUtils::encode).toList();
+        return new RunCheckpoint.SurrogateState(weights, surrogate.stats(), skipped);
+    }
+
+    /** Continue from a checkpoint instead of initialize(). RNG state is restored by the caller. */
+    void restore(RunCheckpoint checkpoint) {
+        List<EvaluatedCandidate> pop = new ArrayList<>(checkpoint.population().size());
+        for (RunCheckpoint.CandidateState c : checkpoint.population()) {
+            pop.add(c.toCandidate());
+        }
+        population = pop;
+        bestSoFar = checkpoint.best() == null ? null : checkpoint.best().toCandidate();
+        surrogateSkipped.clear();
+        RunCheckpoint.SurrogateState surrogate = checkpoint.surrogate();
+        if (surrogate != null && engine.surrogate() != null) {
+            double[] weights = surrogate.weights().stream().mapToDouble(Double::doubleValue).toArray();
+            engine.surrogate().restore(weights, surrogate.stats());
+            surrogate.skipped().forEach(p -> surrogateSkipped.add(PatchUtils.decode(p)));
+        }
+        // before remember(), which leaves skipped patches out of the explored set
+        pop.forEach(this::remember);
+        generation = checkpoint.generation();
+        restartArchive.clear();
+        targetCounts.clear();
+        if (checkpoint.restart() != null) {
+            checkpoint.restart().archive().forEach(c -> restartArchive.add(c.toCandidate()));
+            checkpoint.restart().targetCounts().forEach((id, n) -> targetCounts.put(PatchUtils.parseId(id), n));
+        }
+        RunCheckpoint.OperatorState operators = checkpoint.operators();
+        if (operators != null && operators.moves() != null && engine.mutator().scheduler() != null) {
+            engine.mutator().scheduler().restore(operators.moves());
+        }
+        if (operators != null && operators.editKinds() != null && engine.populationInitializer().scheduler() != null) {
+            engine.populationInitializer().scheduler().restore(operators.editKinds());
+        }
+        if (checkpoint.targetFeedback() != null && engine.targetFeedback() != null) {
+            Map<StatementId, FaultLocPrioratizedSampler.Feedback> feedback = new HashMap<>();
+            checkpoint.targetFeedback().forEach((id, f) -> feedback.put(PatchUtils.parseId(id), f));
+            engine.targetFeedback().restore(feedback);
+        }
+        System.out.println(label + "Restored population of " + population.size() + " patches at generation "
+                + generation + ". Best fitness so far: " + (bestSoFar != null ? bestSoFar.fitness() : "N/A"));
+    }
+
+    /** Breed the child slots of each generation in parallel on pool; only with RNG streams, null breeds one by one. */
+    void breedIn(ForkJoinPool pool) {
+        breedingPool = pool;
+    }
+
+    /** Keep the n fittest distinct evaluated candidates of the run, see best(). */
+    void trackBest(int n) {
+        hallOfFameSize = Math.max(0, n);
+    }
+
+    /** The fittest distinct evaluated candidates of the run so far, best first, at most trackBest(n). */
+    List<EvaluatedCandidate> best() {
+        return List.copyOf(hallOfFame);
+    }
+
+    boolean hasPopulation() {
+        return !population.isEmpty() && bestSoFar != null;
+    }
+
+    EvaluatedCandidate bestSoFar() {
+        return bestSoFar;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    /** Evaluations skipped so far because elites and children identical to a parent kept their result. */
+    int evaluationsSaved() {
+        return evaluationsSaved;
+    }
+
+    /** True if the last initialize() or step() was cut short by a stop request or the budget. */
+    boolean stopped() {
+        return stopped;
+    }
+
+    //-------------Helpers----------------
+
+    /**
+     * Daemon pool for evaluating jobs candidates at a time, null for jobs == 1.
+     * Owned by the engine, which shuts it down at the end of the run.
+     */
+    static ExecutorService evaluationPool(int jobs) {
+        if (jobs <= 1) return null;
+        return Executors.newFixedThreadPool(jobs, new ThreadFactory() {
+            private int next = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "apr-eval-" + next++);
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Pool for breeding the child slots of a generation on jobs threads, null for jobs == 1.
+     * Owned by the engine, which shuts it down at the end of the run.
+     */
+    static ForkJoinPool breedingPool(int jobs) {
+        return jobs <= 1 ? null : new ForkJoinPool(jobs);
+    }
+
+    /**
+     * The evaluations of one batch of patches, handed to the engine as a whole. Patches with a
+     * known evaluation keep it, the others are evaluated in the given order, jobs at a time with
+     * a pool. Once a candidate the caller stops at (see last) and every candidate before it in
+     * that order are there, the rest of the batch is cancelled; all of it is when the budget runs
+     * out or a stop is requested.
+     */
+    private final class Evaluations {
+        private final List<Patch> patches;
+        private final Map<Patch, EvaluatedCandidate> known;
+        private final Predicate<EvaluatedCandidate> last;
+        private final CancellationToken token = budget.token().child();
+        private final EvaluatedCandidate[] results;
+        // the evaluated slots in the given order, which of them are there, and the first that is not
+        private final int[] submitted;
+        private final boolean[] done;
+        private int firstMissing;
+        // position in submitted of the first candidate the caller stops at
+        private int cutoff;
+
+        Evaluations(List<Patch> patches, Map<Patch, EvaluatedCandidate> known, int[] order,
+                    Predicate<EvaluatedCandidate> last) {
+            this.patches = patches;
+            this.known = known;
+            this.last = last;
+            this.results = new EvaluatedCandidate[patches.size()];
+            List<Patch> batch = new ArrayList<>(patches.size());
+            int[] slots = new int[patches.size()];
+            for (int slot : order) {
+                EvaluatedCandidate k = known.get(patches.get(slot));
+                if (k == null) {
+                    slots[batch.size()] = slot;
+                    batch.add(patches.get(slot));
+                } else if (last.test(k)) {
+                    break;
+                }
+            }
+            this.submitted = Arrays.copyOf(slots, batch.size());
+            this.done = new boolean[batch.size()];
+            this.cutoff = batch.size();
+            if (batch.isEmpty()) return;
+            if (stopRequested.getAsBoolean() || budget.stopReason() != null) {
+                token.cancel();
+                return;
+            }
+            try {
+                engine.evaluateCandidates(buggyFile, config, batch, testCatalog, token, evaluationPool, this::completed);
+            } catch (CancellationException e) {
+                token.cancel();
+            }
+        }
+
+        boolean inherited(int slot) {
+            return known.containsKey(patches.get(slot));
+        }
+
+        /** Evaluation of the given slot; null if the run has to stop instead. */
+        EvaluatedCandidate get(int slot) {
+            EvaluatedCandidate k = known.get(patches.get(slot));
+            if (k != null) return k;
+            synchronized (this) {
+                if (results[slot] == null) stopped = true;
+                return results[slot];
+            }
+        }
+
+        private void completed(EvaluatedCandidate cand, int index) {
+            // a test run killed half way tells nothing about the patch
+            if (token.isCancelled()) return;
+            if (cand.evaluation() != null) {
+                TestResult tr = cand.evaluation().getTestResult();
+                budget.recordEvaluation(tr == null ? 0 : tr.getCpuMillis());
+            }
+            EvaluatedCandidate kept = outputLog != null ? cand.compact(outputLog, testCatalog) : cand.withoutOutcomeIds();
+            synchronized (this) {
+                results[submitted[index]] = kept;
+                done[index] = true;
+                if (last.test(kept)) cutoff = Math.min(cutoff, index);
+                while (firstMissing < done.length && done[firstMissing]) firstMissing++;
+                if (firstMissing > cutoff || stopRequested.getAsBoolean() || budget.stopReason() != null) {
+                    token.cancel();
+                }
+            }
+        }
+    }
+
+    // one catalog per benchmark, its tests indexed in source order before the first run
+    static TestCatalog discoverTests(BenchmarkConfig config) {
+        if (config.getTestSuite() == null) return new TestCatalog();
+        try {
+            return TestCatalog.discover(config.getTestSuite());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: could not discover the tests of " + config.getName() + ": " + e.getMessage());
+            return new TestCatalog();
+        }
+    }
+
+    private OutputLog openOutputLog(Path dir) {
+        try {
+            OutputLog log = OutputLog.createTemp(dir);
+            System.out.println(label + "Spilling test output to " + log.file() + ".");
+            return log;
+        } catch (IOException e) {
+            System.err.println("Warning: cannot spill test output to " + dir + " (" + e.getMessage()
+                    + "), keeping it in memory.");
+            return null;
+        }
+    }
+
+    /**
+     * Let the engine's surrogate pick children not worth evaluating and enter them into known
+     * with the weakest parent's fitness and no evaluation, so selection rarely picks them.
+     * @return the skipped patches
+     */
+    private Set<Patch> skipHopeless(List<Patch> children, Map<Patch, EvaluatedCandidate> known, int gen) {
+        SurrogateFilter surrogate = engine.surrogate();
+        if (surrogate == null) return Set.of();
+
+        List<Patch> fresh = children.stream().filter(p -> !known.containsKey(p)).distinct().toList();
+        Random r = streams == null ? rand : streams.stream(gen, 0, RngStreams.Purpose.SURROGATE.ordinal());
+        boolean[] skip = surrogate.skipped(fresh, r);
+        double weakest = population.stream().mapToDouble(EvaluatedCandidate::fitness).min().orElse(0.0);
+        Set<Patch> out = new HashSet<>();
+        for (int i = 0; i < fresh.size(); i++) {
+            if (skip[i]) {
+                out.add(fresh.get(i));
+                known.put(fresh.get(i), new EvaluatedCandidate(fresh.get(i), weakest, null));
+            }
+        }
+        surrogateSkipped.addAll(out);
+        return out;
+    }
+
+    /**
+     * Credit the operator that produced a freshly evaluated candidate and tell the target sampler
+     * how its targets did; the reward is OperatorScheduler.reward against the reference fitness.
+     */
+    private void credit(EvaluatedCandidate cand, double reference) {
+        boolean compiled = cand.evaluation() != null && cand.evaluation().getTestResult() != null
+                && cand.evaluation().getTestResult().getTestsRun() > 0;
+        double reward = OperatorScheduler.reward(compiled, cand.fitness(), reference);
+        if (engine.mutator().scheduler() != null) engine.mutator().scheduler().credit(cand.patch(), reward);
+        if (engine.populationInitializer().scheduler() != null) {
+            engine.populationInitializer().scheduler().credit(cand.patch(), reward);
+        }
+        if (engine.targetFeedback() != null) {
+            for (EditOp op : cand.patch().edits()) {
+                engine.targetFeedback().observe(targetOf(op), reward);
+            }
+        }
+    }
+
+    /** Records of patches bred but not evaluated (skipped, inherited, duplicates) never get a credit. */
+    private void forgetUncredited() {
+        if (engine.mutator().scheduler() != null) engine.mutator().scheduler().forgetUncredited();
+        if (engine.populationInitializer().scheduler() != null) engine.populationInitializer().scheduler().forgetUncredited();
+    }
+
+    /** Learned operator credits and target feedback for the generation log, empty without either. */
+    private String operatorReport() {
+        StringBuilder out = new StringBuilder();
+        if (engine.mutator().scheduler() != null) {
+            out.append(". \nMutation operators: ").append(engine.mutator().scheduler());
+        }
+        if (engine.populationInitializer().scheduler() != null) {
+            out.append(". \nInitial edit kinds: ").append(engine.populationInitializer().scheduler());
+        }
+        if (engine.targetFeedback() != null) {
+            out.append(". \nTarget feedback: ").append(engine.targetFeedback().feedbackSummary());
+        }
+        if (explored != null) {
+            out.append(". \nExplored patches: ").append(explored);
+        }
+        return out.toString();
+    }
+
+    /** Surrogate label: the candidate compiled and beat the median fitness of its parents. */
+    private static boolean isSurrogatePositive(EvaluatedCandidate cand, double median) {
+        if (cand.evaluation() == null || cand.evaluation().getTestResult() == null) return false;
+        return cand.evaluation().getTestResult().getTestsRun() > 0 && cand.fitness() > median;
+    }
+
+    private static double medianFitness(List<EvaluatedCandidate> pop) {
+        if (pop.isEmpty()) return 0.0;
+        double[] f = pop.stream().mapToDouble(EvaluatedCandidate::fitness).sorted().toArray();
+        return f.length % 2 == 1 ? f[f.length / 2] : (f[f.length / 2 - 1] + f[f.length / 2]) / 2.0;
+    }
+
+    private void countTargets(List<EvaluatedCandidate> pop) {
+        for (EvaluatedCandidate c : pop) {
+            for (EditOp op : c.patch().edits()) {
+                targetCounts.merge(targetOf(op), 1, Integer::sum);
+            }
+        }
+    }
+
+    private static StatementId targetOf(EditOp op) {
+        return op instanceof DeleteOp d ? d.target() : ((ReplaceOp) op).target();
+    }
+
+    /** Candidates evaluated so far, in slot order; slots not reached are left out. */
+    private static void addInSlotOrder(List<EvaluatedCandidate> into, EvaluatedCandidate[] bySlot) {
+        for (EvaluatedCandidate c : bySlot) {
+            if (c != null) into.add(c);
+        }
+    }
+
+    private boolean successful(EvaluatedCandidate cand) {
+        return cand != null && cand.evaluation() != null && engine.isSuccessful(cand.evaluation());
+    }
+
+    private RepairResult successResultIfAny(EvaluatedCandidate cand) {
+        if (!successful(cand)) return null;
+        try {
+            String src = PatchApplier.apply(buggyFile, cand.patch());
+            return new RepairResult(src, cand.evaluation(), true);
+        } catch (Exception e) {
+            return new RepairResult("", cand.evaluation(), true);
+        }
+    }
+
+    private void remember(EvaluatedCandidate cand) {
+        bestSoFar = updateBest(bestSoFar, cand);
+        // a patch the surrogate skipped was never run, breeding it again is fine
+        if (explored != null && cand != null && !surrogateSkipped.contains(cand.patch())) explored.record(cand.patch());
+        if (hallOfFameSize == 0 || cand == null || cand.evaluation() == null) return;
+        for (int i = 0; i < hallOfFame.size(); i++) {
+            if (hallOfFame.get(i).patch().equals(cand.patch())) {
+                if (hallOfFame.get(i).fitness() >= cand.fitness()) return;
+                hallOfFame.remove(i);
+                break;
+            }
+        }
+        int at = 0;
+        while (at < hallOfFame.size() && hallOfFame.get(at).fitness() >= cand.fitness()) at++;
+        if (at >= hallOfFameSize) return;
+        hallOfFame.add(at, cand);
+        if (hallOfFame.size() > hallOfFameSize) hallOfFame.remove(hallOfFame.size() - 1);
+    }
+
+    private static EvaluatedCandidate updateBest(EvaluatedCandidate bestSoFar, EvaluatedCandidate cand) {
+        if (cand == null) return bestSoFar;
+        if (bestSoFar == null) return cand;
+        return cand.fitness() > bestSoFar.fitness() ? cand : bestSoFar;
+    }
+
+}
@@ -1,27 +1,57 @@
 package de.uni_passau.apr.core.algorithm;
 
 import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.benchmark.BenchmarkFingerprint;
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.CheckpointableRandom;
+import de.uni_passau.apr.core.checkpoint.PatchArchive;
+import de.uni_passau.apr.core.checkpoint.RunCheckpoint;
 import de.uni_passau.apr.core.crossover.SingleEditCrossover;
 import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
 import de.uni_passau.apr.core.fitness.FitnessEvaluator;
 import de.uni_passau.apr.core.mutation.SingleEditMutator;
 import de.uni_passau.apr.core.patch.operators.PatchApplier;
 import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.random.RngStreams;
+import de.uni_passau.apr.core.selection.IndexSelector;
 import de.uni_passau.apr.core.selection.PopulationInitializer;
-import de.uni_passau.apr.core.patch.models.Individual;
-import de.uni_passau.apr.core.selection.NextGenerationProducerFactory;
 import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
 import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+import de.uni_passau.apr.core.testrunner.TestCatalog;
 import de.uni_passau.apr.core.testrunner.TestResult;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
 
 /**
  * -build initial population
  * -evaluate population
  * -repeat generations (selection/crossover/mutation -> children)
- * -stop when repair found or limits reached
+ * -stop when repair found or limits reached (generations, wall clock, evaluations, CPU time)
+ * -optionally checkpoint after every generation and resume from the latest checkpoint
+ * -optionally evaluate runConfig.jobs() candidates at a time; results are taken over in slot order,
+ *  so the number of jobs never changes the outcome of a seed; with RNG streams the children
+ *  are bred on jobs threads as well
+ * -optionally skip the children a SurrogateFilter considers hopeless; they join the population
+ *  with the weakest parent's fitness and no evaluation
+ * -evaluate each batch in the order of a CandidatePrioritizer (slot order by default),
+ *  so likely repairs are tried first
+ * -optionally restart a stagnating population (see RestartPolicy), keeping an elite archive
+ * -optionally merge the run's best patches into a per-benchmark PatchArchive and seed the
+ *  initial population from it (see ArchiveSettings)
+ * -optionally feed every fresh evaluation back to the target sampler, which shifts edits
+ *  away from targets that keep failing
+ * -optionally keep a run-wide registry of evaluated patches and breed away from them
+ * -optionally spill the test output of evaluated candidates to disk, see withOutputSpill
  */
 public final class GenProgEngine implements RepairAlgorithm {
 
@@ -31,17 +61,99 @@ public final class GenProgEngine implements RepairAlgorithm {
 
     private final SingleEditCrossover crossover;
     private final SingleEditMutator mutator;
+    private final SurrogateFilter surrogate;
+    private final CandidatePrioritizer prioritizer;
+    private final FaultLocPrioratizedSampler targetFeedback;
+    private final IndexSelector selection;
+    private final int exploredCapacity;
+    private final Path spillDir;
 
     public GenProgEngine(PopulationInitializer populationInitializer,
                          FitnessEvaluator fitnessEvaluator,
                          Evaluator evaluator,
                          SingleEditCrossover crossover,
                          SingleEditMutator mutator) {
+        this(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, null);
+    }
+
+    /**
+     * @param surrogate learns from every evaluation of this engine's runs and skips hopeless children;
+     *                  null evaluates every child. Its model is checkpointed with the run.
+     */
+    public GenProgEngine(PopulationInitializer populationInitializer,
+                         FitnessEvaluator fitnessEvaluator,
+                         Evaluator evaluator,
+                         SingleEditCrossover crossover,
+                         SingleEditMutator mutator,
+                         SurrogateFilter surrogate) {
+        this(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, surrogate,
+                CandidatePrioritizer.slotOrder(), null, IndexSelector.tournament(3), 0, null);
+    }
+
+    private GenProgEngine(PopulationInitializer populationInitializer,
+                          FitnessEvaluator fitnessEvaluator,
+                          Evaluator evaluator,
+                          SingleEditCrossover crossover,
+                          SingleEditMutator mutator,
+                          SurrogateFilter surrogate,
+                          CandidatePrioritizer prioritizer,
+                          FaultLocPrioratizedSampler targetFeedback,
+                          IndexSelector selection,
+                          int exploredCapacity,
+                          Path spillDir) {
         this.populationInitializer = Objects.requireNonNull(populationInitializer);
         this.fitnessEvaluator = Objects.requireNonNull(fitnessEvaluator);
         this.evaluator = Objects.requireNonNull(evaluator);
         this.crossover = Objects.requireNonNull(crossover);
         this.mutator = Objects.requireNonNull(mutator);
+        this.surrogate = surrogate;
+        this.prioritizer = Objects.requireNonNull(prioritizer);
+        this.targetFeedback = targetFeedback;
+        this.selection = Objects.requireNonNull(selection);
+        if (exploredCapacity < 0) throw new IllegalArgumentException("exploredCapacity must be >= 0");
+        this.exploredCapacity = exploredCapacity;
+        this.spillDir = spillDir;
+    }
+
+    /** Same engine, evaluating every batch in the order of the given prioritizer. */
+    public GenProgEngine withPrioritizer(CandidatePrioritizer prioritizer) {
+        return new GenProgEngine(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, surrogate,
+                prioritizer, targetFeedback, selection, exploredCapacity, spillDir);
+    }
+
+    /**
+     * Same engine, reporting every fresh evaluation to the sampler (usually the one of the
+     * initializer and mutator) so it can reweight edit targets, see FaultLocPrioratizedSampler.observe.
+     */
+    public GenProgEngine withTargetFeedback(FaultLocPrioratizedSampler sampler) {
+        return new GenProgEngine(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, surrogate,
+                prioritizer, Objects.requireNonNull(sampler), selection, exploredCapacity, spillDir);
+    }
+
+    /**
+     * Same engine, keeping a FingerprintRegistry of every patch a run evaluates and breeding
+     * children away from them; capacity patches are kept exactly, 0 turns the registry off.
+     * The registry is not checkpointed, a resumed run starts it from the restored population.
+     */
+    public GenProgEngine withExploredRegistry(int capacity) {
+        return new GenProgEngine(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, surrogate,
+                prioritizer, targetFeedback, selection, capacity, spillDir);
+    }
+
+    /**
+     * Same engine, spilling the test output of every evaluated candidate to a compressed
+     * OutputLog in dir (deleted when the JVM exits); candidates keep counts, flags and the
+     * failed tests' bitset in memory and read their output back only when it is asked for.
+     */
+    public GenProgEngine withOutputSpill(Path dir) {
+        return new GenProgEngine(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, surrogate,
+                prioritizer, targetFeedback, selection, exploredCapacity, Objects.requireNonNull(dir));
+    }
+
+    /** Same engine, selecting parents with the given selector (tournament of 3 by default). */
+    public GenProgEngine withSelection(IndexSelector selection) {
+        return new GenProgEngine(populationInitializer, fitnessEvaluator, evaluator, crossover, mutator, surrogate,
+                prioritizer, targetFeedback, Objects.requireNonNull(selection), exploredCapacity, spillDir);
     }
 
 
@@ -54,127 +166,284 @@ public final class GenProgEngine implements RepairAlgorithm {
                 " with max generations: " + runConfig.maxGenerations() +
                 " and population size: " + runConfig.populationSize() + ".");
 
-        BenchmarkConfig config = benchmark.config();
-        Path buggyFile = benchmark.config().getBuggyProgramPath();
         Random rand = runConfig.random() != null ? runConfig.random() : new Random();
-        List<Patch> patches = populationInitializer.initialize();
-        List<EvaluatedCandidate> population = new ArrayList<>(patches.size());
-        System.out.println("Initialized population with " + patches.size() + " patches.");
-        EvaluatedCandidate bestSoFar = null;
-
-        //Evaluate initial population
-        int idx = 0;
-        for (Patch patch : patches) {
-            EvaluatedCandidate cand = evaluateCandidate(buggyFile, config, patch);
-            System.out.println("Evaluated initial population candidate " + idx + " with fitness: " + cand.fitness());
-            population.add(cand);
-
-            bestSoFar = updateBest(bestSoFar, cand);
-            idx++;
-
-            RepairResult success = successResultIfAny(buggyFile, cand);
-            if (success != null) {
-                System.out.println("Found successful repair in initial population.");
-                return success;
+        ExecutorService evaluationPool = EvolutionRun.evaluationPool(runConfig.jobs());
+        ForkJoinPool breedingPool = runConfig.rngMode() == RunConfig.RngMode.SPLIT
+                ? EvolutionRun.breedingPool(runConfig.jobs()) : null;
+        try (BudgetTracker budget = new BudgetTracker(runConfig.budget())) {
+            CheckpointStore checkpoints = runConfig.checkpoints();
+            long startRngState = checkpoints != null ? ((CheckpointableRandom) rand).getState() : 0L;
+            RngStreams streams = runConfig.rngMode() == RunConfig.RngMode.SPLIT ? new RngStreams(rand.nextLong()) : null;
+            EvolutionRun evolution = new EvolutionRun(this, benchmark, rand, streams, budget, runConfig.eliteCount(),
+                    evaluationPool, () -> false, "");
+            evolution.breedIn(breedingPool);
+
+            ArchiveSettings archive = runConfig.archive();
+            PatchArchive previous = null;
+            if (archive != null) {
+                evolution.trackBest(archive.size());
+                previous = loadArchive(archive, benchmark);
             }
-        }
-        System.out.println("Initial population evaluation complete. Best fitness so far: " +
-                (bestSoFar != null ? bestSoFar.fitness() : "N/A"));
 
-        // If everything failed apply/evaluate, avoid NPE
-        if (population.isEmpty() || bestSoFar == null) {
-            return new RepairResult("", null, false);
-        }
+            try {
+                RunCheckpoint resumeFrom = runConfig.resume() ? resumableCheckpoint(checkpoints, benchmark, startRngState) : null;
+                if (resumeFrom != null) {
+                    evolution.restore(resumeFrom);
+                    ((CheckpointableRandom) rand).setState(resumeFrom.rngState());
+                } else {
+                    //Evaluate initial population
+                    Seeds seeds = warmStartSeeds(archive, previous, benchmark, runConfig.populationSize());
+                    RepairResult success = evolution.initialize(seeds.patches(), seeds.known());
+                    if (success != null) {
+                        return completed(checkpoints, benchmark, success);
+                    }
+                    if (evolution.stopped()) {
+                        return outOfBudget(evolution, budget);
+                    }
 
-        //Generation eval loop
-        for (int gen = 1; gen <= runConfig.maxGenerations(); gen++) {
-            System.out.println("Generation " + gen + " started. Best fitness so far: " + bestSoFar.fitness());
-
-            // Convert to selection individuals (Patch + fitness)
-            List<Individual> selectionPop = toSelectionIndividuals(population);
-            System.out.println("Selection population prepared with " + selectionPop.size() + " individuals.");
-
-            // Produce next generation patches (selection + crossover + mutation)
-            List<Patch> childrenPatches = NextGenerationProducerFactory.buildNextGenerationPatches(
-                    selectionPop, rand, crossover, mutator
-            );
-            System.out.println("Produced " + childrenPatches.size() + " children patches for generation " + gen + ".");
-
-            List<EvaluatedCandidate> childPopulation = new ArrayList<>(childrenPatches.size());
-
-            int compiledCandidates = 0;
-            int compiledFailures = 0;
-            // Evaluate children
-            for (Patch babyPatch : childrenPatches) {
-                EvaluatedCandidate child = evaluateCandidate(buggyFile, config, babyPatch);
-                if (child.evaluation() != null) {
-                    if (child.evaluation().getTestResult().getTestsRun() > 0) {
-                        compiledCandidates++;
-                    } else if (child.evaluation().getTestResult().getExitCode() != 0) {
-                        compiledFailures++;
+                    // If everything failed apply/evaluate, avoid NPE
+                    if (!evolution.hasPopulation()) {
+                        return completed(checkpoints, benchmark, evolution.finish(StopReason.NO_VIABLE_CANDIDATE));
                     }
+                    saveCheckpoint(checkpoints, evolution, startRngState, rand, 0, 0);
                 }
 
-                System.out.println("Evaluated child candidate with fitness: " + child.fitness());
-                childPopulation.add(child);
-
-                bestSoFar = updateBest(bestSoFar, child);
-
-                RepairResult success = successResultIfAny(buggyFile, child);
-                if (success != null) {
-                    return success;
+                //Generation eval loop
+                RestartPolicy restart = runConfig.restart();
+                RunCheckpoint.RestartState resumed = resumeFrom != null ? resumeFrom.restart() : null;
+                double bestFitness = evolution.bestSoFar().fitness();
+                int stagnant = resumed != null ? resumed.stagnant() : 0;
+                int restarts = resumed != null ? resumed.restarts() : 0;
+                long loopStart = System.nanoTime();
+                int firstGen = evolution.generation() + 1;
+                for (int gen = firstGen; gen <= runConfig.maxGenerations(); gen++) {
+                    boolean restarting = restart != null && restart.isDue(stagnant, evolution.diversity());
+                    if (restarting) {
+                        System.out.println("No better fitness for " + stagnant + " generations (diversity "
+                                + String.format(Locale.ROOT, "%.2f", evolution.diversity()) + "), restarting with "
+                                + (runConfig.maxGenerations() - gen + 1) + " generations left.");
+                        restarts++;
+                        stagnant = 0;
+                    }
+                    RepairResult success = restarting ? evolution.restart(restart) : evolution.step();
+                    if (success != null) {
+                        if (restarts > 0) {
+                            logTimeSaved(runConfig.maxGenerations(), gen, gen - firstGen + 1, restarts, System.nanoTime() - loopStart);
+                        }
+                        return completed(checkpoints, benchmark, success);
+                    }
+                    if (evolution.bestSoFar().fitness() > bestFitness) {
+                        bestFitness = evolution.bestSoFar().fitness();
+                        stagnant = 0;
+                    } else if (!restarting) {
+                        stagnant++;
+                    }
+                    // a generation cut short is not checkpointed, resume repeats it
+                    if (evolution.stopped()) {
+                        return outOfBudget(evolution, budget);
+                    }
+                    saveCheckpoint(checkpoints, evolution, startRngState, rand, stagnant, restarts);
+                    if (budget.stopReason() != null) {
+                        return outOfBudget(evolution, budget);
+                    }
                 }
-            }
-            System.out.println("Generation " + gen + " evaluation complete. \nCompiled candidates: "
-                    + compiledCandidates + ", \nCompile failures: " + compiledFailures +
-                    ". \nBest fitness so far: " + bestSoFar.fitness());
 
-            population = childPopulation;
+                //no full repair
+                return completed(checkpoints, benchmark, evolution.finish(StopReason.MAX_GENERATIONS));
+            } finally {
+                exportArchive(archive, previous, benchmark, evolution);
+            }
+        } finally {
+            // the budget is closed by now, which aborts evaluations still in flight
+            if (evaluationPool != null) {
+                evaluationPool.shutdown();
+            }
+            if (breedingPool != null) {
+                breedingPool.shutdown();
+            }
         }
+    }
+
+    /** Best so far after the budget ran out. The checkpoint stays, a later run may --resume with a larger budget. */
+    static RepairResult outOfBudget(EvolutionRun evolution, BudgetTracker budget) {
+        StopReason reason = budget.stopReason();
+        System.out.println("Budget exhausted (" + reason + ") after " + budget.evaluations() + " evaluations and "
+                + budget.cpuMillis() / 1000 + " CPU seconds, returning best so far.");
+        return evolution.finish(reason);
+    }
 
+    /**
+     * A repair found after a restart spares the generations a stagnating run would have
+     * kept breeding until maxGenerations; estimated from the mean generation time so far.
+     */
+    private static void logTimeSaved(int maxGenerations, int generation, int timedGenerations, int restarts, long loopNanos) {
+        int left = maxGenerations - generation;
+        long perGeneration = loopNanos / Math.max(1, timedGenerations);
+        System.out.println("Repair found after " + restarts + " restart(s) at generation " + generation + ", "
+                + left + " generations (about " + Duration.ofNanos(perGeneration * left).toSeconds()
+                + " s) before the limit.");
+    }
 
-        //no full repair
-        String bestCandidateSource;
+    //-------------Checkpoints----------------
+
+    /**
+     * The benchmark's checkpoint if it belongs to this benchmark content and was
+     * started from the same RNG state (same seed), otherwise null and the run starts over.
+     */
+    private static RunCheckpoint resumableCheckpoint(CheckpointStore checkpoints, LoadedBenchmark benchmark, long startRngState) {
+        String name = benchmark.config().getName();
+        Optional<RunCheckpoint> loaded;
         try {
-            bestCandidateSource = PatchApplier.apply(buggyFile, bestSoFar.patch());
-        } catch (Exception ex) {
-            bestCandidateSource = "";
+            loaded = checkpoints.load(name);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: cannot read checkpoint for " + name + ", starting over: " + e.getMessage());
+            return null;
         }
-
-        return new RepairResult(bestCandidateSource, bestSoFar.evaluation(), false);
+        if (loaded.isEmpty()) {
+            System.out.println("No checkpoint found for " + name + ", starting a new run.");
+            return null;
+        }
+        RunCheckpoint checkpoint = loaded.get();
+        if (!checkpoint.fingerprint().equals(BenchmarkFingerprint.of(benchmark.config()))) {
+            System.err.println("Warning: checkpoint for " + name + " was taken on different benchmark content, starting over.");
+            return null;
+        }
+        if (checkpoint.startRngState() != startRngState) {
+            System.err.println("Warning: checkpoint for " + name + " was taken with a different seed, starting over.");
+            return null;
+        }
+        if (checkpoint.population().isEmpty()) {
+            return null;
+        }
+        System.out.println("Resuming " + name + " from checkpoint after generation " + checkpoint.generation() + ".");
+        return checkpoint;
     }
 
-    //-------------Helpers----------------
-
-    private RepairResult successResultIfAny(Path buggyFile, EvaluatedCandidate cand) {
-        if (cand == null || cand.evaluation() == null || !isSuccessful(cand.evaluation())) return null;
+    private static void saveCheckpoint(CheckpointStore checkpoints, EvolutionRun evolution, long startRngState, Random rand,
+                                       int stagnant, int restarts) {
+        if (checkpoints == null) return;
+        RunCheckpoint checkpoint = evolution.snapshot(startRngState, ((CheckpointableRandom) rand).getState(),
+                stagnant, restarts);
         try {
-            String src = PatchApplier.apply(buggyFile, cand.patch());
-            return new RepairResult(src, cand.evaluation(), true);
-        } catch (Exception e) {
-            return new RepairResult("", cand.evaluation(), true);
+            checkpoints.save(checkpoint);
+        } catch (IOException e) {
+            // losing a checkpoint must not lose the run
+            System.err.println("Warning: failed to write checkpoint for generation " + checkpoint.generation()
+                    + ": " + e.getMessage());
         }
     }
 
-    private EvaluatedCandidate evaluateCandidate(Path buggyFile, BenchmarkConfig config, Patch patch) {
-        String candidateSource;
+    /** A finished run has nothing to resume, so its checkpoint is removed. */
+    private static RepairResult completed(CheckpointStore checkpoints, LoadedBenchmark benchmark, RepairResult result) {
+        if (checkpoints != null) {
+            try {
+                checkpoints.delete(benchmark.config().getName());
+            } catch (IOException e) {
+                System.err.println("Warning: failed to remove checkpoint: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    //-------------Archive----------------
+
+    /** Patches to seed the initial population with; known holds those whose evaluation is still valid. */
+    private record Seeds(List<Patch> patches, Map<Patch, EvaluatedCandidate> known) {
+        static final Seeds NONE = new Seeds(List.of(), Map.of());
+    }
+
+    private static PatchArchive loadArchive(ArchiveSettings archive, LoadedBenchmark benchmark) {
+        String name = benchmark.config().getName();
         try {
-            candidateSource = PatchApplier.apply(buggyFile, patch);
-        } catch (Exception ex) {
-            return new EvaluatedCandidate(patch, -1e15, null);
+            return archive.store().loadArchive(name).orElse(null);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: cannot read patch archive for " + name + ", ignoring it: " + e.getMessage());
+            return null;
         }
+    }
 
-        EvaluationResult evalResult = evaluator.evaluate(config, candidateSource);
-        double fitness = fitnessEvaluator.computeFitness(evalResult);
-        return new EvaluatedCandidate(patch, fitness, evalResult);
+    /**
+     * The fittest archive entries, warmStartFraction of the population. Their evaluation
+     * is reused if the archive was taken on the same benchmark content, otherwise they are evaluated again.
+     */
+    private static Seeds warmStartSeeds(ArchiveSettings archive, PatchArchive previous, LoadedBenchmark benchmark,
+                                        int populationSize) {
+        if (archive == null || previous == null || archive.warmStartFraction() == 0) {
+            return Seeds.NONE;
+        }
+        int count = (int) Math.min(previous.entries().size(), Math.round(archive.warmStartFraction() * populationSize));
+        boolean sameContent = previous.fingerprint().equals(BenchmarkFingerprint.of(benchmark.config()));
+        if (!sameContent) {
+            System.err.println("Warning: patch archive for " + benchmark.config().getName()
+                    + " was taken on different benchmark content, its patches are evaluated again.");
+        }
+        List<Patch> patches = new ArrayList<>(count);
+        Map<Patch, EvaluatedCandidate> known = new HashMap<>();
+        for (RunCheckpoint.CandidateState entry : previous.entries().subList(0, count)) {
+            EvaluatedCandidate cand;
+            try {
+                cand = entry.toCandidate();
+            } catch (RuntimeException e) {
+                System.err.println("Warning: skipping unreadable archive entry " + entry.patch() + ": " + e.getMessage());
+                continue;
+            }
+            patches.add(cand.patch());
+            if (sameContent) known.put(cand.patch(), cand);
+        }
+        System.out.println("Warm start from the patch archive: " + patches.size() + " patches, "
+                + known.size() + " of them need no evaluation.");
+        return new Seeds(patches, known);
     }
 
-    private static EvaluatedCandidate updateBest(EvaluatedCandidate bestSoFar, EvaluatedCandidate cand) {
-        if (cand == null) return bestSoFar;
-        if (bestSoFar == null) return cand;
-        return cand.fitness() > bestSoFar.fitness() ? cand : bestSoFar;
+    /** Merge the run's fittest candidates into the benchmark's archive, whatever way the run ended. */
+    private static void exportArchive(ArchiveSettings archive, PatchArchive previous, LoadedBenchmark benchmark,
+                                      EvolutionRun evolution) {
+        if (archive == null) return;
+        String name = benchmark.config().getName();
+        try {
+            archive.store().saveArchive(PatchArchive.merge(previous, name,
+                    BenchmarkFingerprint.of(benchmark.config()), evolution.best(), archive.size()));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: failed to write patch archive for " + name + ": " + e.getMessage());
+        }
     }
 
+    //-------------Helpers----------------
+
+    /**
+     * Evaluate a batch of patches, e.g. a whole generation, with one evaluateAll call of the Evaluator.
+     * Returns the candidates in the order of patches; the listener gets each one with its index as
+     * soon as it is there, possibly from several threads at once. A patch that does not apply gets
+     * fitness -1e15 without being evaluated. Candidates left out after the token was cancelled are null.
+     * Fitness is scored from each result's per-test outcomes over catalog.
+     *
+     * @param executor threads the Evaluator may use, or null
+     */
+    List<EvaluatedCandidate> evaluateCandidates(Path buggyFile, BenchmarkConfig config, List<Patch> patches,
+                                                TestCatalog catalog, CancellationToken token, Executor executor,
+                                                ObjIntConsumer<EvaluatedCandidate> listener) {
+        EvaluatedCandidate[] candidates = new EvaluatedCandidate[patches.size()];
+        List<String> sources = new ArrayList<>(patches.size());
+        int[] slots = new int[patches.size()];
+        for (int i = 0; i < patches.size(); i++) {
+            try {
+                sources.add(PatchApplier.apply(buggyFile, patches.get(i)));
+                slots[sources.size() - 1] = i;
+            } catch (Exception ex) {
+                candidates[i] = new EvaluatedCandidate(patches.get(i), -1e15, null);
+                listener.accept(candidates[i], i);
+            }
+        }
+        if (sources.isEmpty()) return Collections.unmodifiableList(Arrays.asList(candidates));
+
+        evaluator.evaluateAll(config, sources, token, executor, (index, evalResult) -> {
+            int slot = slots[index];
+            double fitness = fitnessEvaluator.computeFitness(evalResult, catalog);
+            candidates[slot] = new EvaluatedCandidate(patches.get(slot), fitness, evalResult);
+            listener.accept(candidates[slot], slot);
+        });
+        return Collections.unmodifiableList(Arrays.asList(candidates));
+    }
 
     /**
      * Returns true if the candidate is
@@ -186,14 +455,42 @@ public final class GenProgEngine implements RepairAlgorithm {
         return tr.isAllPassed() && !tr.isTimedOut();
     }
 
-    /**
-     * Adapts evaluated candidates to the simple Individual(patch, fitness) used by selection.
-     */
-    private static List<Individual> toSelectionIndividuals(List<EvaluatedCandidate> pop) {
-        List<Individual> out = new ArrayList<>(pop.size());
-        for (EvaluatedCandidate c : pop) {
-            out.add(new Individual(c.patch(), c.fitness()));
-        }
-        return out;
+    PopulationInitializer populationInitializer() {
+        return populationInitializer;
+    }
+
+    SingleEditCrossover crossover() {
+        return crossover;
+    }
+
+    SingleEditMutator mutator() {
+        return mutator;
+    }
+
+    /** Null if every child is evaluated. */
+    SurrogateFilter surrogate() {
+        return surrogate;
+    }
+
+    CandidatePrioritizer prioritizer() {
+        return prioritizer;
+    }
+
+    FaultLocPrioratizedSampler targetFeedback() {
+        return targetFeedback;
+    }
+
+    IndexSelector selection() {
+        return selection;
+    }
+
+    /** 0 if runs keep no registry of explored patches. */
+    int exploredCapacity() {
+        return exploredCapacity;
+    }
+
+    /** Null if test output stays in memory. */
+    Path spillDir() {
+        return spillDir;
     }
 }
@@ -0,0 +1,242 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.random.RngStreams;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Island model GenProg:
+ * -K independent populations, one thread each, each with its own RNG stream
+ * -every M generations the islands send their top individuals to a neighbour
+ * -a repair on any island stops all islands
+ */
+public final class IslandModelEngine implements RepairAlgorithm {
+
+    /**
+     * Builds the engine of one island. Components holding a Random (initializer, sampler,
+     * crossover, mutator) must be created from the given rng so islands share no random state.
+     * The evaluator may be shared, but then it must be safe to call from several threads.
+     */
+    @FunctionalInterface
+    public interface IslandFactory {
+        GenProgEngine create(int island, Random rng);
+    }
+
+    /** Where an island receives its migrants from. */
+    public enum Topology {
+        /** island i receives from island i-1 */
+        RING,
+        /** island i receives from a randomly chosen other island */
+        RANDOM
+    }
+
+    private final IslandFactory factory;
+    private final int islands;
+    private final int migrationInterval;
+    private final int migrants;
+    private final Topology topology;
+
+    public IslandModelEngine(IslandFactory factory,
+                             int islands,
+                             int migrationInterval,
+                             int migrants,
+                             Topology topology) {
+        if (islands <= 0) throw new IllegalArgumentException("islands must be > 0");
+        if (migrationInterval <= 0) throw new IllegalArgumentException("migrationInterval must be > 0");
+        if (migrants < 0) throw new IllegalArgumentException("migrants must be >= 0");
+        this.factory = Objects.requireNonNull(factory);
+        this.islands = islands;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+        this.topology = Objects.requireNonNull(topology);
+    }
+
+    @Override
+    public RepairResult run(LoadedBenchmark benchmark, RunConfig runConfig) {
+        Objects.requireNonNull(benchmark, "benchmark");
+        Objects.requireNonNull(runConfig, "runConfig");
+
+        System.out.println("Starting IslandModelEngine on benchmark: " + benchmark.config().getName() +
+                " with " + islands + " islands, max generations: " + runConfig.maxGenerations() +
+                ", migration every " + migrationInterval + " generations (" + migrants + " migrants, " +
+                topology + ").");
+
+        // one seed per island, drawn up front so the streams only depend on the run seed
+        long[] seeds = new long[islands];
+        for (int i = 0; i < islands; i++) {
+            seeds[i] = runConfig.random().nextLong();
+        }
+
+        AtomicBoolean stop = new AtomicBoolean(false);
+        AtomicReference<RepairResult> success = new AtomicReference<>();
+        AtomicReferenceArray<List<EvaluatedCandidate>> outbox = new AtomicReferenceArray<>(islands);
+        Phaser phaser = new Phaser(islands);
+
+        ExecutorService pool = Executors.newFixedThreadPool(islands, islandThreads());
+        // runConfig.jobs() evaluations at a time over all islands
+        ExecutorService evaluationPool = EvolutionRun.evaluationPool(runConfig.jobs());
+        List<Future<EvolutionRun>> futures = new ArrayList<>(islands);
+        // one budget for the whole run, shared by all islands
+        BudgetTracker budget = new BudgetTracker(runConfig.budget());
+        try {
+            for (int i = 0; i < islands; i++) {
+                final int island = i;
+                futures.add(pool.submit(() -> runIsland(
+                        island, seeds[island], benchmark, runConfig, budget, evaluationPool, stop, success, outbox, phaser)));
+            }
+
+            List<EvolutionRun> runs = new ArrayList<>(islands);
+            for (Future<EvolutionRun> f : futures) {
+                runs.add(f.get());
+            }
+
+            if (success.get() != null) {
+                return success.get();
+            }
+            StopReason reason = budget.stopReason();
+            if (reason != null) {
+                System.out.println("Budget exhausted (" + reason + ") after " + budget.evaluations()
+                        + " evaluations, returning best island so far.");
+            }
+            EvolutionRun best = bestOf(runs);
+            if (reason == null) {
+                reason = best.bestSoFar() == null ? StopReason.NO_VIABLE_CANDIDATE : StopReason.MAX_GENERATIONS;
+            }
+            return best.finish(reason);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop.set(true);
+            throw new IllegalStateException("Island model run interrupted", e);
+        } catch (ExecutionException e) {
+            stop.set(true);
+            throw new IllegalStateException("Island failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+            budget.close();
+            if (evaluationPool != null) {
+                evaluationPool.shutdown();
+            }
+        }
+    }
+
+    private EvolutionRun runIsland(int island,
+                                   long seed,
+                                   LoadedBenchmark benchmark,
+                                   RunConfig runConfig,
+                                   BudgetTracker budget,
+                                   ExecutorService evaluationPool,
+                                   AtomicBoolean stop,
+                                   AtomicReference<RepairResult> success,
+                                   AtomicReferenceArray<List<EvaluatedCandidate>> outbox,
+                                   Phaser phaser) {
+        String label = "[island " + island + "] ";
+        Random rng = new Random(seed);
+        RngStreams streams = runConfig.rngMode() == RunConfig.RngMode.SPLIT ? new RngStreams(seed) : null;
+        EvolutionRun run = new EvolutionRun(factory.create(island, rng), benchmark, rng, streams, budget,
+                runConfig.eliteCount(), evaluationPool, stop::get, label);
+        try {
+            RepairResult found = run.initialize();
+            if (found != null) {
+                report(found, stop, success, label);
+                return run;
+            }
+            if (!run.hasPopulation()) {
+                return run;
+            }
+
+            for (int gen = 1; gen <= runConfig.maxGenerations() && !stop.get() && budget.stopReason() == null; gen++) {
+                found = run.step();
+                if (found != null) {
+                    report(found, stop, success, label);
+                    return run;
+                }
+                if (run.stopped()) {
+                    return run;
+                }
+                if (gen % migrationInterval == 0 && gen < runConfig.maxGenerations()) {
+                    migrate(island, run, rng, stop, outbox, phaser, label);
+                }
+            }
+            return run;
+        } catch (RuntimeException e) {
+            // a broken island should not leave the others running until maxGenerations
+            stop.set(true);
+            throw e;
+        } finally {
+            phaser.arriveAndDeregister();
+        }
+    }
+
+    private void migrate(int island,
+                         EvolutionRun run,
+                         Random rng,
+                         AtomicBoolean stop,
+                         AtomicReferenceArray<List<EvaluatedCandidate>> outbox,
+                         Phaser phaser,
+                         String label) {
+        if (islands == 1 || migrants == 0) return;
+
+        outbox.set(island, run.top(migrants));
+        // wait until every live island has published its emigrants
+        phaser.arriveAndAwaitAdvance();
+
+        if (!stop.get()) {
+            int source = sourceFor(island, islands, topology, rng);
+            List<EvaluatedCandidate> incoming = outbox.get(source);
+            if (incoming != null) {
+                run.acceptMigrants(incoming);
+                System.out.println(label + "Received " + incoming.size() + " migrants from island " + source +
+                        " after generation " + run.generation() + ".");
+            }
+        }
+        // nobody may overwrite its outbox before everybody has read
+        phaser.arriveAndAwaitAdvance();
+    }
+
+    static int sourceFor(int island, int islands, Topology topology, Random rng) {
+        if (topology == Topology.RING) {
+            return (island - 1 + islands) % islands;
+        }
+        int source = rng.nextInt(islands - 1);
+        return source >= island ? source + 1 : source;
+    }
+
+    private static void report(RepairResult found,
+                               AtomicBoolean stop,
+                               AtomicReference<RepairResult> success,
+                               String label) {
+        if (success.compareAndSet(null, found)) {
+            System.out.println(label + "Found successful repair, stopping all islands.");
+        }
+        stop.set(true);
+    }
+
+    private static EvolutionRun bestOf(List<EvolutionRun> runs) {
+        EvolutionRun best = runs.get(0);
+        for (EvolutionRun r : runs) {
+            if (r.bestSoFar() == null) continue;
+            if (best.bestSoFar() == null || r.bestSoFar().fitness() > best.bestSoFar().fitness()) {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    private static ThreadFactory islandThreads() {
+        return new ThreadFactory() {
+            private int next = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "apr-island-" + next++);
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+}
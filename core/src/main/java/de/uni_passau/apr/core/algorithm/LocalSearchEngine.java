@@ -0,0 +1,113 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.random.RngStreams;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * First-improvement (1+lambda) hill climbing over single-edit patches:
+ * -build and evaluate the initial population (hybrid: run GA generations until the best
+ *  fitness has not improved for switchAfterStagnation generations)
+ * -climb from each of the best `seeds` candidates: evaluate lambda neighbours (see
+ *  EvolutionRun.localStep) in parallel and move to the first fitter one
+ * -give up on a seed after `patience` steps without improvement
+ * Every GA generation and every local step counts against runConfig.maxGenerations().
+ * Checkpoints are not written, a resumed run starts over.
+ */
+public final class LocalSearchEngine implements RepairAlgorithm {
+
+    private final GenProgEngine engine;
+    private final int lambda;
+    private final int seeds;
+    private final int patience;
+    private final int switchAfterStagnation;
+
+    /**
+     * @param engine                supplies initializer, mutator and evaluator
+     * @param lambda                neighbours evaluated per step
+     * @param seeds                 best candidates to climb from, one after the other
+     * @param patience              steps without improvement before moving on to the next seed
+     * @param switchAfterStagnation 0 climbs from the initial population; otherwise run GA generations
+     *                              and switch once the best fitness is stuck for that many generations
+     */
+    public LocalSearchEngine(GenProgEngine engine, int lambda, int seeds, int patience, int switchAfterStagnation) {
+        if (lambda <= 0) throw new IllegalArgumentException("lambda must be > 0");
+        if (seeds <= 0) throw new IllegalArgumentException("seeds must be > 0");
+        if (patience <= 0) throw new IllegalArgumentException("patience must be > 0");
+        if (switchAfterStagnation < 0) throw new IllegalArgumentException("switchAfterStagnation must be >= 0");
+        this.engine = Objects.requireNonNull(engine);
+        this.lambda = lambda;
+        this.seeds = seeds;
+        this.patience = patience;
+        this.switchAfterStagnation = switchAfterStagnation;
+    }
+
+    @Override
+    public RepairResult run(LoadedBenchmark benchmark, RunConfig runConfig) {
+        Objects.requireNonNull(benchmark, "benchmark");
+        Objects.requireNonNull(runConfig, "runConfig");
+
+        System.out.println("Starting LocalSearchEngine on benchmark: " + benchmark.config().getName() +
+                " with " + lambda + " neighbours per step, " + seeds + " seeds" +
+                (switchAfterStagnation > 0 ? ", GA until " + switchAfterStagnation + " stagnant generations." : "."));
+
+        Random rand = runConfig.random();
+        ExecutorService evaluationPool = EvolutionRun.evaluationPool(runConfig.jobs());
+        try (BudgetTracker budget = new BudgetTracker(runConfig.budget())) {
+            RngStreams streams = runConfig.rngMode() == RunConfig.RngMode.SPLIT ? new RngStreams(rand.nextLong()) : null;
+            EvolutionRun evolution = new EvolutionRun(engine, benchmark, rand, streams, budget, runConfig.eliteCount(),
+                    evaluationPool, () -> false, "");
+
+            RepairResult success = evolution.initialize();
+            if (success != null) return success;
+            if (evolution.stopped()) return GenProgEngine.outOfBudget(evolution, budget);
+            if (!evolution.hasPopulation()) return evolution.finish(StopReason.NO_VIABLE_CANDIDATE);
+
+            int steps = 0;
+            if (switchAfterStagnation > 0) {
+                double best = evolution.bestSoFar().fitness();
+                int stagnant = 0;
+                while (steps < runConfig.maxGenerations() && stagnant < switchAfterStagnation) {
+                    success = evolution.step();
+                    steps++;
+                    if (success != null) return success;
+                    if (evolution.stopped() || budget.stopReason() != null) return GenProgEngine.outOfBudget(evolution, budget);
+                    if (evolution.bestSoFar().fitness() > best) {
+                        best = evolution.bestSoFar().fitness();
+                        stagnant = 0;
+                    } else {
+                        stagnant++;
+                    }
+                }
+                if (stagnant >= switchAfterStagnation) {
+                    System.out.println("No improvement for " + stagnant + " generations, switching to local search.");
+                }
+            }
+
+            for (EvaluatedCandidate seed : evolution.top(seeds)) {
+                EvaluatedCandidate current = seed;
+                int failures = 0;
+                while (steps < runConfig.maxGenerations() && failures < patience) {
+                    EvolutionRun.LocalStep step = evolution.localStep(current, lambda);
+                    steps++;
+                    if (step.repair() != null) return step.repair();
+                    if (evolution.stopped() || budget.stopReason() != null) return GenProgEngine.outOfBudget(evolution, budget);
+                    if (step.improvement() != null) {
+                        current = step.improvement();
+                        failures = 0;
+                    } else {
+                        failures++;
+                    }
+                }
+            }
+            return evolution.finish(steps >= runConfig.maxGenerations() ? StopReason.MAX_GENERATIONS : StopReason.EXHAUSTED);
+        } finally {
+            // the budget is closed by now, which aborts evaluations still in flight
+            if (evaluationPool != null) {
+                evaluationPool.shutdown();
+            }
+        }
+    }
+}
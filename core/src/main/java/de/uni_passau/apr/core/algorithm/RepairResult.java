@@ -2,7 +2,10 @@ package de.uni_passau.apr.core.algorithm;
 
 import de.uni_passau.apr.core.evaluator.EvaluationResult;
 
-public record RepairResult(String bestCandidateSource, EvaluationResult evaluationResult, boolean repairedSuccessfully) {
+public record RepairResult(String bestCandidateSource,
+                           EvaluationResult evaluationResult,
+                           boolean repairedSuccessfully,
+                           StopReason stopReason) {
     public RepairResult {
         if (bestCandidateSource == null) {
             throw new IllegalArgumentException("bestCandidateSource cannot be null");
@@ -10,5 +13,13 @@ public record RepairResult(String bestCandidateSource, EvaluationResult evaluati
         if (evaluationResult == null) {
             throw new IllegalArgumentException("evaluationResult cannot be null");
         }
+        if (stopReason == null) {
+            throw new IllegalArgumentException("stopReason cannot be null");
+        }
+    }
+
+    public RepairResult(String bestCandidateSource, EvaluationResult evaluationResult, boolean repairedSuccessfully) {
+        this(bestCandidateSource, evaluationResult, repairedSuccessfully,
+                repairedSuccessfully ? StopReason.REPAIRED : StopReason.MAX_GENERATIONS);
     }
 }
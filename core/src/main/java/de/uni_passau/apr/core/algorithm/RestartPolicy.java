@@ -0,0 +1,37 @@
+package de.uni_passau.apr.core.algorithm;
+
+/**
+ * When and how GenProgEngine restarts a population that has stopped making progress.
+ * A restart is due once the best fitness has not improved for stagnationGenerations,
+ * or earlier if the share of unique patches in the population drops below minDiversity
+ * while the best fitness is stuck.
+ *
+ * @param stagnationGenerations generations without a better best fitness before a restart
+ * @param minDiversity          unique patches / population size below which a stuck population restarts early, 0 disables
+ * @param archiveSize           fittest unique candidates (over all restarts) that survive a restart with their evaluation
+ * @param boost                 extra weight of fault-localization targets the run has rarely tried so far:
+ *                              a target seen n times is drawn with weight w * (1 + boost / (1 + n))
+ */
+public record RestartPolicy(int stagnationGenerations, double minDiversity, int archiveSize, double boost) {
+
+    public RestartPolicy {
+        if (stagnationGenerations <= 0) {
+            throw new IllegalArgumentException("stagnationGenerations must be > 0");
+        }
+        if (minDiversity < 0 || minDiversity > 1) {
+            throw new IllegalArgumentException("minDiversity must be in [0, 1]");
+        }
+        if (archiveSize < 0) {
+            throw new IllegalArgumentException("archiveSize must be >= 0");
+        }
+        if (boost < 0) {
+            throw new IllegalArgumentException("boost must be >= 0");
+        }
+    }
+
+    /** True if a population stuck for stagnantGenerations with the given diversity should restart. */
+    public boolean isDue(int stagnantGenerations, double diversity) {
+        if (stagnantGenerations >= stagnationGenerations) return true;
+        return stagnantGenerations > 0 && diversity < minDiversity;
+    }
+}
@@ -1,8 +1,45 @@
 package de.uni_passau.apr.core.algorithm;
 
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.CheckpointableRandom;
+
 import java.util.Random;
 
-public record RunConfig(int maxGenerations, int populationSize, int timeoutSeconds, Random random) {
+/**
+ * @param timeoutSeconds per test-run timeout, enforced by the TestRunner
+ * @param checkpoints where GenProgEngine writes a checkpoint after every generation, null disables checkpointing
+ * @param resume      continue from the benchmark's latest checkpoint instead of starting over
+ * @param budget      wall-clock, evaluation and CPU limits of the run, null means unlimited
+ * @param eliteCount  fittest individuals carried over unchanged (with their evaluation) into the next generation
+ * @param rngMode     how operators draw random numbers, see RngMode
+ * @param jobs        candidates evaluated in parallel; the evaluator must then be thread safe
+ * @param restart     when GenProgEngine restarts a stagnating population, null never restarts
+ *                    (islands rely on migration instead and ignore it)
+ * @param archive     where GenProgEngine exports its best patches and warm-starts from, null for neither
+ */
+public record RunConfig(int maxGenerations,
+                        int populationSize,
+                        int timeoutSeconds,
+                        Random random,
+                        CheckpointStore checkpoints,
+                        boolean resume,
+                        Budget budget,
+                        int eliteCount,
+                        RngMode rngMode,
+                        int jobs,
+                        RestartPolicy restart,
+                        ArchiveSettings archive) {
+
+    public enum RngMode {
+        /** every operator draws from the one generator in random(), in call order (results of earlier versions) */
+        SHARED,
+        /**
+         * a run seed is drawn from random() and every individual gets its own streams
+         * keyed by (generation, slot, operator), see RngStreams
+         */
+        SPLIT
+    }
+
     public RunConfig {
         if (maxGenerations <= 0) {
             throw new IllegalArgumentException("maxGenerations must be > 0");
@@ -16,5 +53,55 @@ public record RunConfig(int maxGenerations, int populationSize, int timeoutSecon
         if (random == null) {
             throw new IllegalArgumentException("random cannot be null");
         }
+        if (checkpoints != null && !(random instanceof CheckpointableRandom)) {
+            throw new IllegalArgumentException("checkpointing requires a CheckpointableRandom");
+        }
+        if (resume && checkpoints == null) {
+            throw new IllegalArgumentException("resume requires a checkpoint store");
+        }
+        if (eliteCount < 0 || eliteCount >= populationSize) {
+            throw new IllegalArgumentException("eliteCount must be >= 0 and < populationSize");
+        }
+        if (jobs <= 0) {
+            throw new IllegalArgumentException("jobs must be > 0");
+        }
+        if (budget == null) {
+            budget = Budget.UNLIMITED;
+        }
+        if (rngMode == null) {
+            rngMode = RngMode.SHARED;
+        }
+    }
+
+    public RunConfig(int maxGenerations, int populationSize, int timeoutSeconds, Random random) {
+        this(maxGenerations, populationSize, timeoutSeconds, random, null, false, Budget.UNLIMITED, 0, RngMode.SHARED, 1, null, null);
+    }
+
+    public RunConfig withCheckpoints(CheckpointStore checkpoints, boolean resume) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
+    }
+
+    public RunConfig withEliteCount(int eliteCount) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
+    }
+
+    public RunConfig withBudget(Budget budget) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
+    }
+
+    public RunConfig withRngMode(RngMode rngMode) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
+    }
+
+    public RunConfig withJobs(int jobs) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
+    }
+
+    public RunConfig withRestart(RestartPolicy restart) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
+    }
+
+    public RunConfig withArchive(ArchiveSettings archive) {
+        return new RunConfig(maxGenerations, populationSize, timeoutSeconds, random, checkpoints, resume, budget, eliteCount, rngMode, jobs, restart, archive);
     }
 }
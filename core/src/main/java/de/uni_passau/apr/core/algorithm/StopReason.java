@@ -0,0 +1,21 @@
+package de.uni_passau.apr.core.algorithm;
+
+/**
+ * Why a repair run stopped.
+ */
+public enum StopReason {
+    /** A candidate passed all tests. */
+    REPAIRED,
+    /** All generations ran without a repair. */
+    MAX_GENERATIONS,
+    /** The wall-clock budget ran out. */
+    WALL_CLOCK,
+    /** The maximum number of evaluations was reached. */
+    MAX_EVALUATIONS,
+    /** The CPU-time budget ran out. */
+    CPU_BUDGET,
+    /** No candidate could be applied and evaluated. */
+    NO_VIABLE_CANDIDATE,
+    /** Every candidate of an enumerated search space was evaluated. */
+    EXHAUSTED
+}
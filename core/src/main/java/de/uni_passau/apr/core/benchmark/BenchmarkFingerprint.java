@@ -0,0 +1,49 @@
+package de.uni_passau.apr.core.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content hash of a benchmark (name, buggy program and test suite).
+ * Two machines with the same fingerprint evaluate candidates against the same inputs.
+ */
+public final class BenchmarkFingerprint {
+
+    private BenchmarkFingerprint() {}
+
+    public static String of(BenchmarkConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("BenchmarkConfig cannot be null");
+        }
+        MessageDigest digest = sha256();
+        update(digest, config.getName());
+        update(digest, config.getBuggyProgram());
+        update(digest, config.getTestSuite());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** SHA-256 of a text, hex encoded. */
+    public static String hash(String text) {
+        MessageDigest digest = sha256();
+        update(digest, text);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String part) {
+        byte[] bytes = part == null ? new byte[0] : part.getBytes(StandardCharsets.UTF_8);
+        // length prefix so ("ab","c") and ("a","bc") differ
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
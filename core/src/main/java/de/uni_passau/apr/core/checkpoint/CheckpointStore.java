@@ -0,0 +1,113 @@
+package de.uni_passau.apr.core.checkpoint;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Keeps the latest RunCheckpoint of each benchmark as <dir>/<benchmark>.checkpoint.json,
+ * and its PatchArchive (best patches over all runs) as <dir>/<benchmark>.archive.json.
+ * A file is written to a temp file in the same directory, flushed to disk and
+ * then moved over the old one, so a crash never leaves a half written checkpoint behind.
+ */
+public class CheckpointStore {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+
+    public CheckpointStore(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Path fileFor(String benchmarkName) {
+        if (benchmarkName == null || benchmarkName.isBlank()) {
+            throw new IllegalArgumentException("benchmarkName cannot be null or blank");
+        }
+        return directory.resolve(benchmarkName + ".checkpoint.json");
+    }
+
+    public Path archiveFileFor(String benchmarkName) {
+        if (benchmarkName == null || benchmarkName.isBlank()) {
+            throw new IllegalArgumentException("benchmarkName cannot be null or blank");
+        }
+        return directory.resolve(benchmarkName + ".archive.json");
+    }
+
+    public void save(RunCheckpoint checkpoint) throws IOException {
+        Objects.requireNonNull(checkpoint, "checkpoint");
+        write(fileFor(checkpoint.benchmark()), checkpoint.benchmark(), checkpoint);
+    }
+
+    public void saveArchive(PatchArchive archive) throws IOException {
+        Objects.requireNonNull(archive, "archive");
+        write(archiveFileFor(archive.benchmark()), archive.benchmark(), archive);
+    }
+
+    /** Archive of a benchmark, empty if there is none. */
+    public Optional<PatchArchive> loadArchive(String benchmarkName) throws IOException {
+        Path file = archiveFileFor(benchmarkName);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        PatchArchive archive = MAPPER.readValue(file.toFile(), PatchArchive.class);
+        if (archive.version() != PatchArchive.CURRENT_VERSION) {
+            throw new IOException("Unsupported archive version " + archive.version() + " in " + file);
+        }
+        return Optional.of(archive);
+    }
+
+    private void write(Path target, String benchmark, Object value) throws IOException {
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, benchmark + ".", ".tmp");
+        try {
+            byte[] bytes = MAPPER.writeValueAsBytes(value);
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Latest checkpoint of a benchmark, empty if there is none. */
+    public Optional<RunCheckpoint> load(String benchmarkName) throws IOException {
+        Path file = fileFor(benchmarkName);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        RunCheckpoint checkpoint = MAPPER.readValue(file.toFile(), RunCheckpoint.class);
+        if (checkpoint.version() != RunCheckpoint.CURRENT_VERSION) {
+            throw new IOException("Unsupported checkpoint version " + checkpoint.version() + " in " + file);
+        }
+        return Optional.of(checkpoint);
+    }
+
+    public void delete(String benchmarkName) throws IOException {
+        Files.deleteIfExists(fileFor(benchmarkName));
+    }
+}
@@ -0,0 +1,48 @@
+package de.uni_passau.apr.core.checkpoint;
+
+import java.util.Random;
+
+/**
+ * java.util.Random whose internal state can be read and restored.
+ * Uses the same linear congruential generator as Random, so a given seed
+ * produces exactly the same sequence as new Random(seed).
+ */
+public class CheckpointableRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // no initializer: Random's constructor calls setSeed before subclass fields are initialized
+    private long state;
+
+    public CheckpointableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.state = (seed ^ MULTIPLIER) & MASK;
+        super.setSeed(seed); // also clears the cached nextGaussian
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /** The 48 bit generator state. */
+    public synchronized long getState() {
+        return state;
+    }
+
+    public synchronized void setState(long state) {
+        if ((state & ~MASK) != 0) {
+            throw new IllegalArgumentException("state must fit in 48 bits");
+        }
+        this.state = state;
+    }
+}
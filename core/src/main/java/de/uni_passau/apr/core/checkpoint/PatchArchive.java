@@ -0,0 +1,50 @@
+package de.uni_passau.apr.core.checkpoint;
+
+import de.uni_passau.apr.core.algorithm.EvaluatedCandidate;
+
+import java.util.*;
+
+/**
+ * The fittest distinct patches runs on a benchmark have evaluated, best first, for
+ * warm-starting later runs. Entries use the RunCheckpoint encoding.
+ *
+ * @param fingerprint BenchmarkFingerprint of the benchmark content the entries were evaluated on
+ */
+public record PatchArchive(int version,
+                           String benchmark,
+                           String fingerprint,
+                           List<RunCheckpoint.CandidateState> entries) {
+
+    public static final int CURRENT_VERSION = 1;
+
+    public PatchArchive {
+        if (benchmark == null || fingerprint == null) {
+            throw new IllegalArgumentException("benchmark and fingerprint cannot be null");
+        }
+        entries = entries == null ? List.of() : List.copyOf(entries);
+    }
+
+    /**
+     * The best size distinct evaluated candidates out of this archive's entries and the given
+     * ones. Entries of an archive taken on other content are dropped, their fitness no longer holds.
+     */
+    public static PatchArchive merge(PatchArchive previous, String benchmark, String fingerprint,
+                                     Collection<EvaluatedCandidate> candidates, int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be > 0");
+        List<RunCheckpoint.CandidateState> all = new ArrayList<>();
+        if (previous != null && previous.fingerprint().equals(fingerprint)) {
+            all.addAll(previous.entries());
+        }
+        for (EvaluatedCandidate c : candidates) {
+            if (c.evaluation() != null) all.add(RunCheckpoint.CandidateState.of(c));
+        }
+        all.sort(Comparator.comparingDouble(RunCheckpoint.CandidateState::fitness).reversed());
+
+        Map<String, RunCheckpoint.CandidateState> best = new LinkedHashMap<>();
+        for (RunCheckpoint.CandidateState c : all) {
+            if (best.size() >= size) break;
+            best.putIfAbsent(c.patch(), c);
+        }
+        return new PatchArchive(CURRENT_VERSION, benchmark, fingerprint, new ArrayList<>(best.values()));
+    }
+}
@@ -0,0 +1,175 @@
+package de.uni_passau.apr.core.checkpoint;
+
+import de.uni_passau.apr.core.algorithm.EvaluatedCandidate;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.patch.utils.PatchUtils;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
+import de.uni_passau.apr.core.testrunner.TestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of a GenProg run at the end of a generation.
+ * Patches are stored in PatchUtils.encode form and test results without their
+ * output, so a checkpoint stays a few KB even for large populations.
+ *
+ * @param fingerprint    BenchmarkFingerprint of the benchmark the run repairs
+ * @param startRngState  RNG state when the run started, identifies seed and position in a multi-benchmark run
+ * @param rngState       RNG state after the last completed generation
+ * @param generation     last completed generation (0 = initial population); for EnumerationEngine
+ *                       the number of ranked candidates already done
+ * @param restart        GenProgEngine's restart bookkeeping, null for engines without restarts
+ * @param operators      what adaptive operator selection has learned, null without it
+ * @param targetFeedback what the fault-localization feedback sampler has observed per statement
+ *                       (PatchUtils.formatId), null without feedback
+ * @param surrogate      the surrogate model and the population members it skipped, null without a surrogate
+ */
+public record RunCheckpoint(int version,
+                            String benchmark,
+                            String fingerprint,
+                            long startRngState,
+                            long rngState,
+                            int generation,
+                            List<CandidateState> population,
+                            CandidateState best,
+                            RestartState restart,
+                            OperatorState operators,
+                            Map<String, FaultLocPrioratizedSampler.Feedback> targetFeedback,
+                            SurrogateState surrogate) {
+
+    public static final int CURRENT_VERSION = 5;
+
+    public RunCheckpoint {
+        if (benchmark == null || fingerprint == null) {
+            throw new IllegalArgumentException("benchmark and fingerprint cannot be null");
+        }
+        if (generation < 0) {
+            throw new IllegalArgumentException("generation must be >= 0");
+        }
+        population = population == null ? List.of() : List.copyOf(population);
+        targetFeedback = targetFeedback == null ? null : Collections.unmodifiableMap(new TreeMap<>(targetFeedback));
+    }
+
+    /** Checkpoint without restart bookkeeping, operator credits, target feedback and surrogate. */
+    public RunCheckpoint(int version, String benchmark, String fingerprint, long startRngState, long rngState,
+                         int generation, List<CandidateState> population, CandidateState best) {
+        this(version, benchmark, fingerprint, startRngState, rngState, generation, population, best, null, null, null, null);
+    }
+
+    /**
+     * What GenProgEngine needs to restart a resumed run when the uninterrupted one would have.
+     * The best fitness the stagnation count refers to is best's.
+     *
+     * @param stagnant     generations since the best fitness last improved
+     * @param restarts     restarts so far
+     * @param archive      candidates that survive every later restart
+     * @param targetCounts how often each statement (PatchUtils.formatId) was a target in a population so far
+     */
+    public record RestartState(int stagnant, int restarts, List<CandidateState> archive,
+                               Map<String, Integer> targetCounts) {
+
+        public RestartState {
+            if (stagnant < 0 || restarts < 0) {
+                throw new IllegalArgumentException("stagnant and restarts must be >= 0");
+            }
+            archive = archive == null ? List.of() : List.copyOf(archive);
+            targetCounts = targetCounts == null ? Map.of() : Collections.unmodifiableMap(new TreeMap<>(targetCounts));
+        }
+    }
+
+    /**
+     * Credits of the operator schedulers, keyed by arm name (see OperatorScheduler.credits()).
+     * Records of uncredited patches are dropped at the end of every generation, so none are kept.
+     *
+     * @param moves     the mutator's moves, null if it picks them uniformly
+     * @param editKinds the initializer's edit kinds, null if it uses a fixed delete probability
+     */
+    public record OperatorState(Map<String, OperatorScheduler.Credit> moves,
+                                Map<String, OperatorScheduler.Credit> editKinds) {
+
+        public OperatorState {
+            moves = moves == null ? null : Collections.unmodifiableMap(new TreeMap<>(moves));
+            editKinds = editKinds == null ? null : Collections.unmodifiableMap(new TreeMap<>(editKinds));
+        }
+
+        /** State of the two schedulers, null if there is neither. */
+        public static OperatorState of(OperatorScheduler<?> moves, OperatorScheduler<?> editKinds) {
+            if (moves == null && editKinds == null) return null;
+            return new OperatorState(byName(moves), byName(editKinds));
+        }
+
+        private static Map<String, OperatorScheduler.Credit> byName(OperatorScheduler<?> scheduler) {
+            if (scheduler == null) return null;
+            Map<String, OperatorScheduler.Credit> out = new TreeMap<>();
+            scheduler.credits().forEach((arm, credit) -> out.put(arm.name(), credit));
+            return out;
+        }
+    }
+
+    /**
+     * What SurrogateFilter has learned, so a resumed run skips the same children.
+     *
+     * @param weights the logistic model's weight vector
+     * @param stats   the filter's counters, trained is the model's number of updates
+     * @param skipped population members (PatchUtils.encode) the surrogate skipped, never evaluated
+     */
+    public record SurrogateState(List<Double> weights, SurrogateFilter.Stats stats, List<String> skipped) {
+
+        public SurrogateState {
+            if (weights == null || stats == null) {
+                throw new IllegalArgumentException("weights and stats cannot be null");
+            }
+            weights = List.copyOf(weights);
+            skipped = skipped == null ? List.of() : List.copyOf(skipped);
+        }
+    }
+
+    /** One population member: patch, fitness and a summary of its test run (null if it was never evaluated). */
+    public record CandidateState(String patch, double fitness, TestSummary tests) {
+
+        public static CandidateState of(EvaluatedCandidate candidate) {
+            EvaluationResult eval = candidate.evaluation();
+            TestSummary tests = eval == null || eval.getTestResult() == null
+                    ? null : TestSummary.of(eval.getTestResult());
+            return new CandidateState(PatchUtils.encode(candidate.patch()), candidate.fitness(), tests);
+        }
+
+        public EvaluatedCandidate toCandidate() {
+            EvaluationResult eval = tests == null ? null : new EvaluationResult(tests.toTestResult(), null, false);
+            return new EvaluatedCandidate(PatchUtils.decode(patch), fitness, eval);
+        }
+    }
+
+    /** TestResult without the captured output. */
+    public record TestSummary(int exitCode,
+                              boolean allPassed,
+                              boolean timedOut,
+                              int testsRun,
+                              int failures,
+                              int errors,
+                              int skipped,
+                              List<String> failedTests) {
+
+        public static TestSummary of(TestResult tr) {
+            return new TestSummary(tr.getExitCode(), tr.isAllPassed(), tr.isTimedOut(), tr.getTestsRun(),
+                    tr.getFailures(), tr.getErrors(), tr.getSkipped(),
+                    tr.getFailedTests() == null ? List.of() : List.copyOf(tr.getFailedTests()));
+        }
+
+        public TestResult toTestResult() {
+            TestResult tr = new TestResult(exitCode, "", allPassed, timedOut);
+            tr.setTestsRun(testsRun);
+            tr.setFailures(failures);
+            tr.setErrors(errors);
+            tr.setSkipped(skipped);
+            tr.setFailedTests(failedTests == null ? new ArrayList<>() : new ArrayList<>(failedTests));
+            return tr;
+        }
+    }
+}
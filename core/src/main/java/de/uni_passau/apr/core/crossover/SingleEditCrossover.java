@@ -20,6 +20,12 @@ public final class SingleEditCrossover {
     }
 
     public Patch crossover(Patch p1, Patch p2) {
+        return crossover(p1, p2, rng);
+    }
+
+    /** Same as crossover(p1, p2), drawing every random choice from the given generator. */
+    public Patch crossover(Patch p1, Patch p2, Random rng) {
+        Objects.requireNonNull(rng);
         Objects.requireNonNull(p1);
         Objects.requireNonNull(p2);
 
@@ -28,7 +34,7 @@ public final class SingleEditCrossover {
 
         // If both are ReplaceOps, we can recombine target/donor
         if (a instanceof ReplaceOp ra && b instanceof ReplaceOp rb) {
-            ReplaceOp child = recombineReplace(ra, rb);
+            ReplaceOp child = recombineReplace(ra, rb, rng);
             return new Patch(List.of(child));
         }
 
@@ -36,7 +42,7 @@ public final class SingleEditCrossover {
         return rng.nextBoolean() ? p1 : p2;
     }
 
-    private ReplaceOp recombineReplace(ReplaceOp ra, ReplaceOp rb) {
+    private ReplaceOp recombineReplace(ReplaceOp ra, ReplaceOp rb, Random rng) {
         // 50/50 which parent provides target
         StatementId target = rng.nextBoolean() ? ra.target() : rb.target();
         // donor from the other parent
@@ -44,7 +50,7 @@ public final class SingleEditCrossover {
 
         // Validate / fix donor if needed
         if (donor.equals(target) || (sameTypeDonorOnly && !sameType(target, donor))) {
-            donor = pickCompatibleDonor(target);
+            donor = pickCompatibleDonor(target, rng);
         }
         return new ReplaceOp(target, donor);
     }
@@ -53,7 +59,7 @@ public final class SingleEditCrossover {
         return collector.getStatement(t).getClass().equals(collector.getStatement(d).getClass());
     }
 
-    private StatementId pickCompatibleDonor(StatementId target) {
+    private StatementId pickCompatibleDonor(StatementId target, Random rng) {
         var all = collector.allStatementIds();
         if (all.isEmpty()) return target; // worst case scenario (will be filtered later)
 
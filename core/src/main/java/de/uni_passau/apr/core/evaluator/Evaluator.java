@@ -1,8 +1,105 @@
 package de.uni_passau.apr.core.evaluator;
 
 import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 public interface Evaluator {
 
     public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource);
+
+    /**
+     * Like evaluate(config, candidateSource), but gives up once the token is cancelled, either by
+     * returning early or by throwing a CancellationException. A result produced after cancellation
+     * is not meaningful. The default ignores the token.
+     */
+    default EvaluationResult evaluate(BenchmarkConfig config, String candidateSource, CancellationToken token) {
+        return evaluate(config, candidateSource);
+    }
+
+    /** Receives the results of a batch one by one, as they are there. */
+    @FunctionalInterface
+    interface BatchListener {
+        /** @param index position of the candidate in the batch */
+        void completed(int index, EvaluationResult result);
+    }
+
+    /**
+     * Evaluate several candidates of one benchmark, e.g. a whole generation. Backends that can
+     * share work between candidates (one JVM, one compiler run, one build) override this.
+     * Returns the results in the order of candidateSources; the listener gets each one as soon as
+     * it is there, possibly from several threads at once. Once the token is cancelled candidates
+     * that have not started are left out and their result is null.
+     * The default runs evaluate(config, source, token) for each candidate in list order, on the
+     * executor if there is one (all submitted up front), otherwise one after the other on the
+     * calling thread, and returns when all of them are done.
+     *
+     * @param executor threads the batch may use, or null
+     * @throws CancellationException if interrupted while waiting for the executor; the caller
+     *                               cancels the token to stop what is still running
+     */
+    default List<EvaluationResult> evaluateAll(BenchmarkConfig config, List<String> candidateSources,
+                                               CancellationToken token, Executor executor,
+                                               BatchListener listener) {
+        Objects.requireNonNull(candidateSources);
+        Objects.requireNonNull(token);
+        Objects.requireNonNull(listener);
+        EvaluationResult[] results = new EvaluationResult[candidateSources.size()];
+        if (executor == null) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = evaluateInBatch(config, candidateSources.get(i), i, token, listener);
+            }
+            return Collections.unmodifiableList(Arrays.asList(results));
+        }
+        CountDownLatch done = new CountDownLatch(results.length);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        for (int i = 0; i < results.length; i++) {
+            int index = i;
+            executor.execute(() -> {
+                try {
+                    results[index] = evaluateInBatch(config, candidateSources.get(index), index, token, listener);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a batch of evaluations");
+        }
+        if (failure.get() != null) throw failure.get();
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /** evaluateAll(...) on the calling thread, without cancellation or listener. */
+    default List<EvaluationResult> evaluateAll(BenchmarkConfig config, List<String> candidateSources) {
+        return evaluateAll(config, candidateSources, CancellationToken.none(), null, (index, result) -> { });
+    }
+
+    private EvaluationResult evaluateInBatch(BenchmarkConfig config, String candidateSource, int index,
+                                             CancellationToken token, BatchListener listener) {
+        if (token.isCancelled()) return null;
+        EvaluationResult result;
+        try {
+            result = evaluate(config, candidateSource, token);
+        } catch (CancellationException e) {
+            return null;
+        }
+        // a result produced after cancellation is not meaningful
+        if (token.isCancelled()) return null;
+        listener.completed(index, result);
+        return result;
+    }
 }
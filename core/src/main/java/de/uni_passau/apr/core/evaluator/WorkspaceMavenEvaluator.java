@@ -1,12 +1,18 @@
 package de.uni_passau.apr.core.evaluator;
 
 import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
 import de.uni_passau.apr.core.testrunner.TestResult;
 import de.uni_passau.apr.core.testrunner.TestRunner;
 import de.uni_passau.apr.core.workspace.WorkspaceBuilder;
-import de.uni_passau.apr.core.workspace.WorkspaceCleaner;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
 
 public class WorkspaceMavenEvaluator implements Evaluator {
 
@@ -30,12 +36,23 @@ public class WorkspaceMavenEvaluator implements Evaluator {
 
     @Override
     public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+        return evaluate(config, candidateSource, CancellationToken.none());
+    }
+
+    @Override
+    public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource, CancellationToken token) {
         if (config == null) {
             throw new IllegalArgumentException("BenchmarkConfig cannot be null");
         }
         if (candidateSource == null || candidateSource.isEmpty()) {
             throw new IllegalArgumentException("Candidate source cannot be null or empty");
         }
+        if (token == null) {
+            throw new IllegalArgumentException("CancellationToken cannot be null");
+        }
+        if (token.isCancelled()) {
+            throw new CancellationException("Evaluation cancelled");
+        }
         System.out.println("Evaluating candidate source in workspace...");
 
         EvaluationResult result = new EvaluationResult();
@@ -49,7 +66,7 @@ public class WorkspaceMavenEvaluator implements Evaluator {
         if (workspaceDir != null) {
             TestResult testResult = null;
             try {
-                testResult = testRunner.runTests(workspaceDir);
+                testResult = testRunner.runTests(workspaceDir, token);
                 result.setTestResult(testResult);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to run tests in workspace", e);
@@ -60,7 +77,9 @@ public class WorkspaceMavenEvaluator implements Evaluator {
                 } else {
                     testsFailed = !testResult.isAllPassed() || testResult.isTimedOut() || testResult.getExitCode() != 0;
                 }
-                if (keepWorkspaceAlways || (keepWorkspaceOnFailure && testsFailed)) {
+                // an aborted run tells nothing about the candidate, don't keep it for debugging
+                if (keepWorkspaceAlways || (keepWorkspaceOnFailure && testsFailed && !token.isCancelled())) {
+                    workspaceBuilder.keep(workspaceDir);
                     result.setWorkSpaceKept(true);
                     result.setWorkspaceDir(workspaceDir);
                 } else {
@@ -72,10 +91,92 @@ public class WorkspaceMavenEvaluator implements Evaluator {
         return result;
     }
 
-    private static void deleteWorkspace(Path workspaceDir) {
+    /**
+     * With a reactor WorkspaceBuilder all candidates go into one workspace and are tested by one
+     * TestRunner.runReactor call; the results are reported once that is done, and the executor
+     * is not used. Otherwise each candidate is evaluated on its own, see Evaluator.
+     */
+    @Override
+    public List<EvaluationResult> evaluateAll(BenchmarkConfig config, List<String> candidateSources,
+                                              CancellationToken token, Executor executor, BatchListener listener) {
+        if (!workspaceBuilder.isReactor() || candidateSources.isEmpty()) {
+            return Evaluator.super.evaluateAll(config, candidateSources, token, executor, listener);
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("BenchmarkConfig cannot be null");
+        }
+        if (candidateSources.stream().anyMatch(c -> c == null || c.isEmpty())) {
+            throw new IllegalArgumentException("Candidate source cannot be null or empty");
+        }
+        if (token == null) {
+            throw new IllegalArgumentException("CancellationToken cannot be null");
+        }
+        EvaluationResult[] results = new EvaluationResult[candidateSources.size()];
+        if (token.isCancelled()) return Collections.unmodifiableList(Arrays.asList(results));
+        System.out.println("Evaluating " + candidateSources.size() + " candidate sources in one reactor workspace...");
+
+        Path reactorDir;
+        try {
+            reactorDir = workspaceBuilder.buildReactor(config, candidateSources);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build workspace", e);
+        }
+        List<String> modules = new ArrayList<>(candidateSources.size());
+        for (int i = 0; i < candidateSources.size(); i++) {
+            modules.add(WorkspaceBuilder.moduleName(i));
+        }
+
+        List<TestResult> testResults = null;
+        boolean[] kept = new boolean[modules.size()];
+        try {
+            testResults = testRunner.runReactor(reactorDir, modules, token);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to run tests in workspace", e);
+        } finally {
+            keepFailedModules(reactorDir, modules, testResults, token, kept);
+        }
+        // a result produced after cancellation is not meaningful
+        if (token.isCancelled()) return Collections.unmodifiableList(Arrays.asList(results));
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new EvaluationResult(testResults.get(i), kept[i] ? reactorDir.resolve(modules.get(i)) : null, kept[i]);
+            listener.completed(i, results[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Keep the modules a candidate would have kept its own workspace for, and delete the rest;
+     * a reactor holds a whole batch, keeping all of it for one failure would undo the disk quota.
+     * @param kept set per module
+     */
+    private void keepFailedModules(Path reactorDir, List<String> modules, List<TestResult> testResults,
+                                   CancellationToken token, boolean[] kept) {
+        List<String> toKeep = new ArrayList<>();
+        for (int i = 0; i < modules.size(); i++) {
+            TestResult tr = testResults == null ? null : testResults.get(i);
+            boolean testsFailed = tr == null || !tr.isAllPassed() || tr.isTimedOut() || tr.getExitCode() != 0;
+            kept[i] = keepWorkspaceAlways || (keepWorkspaceOnFailure && testsFailed && !token.isCancelled());
+            if (kept[i]) toKeep.add(modules.get(i));
+        }
+        if (toKeep.isEmpty()) {
+            deleteWorkspace(reactorDir);
+        } else if (toKeep.size() == modules.size()) {
+            workspaceBuilder.keep(reactorDir);
+        } else {
+            try {
+                workspaceBuilder.keepModules(reactorDir, toKeep);
+            } catch (Exception e) {
+                // the passing modules are left behind, the failing ones are still there to inspect
+                System.err.println("Warning: Failed to delete passing modules of " + reactorDir + ": " + e.getMessage());
+                workspaceBuilder.keep(reactorDir);
+            }
+        }
+    }
+
+    private void deleteWorkspace(Path workspaceDir) {
         try {
-            // recursively delete the workspace directory
-            WorkspaceCleaner.deleteRecursively(workspaceDir);
+            // in the background if the builder has a workspace manager
+            workspaceBuilder.release(workspaceDir);
         } catch (Exception e) {
             System.err.println("Warning: Failed to delete workspace directory " + workspaceDir + ": " + e.getMessage());
         }
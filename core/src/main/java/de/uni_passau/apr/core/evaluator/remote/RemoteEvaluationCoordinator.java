@@ -0,0 +1,383 @@
+package de.uni_passau.apr.core.evaluator.remote;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.benchmark.BenchmarkFingerprint;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluator that hands candidates to remote workers (see RemoteEvaluationWorker)
+ * instead of running Maven locally.
+ * -workers pull jobs, so a fast worker simply takes more of them
+ * -an idle worker duplicates a job that has been running for longer than stealAfter
+ * -a job whose worker disconnects or stops answering is put back at the head of the queue
+ * -a job a worker reports as failed goes to another worker; it fails for good once
+ *  MAX_WORKER_FAILURES workers, or every connected one, failed it
+ * -listens on the loopback address unless told otherwise; workers must prove they know
+ *  the shared secret (see RemoteProtocol) before they get any job
+ * -identical (benchmark, source) pairs are evaluated once; late duplicate results are dropped
+ */
+public class RemoteEvaluationCoordinator implements Evaluator, AutoCloseable {
+
+    private static final int MAX_CACHED_RESULTS = 10_000;
+    private static final int MAX_WORKER_FAILURES = 3;
+    private static final int HANDSHAKE_TIMEOUT_MS = 10_000;
+
+    private final ServerSocket server;
+    private final String secret;
+    private final Duration stealAfter;
+    private final Duration resultTimeout;
+
+    private final BlockingDeque<Pending> queue = new LinkedBlockingDeque<>();
+    private final Map<Long, Pending> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Pending> byKey = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> completedKeys = new ConcurrentLinkedQueue<>();
+    private final Map<BenchmarkConfig, String> fingerprints = new ConcurrentHashMap<>();
+    private final Set<Socket> workers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong nextJobId = new AtomicLong();
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private final AtomicInteger deduplicated = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    /**
+     * Listens on the loopback address and accepts workers without a secret.
+     *
+     * @param port          port to listen on (0 picks a free one, see getPort())
+     * @param stealAfter    how long a job may run before an idle worker also takes it
+     * @param resultTimeout how long a worker may take for one job before it is considered lost,
+     *                      and how long evaluate() waits while no worker is connected
+     */
+    public RemoteEvaluationCoordinator(int port, Duration stealAfter, Duration resultTimeout) throws IOException {
+        this(null, port, stealAfter, resultTimeout, null);
+    }
+
+    /**
+     * @param bindAddress address to listen on, null for the loopback address
+     * @param secret      shared secret workers must know, null or blank for none
+     */
+    public RemoteEvaluationCoordinator(InetAddress bindAddress, int port, Duration stealAfter,
+                                       Duration resultTimeout, String secret) throws IOException {
+        if (stealAfter == null || stealAfter.isNegative() || stealAfter.isZero()) {
+            throw new IllegalArgumentException("stealAfter must be a positive duration");
+        }
+        if (resultTimeout == null || resultTimeout.isNegative() || resultTimeout.isZero()) {
+            throw new IllegalArgumentException("resultTimeout must be a positive duration");
+        }
+        this.stealAfter = stealAfter;
+        this.resultTimeout = resultTimeout;
+        this.secret = secret;
+        InetAddress address = bindAddress == null ? InetAddress.getLoopbackAddress() : bindAddress;
+        if (!address.isLoopbackAddress() && (secret == null || secret.isBlank())) {
+            System.err.println("Warning: coordinator listens on " + address.getHostAddress()
+                    + " without a shared secret, anyone who can reach the port can act as a worker");
+        }
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(address, port));
+
+        Thread acceptor = new Thread(this::acceptLoop, "apr-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.println("Evaluation coordinator listening on " + address.getHostAddress() + ":" + getPort());
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getConnectedWorkers() {
+        return workers.size();
+    }
+
+    /** Number of candidates actually sent to workers (duplicates excluded). */
+    public int getEvaluations() {
+        return evaluations.get();
+    }
+
+    /** Number of evaluate() calls answered from an identical earlier or in-flight job. */
+    public int getDeduplicated() {
+        return deduplicated.get();
+    }
+
+    @Override
+    public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+        return evaluate(config, candidateSource, CancellationToken.none());
+    }
+
+    /**
+     * Cancelling stops the wait with a CancellationException; the job itself is not
+     * recalled from its worker, its result is cached for later identical candidates.
+     */
+    @Override
+    public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource, CancellationToken token) {
+        if (config == null) {
+            throw new IllegalArgumentException("BenchmarkConfig cannot be null");
+        }
+        if (candidateSource == null || candidateSource.isEmpty()) {
+            throw new IllegalArgumentException("Candidate source cannot be null or empty");
+        }
+        if (token == null) {
+            throw new IllegalArgumentException("CancellationToken cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Coordinator is closed");
+        }
+
+        String fingerprint = fingerprints.computeIfAbsent(config, BenchmarkFingerprint::of);
+        String key = fingerprint + ":" + BenchmarkFingerprint.hash(candidateSource);
+
+        Pending fresh = new Pending(key, new RemoteProtocol.Job(
+                nextJobId.incrementAndGet(), config.getName(), fingerprint, candidateSource));
+        Pending pending = byKey.putIfAbsent(key, fresh);
+        if (pending == null) {
+            pending = fresh;
+            evaluations.incrementAndGet();
+            queue.addLast(pending);
+        } else {
+            deduplicated.incrementAndGet();
+        }
+
+        try {
+            return await(pending, token);
+        } catch (ExecutionException e) {
+            // failed jobs are not cached, a later call may succeed on another worker
+            byKey.remove(key, pending);
+            throw new RuntimeException("Remote evaluation failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            byKey.remove(key, pending);
+            throw new IllegalStateException("No worker connected for " + resultTimeout.toSeconds()
+                    + " seconds, giving up on remote evaluation");
+        }
+    }
+
+    /**
+     * Wait for a result for as long as workers are connected: a long queue is fine,
+     * a coordinator nobody talks to is not.
+     */
+    private EvaluationResult await(Pending pending, CancellationToken token) throws ExecutionException, TimeoutException {
+        long lastWorkerSeen = System.nanoTime();
+        while (true) {
+            if (token.isCancelled()) {
+                throw new CancellationException("Remote evaluation cancelled");
+            }
+            try {
+                return pending.future.get(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for remote evaluation", e);
+            } catch (TimeoutException e) {
+                if (!workers.isEmpty()) {
+                    lastWorkerSeen = System.nanoTime();
+                } else if (System.nanoTime() - lastWorkerSeen > resultTimeout.toNanos()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException ignored) {
+        }
+        for (Socket s : workers) {
+            closeQuietly(s);
+        }
+        IllegalStateException ex = new IllegalStateException("Coordinator closed");
+        for (Pending p : byKey.values()) {
+            p.future.completeExceptionally(ex);
+        }
+    }
+
+    //-------------Worker connections----------------
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                Thread t = new Thread(() -> serveWorker(socket), "apr-coordinator-worker-" + nextWorker.incrementAndGet());
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Warning: failed to accept worker connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serveWorker(Socket socket) {
+        String name = socket.getRemoteSocketAddress().toString();
+        Pending current = null;
+        try (socket) {
+            // an unauthenticated peer must not hold a connection for long
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            name = RemoteProtocol.readHello(in) + "@" + name;
+            byte[] nonce = RemoteProtocol.writeChallenge(out);
+            if (!RemoteProtocol.readAuth(in, secret, nonce)) {
+                System.err.println("Warning: rejected worker " + name + ": wrong shared secret");
+                RemoteProtocol.writeRejected(out, "wrong shared secret");
+                return;
+            }
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, resultTimeout.toMillis()));
+            workers.add(socket);
+            System.out.println("Worker connected: " + name);
+
+            while (!closed) {
+                current = nextJob(name);
+                if (current == null) continue;
+
+                RemoteProtocol.writeJob(out, current.job);
+                RemoteProtocol.Reply reply = RemoteProtocol.readReply(in);
+                complete(current, reply, name);
+                current = null;
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Worker lost: " + name + " (" + e.getMessage() + ")");
+            }
+        } finally {
+            workers.remove(socket);
+            if (current != null) {
+                requeue(current, name);
+            }
+        }
+    }
+
+    private Pending nextJob(String worker) throws IOException {
+        try {
+            Pending p = queue.pollFirst(stealAfter.toMillis(), TimeUnit.MILLISECONDS);
+            // jobs this worker failed are left for the others
+            List<Pending> skipped = new ArrayList<>();
+            while (p != null && (p.future.isDone() || p.failedOn.contains(worker))) {
+                if (!p.future.isDone()) skipped.add(p);
+                p = queue.pollFirst();
+            }
+            for (int i = skipped.size() - 1; i >= 0; i--) {
+                queue.addFirst(skipped.get(i));
+            }
+            if (p == null && !skipped.isEmpty()) {
+                // nothing else to do: wait instead of spinning over the skipped jobs
+                Thread.sleep(Math.min(stealAfter.toMillis(), 100));
+                return null;
+            }
+            if (p == null) {
+                p = stealStraggler(worker);
+            }
+            if (p != null) {
+                p.assignments.incrementAndGet();
+                p.startedNanos = System.nanoTime();
+                inFlight.put(p.job.id(), p);
+            }
+            return p;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketException("Interrupted");
+        }
+    }
+
+    /** Idle worker: take over a job that has been running on a slow worker for too long. */
+    private Pending stealStraggler(String worker) {
+        long now = System.nanoTime();
+        for (Pending p : inFlight.values()) {
+            if (!p.future.isDone()
+                    && !p.failedOn.contains(worker)
+                    && p.assignments.get() == 1
+                    && now - p.startedNanos > stealAfter.toNanos()) {
+                System.out.println("Duplicating straggling job " + p.job.id() + " on an idle worker.");
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private void complete(Pending p, RemoteProtocol.Reply reply, String worker) {
+        if (reply.failure() != null) {
+            failed(p, reply.failure(), worker);
+            return;
+        }
+        if (!p.future.complete(reply.result())) {
+            System.out.println("Dropping duplicate result for job " + p.job.id() + " from " + worker);
+            return;
+        }
+        inFlight.remove(p.job.id());
+        rememberCompleted(p.key);
+    }
+
+    /**
+     * A worker could not evaluate the job, e.g. its benchmark checkout is stale: let another
+     * worker try, unless enough of them failed it already to blame the job itself.
+     */
+    private void failed(Pending p, String reason, String worker) {
+        if (p.future.isDone()) return;
+        p.failedOn.add(worker);
+        if (p.failedOn.size() >= MAX_WORKER_FAILURES || p.failedOn.size() >= workers.size()) {
+            if (p.future.completeExceptionally(new IllegalStateException(worker + ": " + reason))) {
+                inFlight.remove(p.job.id());
+            }
+            return;
+        }
+        if (p.assignments.decrementAndGet() > 0) return; // still running on another worker
+        inFlight.remove(p.job.id());
+        System.out.println("Requeuing job " + p.job.id() + " that failed on " + worker + ": " + reason);
+        queue.addFirst(p);
+    }
+
+    private void requeue(Pending p, String worker) {
+        if (p.future.isDone()) return;
+        if (p.assignments.decrementAndGet() > 0) return; // still running on another worker
+        inFlight.remove(p.job.id());
+        System.out.println("Requeuing job " + p.job.id() + " after losing " + worker);
+        queue.addFirst(p);
+    }
+
+    private void rememberCompleted(String key) {
+        completedKeys.add(key);
+        while (completedKeys.size() > MAX_CACHED_RESULTS) {
+            String oldest = completedKeys.poll();
+            if (oldest != null) byKey.remove(oldest);
+        }
+    }
+
+    private static void closeQuietly(Socket s) {
+        try {
+            s.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Pending {
+        private final String key;
+        private final RemoteProtocol.Job job;
+        private final CompletableFuture<EvaluationResult> future = new CompletableFuture<>();
+        private final AtomicInteger assignments = new AtomicInteger();
+        private final Set<String> failedOn = ConcurrentHashMap.newKeySet();
+        private volatile long startedNanos;
+
+        private Pending(String key, RemoteProtocol.Job job) {
+            this.key = key;
+            this.job = job;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.uni_passau.apr.core.evaluator.remote;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.benchmark.BenchmarkFingerprint;
+import de.uni_passau.apr.core.benchmark.BenchmarkLoader;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Evaluation worker: connects to a RemoteEvaluationCoordinator, pulls jobs and runs them
+ * with a local Evaluator. Benchmarks are loaded from the worker's own benchmark root and
+ * must match the coordinator's fingerprint, so a stale checkout never reports results.
+ * A worker the coordinator rejects (wrong shared secret) stops instead of reconnecting.
+ * What happens to the connection is reported to a Listener, see withListener.
+ */
+public class RemoteEvaluationWorker implements Runnable {
+
+    /** Receives the worker's connection events, on the thread that runs the worker. */
+    public interface Listener {
+        default void connected(String host, int port) { }
+
+        /** The coordinator refused the worker; it stops. */
+        default void rejected(String reason) { }
+
+        /** The coordinator could not be reached attempts times in a row; the worker stops. */
+        default void gaveUp(int attempts, String reason) { }
+
+        default void stopped(int jobsDone) { }
+    }
+
+    private final String host;
+    private final int port;
+    private final BenchmarkLoader loader;
+    private final Evaluator delegate;
+    private final String name;
+    private final int maxConnectAttempts;
+    private final Duration retryDelay;
+    private final String secret;
+
+    private final Map<String, BenchmarkConfig> benchmarks = new HashMap<>();
+    private volatile boolean stopped = false;
+    private volatile Socket socket;
+    private int jobsDone = 0;
+    private Listener listener = new Listener() { };
+
+    /**
+     * Worker for a coordinator without a shared secret.
+     *
+     * @param maxConnectAttempts consecutive failed connection attempts before the worker gives up
+     */
+    public RemoteEvaluationWorker(String host,
+                                  int port,
+                                  BenchmarkLoader loader,
+                                  Evaluator delegate,
+                                  String name,
+                                  int maxConnectAttempts,
+                                  Duration retryDelay) {
+        this(host, port, loader, delegate, name, maxConnectAttempts, retryDelay, null);
+    }
+
+    /**
+     * @param secret shared secret of the coordinator, null or blank for none
+     */
+    public RemoteEvaluationWorker(String host,
+                                  int port,
+                                  BenchmarkLoader loader,
+                                  Evaluator delegate,
+                                  String name,
+                                  int maxConnectAttempts,
+                                  Duration retryDelay,
+                                  String secret) {
+        if (host == null || host.isBlank()) {
+            throw new IllegalArgumentException("host must not be blank");
+        }
+        if (port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("port must be in 1..65535");
+        }
+        if (maxConnectAttempts <= 0) {
+            throw new IllegalArgumentException("maxConnectAttempts must be > 0");
+        }
+        this.host = host;
+        this.port = port;
+        this.loader = Objects.requireNonNull(loader);
+        this.delegate = Objects.requireNonNull(delegate);
+        this.name = name == null || name.isBlank() ? "worker" : name;
+        this.maxConnectAttempts = maxConnectAttempts;
+        this.retryDelay = Objects.requireNonNull(retryDelay);
+        this.secret = secret;
+    }
+
+    /** Report connection events to listener instead of dropping them. */
+    public RemoteEvaluationWorker withListener(Listener listener) {
+        this.listener = Objects.requireNonNull(listener);
+        return this;
+    }
+
+    /**
+     * Serve jobs until stop() is called or the coordinator stays unreachable
+     * for maxConnectAttempts attempts in a row.
+     */
+    @Override
+    public void run() {
+        int failedAttempts = 0;
+        while (!stopped) {
+            try (Socket s = new Socket()) {
+                s.connect(new InetSocketAddress(host, port), (int) Math.max(1, retryDelay.toMillis()));
+                socket = s;
+                failedAttempts = 0;
+                listener.connected(host, port);
+                serve(s);
+            } catch (RemoteProtocol.RejectedException e) {
+                listener.rejected(e.getMessage());
+                break;
+            } catch (IOException e) {
+                if (stopped) break;
+                if (++failedAttempts >= maxConnectAttempts) {
+                    listener.gaveUp(failedAttempts, e.getMessage());
+                    break;
+                }
+                sleep(retryDelay);
+            }
+        }
+        listener.stopped(jobsDone);
+    }
+
+    public void stop() {
+        stopped = true;
+        Socket s = socket;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public int getJobsDone() {
+        return jobsDone;
+    }
+
+    private void serve(Socket s) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+        RemoteProtocol.writeHello(out, name);
+        RemoteProtocol.answerChallenge(in, out, secret);
+
+        while (!stopped) {
+            RemoteProtocol.Job job = RemoteProtocol.readJob(in);
+            BenchmarkConfig config;
+            try {
+                config = resolve(job);
+            } catch (Exception e) {
+                RemoteProtocol.writeFailed(out, job.id(), e.getMessage());
+                continue;
+            }
+
+            EvaluationResult result;
+            try {
+                result = delegate.evaluate(config, job.source());
+            } catch (RuntimeException e) {
+                RemoteProtocol.writeFailed(out, job.id(), "Evaluation failed: " + e.getMessage());
+                continue;
+            }
+            RemoteProtocol.writeResult(out, job.id(), result);
+            jobsDone++;
+        }
+    }
+
+    private BenchmarkConfig resolve(RemoteProtocol.Job job) throws IOException {
+        BenchmarkConfig config = benchmarks.get(job.benchmarkName());
+        if (config == null) {
+            config = loader.load(job.benchmarkName());
+            benchmarks.put(job.benchmarkName(), config);
+        }
+        String local = BenchmarkFingerprint.of(config);
+        if (!local.equals(job.fingerprint())) {
+            // drop it, a later job may come after the checkout was updated
+            benchmarks.remove(job.benchmarkName());
+            throw new IllegalStateException("Benchmark fingerprint mismatch for " + job.benchmarkName()
+                    + " on worker " + name);
+        }
+        return config;
+    }
+
+    private static void sleep(Duration d) {
+        try {
+            Thread.sleep(d.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package de.uni_passau.apr.core.evaluator.remote;
+
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.testrunner.TestResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Binary frames exchanged between coordinator and workers over a plain TCP socket.
+ * Every frame starts with a one byte type; strings are length prefixed UTF-8
+ * (writeUTF is limited to 64 KB, Maven output is not) and capped, so a broken or hostile
+ * peer cannot make the other side allocate arbitrary amounts of memory.
+ *
+ * worker -> coordinator: HELLO(name), AUTH(mac), RESULT(jobId, result), FAILED(jobId, reason)
+ * A RESULT carries the counts and flags of the TestResult and its failed, passed and errored test ids.
+ * coordinator -> worker: CHALLENGE(nonce), JOB(jobId, benchmark, fingerprint, source), REJECTED(reason)
+ *
+ * After HELLO the coordinator sends a random nonce and the worker answers with an HMAC of it
+ * keyed by the shared secret, so the secret itself never goes over the wire.
+ */
+final class RemoteProtocol {
+
+    static final int MAGIC = 0x41505231; // "APR1"
+
+    static final byte HELLO = 1;
+    static final byte JOB = 2;
+    static final byte RESULT = 3;
+    static final byte FAILED = 4;
+    static final byte CHALLENGE = 5;
+    static final byte AUTH = 6;
+    static final byte REJECTED = 7;
+
+    /** Longest string either side accepts: far above any captured Maven output. */
+    static final int MAX_STRING_BYTES = 64 * 1024 * 1024;
+    /** Longest worker name, read before the worker has authenticated. */
+    static final int MAX_NAME_BYTES = 1024;
+    /** Most test ids in one list of a RESULT frame. */
+    static final int MAX_TEST_IDS = 1_000_000;
+    static final int NONCE_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private RemoteProtocol() {}
+
+    /** The coordinator turned the worker away, e.g. because of a wrong shared secret. */
+    static final class RejectedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RejectedException(String reason) {
+            super(reason);
+        }
+    }
+
+    record Job(long id, String benchmarkName, String fingerprint, String source) { }
+
+    static void writeHello(DataOutputStream out, String workerName) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(HELLO);
+        writeString(out, workerName);
+        out.flush();
+    }
+
+    static String readHello(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != HELLO) {
+            throw new IOException("Not an APR worker");
+        }
+        return readString(in, MAX_NAME_BYTES);
+    }
+
+    static byte[] writeChallenge(DataOutputStream out) throws IOException {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        out.writeByte(CHALLENGE);
+        out.write(nonce);
+        out.flush();
+        return nonce;
+    }
+
+    /** Worker side: answer the coordinator's challenge. */
+    static void answerChallenge(DataInputStream in, DataOutputStream out, String secret) throws IOException {
+        byte type = in.readByte();
+        if (type == REJECTED) throw new RejectedException(readString(in));
+        if (type != CHALLENGE) throw new IOException("Expected CHALLENGE frame, got " + type);
+        byte[] nonce = new byte[NONCE_BYTES];
+        in.readFully(nonce);
+        out.writeByte(AUTH);
+        out.write(mac(secret, nonce));
+        out.flush();
+    }
+
+    /** Coordinator side: whether the worker's answer proves it knows the secret. */
+    static boolean readAuth(DataInputStream in, String secret, byte[] nonce) throws IOException {
+        if (in.readByte() != AUTH) throw new IOException("Expected AUTH frame");
+        byte[] answer = new byte[NONCE_BYTES];
+        in.readFully(answer);
+        return MessageDigest.isEqual(answer, mac(secret, nonce));
+    }
+
+    static void writeRejected(DataOutputStream out, String reason) throws IOException {
+        out.writeByte(REJECTED);
+        writeString(out, reason);
+        out.flush();
+    }
+
+    /** HMAC-SHA256 of the nonce; null and blank secrets are the same (no secret). */
+    private static byte[] mac(String secret, byte[] nonce) {
+        String key = "APR1:" + (secret == null ? "" : secret.strip());
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(nonce);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    static void writeJob(DataOutputStream out, Job job) throws IOException {
+        out.writeByte(JOB);
+        out.writeLong(job.id());
+        writeString(out, job.benchmarkName());
+        writeString(out, job.fingerprint());
+        writeString(out, job.source());
+        out.flush();
+    }
+
+    static Job readJob(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == REJECTED) throw new RejectedException(readString(in));
+        if (type != JOB) throw new IOException("Expected JOB frame, got " + type);
+        return new Job(in.readLong(), readString(in), readString(in), readString(in));
+    }
+
+    static void writeResult(DataOutputStream out, long jobId, EvaluationResult result) throws IOException {
+        out.writeByte(RESULT);
+        out.writeLong(jobId);
+        TestResult tr = result.getTestResult();
+        out.writeBoolean(tr != null);
+        if (tr != null) {
+            out.writeInt(tr.getExitCode());
+            writeString(out, tr.getOutput());
+            out.writeBoolean(tr.isAllPassed());
+            out.writeBoolean(tr.isTimedOut());
+            out.writeInt(tr.getTestsRun());
+            out.writeInt(tr.getFailures());
+            out.writeInt(tr.getErrors());
+            out.writeInt(tr.getSkipped());
+            out.writeLong(tr.getCpuMillis());
+            writeTestIds(out, tr.getFailedTests());
+            writeTestIds(out, tr.getPassedTests());
+            writeTestIds(out, tr.getErroredTests());
+        }
+        writeString(out, result.getWorkspaceDir() == null ? null : result.getWorkspaceDir().toString());
+        out.writeBoolean(result.isWorkSpaceKept());
+        out.flush();
+    }
+
+    static void writeFailed(DataOutputStream out, long jobId, String reason) throws IOException {
+        out.writeByte(FAILED);
+        out.writeLong(jobId);
+        writeString(out, reason);
+        out.flush();
+    }
+
+    /** Reply to a job: either a result or a failure reason. */
+    record Reply(long jobId, EvaluationResult result, String failure) { }
+
+    static Reply readReply(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        long jobId = in.readLong();
+        if (type == FAILED) {
+            return new Reply(jobId, null, readString(in));
+        }
+        if (type != RESULT) throw new IOException("Expected RESULT frame, got " + type);
+
+        EvaluationResult result = new EvaluationResult();
+        if (in.readBoolean()) {
+            TestResult tr = new TestResult();
+            tr.setExitCode(in.readInt());
+            tr.setOutput(readString(in));
+            tr.setAllPassed(in.readBoolean());
+            tr.setTimedOut(in.readBoolean());
+            tr.setTestsRun(in.readInt());
+            tr.setFailures(in.readInt());
+            tr.setErrors(in.readInt());
+            tr.setSkipped(in.readInt());
+            tr.setCpuMillis(in.readLong());
+            tr.setFailedTests(readTestIds(in));
+            tr.setPassedTests(readTestIds(in));
+            tr.setErroredTests(readTestIds(in));
+            result.setTestResult(tr);
+        }
+        String ws = readString(in);
+        result.setWorkspaceDir(ws == null ? null : Path.of(ws));
+        result.setWorkSpaceKept(in.readBoolean());
+        return new Reply(jobId, result, null);
+    }
+
+    private static void writeTestIds(DataOutputStream out, List<String> ids) throws IOException {
+        List<String> list = ids == null ? List.of() : ids;
+        out.writeInt(list.size());
+        for (String id : list) writeString(out, id);
+    }
+
+    private static List<String> readTestIds(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > MAX_TEST_IDS) throw new IOException("Invalid number of test ids: " + n);
+        List<String> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) ids.add(readString(in));
+        return ids;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return readString(in, MAX_STRING_BYTES);
+    }
+
+    private static String readString(DataInputStream in, int maxBytes) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        if (len > maxBytes) {
+            throw new IOException("String of " + len + " bytes exceeds the limit of " + maxBytes);
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
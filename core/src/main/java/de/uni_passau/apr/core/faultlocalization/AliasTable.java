@@ -0,0 +1,71 @@
+package de.uni_passau.apr.core.faultlocalization;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Walker/Vose alias table: draws index i with probability weights[i] / sum in O(1)
+ * from a single nextDouble(), after an O(n) build. Immutable, so a sampler can swap in
+ * a rebuilt table while other threads still draw from the old one.
+ */
+public final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        Objects.requireNonNull(weights);
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("weights cannot be empty");
+        double total = 0.0;
+        for (double w : weights) {
+            if (!(w >= 0) || Double.isInfinite(w)) throw new IllegalArgumentException("weights must be finite and >= 0");
+            total += w;
+        }
+        if (total <= 0) throw new IllegalArgumentException("weights must not all be 0");
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = scaled[l] + scaled[s] - 1.0;
+            if (scaled[l] < 1.0) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+        // what is left is 1 up to rounding
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            probability[l] = 1.0;
+            alias[l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            probability[s] = 1.0;
+            alias[s] = s;
+        }
+    }
+
+    public int size() {
+        return probability.length;
+    }
+
+    /** One index, one draw from rng: its integer part picks the column, the fraction picks column or alias. */
+    public int sample(Random rng) {
+        double u = rng.nextDouble() * probability.length;
+        int column = Math.min((int) u, probability.length - 1);
+        return u - column < probability[column] ? column : alias[column];
+    }
+}
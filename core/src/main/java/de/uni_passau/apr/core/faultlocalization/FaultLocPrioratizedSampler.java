@@ -5,8 +5,24 @@ import de.uni_passau.apr.core.patch.models.StatementId;
 
 import java.util.*;
 
+/**
+ * Draws edit targets biased by fault-localization weight. With feedback enabled the
+ * weights also learn from evaluations (see observe), targets whose patches keep failing
+ * lose weight and productive ones gain it; draws then go through an AliasTable, O(1) each.
+ */
 public final class FaultLocPrioratizedSampler {
 
+    // reward a target is assumed to earn before anything is observed, see weight()
+    private static final double PRIOR_REWARD = 0.5;
+
+    /**
+     * What observe() has seen of one target.
+     *
+     * @param rewards      summed rewards
+     * @param observations number of rewards
+     */
+    public record Feedback(double rewards, int observations) {}
+
     private final StatementCollector collector;
     private final Random rand;
 
@@ -16,11 +32,32 @@ public final class FaultLocPrioratizedSampler {
 
     private final NavigableMap<Integer, List<StatementId>> byBeginLine = new TreeMap<>();
 
+    // feedback mode only: per target index, summed rewards and observations
+    private final double feedbackStrength;
+    private final Map<StatementId, Integer> indexOf = new HashMap<>();
+    private double[] rewards;
+    private int[] observations;
+    // rebuilt lazily after observe() dropped it
+    private volatile AliasTable table;
+
     public FaultLocPrioratizedSampler(FaultLocalization fl,
                                       StatementCollector collector,
                                       Random rand) {
+        this(fl, collector, rand, 0.0);
+    }
+
+    /**
+     * @param feedbackStrength 0 keeps the fault-localization weights fixed; otherwise observe()
+     *                         reweights targets, the prior counting as this many observations
+     */
+    public FaultLocPrioratizedSampler(FaultLocalization fl,
+                                      StatementCollector collector,
+                                      Random rand,
+                                      double feedbackStrength) {
+        if (feedbackStrength < 0) throw new IllegalArgumentException("feedbackStrength must be >= 0");
         this.collector = Objects.requireNonNull(collector);
         this.rand = Objects.requireNonNull(rand);
+        this.feedbackStrength = feedbackStrength;
 
         // index for nearest-next/prev lookup
         for (StatementId id : collector.allStatementIds()) {
@@ -28,6 +65,9 @@ public final class FaultLocPrioratizedSampler {
         }
 
         buildCandidates(fl);
+        for (int i = 0; i < ids.size(); i++) indexOf.put(ids.get(i), i);
+        rewards = new double[ids.size()];
+        observations = new int[ids.size()];
     }
 
     private void buildCandidates(FaultLocalization fl) {
@@ -94,12 +134,122 @@ public final class FaultLocPrioratizedSampler {
         throw new IllegalStateException("No statements available to map to faultloc line " + line);
     }
 
+    /**
+     * Current weight of every target statement, in fault-localization file order: the
+     * fault-localization weight, reweighted by what observe() has seen so far in feedback mode.
+     */
+    public synchronized Map<StatementId, Double> targetWeights() {
+        Map<StatementId, Double> out = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            out.put(ids.get(i), weight(i));
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    public boolean learnsFromFeedback() {
+        return feedbackStrength > 0;
+    }
+
+    /**
+     * Feedback on a patch that edited target, reward in [0, 1] (e.g. half for compiling, half for
+     * beating the parents). A target's weight becomes prior * (rewards + s * m) / ((observations + s) * m)
+     * with s = feedbackStrength and m = 0.5: unchanged without evidence, down to a small share of the
+     * prior for a dead end and up to twice the prior for a target that always pays off.
+     * The alias table is rebuilt on the next draw. Ignored without feedback and for unknown targets.
+     */
+    public synchronized void observe(StatementId target, double reward) {
+        if (reward < 0 || reward > 1) throw new IllegalArgumentException("reward must be in [0, 1]");
+        Integer i = indexOf.get(target);
+        if (!learnsFromFeedback() || i == null) return;
+        rewards[i] += reward;
+        observations[i]++;
+        table = null;
+    }
+
+    /** Targets that moved most from their prior, e.g. "12 observed, up: line 7 x1.45, down: line 4 x0.31". */
+    public synchronized String feedbackSummary() {
+        int observed = 0;
+        int up = -1;
+        int down = -1;
+        for (int i = 0; i < ids.size(); i++) {
+            if (observations[i] == 0) continue;
+            observed++;
+            if (up < 0 || factor(i) > factor(up)) up = i;
+            if (down < 0 || factor(i) < factor(down)) down = i;
+        }
+        if (observed == 0) return "no target observed yet";
+        return String.format(Locale.ROOT, "%d targets observed, up: line %d x%.2f, down: line %d x%.2f",
+                observed, ids.get(up).beginLine(), factor(up), ids.get(down).beginLine(), factor(down));
+    }
+
+    /** Feedback of every target observed so far, in fault-localization file order. */
+    public synchronized Map<StatementId, Feedback> feedback() {
+        Map<StatementId, Feedback> out = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (observations[i] > 0) out.put(ids.get(i), new Feedback(rewards[i], observations[i]));
+        }
+        return out;
+    }
+
+    /**
+     * Replace what observe() has seen with feedback saved from feedback() (e.g. from a checkpoint);
+     * targets missing from saved count as unobserved, unknown targets are ignored.
+     */
+    public synchronized void restore(Map<StatementId, Feedback> saved) {
+        Objects.requireNonNull(saved);
+        double[] r = new double[ids.size()];
+        int[] n = new int[ids.size()];
+        saved.forEach((target, f) -> {
+            if (f.rewards() < 0 || f.observations() < 0 || f.rewards() > f.observations()) {
+                throw new IllegalArgumentException("rewards must be in [0, observations]");
+            }
+            Integer i = indexOf.get(target);
+            if (i == null) return;
+            r[i] = f.rewards();
+            n[i] = f.observations();
+        });
+        rewards = r;
+        observations = n;
+        table = null;
+    }
+
     // returns one statement to edit, chosen randomly but biased by fl weights
     public StatementId getTarget() {
-        double r = rand.nextDouble() * total;
+        return getTarget(rand);
+    }
+
+    /** Same as getTarget(), drawing from the given generator instead of the sampler's own. */
+    public StatementId getTarget(Random rng) {
+        if (learnsFromFeedback()) {
+            return ids.get(aliasTable().sample(rng));
+        }
+        double r = rng.nextDouble() * total;
         int idx = Collections.binarySearch(cumulative, r);
         if (idx < 0) idx = -idx - 1;
         return ids.get(idx);
     }
 
+    private AliasTable aliasTable() {
+        AliasTable t = table;
+        if (t != null) return t;
+        synchronized (this) {
+            if (table == null) {
+                double[] w = new double[ids.size()];
+                for (int i = 0; i < w.length; i++) w[i] = weight(i);
+                table = new AliasTable(w);
+            }
+            return table;
+        }
+    }
+
+    private double weight(int i) {
+        double prior = cumulative.get(i) - (i == 0 ? 0.0 : cumulative.get(i - 1));
+        return prior * factor(i);
+    }
+
+    private double factor(int i) {
+        if (!learnsFromFeedback()) return 1.0;
+        return (rewards[i] + feedbackStrength * PRIOR_REWARD) / ((observations[i] + feedbackStrength) * PRIOR_REWARD);
+    }
+
 }
@@ -1,8 +1,12 @@
 package de.uni_passau.apr.core.fitness;
 
 import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.testrunner.TestCatalog;
+import de.uni_passau.apr.core.testrunner.TestOutcomes;
 import de.uni_passau.apr.core.testrunner.TestResult;
 
+import java.util.List;
+
 /**
  *
  * 1. Converting a Patch into candidate source code (use PatchApplier)
@@ -35,6 +39,29 @@ public final class FitnessEvaluator {
         int skipped = safeNonNeg(tr.getSkipped());
         int passed = Math.max(0, run - skipped - bad);
 
+        return score(tr, passed, bad);
+    }
+
+    /**
+     * Fitness of a run from its per-test outcomes over catalog: passed and failed tests are
+     * popcounts of the outcome sets, exit code and flags come from the TestResult as in
+     * computeFitness(eval). A result that reports counts but no test ids at all is scored
+     * from its counts.
+     */
+    public double computeFitness(EvaluationResult eval, TestCatalog catalog) {
+        if (eval == null || eval.getTestResult() == null) return Double.NEGATIVE_INFINITY;
+        TestResult tr = eval.getTestResult();
+        if (!hasTestIds(tr)) return computeFitness(eval);
+        return computeFitness(tr, TestOutcomes.of(tr, catalog));
+    }
+
+    /** Fitness of a run from its per-test outcomes, see computeFitness(eval, catalog). */
+    public double computeFitness(TestResult tr, TestOutcomes outcomes) {
+        if (tr == null || outcomes == null) return Double.NEGATIVE_INFINITY;
+        return score(tr, outcomes.passedCount(), outcomes.badCount());
+    }
+
+    private double score(TestResult tr, int passed, int bad) {
         double score = (wPosT * passed) - (wNegT * bad);
 
         // Extra penalties for unstable ones
@@ -54,6 +81,14 @@ public final class FitnessEvaluator {
         return score;
     }
 
+    private static boolean hasTestIds(TestResult tr) {
+        return !isEmpty(tr.getPassedTests()) || !isEmpty(tr.getFailedTests()) || !isEmpty(tr.getErroredTests());
+    }
+
+    private static boolean isEmpty(List<String> ids) {
+        return ids == null || ids.isEmpty();
+    }
+
     private static int safeNonNeg(int x) {
         return Math.max(0, x);
     }
@@ -0,0 +1,149 @@
+package de.uni_passau.apr.core.mutation;
+
+import de.uni_passau.apr.core.patch.models.Patch;
+
+import java.util.*;
+
+/**
+ * Adaptive operator selection by probability matching. Each operator (arm) has a quality,
+ * an exponential recency-weighted mean of the rewards of the patches it produced, and is
+ * picked with probability minProbability + (1 - k * minProbability) * quality / sum of qualities.
+ * The floor keeps every operator in use, so one that starts to pay off later is noticed.
+ * <p>
+ * Operators record the patches they produce (record), the run credits them once those
+ * are evaluated (credit). Probabilities only change on credit, so a generation bred
+ * from per-child random streams does not depend on the order its children are bred in.
+ */
+public final class OperatorScheduler<A extends Enum<A>> {
+
+    /**
+     * @param uses        patches credited to the operator
+     * @param quality     recency-weighted mean reward
+     * @param probability current chance to be picked
+     */
+    public record Credit(int uses, double quality, double probability) {}
+
+    private final A[] arms;
+    private final double minProbability;
+    private final double adaptationRate;
+    private final double[] quality;
+    private final int[] uses;
+    private final Map<Patch, A> origins = new HashMap<>();
+
+    /**
+     * @param arms           the operators, usually Enum.class
+     * @param priors         initial quality per operator (e.g. the fixed probabilities used so far), missing ones get 1/k
+     * @param minProbability chance every operator keeps, in [0, 1/k)
+     * @param adaptationRate weight of a new reward in the quality, in (0, 1]
+     */
+    public OperatorScheduler(Class<A> arms, Map<A, Double> priors, double minProbability, double adaptationRate) {
+        this.arms = Objects.requireNonNull(arms).getEnumConstants();
+        Objects.requireNonNull(priors);
+        if (minProbability < 0 || minProbability * this.arms.length >= 1) {
+            throw new IllegalArgumentException("minProbability must be in [0, 1/" + this.arms.length + ")");
+        }
+        if (adaptationRate <= 0 || adaptationRate > 1) {
+            throw new IllegalArgumentException("adaptationRate must be in (0, 1]");
+        }
+        this.minProbability = minProbability;
+        this.adaptationRate = adaptationRate;
+        this.quality = new double[this.arms.length];
+        this.uses = new int[this.arms.length];
+        for (A arm : this.arms) {
+            double prior = priors.getOrDefault(arm, 1.0 / this.arms.length);
+            if (prior < 0) throw new IllegalArgumentException("priors must be >= 0");
+            quality[arm.ordinal()] = prior;
+        }
+    }
+
+    /** Uniform priors. */
+    public OperatorScheduler(Class<A> arms, double minProbability, double adaptationRate) {
+        this(arms, Map.of(), minProbability, adaptationRate);
+    }
+
+    /**
+     * Reward of an evaluated patch in [0, 1]: half for compiling, half for beating the reference fitness
+     * (e.g. the parents' median).
+     */
+    public static double reward(boolean compiled, double fitness, double reference) {
+        return (compiled ? 0.5 : 0.0) + (fitness > reference ? 0.5 : 0.0);
+    }
+
+    /** Pick an operator, one draw from rng. */
+    public synchronized A select(Random rng) {
+        double u = rng.nextDouble();
+        double cumulative = 0.0;
+        for (A arm : arms) {
+            cumulative += probability(arm.ordinal());
+            if (u < cumulative) return arm;
+        }
+        return arms[arms.length - 1];
+    }
+
+    /** Remember that arm produced patch, for a later credit(patch, reward). */
+    public synchronized void record(Patch patch, A arm) {
+        origins.put(Objects.requireNonNull(patch), Objects.requireNonNull(arm));
+    }
+
+    /**
+     * Credit the operator that produced patch, if any; the record is consumed.
+     * @return the operator credited, or null if no operator recorded this patch
+     */
+    public synchronized A credit(Patch patch, double reward) {
+        A arm = origins.remove(patch);
+        if (arm != null) credit(arm, reward);
+        return arm;
+    }
+
+    public synchronized void credit(A arm, double reward) {
+        if (reward < 0 || reward > 1) throw new IllegalArgumentException("reward must be in [0, 1]");
+        int i = arm.ordinal();
+        quality[i] += adaptationRate * (reward - quality[i]);
+        uses[i]++;
+    }
+
+    /** Drop the records of patches that were never evaluated (e.g. skipped or identical to a parent). */
+    public synchronized void forgetUncredited() {
+        origins.clear();
+    }
+
+    /**
+     * Take over uses and quality saved from credits(), keyed by arm name (e.g. from a checkpoint);
+     * arms missing from saved keep theirs.
+     */
+    public synchronized void restore(Map<String, Credit> saved) {
+        Objects.requireNonNull(saved);
+        for (A arm : arms) {
+            Credit c = saved.get(arm.name());
+            if (c == null) continue;
+            if (c.uses() < 0 || c.quality() < 0) throw new IllegalArgumentException("uses and quality must be >= 0");
+            uses[arm.ordinal()] = c.uses();
+            quality[arm.ordinal()] = c.quality();
+        }
+    }
+
+    public synchronized Map<A, Credit> credits() {
+        Map<A, Credit> out = new LinkedHashMap<>();
+        for (A arm : arms) {
+            int i = arm.ordinal();
+            out.put(arm, new Credit(uses[i], quality[i], probability(i)));
+        }
+        return out;
+    }
+
+    /** e.g. "CHANGE_TARGET p=0.41 q=0.62 n=18, ..." */
+    @Override
+    public synchronized String toString() {
+        StringJoiner out = new StringJoiner(", ");
+        credits().forEach((arm, c) -> out.add(String.format(Locale.ROOT, "%s p=%.2f q=%.2f n=%d",
+                arm, c.probability(), c.quality(), c.uses())));
+        return out.toString();
+    }
+
+    private double probability(int i) {
+        double total = 0.0;
+        for (double q : quality) total += q;
+        double share = total > 0 ? quality[i] / total : 1.0 / arms.length;
+        return minProbability + (1 - arms.length * minProbability) * share;
+    }
+}
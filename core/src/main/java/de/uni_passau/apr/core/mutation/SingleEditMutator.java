@@ -10,17 +10,37 @@ import java.util.Random;
 
 public final class SingleEditMutator {
 
+    /** The single moves mutateOnce picks from. */
+    public enum Move {
+        CHANGE_TARGET,
+        CHANGE_DONOR,
+        FLIP_TYPE
+    }
+
+    /** A bred patch and the move that produced it, null if it was left unmutated. */
+    public record Mutation(Patch patch, Move move) {}
+
     private final double mutationProbability;
     private final Random rng;
     private final StatementCollector collector;
     private final FaultLocPrioratizedSampler sampler;
     private final boolean sameTypeDonorOnly;
+    private final OperatorScheduler<Move> scheduler;
 
     public SingleEditMutator(double mutationProbability,
                              Random rng,
                              StatementCollector collector,
                              FaultLocPrioratizedSampler sampler,
                              boolean sameTypeDonorOnly) {
+        this(mutationProbability, rng, collector, sampler, sameTypeDonorOnly, null);
+    }
+
+    private SingleEditMutator(double mutationProbability,
+                              Random rng,
+                              StatementCollector collector,
+                              FaultLocPrioratizedSampler sampler,
+                              boolean sameTypeDonorOnly,
+                              OperatorScheduler<Move> scheduler) {
         if (mutationProbability < 0.0 || mutationProbability > 1.0) {
             throw new IllegalArgumentException("mutation probability must be in [0,1]");
         }
@@ -29,56 +49,124 @@ public final class SingleEditMutator {
         this.collector = Objects.requireNonNull(collector);
         this.sampler = Objects.requireNonNull(sampler);
         this.sameTypeDonorOnly = sameTypeDonorOnly;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Same mutator, picking the move of mutateOnce from the scheduler instead of uniformly.
+     * Every mutant is recorded with its move, the run credits the move once the mutant is evaluated.
+     */
+    public SingleEditMutator withScheduler(OperatorScheduler<Move> scheduler) {
+        return new SingleEditMutator(mutationProbability, rng, collector, sampler, sameTypeDonorOnly,
+                Objects.requireNonNull(scheduler));
+    }
+
+    /** The move scheduler, null if moves are picked uniformly. */
+    public OperatorScheduler<Move> scheduler() {
+        return scheduler;
+    }
+
+    /** Codec of the benchmark's statements (StatementCollector.codec()). */
+    public PatchCodec codec() {
+        return collector.codec();
     }
 
     // Apply mutation with probability p; otherwise return the original patch unchanged.
     public Patch maybeMutate(Patch patch) {
+        return maybeMutate(patch, rng);
+    }
+
+    /** Same as maybeMutate(patch), drawing every random choice from the given generator. */
+    public Patch maybeMutate(Patch patch, Random rng) {
         Objects.requireNonNull(patch);
         if (rng.nextDouble() <= mutationProbability) {
             return patch;
         }
-        return mutateOnce(patch);
+        return mutateOnce(patch, rng);
+    }
+
+    /**
+     * Same draws as maybeMutate(patch, rng), but the move is returned instead of recorded with the
+     * scheduler, so a caller breeding speculatively records only the mutants it keeps (record).
+     */
+    public Mutation maybeMutateUnrecorded(Patch patch, Random rng) {
+        Objects.requireNonNull(patch);
+        if (rng.nextDouble() <= mutationProbability) {
+            return new Mutation(patch, null);
+        }
+        return mutate(patch, rng);
+    }
+
+    /** Record the move of a mutant bred by maybeMutateUnrecorded, for the run to credit. */
+    public void record(Mutation mutation) {
+        if (scheduler != null && mutation.move() != null) scheduler.record(mutation.patch(), mutation.move());
     }
 
     public Patch mutateOnce(Patch patch) {
+        return mutateOnce(patch, rng);
+    }
+
+    public Patch mutateOnce(Patch patch, Random rng) {
+        Mutation mutation = mutate(patch, rng);
+        record(mutation);
+        return mutation.patch();
+    }
+
+    private Mutation mutate(Patch patch, Random rng) {
+        Objects.requireNonNull(rng);
         System.out.println("Mutating patch: " + patch);
         EditOp op = singleOp(patch);
 
         // Try a few times to produce a valid mutant; otherwise fall back to originl.
         for (int attempts = 0; attempts < 10; attempts++) {
-            int choice = rng.nextInt(3); // 0=changeTarget, 1=changeDonor, 2=flipType
-            Patch mutant = switch (choice) {
-                case 0 -> changeTarget(op);
-                case 1 -> changeDonor(op);
-                default -> flipType(op);
-            };
+            Move move = scheduler != null ? scheduler.select(rng) : Move.values()[rng.nextInt(3)];
+            Patch mutant = apply(op, move, rng);
             if (mutant != null) {
                 System.out.println("Produced mutant: " + mutant);
-                return mutant;
+                return new Mutation(mutant, move);
             }
         }
         System.out.println("Mutation failed after several attempts, returning original patch.");
-        return patch;
+        return new Mutation(patch, null);
+    }
+
+    /**
+     * Apply one specific move, e.g. to walk a patch's neighbourhood.
+     * @return the neighbour, or null if the move does not apply (change donor of a delete)
+     * or produced nothing valid this time
+     */
+    public Patch apply(Patch patch, Move move, Random rng) {
+        Objects.requireNonNull(move);
+        Objects.requireNonNull(rng);
+        return apply(singleOp(Objects.requireNonNull(patch)), move, rng);
+    }
+
+    private Patch apply(EditOp op, Move move, Random rng) {
+        return switch (move) {
+            case CHANGE_TARGET -> changeTarget(op, rng);
+            case CHANGE_DONOR -> changeDonor(op, rng);
+            case FLIP_TYPE -> flipType(op, rng);
+        };
     }
 
-    private Patch changeTarget(EditOp op) {
-        StatementId newTarget = sampler.getTarget();
+    private Patch changeTarget(EditOp op, Random rng) {
+        StatementId newTarget = sampler.getTarget(rng);
 
         if (op instanceof DeleteOp) {
             return new Patch(List.of(new DeleteOp(newTarget)));
         }
         if (op instanceof ReplaceOp) {
-            StatementId donor = pickDonorForTarget(newTarget);
+            StatementId donor = pickDonorForTarget(newTarget, rng);
             if (donor == null || donor.equals(newTarget)) return null;
             return new Patch(List.of(new ReplaceOp(newTarget, donor)));
         }
         return null;
     }
 
-    private Patch changeDonor(EditOp op) {
+    private Patch changeDonor(EditOp op, Random rng) {
         if (op instanceof ReplaceOp rep) {
             StatementId target = rep.target();
-            StatementId newDonor = pickDonorForTarget(target);
+            StatementId newDonor = pickDonorForTarget(target, rng);
             if (newDonor == null) return null;
             // avoid self replace if possible
             if (newDonor.equals(target)) return null;
@@ -88,10 +176,10 @@ public final class SingleEditMutator {
         return null;
     }
 
-    private Patch flipType(EditOp op) {
+    private Patch flipType(EditOp op, Random rng) {
         if (op instanceof DeleteOp del) {
             StatementId target = del.target();
-            StatementId donor = pickDonorForTarget(target);
+            StatementId donor = pickDonorForTarget(target, rng);
             if (donor == null) return null;
             if (donor.equals(target)) return null;
             return new Patch(List.of(new ReplaceOp(target, donor)));
@@ -103,7 +191,7 @@ public final class SingleEditMutator {
     }
 
 
-    private StatementId pickDonorForTarget(StatementId target) {
+    private StatementId pickDonorForTarget(StatementId target, Random rng) {
         var all = collector.allStatementIds();
         if (all.isEmpty()) return null;
 
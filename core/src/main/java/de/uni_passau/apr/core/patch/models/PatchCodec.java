@@ -0,0 +1,116 @@
+package de.uni_passau.apr.core.patch.models;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact integer encoding of edits and patches. The statements of a benchmark are
+ * indexed 0..n-1; an edit is packed into one long (kind in bits 62-63, target index in
+ * bits 31-61, donor index in bits 0-30, 0 for a delete) and a patch into a long[] of its edits.
+ * Equal edits have equal codes, so dedup and lookups can run on primitives; the records
+ * are only rebuilt (decode) where a patch leaves that code, e.g. to be applied.
+ * <p>
+ * Statements not given up front get the next free index on first use, so a codec also
+ * works for patches from elsewhere; codes are only comparable within one codec.
+ * Thread safe; encoding a known statement takes no lock.
+ */
+public final class PatchCodec {
+
+    public static final int DELETE = 0;
+    public static final int REPLACE = 1;
+
+    private static final int INDEX_BITS = 31;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private final Map<StatementId, Integer> indexOf = new ConcurrentHashMap<>();
+    private volatile StatementId[] statements;
+
+    /** @param statements the benchmark's statements, indexed in this order */
+    public PatchCodec(List<StatementId> statements) {
+        this.statements = new StatementId[0];
+        for (StatementId id : Objects.requireNonNull(statements)) indexOf(id);
+    }
+
+    /** Statements indexed so far. */
+    public int size() {
+        return statements.length;
+    }
+
+    /** Index of a statement, assigned on first use. */
+    public int indexOf(StatementId id) {
+        Integer index = indexOf.get(Objects.requireNonNull(id));
+        return index != null ? index : register(id);
+    }
+
+    public StatementId statement(int index) {
+        return statements[Objects.checkIndex(index, statements.length)];
+    }
+
+    public long encode(EditOp op) {
+        if (op instanceof DeleteOp d) return delete(indexOf(d.target()));
+        ReplaceOp r = (ReplaceOp) op;
+        return replace(indexOf(r.target()), indexOf(r.donor()));
+    }
+
+    public EditOp decode(long code) {
+        StatementId target = statement(target(code));
+        return kind(code) == DELETE ? new DeleteOp(target) : new ReplaceOp(target, statement(donor(code)));
+    }
+
+    public long[] encode(Patch patch) {
+        List<EditOp> edits = patch.edits();
+        long[] codes = new long[edits.size()];
+        for (int i = 0; i < codes.length; i++) codes[i] = encode(edits.get(i));
+        return codes;
+    }
+
+    public Patch decode(long[] codes) {
+        List<EditOp> edits = new ArrayList<>(codes.length);
+        for (long code : codes) edits.add(decode(code));
+        return new Patch(edits);
+    }
+
+    /** Uniqueness key of a single-edit patch: the code of its (first) edit. */
+    public long key(Patch patch) {
+        return encode(patch.edits().get(0));
+    }
+
+    public static long delete(int target) {
+        return (long) DELETE << 62 | (checkIndex(target) << INDEX_BITS);
+    }
+
+    public static long replace(int target, int donor) {
+        return (long) REPLACE << 62 | (checkIndex(target) << INDEX_BITS) | checkIndex(donor);
+    }
+
+    /** DELETE or REPLACE. */
+    public static int kind(long code) {
+        return (int) (code >>> 62);
+    }
+
+    public static int target(long code) {
+        return (int) ((code >>> INDEX_BITS) & INDEX_MASK);
+    }
+
+    /** Donor index of a replace, 0 for a delete. */
+    public static int donor(long code) {
+        return (int) (code & INDEX_MASK);
+    }
+
+    private static long checkIndex(int index) {
+        if (index < 0) throw new IllegalArgumentException("statement index must be >= 0");
+        return index;
+    }
+
+    private synchronized int register(StatementId id) {
+        Integer index = indexOf.get(id);
+        if (index != null) return index;
+        int next = statements.length;
+        StatementId[] grown = Arrays.copyOf(statements, next + 1);
+        grown[next] = id;
+        // publish the statement before its index, a reader that finds the index finds the statement
+        statements = grown;
+        indexOf.put(id, next);
+        return next;
+    }
+}
@@ -3,6 +3,7 @@ package de.uni_passau.apr.core.patch.operators;
 import com.github.javaparser.*;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.stmt.Statement;
+import de.uni_passau.apr.core.patch.models.PatchCodec;
 import de.uni_passau.apr.core.patch.models.StatementId;
 
 import java.nio.file.Path;
@@ -14,6 +15,7 @@ public final class StatementCollector {
     private final CompilationUnit cu;
     private final Map<StatementId, Statement> byId;
     private final List<StatementId> allIds;
+    private final PatchCodec codec;
 
     private StatementCollector(CompilationUnit cu,
                                Map<StatementId, Statement> byId,
@@ -21,6 +23,7 @@ public final class StatementCollector {
         this.cu = cu;
         this.byId = byId;
         this.allIds = allIds;
+        this.codec = new PatchCodec(allIds);
     }
 
     public static StatementCollector fromFile(Path javaFile) throws Exception {
@@ -49,6 +52,9 @@ public final class StatementCollector {
     public CompilationUnit cu() { return cu; }
     public List<StatementId> allStatementIds() { return Collections.unmodifiableList(allIds); }
 
+    /** Encoding of this file's edits; statement i of allStatementIds() has index i. */
+    public PatchCodec codec() { return codec; }
+
     public Statement getStatement(StatementId id) {
         Statement s = byId.get(id);
         if (s == null) throw new IllegalArgumentException("Unknown statement id : " + id);
@@ -9,6 +9,7 @@ import com.github.javaparser.ast.stmt.Statement;
 
 import de.uni_passau.apr.core.patch.models.DeleteOp;
 import de.uni_passau.apr.core.patch.models.EditOp;
+import de.uni_passau.apr.core.patch.models.Patch;
 import de.uni_passau.apr.core.patch.models.ReplaceOp;
 import de.uni_passau.apr.core.patch.models.StatementId;
 
@@ -16,6 +17,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class PatchUtils {
 
@@ -64,6 +67,58 @@ public final class PatchUtils {
                 id.endLine(), id.endCol());
     }
 
+    /** Inverse of formatId: "3:5-3:20" -> StatementId. */
+    public static StatementId parseId(String s) {
+        String[] parts = s.trim().split("[:-]");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid statement id : " + s);
+        }
+        try {
+            return new StatementId(
+                    Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid statement id : " + s, e);
+        }
+    }
+
+    /**
+     * Compact text form of a patch, e.g. "DEL 3:5-3:20;REP 7:9-7:21<-12:9-12:21".
+     */
+    public static String encode(Patch patch) {
+        StringBuilder sb = new StringBuilder();
+        for (EditOp op : patch.edits()) {
+            if (sb.length() > 0) sb.append(';');
+            if (op instanceof DeleteOp d) {
+                sb.append("DEL ").append(formatId(d.target()));
+            } else if (op instanceof ReplaceOp r) {
+                sb.append("REP ").append(formatId(r.target())).append("<-").append(formatId(r.donor()));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Inverse of encode. */
+    public static Patch decode(String s) {
+        if (s == null || s.isBlank()) {
+            throw new IllegalArgumentException("Invalid patch : " + s);
+        }
+        List<EditOp> edits = new ArrayList<>();
+        for (String part : s.split(";")) {
+            String p = part.trim();
+            if (p.startsWith("DEL ")) {
+                edits.add(new DeleteOp(parseId(p.substring(4))));
+            } else if (p.startsWith("REP ")) {
+                String[] ids = p.substring(4).split("<-");
+                if (ids.length != 2) throw new IllegalArgumentException("Invalid replace op : " + p);
+                edits.add(new ReplaceOp(parseId(ids[0]), parseId(ids[1])));
+            } else {
+                throw new IllegalArgumentException("Unknown edit op : " + p);
+            }
+        }
+        return new Patch(edits);
+    }
+
     public static String oneLine(String s) {
         return s.replace("\r", " ").replace("\n", " ").trim();
     }
@@ -0,0 +1,16 @@
+package de.uni_passau.apr.core.random;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * The generators one child slot draws from, one per operator, so e.g. an extra
+ * mutation attempt never shifts the numbers the next selection sees.
+ */
+public record OperatorRandoms(Random selection, Random crossover, Random mutation) {
+    public OperatorRandoms {
+        Objects.requireNonNull(selection, "selection");
+        Objects.requireNonNull(crossover, "crossover");
+        Objects.requireNonNull(mutation, "mutation");
+    }
+}
@@ -0,0 +1,96 @@
+package de.uni_passau.apr.core.random;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Seed hierarchy of one run: run seed -> generation -> child slot -> operator.
+ * A stream is derived from its key path alone, not from how many numbers other
+ * streams have used, so the individual in slot i of generation g is the same no
+ * matter which thread builds it or in which order the slots are processed.
+ * Streams are SplittableRandom generators behind the java.util.Random interface
+ * the operators take.
+ */
+public final class RngStreams {
+
+    /** Last element of a stream's key. */
+    public enum Purpose {
+        INIT,
+        SELECTION,
+        CROSSOVER,
+        MUTATION,
+        /** exploration draws of a generation's SurrogateFilter, keyed (generation, 0) */
+        SURROGATE
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public RngStreams(long seed) {
+        this.seed = seed;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /** Generator for slot i of the initial population (generation 0). */
+    public Random forInitialSlot(int slot) {
+        return stream(0, slot, Purpose.INIT.ordinal());
+    }
+
+    /** Generators for slot i of generation g (g >= 1). */
+    public OperatorRandoms forChild(int generation, int slot) {
+        return new OperatorRandoms(
+                stream(generation, slot, Purpose.SELECTION.ordinal()),
+                stream(generation, slot, Purpose.CROSSOVER.ordinal()),
+                stream(generation, slot, Purpose.MUTATION.ordinal()));
+    }
+
+    /** Generator for an arbitrary key path below this run's seed. */
+    public Random stream(long... key) {
+        long s = seed;
+        for (long k : key) {
+            s = derive(s, k);
+        }
+        return new SplittableRandomAdapter(s);
+    }
+
+    /** One level of the hierarchy: SplitMix64 of the parent seed combined with the key. */
+    static long derive(long parent, long key) {
+        return mix64(parent + mix64(key + GOLDEN_GAMMA) * GOLDEN_GAMMA);
+    }
+
+    // SplitMix64 finalizer, the same mixing SplittableRandom applies to its seeds
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** java.util.Random view of a SplittableRandom, so the streams plug into the existing operators. */
+    private static final class SplittableRandomAdapter extends Random {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableRandom delegate;
+
+        private SplittableRandomAdapter(long seed) {
+            super(0L);
+            this.delegate = new SplittableRandom(seed);
+        }
+
+        @Override
+        protected int next(int bits) {
+            return delegate.nextInt() >>> (32 - bits);
+        }
+
+        @Override
+        public void setSeed(long seed) {
+            // the stream's seed is its key, it cannot be reseeded
+            if (delegate != null) {
+                throw new UnsupportedOperationException("RNG streams cannot be reseeded");
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.uni_passau.apr.core.selection;
+
+import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.patch.models.PatchCodec;
+import de.uni_passau.apr.core.utils.BloomFilter;
+import de.uni_passau.apr.core.utils.LongHashSet;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The patches a run has evaluated, by fingerprint (the PatchCodec code of a single edit,
+ * a 64-bit hash of the codes otherwise), so breeding can steer away from them.
+ * A Bloom filter answers most lookups of new patches without a lock; only its possible hits
+ * go to an exact set of the first capacity fingerprints. Past capacity the exact set stops
+ * growing and a Bloom hit counts as explored, so memory stays fixed however long the run.
+ * The Bloom filter is sized for several times capacity; once so many patches were recorded
+ * that its false hits would exceed MAX_FALSE_HIT_RATE it is no longer trusted, and only the
+ * exactly kept patches count as explored. Safe for concurrent use. Contents depend only on
+ * what was recorded, not on timing, as long as nothing is recorded while a generation is bred.
+ */
+public final class FingerprintRegistry {
+
+    /** Bloom filter keys per exactly kept fingerprint when not given. */
+    public static final int DEFAULT_BLOOM_FACTOR = 8;
+
+    /** Estimated rate of false Bloom hits above which Bloom-only hits stop counting as explored. */
+    public static final double MAX_FALSE_HIT_RATE = 0.05;
+
+    private final PatchCodec codec;
+    private final int capacity;
+    private final BloomFilter bloom;
+    private final long bloomLimit;
+    private final LongHashSet exact;
+    private long recorded;
+    private boolean saturated;
+
+    /**
+     * @param capacity fingerprints kept exactly, > 0
+     */
+    public FingerprintRegistry(int capacity) {
+        this(capacity, new PatchCodec(List.of()));
+    }
+
+    /**
+     * @param codec encodes the patches, usually the benchmark's (StatementCollector.codec())
+     */
+    public FingerprintRegistry(int capacity, PatchCodec codec) {
+        this(capacity, (long) DEFAULT_BLOOM_FACTOR * Math.max(1, capacity), codec);
+    }
+
+    /**
+     * @param capacity  fingerprints kept exactly, > 0
+     * @param bloomKeys patches the Bloom filter is sized for at 1% false hits, >= capacity
+     */
+    public FingerprintRegistry(int capacity, long bloomKeys, PatchCodec codec) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (bloomKeys < capacity) throw new IllegalArgumentException("bloomKeys must be >= capacity");
+        this.capacity = capacity;
+        this.codec = Objects.requireNonNull(codec);
+        this.bloom = new BloomFilter(bloomKeys, 0.01);
+        this.bloomLimit = bloom.keysAt(MAX_FALSE_HIT_RATE);
+        this.exact = new LongHashSet(capacity);
+    }
+
+    /**
+     * Remember patch as explored. @return true if it was not known yet (within the registry's
+     * precision; once the Bloom filter is full a patch past capacity counts as new every time)
+     */
+    public boolean record(Patch patch) {
+        long fp = fingerprint(patch);
+        synchronized (this) {
+            if (exact.contains(fp) || (saturated && bloomTrusted() && bloom.mightContain(fp))) return false;
+            if (bloomTrusted()) bloom.add(fp);
+            recorded++;
+            if (exact.size() < capacity) exact.add(fp);
+            else saturated = true;
+            return true;
+        }
+    }
+
+    /**
+     * True if patch was recorded, except for patches past capacity once the Bloom filter is
+     * full; past capacity also for the few patches the Bloom filter mistakes for one.
+     */
+    public boolean explored(Patch patch) {
+        long fp = fingerprint(patch);
+        if (!bloom.mightContain(fp)) return false;
+        synchronized (this) {
+            return exact.contains(fp) || (saturated && bloomTrusted());
+        }
+    }
+
+    /** Distinct patches recorded; an upper bound once the Bloom filter is full. */
+    public synchronized long size() {
+        return recorded;
+    }
+
+    /** True once more than capacity patches were recorded and lookups rely on the Bloom filter alone. */
+    public synchronized boolean saturated() {
+        return saturated;
+    }
+
+    /** True once the Bloom filter is full and only the first capacity patches count as explored. */
+    public synchronized boolean bloomFull() {
+        return !bloomTrusted();
+    }
+
+    /**
+     * e.g. "1204 patches", "250000 patches, Bloom filter only past 200000" or
+     * "2000000 patches, Bloom filter full, exact up to 200000"
+     */
+    @Override
+    public synchronized String toString() {
+        if (!bloomTrusted()) return recorded + " patches, Bloom filter full, exact up to " + capacity;
+        return recorded + " patches" + (saturated ? ", Bloom filter only past " + capacity : "");
+    }
+
+    // the first bloomLimit patches were all added, later ones are not
+    private boolean bloomTrusted() {
+        return recorded < bloomLimit;
+    }
+
+    private long fingerprint(Patch patch) {
+        if (patch.edits().size() == 1) return codec.key(patch);
+        long h = 0x9E3779B97F4A7C15L;
+        for (long code : codec.encode(patch)) {
+            h = (h ^ code) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        // keep multi-edit fingerprints apart from single-edit codes, which never set bit 63
+        return h | Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,111 @@
+package de.uni_passau.apr.core.selection;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Parent selection on the indices of a PopulationStore (higher fitness is better).
+ * Selectors hold no state of their own and allocate nothing per call, so one instance
+ * can serve several populations and threads; what they need per population (the ranking)
+ * lives in the store.
+ */
+public interface IndexSelector {
+
+    /** Index of one selected member (with replacement), drawing only from rng. */
+    int select(PopulationStore population, Random rng);
+
+    /** Called once the population is filled, before it is selected from (possibly in parallel). */
+    default void prepare(PopulationStore population) {
+    }
+
+    /**
+     * k members drawn uniformly, the fittest wins; a tie goes to the later one on rng.nextBoolean().
+     * Draws exactly like TournamentSelection.maximize, so a seed selects the same parents.
+     */
+    static IndexSelector tournament(int size) {
+        if (size < 2) throw new IllegalArgumentException("tournament size must be >= 2");
+        return new IndexSelector() {
+            @Override
+            public int select(PopulationStore population, Random rng) {
+                int n = nonEmpty(population, rng);
+                int best = rng.nextInt(n);
+                for (int i = 1; i < size; i++) {
+                    int candidate = rng.nextInt(n);
+                    int cmp = Double.compare(population.fitness(candidate), population.fitness(best));
+                    if (cmp > 0 || (cmp == 0 && rng.nextBoolean())) best = candidate;
+                }
+                return best;
+            }
+
+            @Override
+            public String toString() {
+                return "tournament(" + size + ")";
+            }
+        };
+    }
+
+    /**
+     * Linear ranking: the fittest member is pressure times, the weakest 2 - pressure times as
+     * likely as under uniform selection, in between linear in the rank. One draw per selection,
+     * through the inverse of the rank distribution.
+     * @param pressure in [1, 2], 1 is uniform
+     */
+    static IndexSelector rank(double pressure) {
+        if (!(pressure >= 1.0 && pressure <= 2.0)) throw new IllegalArgumentException("pressure must be in [1, 2]");
+        return new IndexSelector() {
+            @Override
+            public int select(PopulationStore population, Random rng) {
+                int n = nonEmpty(population, rng);
+                double u = rng.nextDouble();
+                // density pressure - 2 (pressure - 1) x over the ranks x in [0, 1), fittest at 0
+                double x = pressure == 1.0 ? u
+                        : (pressure - Math.sqrt(pressure * pressure - 4 * (pressure - 1) * u)) / (2 * (pressure - 1));
+                return population.ranked(Math.min((int) (x * n), n - 1));
+            }
+
+            @Override
+            public void prepare(PopulationStore population) {
+                population.rank();
+            }
+
+            @Override
+            public String toString() {
+                return "rank(" + pressure + ")";
+            }
+        };
+    }
+
+    /**
+     * Uniform among the ceil(fraction * n) fittest members (at least one).
+     * @param fraction in (0, 1]
+     */
+    static IndexSelector truncation(double fraction) {
+        if (!(fraction > 0.0 && fraction <= 1.0)) throw new IllegalArgumentException("fraction must be in (0, 1]");
+        return new IndexSelector() {
+            @Override
+            public int select(PopulationStore population, Random rng) {
+                int n = nonEmpty(population, rng);
+                int top = Math.max(1, Math.min(n, (int) Math.ceil(fraction * n)));
+                return population.ranked(rng.nextInt(top));
+            }
+
+            @Override
+            public void prepare(PopulationStore population) {
+                population.rank();
+            }
+
+            @Override
+            public String toString() {
+                return "truncation(" + fraction + ")";
+            }
+        };
+    }
+
+    private static int nonEmpty(PopulationStore population, Random rng) {
+        Objects.requireNonNull(rng);
+        if (population == null || population.isEmpty()) {
+            throw new IllegalArgumentException("Population must not be empty");
+        }
+        return population.size();
+    }
+}
@@ -3,9 +3,15 @@ package de.uni_passau.apr.core.selection;
 import de.uni_passau.apr.core.crossover.SingleEditCrossover;
 import de.uni_passau.apr.core.mutation.SingleEditMutator;
 import de.uni_passau.apr.core.patch.models.*;
+import de.uni_passau.apr.core.random.OperatorRandoms;
+import de.uni_passau.apr.core.utils.LongHashSet;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 public final class NextGenerationProducer<E> {
 
@@ -18,6 +24,8 @@ public final class NextGenerationProducer<E> {
 
     private final boolean enforceUnique;
     private final int maxAttemptsPerChild;
+    private final PatchCodec codec;
+    private final FingerprintRegistry explored;
 
     public NextGenerationProducer(int populationSize,
                                   ParentSelector<E> selector,
@@ -26,6 +34,34 @@ public final class NextGenerationProducer<E> {
                                   SingleEditMutator mutator,
                                   boolean enforceUnique,
                                   int maxAttemptsPerChild) {
+        this(populationSize, selector, patchOf, crossover, mutator, enforceUnique, maxAttemptsPerChild,
+                new PatchCodec(List.of()));
+    }
+
+    /**
+     * @param codec encodes the children for the uniqueness check, usually the benchmark's
+     *              (StatementCollector.codec()); the other constructor indexes statements as it meets them
+     */
+    public NextGenerationProducer(int populationSize,
+                                  ParentSelector<E> selector,
+                                  Function<E, Patch> patchOf,
+                                  SingleEditCrossover crossover,
+                                  SingleEditMutator mutator,
+                                  boolean enforceUnique,
+                                  int maxAttemptsPerChild,
+                                  PatchCodec codec) {
+        this(populationSize, selector, patchOf, crossover, mutator, enforceUnique, maxAttemptsPerChild, codec, null);
+    }
+
+    private NextGenerationProducer(int populationSize,
+                                   ParentSelector<E> selector,
+                                   Function<E, Patch> patchOf,
+                                   SingleEditCrossover crossover,
+                                   SingleEditMutator mutator,
+                                   boolean enforceUnique,
+                                   int maxAttemptsPerChild,
+                                   PatchCodec codec,
+                                   FingerprintRegistry explored) {
         if (populationSize <= 0) throw new IllegalArgumentException("population size must be > 0");
         this.populationSize = populationSize;
         this.selector = Objects.requireNonNull(selector);
@@ -34,6 +70,18 @@ public final class NextGenerationProducer<E> {
         this.mutator = Objects.requireNonNull(mutator);
         this.enforceUnique = enforceUnique;
         this.maxAttemptsPerChild = Math.max(1, maxAttemptsPerChild);
+        this.codec = Objects.requireNonNull(codec);
+        this.explored = explored;
+    }
+
+    /**
+     * Same producer, avoiding children the registry holds (patches the run evaluated before):
+     * with enforceUnique such a child counts as a duplicate and the slot tries again. Nothing
+     * must be recorded in the registry while produce runs.
+     */
+    public NextGenerationProducer<E> withExplored(FingerprintRegistry explored) {
+        return new NextGenerationProducer<>(populationSize, selector, patchOf, crossover, mutator, enforceUnique,
+                maxAttemptsPerChild, codec, Objects.requireNonNull(explored));
     }
 
     /**
@@ -46,7 +94,7 @@ public final class NextGenerationProducer<E> {
         }
 
         List<Patch> children = new ArrayList<>(populationSize);
-        Set<String> seen = enforceUnique ? new HashSet<>() : null;
+        LongHashSet seen = enforceUnique ? new LongHashSet(populationSize) : null;
 
         int globalGuard = 0;
         while (children.size() < populationSize) {
@@ -68,10 +116,7 @@ public final class NextGenerationProducer<E> {
 
             if (child == null) continue;
 
-            if (enforceUnique) {
-                String sig = signatureSingleEdit(child);
-                if (!seen.add(sig)) continue;
-            }
+            if (enforceUnique && (isExplored(child) || !seen.add(codec.key(child)))) continue;
 
             children.add(child);
         }
@@ -85,6 +130,130 @@ public final class NextGenerationProducer<E> {
         return children;
     }
 
+    /**
+     * Slot-keyed variant of produce(): child i draws selection, crossover and mutation
+     * only from slotRngs.apply(i), so it does not depend on how many draws the children
+     * before it needed. A slot that finds no unique child within maxAttemptsPerChild
+     * keeps its last (duplicate) one.
+     */
+    public List<Patch> produce(List<E> population, IntFunction<OperatorRandoms> slotRngs) {
+        return produce(population, slotRngs, null);
+    }
+
+    /**
+     * Like produce(population, slotRngs), breeding the slots in parallel on pool (null breeds on this thread).
+     * Each slot first breeds speculatively until it claims its edit code in a shared concurrent map,
+     * then one pass in slot order settles uniqueness: slot i takes its first attempt no lower slot took
+     * (and, with a registry, the run has not explored),
+     * breeding further attempts from its own stream if the speculation fell short. Attempts are a prefix
+     * of the slot's stream either way, so the children are the same for every pool size.
+     */
+    public List<Patch> produce(List<E> population, IntFunction<OperatorRandoms> slotRngs, ForkJoinPool pool) {
+        if (population == null || population.isEmpty()) {
+            throw new IllegalArgumentException("population must not be empty");
+        }
+        Objects.requireNonNull(slotRngs);
+
+        List<Slot> slots = new ArrayList<>(populationSize);
+        for (int slot = 0; slot < populationSize; slot++) {
+            slots.add(new Slot(slot, Objects.requireNonNull(slotRngs.apply(slot))));
+        }
+        if (pool != null && populationSize > 1) {
+            ConcurrentHashMap<Long, Integer> claims = new ConcurrentHashMap<>();
+            pool.invoke(new Speculate(slots, population, claims, 0, slots.size()));
+        }
+
+        List<Patch> children = new ArrayList<>(populationSize);
+        LongHashSet taken = enforceUnique ? new LongHashSet(populationSize) : null;
+        for (Slot slot : slots) {
+            Patch child = null;
+            int chosen = -1;
+            for (int attempt = 0; attempt < maxAttemptsPerChild; attempt++) {
+                Patch candidate = slot.attempt(attempt, population);
+                if (candidate == null) continue;
+
+                child = candidate;
+                chosen = attempt;
+                if (!enforceUnique || (!isExplored(candidate) && taken.add(codec.key(candidate)))) break;
+            }
+            // only the kept attempt's move is recorded, in slot order, so credits do not depend on the pool
+            if (child != null) mutator.record(slot.attempts.get(chosen));
+            // nothing usable at all, clone a parent
+            children.add(child != null ? child : patchOf.apply(selector.selectOne(population, slot.rngs.selection())));
+        }
+        return children;
+    }
+
+    /**
+     * One child slot: its generators and the attempts bred from them so far (a null patch where an
+     * attempt failed), with their moves not yet recorded.
+     */
+    private final class Slot {
+        final int index;
+        final OperatorRandoms rngs;
+        final List<SingleEditMutator.Mutation> attempts = new ArrayList<>();
+
+        Slot(int index, OperatorRandoms rngs) {
+            this.index = index;
+            this.rngs = rngs;
+        }
+
+        Patch attempt(int k, List<E> population) {
+            while (attempts.size() <= k) {
+                E p1 = selector.selectOne(population, rngs.selection());
+                E p2 = selector.selectOne(population, rngs.selection());
+
+                Patch candidate = crossover.crossover(patchOf.apply(p1), patchOf.apply(p2), rngs.crossover());
+                attempts.add(mutator.maybeMutateUnrecorded(candidate, rngs.mutation()));
+            }
+            return attempts.get(k).patch();
+        }
+    }
+
+    /** Breeds a range of slots until each holds, for now, the lowest claim on one of its attempts. */
+    private final class Speculate extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 8;
+
+        private final List<Slot> slots;
+        private final List<E> population;
+        private final ConcurrentHashMap<Long, Integer> claims;
+        private final int from;
+        private final int to;
+
+        Speculate(List<Slot> slots, List<E> population, ConcurrentHashMap<Long, Integer> claims, int from, int to) {
+            this.slots = slots;
+            this.population = population;
+            this.claims = claims;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Speculate(slots, population, claims, from, mid),
+                        new Speculate(slots, population, claims, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Slot slot = slots.get(i);
+                for (int attempt = 0; attempt < maxAttemptsPerChild; attempt++) {
+                    Patch candidate = slot.attempt(attempt, population);
+                    if (candidate == null) continue;
+                    if (!enforceUnique) break;
+                    if (isExplored(candidate)) continue;
+                    if (claims.merge(codec.key(candidate), slot.index, Math::min) == slot.index) break;
+                }
+            }
+        }
+    }
+
+    private boolean isExplored(Patch patch) {
+        return explored != null && explored.explored(patch);
+    }
+
     private List<Patch> fillWithoutUniqueness(List<Patch> already, List<E> population) {
         List<Patch> children = new ArrayList<>(already);
         while (children.size() < populationSize) {
@@ -96,17 +265,4 @@ public final class NextGenerationProducer<E> {
         }
         return children;
     }
-
-    private static String signatureSingleEdit(Patch patch) {
-        //Using only 1 edit
-        EditOp op = patch.edits().get(0);
-
-        if (op instanceof DeleteOp d) {
-            return "DEL@" + d.target();
-        }
-        if (op instanceof ReplaceOp r) {
-            return "REP@" + r.target() + "<-" + r.donor();
-        }
-        return op.toString();
-    }
 }
@@ -4,11 +4,17 @@ import de.uni_passau.apr.core.crossover.SingleEditCrossover;
 import de.uni_passau.apr.core.mutation.SingleEditMutator;
 import de.uni_passau.apr.core.patch.models.*;
 
+import de.uni_passau.apr.core.random.OperatorRandoms;
+
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 /**
- * 1. Create tournament selection,
+ * 1. Create tournament selection (or take an IndexSelector over a PopulationStore),
    2. Wrap in parent selector,
    3. Produce next gen
  */
@@ -19,16 +25,121 @@ public final class NextGenerationProducerFactory {
             Random rng,
             SingleEditCrossover crossover,
             SingleEditMutator mutator
+    ) {
+        return buildNextGenerationPatches(population, population.size(), rng, crossover, mutator);
+    }
+
+    /**
+     * Same as above, but produces childCount children, e.g. population size minus the elites.
+     */
+    public static List<Patch> buildNextGenerationPatches(
+            List<Individual> population,
+            int childCount,
+            Random rng,
+            SingleEditCrossover crossover,
+            SingleEditMutator mutator
+    ) {
+        return producer(childCount, rng, crossover, mutator).produce(population);
+    }
+
+    /**
+     * Same as above, but child slot i draws only from slotRngs.apply(i) (see RngStreams),
+     * so the children do not depend on a shared generator's call order.
+     */
+    public static List<Patch> buildNextGenerationPatches(
+            List<Individual> population,
+            int childCount,
+            IntFunction<OperatorRandoms> slotRngs,
+            SingleEditCrossover crossover,
+            SingleEditMutator mutator
+    ) {
+        return buildNextGenerationPatches(population, childCount, slotRngs, crossover, mutator, null);
+    }
+
+    /**
+     * Same as above, breeding the child slots in parallel on pool (null breeds on the calling thread).
+     * The children are the same whatever the pool's size.
+     */
+    public static List<Patch> buildNextGenerationPatches(
+            List<Individual> population,
+            int childCount,
+            IntFunction<OperatorRandoms> slotRngs,
+            SingleEditCrossover crossover,
+            SingleEditMutator mutator,
+            ForkJoinPool pool
+    ) {
+        // the tournament's own generator is never used, every draw comes from the slot streams
+        return producer(childCount, new Random(0L), crossover, mutator).produce(population, slotRngs, pool);
+    }
+
+    /**
+     * Producer breeding childCount children from the members of population, chosen by selection.
+     * It is bound to the store, not to its contents: refill the store, call selection.prepare(population)
+     * and produce(population.patches(), ...) again every generation. Parents are selected on
+     * indices, so no object is created per member; selectOne(pop) draws from rng, the
+     * slot-keyed produce variants from the slot streams.
+     */
+    public static NextGenerationProducer<Patch> producer(
+            PopulationStore population,
+            int childCount,
+            IndexSelector selection,
+            Random rng,
+            SingleEditCrossover crossover,
+            SingleEditMutator mutator
+    ) {
+        Objects.requireNonNull(population);
+        Objects.requireNonNull(selection);
+        Objects.requireNonNull(rng);
+
+        // the population argument is always population.patches(), selection works on the store behind it
+        ParentSelector<Patch> selector = new ParentSelector<>() {
+            @Override
+            public Patch selectOne(List<Patch> pop) {
+                return population.patch(selection.select(population, rng));
+            }
+
+            @Override
+            public Patch selectOne(List<Patch> pop, Random r) {
+                return population.patch(selection.select(population, r));
+            }
+        };
+
+        return new NextGenerationProducer<>(
+                childCount,
+                selector,
+                Function.identity(),
+                crossover,
+                mutator,
+                true,
+                50                   // max attempts per child
+        );
+    }
+
+    private static NextGenerationProducer<Individual> producer(
+            int childCount,
+            Random rng,
+            SingleEditCrossover crossover,
+            SingleEditMutator mutator
     ) {
         // Create TournamentSelection (higher f, better)
         TournamentSelection<Individual> ts = TournamentSelection.maximize(rng, 3, Individual::fitness);
 
         // Wrap it in ParentSelector
-        ParentSelector<Individual> selector = pop -> ts.selectOne(pop);
+        ParentSelector<Individual> selector = new ParentSelector<>() {
+            @Override
+            public Individual selectOne(List<Individual> pop) {
+                return ts.selectOne(pop);
+            }
+
+            @Override
+            public Individual selectOne(List<Individual> pop, Random r) {
+                return ts.selectOne(pop, r);
+            }
+        };
 
         // Create NextGenerationProducer
-        NextGenerationProducer<Individual> producer = new NextGenerationProducer<>(
-                population.size(),
+        return new NextGenerationProducer<>(
+                childCount,
                 selector,            // selection strategy (tournament)
                 Individual::patch,
                 crossover,
@@ -36,7 +147,5 @@ public final class NextGenerationProducerFactory {
                 true,
                 50                   // max attempts per child
         );
-
-        return producer.produce(population);
     }
 }
@@ -1,8 +1,17 @@
 package de.uni_passau.apr.core.selection;
 
 import java.util.List;
+import java.util.Random;
 
 @FunctionalInterface
 public interface ParentSelector<E> {
     E selectOne(List<E> population);
+
+    /**
+     * Select drawing from the given generator. Selectors that hold no generator of their
+     * own may ignore it; the tournament adapter built by NextGenerationProducerFactory uses it.
+     */
+    default E selectOne(List<E> population, Random rng) {
+        return selectOne(population);
+    }
 }
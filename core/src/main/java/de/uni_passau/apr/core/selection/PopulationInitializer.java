@@ -3,11 +3,20 @@ package de.uni_passau.apr.core.selection;
 import de.uni_passau.apr.core.patch.operators.StatementCollector;
 import de.uni_passau.apr.core.patch.models.*;
 import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.utils.LongHashSet;
 
 import java.util.*;
+import java.util.function.IntFunction;
 
 public final class PopulationInitializer {
 
+    /** The kinds of edit a fresh patch can get. */
+    public enum EditKind {
+        DELETE,
+        REPLACE
+    }
+
     private final int populationSize;
     private final Random rng;
     private final StatementCollector collector;
@@ -17,6 +26,7 @@ public final class PopulationInitializer {
     private final double deleteProbability;
 
     private final boolean sameTypeDonorOnly;
+    private final OperatorScheduler<EditKind> scheduler;
 
     // pool by statement class (IfStmt, ReturnStmt, ExpressionStmt etc)
     private final Map<Class<?>, List<StatementId>> donorsByType = new HashMap<>();
@@ -27,6 +37,16 @@ public final class PopulationInitializer {
                                  FaultLocPrioratizedSampler sampler,
                                  double deleteProbability,
                                  boolean sameTypeDonorOnly) {
+        this(populationSize, rng, collector, sampler, deleteProbability, sameTypeDonorOnly, null);
+    }
+
+    private PopulationInitializer(int populationSize,
+                                  Random rng,
+                                  StatementCollector collector,
+                                  FaultLocPrioratizedSampler sampler,
+                                  double deleteProbability,
+                                  boolean sameTypeDonorOnly,
+                                  OperatorScheduler<EditKind> scheduler) {
         if (populationSize <= 0) throw new IllegalArgumentException("populationSize must be > 0");
         if (deleteProbability < 0.0 || deleteProbability > 1.0) {
             throw new IllegalArgumentException("deleteProbability must be in [0,1]");
@@ -37,13 +57,34 @@ public final class PopulationInitializer {
         this.sampler = Objects.requireNonNull(sampler);
         this.deleteProbability = deleteProbability;
         this.sameTypeDonorOnly = sameTypeDonorOnly;
+        this.scheduler = scheduler;
 
         buildDonorPools();
     }
 
+    /**
+     * Same initializer, choosing delete or replace from the scheduler instead of deleteProbability
+     * (a natural prior for it). Every fresh patch is recorded with its kind for a later credit.
+     */
+    public PopulationInitializer withScheduler(OperatorScheduler<EditKind> scheduler) {
+        return new PopulationInitializer(populationSize, rng, collector, sampler, deleteProbability, sameTypeDonorOnly,
+                Objects.requireNonNull(scheduler));
+    }
+
+    /** The edit kind scheduler, null if deleteProbability is used. */
+    public OperatorScheduler<EditKind> scheduler() {
+        return scheduler;
+    }
+
     public List<Patch> initialize() {
+        return initialize(List.of());
+    }
+
+    /** Like initialize(), but the first slots are taken by the given seeds (e.g. from an archive). */
+    public List<Patch> initialize(List<Patch> seeds) {
         List<Patch> pop = new ArrayList<>(populationSize);
-        Set<String> seen = new HashSet<>();
+        LongHashSet seen = new LongHashSet(populationSize);
+        addSeeds(seeds, pop, seen);
 
         int guard = 0;
         while (pop.size() < populationSize) {
@@ -52,10 +93,9 @@ public final class PopulationInitializer {
             }
 
             Patch p = createRandomSingleEditPatch();
-            String sig = signature(p);
 
             // enforce uniqueness
-            if (seen.add(sig)) {
+            if (seen.add(signature(p))) {
                 pop.add(p);
             }
         }
@@ -68,18 +108,104 @@ public final class PopulationInitializer {
         return pop;
     }
 
+    /**
+     * Slot i of the population draws only from slotRng.apply(i), so each individual
+     * depends on its own stream and not on how many draws the slots before it needed.
+     * A slot that finds no unique patch within its attempts keeps its last one.
+     */
+    public List<Patch> initialize(IntFunction<Random> slotRng) {
+        return initialize(slotRng, List.of());
+    }
+
+    /** Like initialize(slotRng), but the first slots are taken by the given seeds; the others keep their streams. */
+    public List<Patch> initialize(IntFunction<Random> slotRng, List<Patch> seeds) {
+        Objects.requireNonNull(slotRng);
+        List<Patch> pop = new ArrayList<>(populationSize);
+        LongHashSet seen = new LongHashSet(populationSize);
+        addSeeds(seeds, pop, seen);
+
+        for (int slot = pop.size(); slot < populationSize; slot++) {
+            Random r = Objects.requireNonNull(slotRng.apply(slot));
+            Patch p = null;
+            for (int attempt = 0; attempt < 50; attempt++) {
+                p = createRandomSingleEditPatch(r);
+                if (seen.add(signature(p))) break;
+            }
+            pop.add(p);
+        }
+        return pop;
+    }
+
+    /**
+     * Fresh patches for a restart: like initialize(slotRng), but targets the run has
+     * rarely tried are boosted, a target seen n times weighs w * (1 + boost / (1 + n)).
+     * Patches in exclude (e.g. the survivors of the restart) are avoided where possible.
+     * @param seenTargets how often each target occurred in the run so far
+     */
+    public List<Patch> reseed(int count, IntFunction<Random> slotRng, Map<StatementId, Integer> seenTargets,
+                              double boost, Set<Patch> exclude) {
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0");
+        if (boost < 0) throw new IllegalArgumentException("boost must be >= 0");
+        Objects.requireNonNull(slotRng);
+
+        List<StatementId> targets = new ArrayList<>();
+        double[] cumulative = new double[sampler.targetWeights().size()];
+        double total = 0.0;
+        for (Map.Entry<StatementId, Double> e : sampler.targetWeights().entrySet()) {
+            int n = seenTargets.getOrDefault(e.getKey(), 0);
+            total += e.getValue() * (1.0 + boost / (1.0 + n));
+            cumulative[targets.size()] = total;
+            targets.add(e.getKey());
+        }
+
+        List<Patch> out = new ArrayList<>(count);
+        LongHashSet seen = new LongHashSet(count + exclude.size());
+        for (Patch p : exclude) seen.add(signature(p));
+        for (int slot = 0; slot < count; slot++) {
+            Random r = Objects.requireNonNull(slotRng.apply(slot));
+            Patch p = null;
+            for (int attempt = 0; attempt < 50; attempt++) {
+                int idx = Arrays.binarySearch(cumulative, r.nextDouble() * total);
+                if (idx < 0) idx = -idx - 1;
+                p = createSingleEditPatch(targets.get(Math.min(idx, targets.size() - 1)), r);
+                if (seen.add(signature(p))) break;
+            }
+            out.add(p);
+        }
+        return out;
+    }
+
+    private void addSeeds(List<Patch> seeds, List<Patch> pop, LongHashSet seen) {
+        for (Patch p : Objects.requireNonNull(seeds)) {
+            if (pop.size() >= populationSize) break;
+            if (seen.add(signature(p))) pop.add(p);
+        }
+    }
+
     private Patch createRandomSingleEditPatch() {
+        return createRandomSingleEditPatch(rng);
+    }
+
+    private Patch createRandomSingleEditPatch(Random rng) {
         // Target biased by fault localization
-        StatementId target = sampler.getTarget();
+        return createSingleEditPatch(sampler.getTarget(rng), rng);
+    }
 
+    private Patch createSingleEditPatch(StatementId target, Random rng) {
         // Choose operation type
-        boolean doDelete = rng.nextDouble() < deleteProbability;
+        EditKind kind = scheduler != null ? scheduler.select(rng)
+                : rng.nextDouble() < deleteProbability ? EditKind.DELETE : EditKind.REPLACE;
+        Patch p = createSingleEditPatch(target, kind, rng);
+        if (scheduler != null) scheduler.record(p, kind);
+        return p;
+    }
 
-        if (doDelete) {
+    private Patch createSingleEditPatch(StatementId target, EditKind kind, Random rng) {
+        if (kind == EditKind.DELETE) {
             return new Patch(List.of(new DeleteOp(target)));
         }
 
-        StatementId donor = pickDonorForTarget(target);
+        StatementId donor = pickDonorForTarget(target, rng);
 
         // When failin to find a donor, fall back to delete
         if (donor == null || donor.equals(target)) {
@@ -96,7 +222,7 @@ public final class PopulationInitializer {
         }
     }
 
-    private StatementId pickDonorForTarget(StatementId target) {
+    private StatementId pickDonorForTarget(StatementId target, Random rng) {
         List<StatementId> all = collector.allStatementIds();
         if (all.isEmpty()) return null;
 
@@ -125,13 +251,8 @@ public final class PopulationInitializer {
         return null;
     }
 
-    private static String signature(Patch p) {
-        // stableish uniqueness key
-        EditOp op = p.edits().get(0);
-        if (op instanceof DeleteOp d) {
-            return "DEL@" + d.target();
-        }
-        ReplaceOp r = (ReplaceOp) op;
-        return "REP@" + r.target() + "<-" + r.donor();
+    private long signature(Patch p) {
+        // uniqueness key: the code of the (single) edit
+        return collector.codec().key(p);
     }
 }
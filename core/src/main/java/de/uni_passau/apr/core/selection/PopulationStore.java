@@ -0,0 +1,149 @@
+package de.uni_passau.apr.core.selection;
+
+import de.uni_passau.apr.core.patch.models.Patch;
+
+import java.util.*;
+
+/**
+ * A population as parallel primitive arrays: member i has fitness(i) and the patch handle(i),
+ * an int into the store's patch table. Selection and ranking run on indices and these arrays,
+ * without an object per member or a comparator call per comparison.
+ * Refill it each generation with clear() and add(); all arrays are kept and reused, so a
+ * refill allocates nothing once they are large enough. A member added again with add(handle,
+ * fitness) shares the patch, e.g. a child identical to a parent.
+ * Not thread safe while being filled; once filled (and ranked) it can be read from several threads.
+ */
+public final class PopulationStore {
+
+    private double[] fitness;
+    private int[] handles;
+    private int size;
+    // patch per handle, valid up to patchCount; handles are only good until the next clear()
+    private Patch[] patchTable;
+    private int patchCount;
+    // member indices fittest first, valid while ranked
+    private int[] order = new int[0];
+    private int[] scratch = new int[0];
+    private boolean ranked;
+
+    public PopulationStore() {
+        this(16);
+    }
+
+    public PopulationStore(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must be >= 0");
+        fitness = new double[Math.max(1, initialCapacity)];
+        handles = new int[fitness.length];
+        patchTable = new Patch[fitness.length];
+    }
+
+    public void clear() {
+        // drop the patches, the table must not keep the last generation alive
+        Arrays.fill(patchTable, 0, patchCount, null);
+        size = 0;
+        patchCount = 0;
+        ranked = false;
+    }
+
+    /** Append a member with a patch of its own. @return its index */
+    public int add(Patch patch, double memberFitness) {
+        Objects.requireNonNull(patch);
+        if (patchCount == patchTable.length) patchTable = Arrays.copyOf(patchTable, patchCount * 2);
+        patchTable[patchCount] = patch;
+        return add(patchCount++, memberFitness);
+    }
+
+    /** Append a member sharing the patch of an earlier one, see handle(i). @return its index */
+    public int add(int handle, double memberFitness) {
+        Objects.checkIndex(handle, patchCount);
+        if (size == fitness.length) {
+            int capacity = size * 2;
+            fitness = Arrays.copyOf(fitness, capacity);
+            handles = Arrays.copyOf(handles, capacity);
+        }
+        fitness[size] = memberFitness;
+        handles[size] = handle;
+        ranked = false;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double fitness(int index) {
+        return fitness[Objects.checkIndex(index, size)];
+    }
+
+    public int handle(int index) {
+        return handles[Objects.checkIndex(index, size)];
+    }
+
+    public Patch patch(int index) {
+        return patchTable[handle(index)];
+    }
+
+    /** The patch a handle stands for. */
+    public Patch patchOf(int handle) {
+        return patchTable[Objects.checkIndex(handle, patchCount)];
+    }
+
+    /** Members' patches in index order, a view without copies. */
+    public List<Patch> patches() {
+        return new AbstractList<>() {
+            @Override
+            public Patch get(int index) {
+                return patch(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Index of the member at rank r, 0 being the fittest; equal fitness keeps index order.
+     * The ranking is built on first use after a change and reused; call rank() before
+     * reading it from several threads.
+     */
+    public int ranked(int r) {
+        Objects.checkIndex(r, size);
+        if (!ranked) rank();
+        return order[r];
+    }
+
+    /** Build the ranking now (stable merge sort on reused arrays), see ranked(r). */
+    public void rank() {
+        if (ranked) return;
+        if (order.length < size) {
+            order = new int[fitness.length];
+            scratch = new int[fitness.length];
+        }
+        for (int i = 0; i < size; i++) order[i] = i;
+        mergeSort(0, size);
+        ranked = true;
+    }
+
+    private void mergeSort(int from, int to) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        mergeSort(from, mid);
+        mergeSort(mid, to);
+        if (fitness[order[mid - 1]] >= fitness[order[mid]]) return;
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            scratch[k++] = fitness[order[j]] > fitness[order[i]] ? order[j++] : order[i++];
+        }
+        while (i < mid) scratch[k++] = order[i++];
+        while (j < to) scratch[k++] = order[j++];
+        System.arraycopy(scratch, from, order, from, to - from);
+    }
+}
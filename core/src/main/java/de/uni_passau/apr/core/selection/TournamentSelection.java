@@ -22,6 +22,12 @@ public final class TournamentSelection<T> {
 
     /** Select exactly one parent (with replacement). */
     public T selectOne(List<T> population) {
+        return selectOne(population, rng);
+    }
+
+    /** Same as selectOne(population), drawing from the given generator. */
+    public T selectOne(List<T> population, Random rng) {
+        Objects.requireNonNull(rng);
         if (population == null || population.isEmpty()) {
             throw new IllegalArgumentException("Population must not be empty");
         }
@@ -0,0 +1,69 @@
+package de.uni_passau.apr.core.surrogate;
+
+/**
+ * Online logistic regression trained by stochastic gradient descent with L2 decay.
+ * One update per evaluated candidate, so the model follows the run as it goes.
+ * Not thread safe.
+ */
+public final class LogisticSurrogate {
+
+    private final double[] weights;
+    private final double learningRate;
+    private final double l2;
+    private int samples = 0;
+
+    public LogisticSurrogate(int features, double learningRate, double l2) {
+        if (features <= 0) throw new IllegalArgumentException("features must be > 0");
+        if (learningRate <= 0) throw new IllegalArgumentException("learningRate must be > 0");
+        if (l2 < 0) throw new IllegalArgumentException("l2 must be >= 0");
+        this.weights = new double[features];
+        this.learningRate = learningRate;
+        this.l2 = l2;
+    }
+
+    public LogisticSurrogate(int features) {
+        this(features, 0.1, 1e-4);
+    }
+
+    /** Predicted probability of a positive label, 0.5 before any training. */
+    public double predict(double[] x) {
+        checkSize(x);
+        double z = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            z += weights[i] * x[i];
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    public void update(double[] x, boolean positive) {
+        double error = (positive ? 1.0 : 0.0) - predict(x);
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] += learningRate * (error * x[i] - l2 * weights[i]);
+        }
+        samples++;
+    }
+
+    /** Number of updates so far. */
+    public int samples() {
+        return samples;
+    }
+
+    /** Copy of the weight vector, see restore. */
+    public double[] weights() {
+        return weights.clone();
+    }
+
+    /** Continue from weights() and samples() of an earlier model with the same features. */
+    public void restore(double[] weights, int samples) {
+        checkSize(weights);
+        if (samples < 0) throw new IllegalArgumentException("samples must be >= 0");
+        System.arraycopy(weights, 0, this.weights, 0, weights.length);
+        this.samples = samples;
+    }
+
+    private void checkSize(double[] x) {
+        if (x.length != weights.length) {
+            throw new IllegalArgumentException("expected " + weights.length + " features, got " + x.length);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.uni_passau.apr.core.surrogate;
+
+import com.github.javaparser.ast.stmt.*;
+import de.uni_passau.apr.core.patch.models.*;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+
+import java.util.*;
+
+/**
+ * Cheap numeric description of a patch, computed without applying it:
+ * bias, edit kind, fault-localization weight of the target (relative to the heaviest),
+ * target and donor statement kind, token similarity and line proximity of target and donor.
+ * Patches with several edits get the mean over their edits.
+ */
+public final class PatchFeatures {
+
+    /** Coarse statement kinds, one feature each for the target and for the donor. */
+    private static final List<Class<? extends Statement>> KINDS = List.of(
+            ExpressionStmt.class, ReturnStmt.class, IfStmt.class, BlockStmt.class, ForStmt.class,
+            ForEachStmt.class, WhileStmt.class, DoStmt.class, ThrowStmt.class);
+
+    // bias, delete, replace, fl weight, similarity, proximity, target kinds (+other), donor kinds (+other)
+    private static final int SIZE = 6 + 2 * (KINDS.size() + 1);
+
+    private final StatementCollector collector;
+    private final Map<StatementId, Double> flWeights;
+    private final double maxWeight;
+    private final Map<StatementId, Set<String>> tokens = new HashMap<>();
+
+    /**
+     * @param flWeights fault-localization weight per target statement, e.g. FaultLocPrioratizedSampler.targetWeights();
+     *                  statements not in the map weigh 0
+     */
+    public PatchFeatures(StatementCollector collector, Map<StatementId, Double> flWeights) {
+        this.collector = Objects.requireNonNull(collector);
+        this.flWeights = Map.copyOf(Objects.requireNonNull(flWeights));
+        this.maxWeight = this.flWeights.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+    }
+
+    public int size() {
+        return SIZE;
+    }
+
+    public double[] of(Patch patch) {
+        double[] x = new double[SIZE];
+        for (EditOp op : patch.edits()) {
+            StatementId target = op instanceof DeleteOp d ? d.target() : ((ReplaceOp) op).target();
+            x[3] += maxWeight > 0 ? flWeights.getOrDefault(target, 0.0) / maxWeight : 0.0;
+            x[6 + kind(target)] += 1;
+            if (op instanceof ReplaceOp r) {
+                x[2] += 1;
+                x[4] += similarity(r.target(), r.donor());
+                x[5] += 1.0 / (1.0 + Math.abs(r.target().beginLine() - r.donor().beginLine()));
+                x[6 + KINDS.size() + 1 + kind(r.donor())] += 1;
+            } else {
+                x[1] += 1;
+            }
+        }
+        int n = patch.edits().size();
+        for (int i = 1; i < SIZE; i++) {
+            x[i] /= n;
+        }
+        x[0] = 1.0;
+        return x;
+    }
+
+    private int kind(StatementId id) {
+        Statement s = collector.getStatement(id);
+        for (int i = 0; i < KINDS.size(); i++) {
+            if (KINDS.get(i).isInstance(s)) return i;
+        }
+        return KINDS.size();
+    }
+
+    /** Jaccard similarity of the identifier and literal tokens of two statements. */
+    private double similarity(StatementId a, StatementId b) {
+        Set<String> ta = tokensOf(a);
+        Set<String> tb = tokensOf(b);
+        if (ta.isEmpty() && tb.isEmpty()) return 1.0;
+        int common = 0;
+        for (String t : ta) {
+            if (tb.contains(t)) common++;
+        }
+        return (double) common / (ta.size() + tb.size() - common);
+    }
+
+    private Set<String> tokensOf(StatementId id) {
+        return tokens.computeIfAbsent(id, k -> {
+            Statement s = collector.getStatement(k);
+            Set<String> out = new HashSet<>();
+            for (String t : s.toString().split("[^A-Za-z0-9_]+")) {
+                if (!t.isEmpty()) out.add(t);
+            }
+            return out;
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package de.uni_passau.apr.core.surrogate;
+
+import de.uni_passau.apr.core.patch.models.Patch;
+
+import java.util.*;
+
+/**
+ * Decides which candidates of a generation are not worth a test run.
+ * A LogisticSurrogate over PatchFeatures predicts whether a candidate compiles and
+ * beats the parents' median fitness; once it has seen `warmup` evaluations, the
+ * skipFraction lowest-scoring candidates of each batch are skipped. Each of them is
+ * still evaluated with probability explorationRate, which keeps the training data from
+ * drifting towards what the model already likes and measures how often a skip was wrong.
+ * Not thread safe, one filter per run.
+ */
+public final class SurrogateFilter {
+
+    /**
+     * @param trained           evaluations the model has learned from
+     * @param predictedPositive evaluated candidates predicted positive (after warm-up)
+     * @param truePositive      of those, the ones that were positive
+     * @param skipped           candidates not evaluated, i.e. evaluations avoided
+     * @param explored          low-scoring candidates evaluated anyway
+     * @param exploredPositive  of those, the ones that were positive (skips that would have been wrong)
+     */
+    public record Stats(int trained, int predictedPositive, int truePositive, int skipped, int explored, int exploredPositive) {
+
+        /** Fraction of positive predictions that were right, NaN before the first one. */
+        public double precision() {
+            return predictedPositive == 0 ? Double.NaN : (double) truePositive / predictedPositive;
+        }
+
+        /** Estimated fraction of skipped candidates that were positive, NaN before the first exploration. */
+        public double missRate() {
+            return explored == 0 ? Double.NaN : (double) exploredPositive / explored;
+        }
+    }
+
+    private final PatchFeatures features;
+    private final LogisticSurrogate model;
+    private final double skipFraction;
+    private final double explorationRate;
+    private final int warmup;
+
+    private final Set<Patch> exploring = new HashSet<>();
+    private int predictedPositive = 0;
+    private int truePositive = 0;
+    private int skipped = 0;
+    private int explored = 0;
+    private int exploredPositive = 0;
+
+    /**
+     * @param skipFraction    share of each batch (lowest predictions first) that is skipped, in [0, 1)
+     * @param explorationRate probability that a candidate picked for skipping is evaluated anyway, in [0, 1]
+     * @param warmup          evaluations to learn from before anything is skipped
+     */
+    public SurrogateFilter(PatchFeatures features, double skipFraction, double explorationRate, int warmup) {
+        if (skipFraction < 0 || skipFraction >= 1) throw new IllegalArgumentException("skipFraction must be in [0, 1)");
+        if (explorationRate < 0 || explorationRate > 1) throw new IllegalArgumentException("explorationRate must be in [0, 1]");
+        if (warmup < 0) throw new IllegalArgumentException("warmup must be >= 0");
+        this.features = Objects.requireNonNull(features);
+        this.model = new LogisticSurrogate(features.size());
+        this.skipFraction = skipFraction;
+        this.explorationRate = explorationRate;
+        this.warmup = warmup;
+    }
+
+    /**
+     * Pick the candidates to skip.
+     * @param rng exploration draws, one per candidate picked for skipping
+     * @return per index of patches, true if that candidate should not be evaluated
+     */
+    public boolean[] skipped(List<Patch> patches, Random rng) {
+        boolean[] skip = new boolean[patches.size()];
+        int n = (int) Math.floor(patches.size() * skipFraction);
+        if (n == 0 || model.samples() < warmup) return skip;
+
+        double[] score = new double[patches.size()];
+        List<Integer> order = new ArrayList<>(patches.size());
+        for (int i = 0; i < patches.size(); i++) {
+            score[i] = model.predict(features.of(patches.get(i)));
+            order.add(i);
+        }
+        // stable: equal scores keep slot order
+        order.sort(Comparator.comparingDouble(i -> score[i]));
+        for (int k = 0; k < n; k++) {
+            int i = order.get(k);
+            if (rng.nextDouble() < explorationRate) {
+                exploring.add(patches.get(i));
+            } else {
+                skip[i] = true;
+                skipped++;
+            }
+        }
+        return skip;
+    }
+
+    /** Learn from one evaluated candidate; positive = compiled and fitter than the parents' median. */
+    public void observe(Patch patch, boolean positive) {
+        double[] x = features.of(patch);
+        if (model.samples() >= warmup && model.predict(x) >= 0.5) {
+            predictedPositive++;
+            if (positive) truePositive++;
+        }
+        if (exploring.remove(patch)) {
+            explored++;
+            if (positive) exploredPositive++;
+        }
+        model.update(x, positive);
+    }
+
+    public Stats stats() {
+        return new Stats(model.samples(), predictedPositive, truePositive, skipped, explored, exploredPositive);
+    }
+
+    /** Copy of the model's weights; with stats() this is what a checkpoint needs. */
+    public double[] weights() {
+        return model.weights();
+    }
+
+    /**
+     * Continue from weights() and stats() of an earlier filter over the same features.
+     * Candidates picked for exploration but not observed yet are forgotten.
+     */
+    public void restore(double[] weights, Stats stats) {
+        if (stats.predictedPositive() < 0 || stats.truePositive() < 0 || stats.truePositive() > stats.predictedPositive()
+                || stats.skipped() < 0 || stats.explored() < 0 || stats.exploredPositive() < 0
+                || stats.exploredPositive() > stats.explored()) {
+            throw new IllegalArgumentException("invalid surrogate stats: " + stats);
+        }
+        model.restore(weights, stats.trained());
+        exploring.clear();
+        predictedPositive = stats.predictedPositive();
+        truePositive = stats.truePositive();
+        skipped = stats.skipped();
+        explored = stats.explored();
+        exploredPositive = stats.exploredPositive();
+    }
+}
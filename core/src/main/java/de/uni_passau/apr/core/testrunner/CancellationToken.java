@@ -0,0 +1,40 @@
+package de.uni_passau.apr.core.testrunner;
+
+/**
+ * Cooperative cancellation flag shared between the engine, the Evaluator and the TestRunner.
+ * Once cancelled it stays cancelled; long running work polls isCancelled() and gives up.
+ */
+public final class CancellationToken {
+
+    private final CancellationToken parent;
+    private volatile boolean cancelled = false;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    private CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /** A fresh token nobody else holds, i.e. one that is never cancelled by someone else. */
+    public static CancellationToken none() {
+        return new CancellationToken();
+    }
+
+    /**
+     * A token that is cancelled together with this one and can also be cancelled on its own,
+     * e.g. to give up on one batch of evaluations without stopping the run.
+     */
+    public CancellationToken child() {
+        return new CancellationToken(this);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+}
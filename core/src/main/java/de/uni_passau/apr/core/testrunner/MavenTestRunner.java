@@ -4,14 +4,39 @@ import de.uni_passau.apr.core.utils.SurefireReportParser;
 import de.uni_passau.apr.core.utils.TestReportSummary;
 import java.nio.file.Files;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * A TestRunner that uses Maven to run tests.
  */
 public class MavenTestRunner implements TestRunner {
 
+    /** Exit code reported when the run was aborted through the CancellationToken. */
+    public static final int EXIT_CANCELLED = 130;
+    /** Exit code reported when the run was stopped for printing more than maxOutputBytes. */
+    public static final int EXIT_OUTPUT_LIMIT = 125;
+    /** Name of the file in the workspace that receives the whole output, see withOutputSpill. */
+    public static final String SPILL_FILE = "apr-test-output.log";
+    private static final long POLL_MILLIS = 100;
+
+    // one pool for all runs; its idle threads expire, and they never keep the JVM alive
+    private static final ExecutorService OUTPUT_READERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "apr-output-reader");
+        t.setDaemon(true);
+        return t;
+    });
+
     private String mvnCmd = "mvn";
     private Duration timeout = Duration.ofSeconds(50);
+    private int headBytes = 16 * 1024;
+    private int tailBytes = 48 * 1024;
+    private long maxOutputBytes = 64L * 1024 * 1024;
+    private boolean spillOutput;
+    private int reactorThreads = 1;
 
     public MavenTestRunner() {
         if (System.getProperty("os.name").toLowerCase().contains("win")) {
@@ -42,6 +67,28 @@ public class MavenTestRunner implements TestRunner {
         this.timeout = timeout;
     }
 
+    /**
+     * A copy that keeps the first headBytes and the last tailBytes of each run's output and
+     * stops a run once it printed more than maxBytes (0 for no limit).
+     */
+    public MavenTestRunner withOutputCapture(int headBytes, int tailBytes, long maxBytes) {
+        if (headBytes < 0 || tailBytes < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Output capture sizes must not be negative");
+        }
+        MavenTestRunner copy = copy();
+        copy.headBytes = headBytes;
+        copy.tailBytes = tailBytes;
+        copy.maxOutputBytes = maxBytes;
+        return copy;
+    }
+
+    /** A copy that also writes each run's whole output (up to the limit) to SPILL_FILE in its workspace. */
+    public MavenTestRunner withOutputSpill(boolean spillOutput) {
+        MavenTestRunner copy = copy();
+        copy.spillOutput = spillOutput;
+        return copy;
+    }
+
     /**
      * Runs Maven tests in the specified workspace directory.
      *
@@ -51,76 +98,54 @@ public class MavenTestRunner implements TestRunner {
      */
     @Override
     public TestResult runTests(java.nio.file.Path workspaceDir) {
+        return runTests(workspaceDir, CancellationToken.none());
+    }
+
+    /**
+     * Runs Maven tests in the specified workspace directory, killing the Maven process tree
+     * when the timeout expires or the token is cancelled.
+     *
+     * @param workspaceDir the directory containing the Maven project
+     * @param token        cancelled by the caller to abort the run
+     * @return TestResult containing the results of the test execution
+     * @throws IllegalArgumentException if workspaceDir is null or does not exist
+     */
+    @Override
+    public TestResult runTests(java.nio.file.Path workspaceDir, CancellationToken token) {
+        if (token == null) {
+            throw new IllegalArgumentException("CancellationToken must not be null");
+        }
         if (workspaceDir == null || !Files.isDirectory(workspaceDir)) {
             throw new IllegalArgumentException("Workspace directory is null or does not exist: " + workspaceDir);
         }
+        if (token.isCancelled()) {
+            return new TestResult(EXIT_CANCELLED, "Test execution cancelled before start.", false, false);
+        }
         System.out.println("\nRunning Maven tests in workspace: " + workspaceDir);
-        // set working directory to workspaceDir
-        ProcessBuilder processBuilder = new ProcessBuilder();
-        processBuilder.directory(workspaceDir.toFile());
-        processBuilder.command(mvnCmd, "-q", "test");
-        processBuilder.redirectErrorStream(true);
         TestResult result = new TestResult();
         try {
-            Process process = processBuilder.start();
-            // reader the output stream in a separate thread
-            StringBuilder output = new StringBuilder();
-            Thread outputReader = new Thread(() -> {
-                try (java.io.BufferedReader reader = new java.io.BufferedReader(
-                        new java.io.InputStreamReader(process.getInputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        output.append(line).append(System.lineSeparator());
-                    }
-                } catch (java.io.IOException ioe) {
-                    output.append("IOException while reading process output: ").append(ioe.getMessage());
-                }
-            });
-            outputReader.start();
-            // wait for process to finish with timeout
-            boolean finished = process.waitFor(timeout.toMillis(), java.util.concurrent.TimeUnit.MILLISECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                process.waitFor(2, java.util.concurrent.TimeUnit.SECONDS);
-                outputReader.join();
-                result.setTimedOut(true);
-                result.setExitCode(124);
-                result.setOutput(output.toString() + "\n\nTest execution timed out after " + timeout.toSeconds() + " seconds.");
-                result.setAllPassed(false);
+            Execution run = execute(workspaceDir, List.of(mvnCmd, "-q", "test"), timeout, token);
+            result.setCpuMillis(run.cpuMillis());
+            if (run.status() != Execution.Status.FINISHED) {
+                abort(result, run, timeout);
                 return result;
             }
-            outputReader.join();
-            int exitCode = process.exitValue();
+            int exitCode = run.exitCode();
             result.setExitCode(exitCode);
-            result.setOutput(output.toString());
+            result.setOutput(run.output().text());
             result.setTimedOut(false);
             result.setAllPassed(exitCode == 0);
             // parse surefire reports
-            TestReportSummary summary = new TestReportSummary();
-            try {
-                summary = SurefireReportParser.parse(
-                        workspaceDir.resolve("target").resolve("surefire-reports"));
-            } catch (java.io.IOException ioe) {
-                result.setOutput(result.getOutput() + "\n\nIOException during surefire report parsing: " + ioe.getMessage());
-            }
+            TestReportSummary summary = readReports(workspaceDir, result);
             if (summary.getTestsRun() == 0) {
-                // last 10 lines of output
-                String[] outputLines = result.getOutput().split(System.lineSeparator());
-                StringBuilder lastLines = new StringBuilder();
-                int start = Math.max(0, outputLines.length - 10);
-                for (int i = start; i < outputLines.length; i++) {
-                    lastLines.append(outputLines[i]).append(System.lineSeparator());
-                }
-                System.out.println("Warning: No tests were run. Last 10 lines of Maven output:\n" + lastLines.toString());
+                System.out.println("Warning: No tests were run. Last 10 lines of Maven output:\n" + run.output().lastLines(10));
             }
             System.out.println(summary);
-            result.setTestsRun(summary.getTestsRun());
-            result.setFailures(summary.getFailures());
-            result.setErrors(summary.getErrors());
-            result.setSkipped(summary.getSkipped());
-            result.setFailedTests(summary.getFailedTestIds());
-            result.setAllPassed(exitCode == 0 && summary.getFailures() == 0 && summary.getErrors() == 0);
-            System.out.println(" Test errors:\n" + result.getOutput());
+            setSummary(result, summary, exitCode);
+            // the full output stays in the result (and the spill file); the console only gets its end
+            if (!result.isAllPassed() && summary.getTestsRun() > 0) {
+                System.out.println(" Test errors, last 10 lines of Maven output:\n" + run.output().lastLines(10));
+            }
         } catch (java.io.IOException ioe) {
             result.setExitCode(127);
             result.setOutput("IOException during test execution: " + ioe.getMessage());
@@ -132,4 +157,211 @@ public class MavenTestRunner implements TestRunner {
         }
         return result;
     }
+
+    /**
+     * Runs the tests of all modules of an aggregator project with one
+     * {@code mvn -T <reactorThreads> -fae test}, so Maven starts once for all of them.
+     * A module that does not compile or whose tests fail does not stop the others. Each module
+     * gets the timeout through surefire's fork timeout, and the whole reactor gets it once per
+     * reactorThreads modules. The CPU time of the reactor is split evenly between the modules,
+     * and each result carries the reactor's whole output.
+     *
+     * @param reactorDir the directory of the aggregator pom.xml
+     * @param modules    module directories below reactorDir
+     * @return one TestResult per module, in the order of modules
+     * @throws IllegalArgumentException if reactorDir is null or does not exist
+     */
+    @Override
+    public List<TestResult> runReactor(java.nio.file.Path reactorDir, List<String> modules, CancellationToken token) {
+        if (token == null) {
+            throw new IllegalArgumentException("CancellationToken must not be null");
+        }
+        if (reactorDir == null || !Files.isDirectory(reactorDir)) {
+            throw new IllegalArgumentException("Reactor directory is null or does not exist: " + reactorDir);
+        }
+        if (modules.isEmpty()) return List.of();
+        List<TestResult> results = new ArrayList<>(modules.size());
+        if (token.isCancelled()) {
+            for (int i = 0; i < modules.size(); i++) {
+                results.add(new TestResult(EXIT_CANCELLED, "Test execution cancelled before start.", false, false));
+            }
+            return results;
+        }
+        System.out.println("\nRunning Maven tests of " + modules.size() + " modules in reactor: " + reactorDir);
+        int waves = (modules.size() + reactorThreads - 1) / reactorThreads;
+        Duration reactorTimeout = timeout.multipliedBy(waves);
+        List<String> command = List.of(mvnCmd, "-q", "-T", String.valueOf(reactorThreads), "-fae",
+                "-Dsurefire.timeout=" + Math.max(1, timeout.toSeconds()), "test");
+        Execution run;
+        try {
+            run = execute(reactorDir, command, reactorTimeout, token);
+        } catch (Exception e) {
+            for (int i = 0; i < modules.size(); i++) {
+                results.add(new TestResult(e instanceof java.io.IOException ? 127 : 10,
+                        "Exception during test execution: " + e.getMessage(), false, false));
+            }
+            return results;
+        }
+        String output = run.output().text();
+        for (String module : modules) {
+            TestResult result = new TestResult();
+            result.setCpuMillis(run.cpuMillis() / modules.size());
+            java.nio.file.Path moduleDir = reactorDir.resolve(module);
+            boolean reported = Files.isDirectory(moduleDir.resolve("target").resolve("surefire-reports"));
+            // a run cut short tells nothing about modules that had not finished, nor anything at all once cancelled
+            if (run.status() == Execution.Status.CANCELLED || (run.status() != Execution.Status.FINISHED && !reported)) {
+                abort(result, run, timeout);
+                results.add(result);
+                continue;
+            }
+            result.setOutput(output);
+            result.setTimedOut(false);
+            TestReportSummary summary = readReports(moduleDir, result);
+            int exitCode;
+            if (summary.getTestsRun() > 0) {
+                exitCode = summary.getFailures() == 0 && summary.getErrors() == 0 ? 0 : 1;
+            } else if (run.exitCode() != 0 && testsCompiled(moduleDir)) {
+                // compiled but never reported: surefire's fork timeout killed the tests
+                exitCode = 124;
+                result.setTimedOut(true);
+            } else {
+                // a module that failed to compile, or a reactor without failures
+                exitCode = run.exitCode();
+            }
+            result.setExitCode(exitCode);
+            System.out.println(module + ": " + summary);
+            setSummary(result, summary, exitCode);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /** A copy running reactors with reactorThreads modules at a time (Maven's -T). */
+    public MavenTestRunner withReactorThreads(int reactorThreads) {
+        if (reactorThreads < 1) {
+            throw new IllegalArgumentException("Reactor threads must be >= 1");
+        }
+        MavenTestRunner copy = copy();
+        copy.reactorThreads = reactorThreads;
+        return copy;
+    }
+
+    /** How one Maven process ended. exitCode is only meaningful if it FINISHED. */
+    private record Execution(Status status, int exitCode, OutputCapture output, long cpuMillis) {
+        enum Status { FINISHED, CANCELLED, OUTPUT_LIMIT, TIMED_OUT }
+    }
+
+    /**
+     * Runs command in dir, killing the process tree when the timeout expires, the token is
+     * cancelled or the output limit is exceeded.
+     */
+    private Execution execute(java.nio.file.Path dir, List<String> command, Duration timeout, CancellationToken token)
+            throws Exception {
+        // set working directory to dir
+        ProcessBuilder processBuilder = new ProcessBuilder();
+        processBuilder.directory(dir.toFile());
+        processBuilder.command(command);
+        processBuilder.redirectErrorStream(true);
+        OutputCapture output = new OutputCapture(headBytes, tailBytes, maxOutputBytes,
+                spillOutput ? dir.resolve(SPILL_FILE) : null);
+        Process process = processBuilder.start();
+        // read the output stream on the shared reader pool
+        Future<?> outputReader = OUTPUT_READERS.submit(() -> output.drain(process.getInputStream()));
+        // wait for process to finish with timeout, polling the token and sampling CPU time
+        java.util.Map<Long, Duration> cpu = new java.util.HashMap<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean finished = false;
+        while (!token.isCancelled() && !output.limitExceeded() && System.nanoTime() < deadline) {
+            sampleCpu(process, cpu);
+            if (process.waitFor(POLL_MILLIS, java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                finished = true;
+                break;
+            }
+        }
+        if (!finished) {
+            // surefire forks its own JVM, which would otherwise outlive mvn and keep the output pipe open
+            destroyTree(process);
+            process.waitFor(2, java.util.concurrent.TimeUnit.SECONDS);
+        }
+        outputReader.get();
+        Execution.Status status = finished ? Execution.Status.FINISHED
+                : token.isCancelled() ? Execution.Status.CANCELLED
+                : output.limitExceeded() ? Execution.Status.OUTPUT_LIMIT
+                : Execution.Status.TIMED_OUT;
+        return new Execution(status, finished ? process.exitValue() : -1, output, totalMillis(cpu));
+    }
+
+    private void abort(TestResult result, Execution run, Duration timeout) {
+        result.setAllPassed(false);
+        result.setTimedOut(run.status() == Execution.Status.TIMED_OUT);
+        switch (run.status()) {
+            case CANCELLED -> {
+                result.setExitCode(EXIT_CANCELLED);
+                result.setOutput(run.output().text() + "\n\nTest execution cancelled.");
+            }
+            case OUTPUT_LIMIT -> {
+                result.setExitCode(EXIT_OUTPUT_LIMIT);
+                result.setOutput(run.output().text() + "\n\nTest execution stopped after printing more than "
+                        + maxOutputBytes + " bytes.");
+            }
+            default -> {
+                result.setExitCode(124);
+                result.setOutput(run.output().text() + "\n\nTest execution timed out after " + timeout.toSeconds() + " seconds.");
+            }
+        }
+    }
+
+    private static TestReportSummary readReports(java.nio.file.Path projectDir, TestResult result) {
+        try {
+            return SurefireReportParser.parse(projectDir.resolve("target").resolve("surefire-reports"));
+        } catch (java.io.IOException ioe) {
+            result.setOutput(result.getOutput() + "\n\nIOException during surefire report parsing: " + ioe.getMessage());
+            return new TestReportSummary();
+        }
+    }
+
+    private static void setSummary(TestResult result, TestReportSummary summary, int exitCode) {
+        result.setTestsRun(summary.getTestsRun());
+        result.setFailures(summary.getFailures());
+        result.setErrors(summary.getErrors());
+        result.setSkipped(summary.getSkipped());
+        result.setFailedTests(summary.getFailedTestIds());
+        result.setPassedTests(summary.getPassedTestIds());
+        result.setErroredTests(summary.getErroredTestIds());
+        result.setAllPassed(exitCode == 0 && summary.getFailures() == 0 && summary.getErrors() == 0);
+    }
+
+    private static boolean testsCompiled(java.nio.file.Path moduleDir) {
+        try (var files = Files.walk(moduleDir.resolve("target").resolve("test-classes"))) {
+            return files.anyMatch(f -> f.getFileName().toString().endsWith(".class"));
+        } catch (java.io.IOException | java.io.UncheckedIOException e) {
+            return false;
+        }
+    }
+
+    private MavenTestRunner copy() {
+        MavenTestRunner copy = new MavenTestRunner(mvnCmd, timeout);
+        copy.headBytes = headBytes;
+        copy.tailBytes = tailBytes;
+        copy.maxOutputBytes = maxOutputBytes;
+        copy.spillOutput = spillOutput;
+        copy.reactorThreads = reactorThreads;
+        return copy;
+    }
+
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    // a process's CPU time is only readable while it is alive, so keep the last value seen per pid
+    private static void sampleCpu(Process process, java.util.Map<Long, Duration> cpu) {
+        java.util.stream.Stream.concat(java.util.stream.Stream.of(process.toHandle()), process.descendants())
+                .forEach(h -> h.info().totalCpuDuration()
+                        .ifPresent(d -> cpu.merge(h.pid(), d, (a, b) -> a.compareTo(b) >= 0 ? a : b)));
+    }
+
+    private static long totalMillis(java.util.Map<Long, Duration> cpu) {
+        return cpu.values().stream().mapToLong(Duration::toMillis).sum();
+    }
 }
@@ -0,0 +1,174 @@
+package de.uni_passau.apr.core.testrunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bounded capture of a process's output: keeps the first headBytes and, in a ring buffer, the
+ * last tailBytes, and counts what lies between. Memory stays the same however much the
+ * process prints. Optionally all of it is also written to a spill file. Past maxBytes further
+ * output is dropped and limitExceeded() turns true, so the caller can stop the process.
+ * Fed by one reader thread (see drain), read by others.
+ */
+public final class OutputCapture {
+
+    private final byte[] head;
+    private int headLength;
+    private final byte[] tail;
+    // next write position in tail, and how many of its bytes are valid
+    private int tailPos;
+    private int tailLength;
+    private long total;
+    private final long maxBytes;
+    private volatile boolean limitExceeded;
+    private final Path spillFile;
+    private OutputStream spill;
+    private String readError;
+
+    /**
+     * @param maxBytes  output accepted in total, 0 for no limit
+     * @param spillFile file receiving the whole accepted output, or null
+     * @throws IOException if the spill file cannot be created
+     */
+    public OutputCapture(int headBytes, int tailBytes, long maxBytes, Path spillFile) throws IOException {
+        if (headBytes < 0 || tailBytes < 0) {
+            throw new IllegalArgumentException("headBytes and tailBytes must be >= 0");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must be >= 0");
+        }
+        this.head = new byte[headBytes];
+        this.tail = new byte[tailBytes];
+        this.maxBytes = maxBytes;
+        this.spillFile = spillFile;
+        this.spill = spillFile == null ? null : Files.newOutputStream(spillFile);
+    }
+
+    public synchronized void append(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        if (maxBytes > 0 && total + length > maxBytes) {
+            length = (int) Math.max(0, maxBytes - total);
+            limitExceeded = true;
+        }
+        if (length == 0) return;
+        writeSpill(bytes, offset, length);
+        total += length;
+        int toHead = Math.min(length, head.length - headLength);
+        System.arraycopy(bytes, offset, head, headLength, toHead);
+        headLength += toHead;
+        offset += toHead;
+        length -= toHead;
+        if (length == 0 || tail.length == 0) return;
+        if (length >= tail.length) {
+            System.arraycopy(bytes, offset + length - tail.length, tail, 0, tail.length);
+            tailPos = 0;
+            tailLength = tail.length;
+            return;
+        }
+        int first = Math.min(length, tail.length - tailPos);
+        System.arraycopy(bytes, offset, tail, tailPos, first);
+        System.arraycopy(bytes, offset + first, tail, 0, length - first);
+        tailPos = (tailPos + length) % tail.length;
+        tailLength = Math.min(tail.length, tailLength + length);
+    }
+
+    /** Read in until end of stream; output past the limit is read and dropped, so the pipe never blocks. */
+    public void drain(InputStream in) {
+        byte[] buffer = new byte[8192];
+        try (in) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                append(buffer, 0, n);
+            }
+        } catch (IOException ioe) {
+            synchronized (this) {
+                readError = "IOException while reading process output: " + ioe.getMessage();
+            }
+        } finally {
+            closeSpill();
+        }
+    }
+
+    public boolean limitExceeded() {
+        return limitExceeded;
+    }
+
+    /** Bytes accepted so far, kept or not. */
+    public synchronized long totalBytes() {
+        return total;
+    }
+
+    /** Bytes accepted but neither in the head nor in the tail. */
+    public synchronized long omittedBytes() {
+        return total - headLength - tailLength;
+    }
+
+    public Path spillFile() {
+        return spillFile;
+    }
+
+    /** Head and tail, with a marker line for what was left out. */
+    public synchronized String text() {
+        StringBuilder out = new StringBuilder(decode(head, 0, headLength));
+        long omitted = omittedBytes();
+        if (omitted > 0) {
+            out.append(System.lineSeparator()).append("... [").append(omitted).append(" bytes of output omitted");
+            if (spillFile != null) out.append(", see ").append(spillFile);
+            out.append("] ...").append(System.lineSeparator());
+        }
+        out.append(tailText());
+        if (readError != null) out.append(readError);
+        return out.toString();
+    }
+
+    /** The last n lines that were kept. */
+    public synchronized String lastLines(int n) {
+        String kept = omittedBytes() > 0 ? tailText() : text();
+        List<String> lines = kept.lines().toList();
+        StringBuilder out = new StringBuilder();
+        for (String line : lines.subList(Math.max(0, lines.size() - n), lines.size())) {
+            out.append(line).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private String tailText() {
+        int start = (tailPos - tailLength + tail.length) % Math.max(1, tail.length);
+        byte[] ordered = new byte[tailLength];
+        int first = Math.min(tailLength, tail.length - start);
+        System.arraycopy(tail, start, ordered, 0, first);
+        System.arraycopy(tail, 0, ordered, first, tailLength - first);
+        return decode(ordered, 0, tailLength);
+    }
+
+    // a multi-byte character cut at the head or tail boundary decodes to a replacement character
+    private static String decode(byte[] bytes, int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    private void writeSpill(byte[] bytes, int offset, int length) {
+        if (spill == null) return;
+        try {
+            spill.write(bytes, offset, length);
+        } catch (IOException e) {
+            System.err.println("Warning: stopped spilling test output to " + spillFile + ": " + e.getMessage());
+            closeSpill();
+        }
+    }
+
+    private synchronized void closeSpill() {
+        if (spill == null) return;
+        try {
+            spill.close();
+        } catch (IOException ignored) {
+            // the head and tail are still in memory
+        }
+        spill = null;
+    }
+}
@@ -0,0 +1,132 @@
+package de.uni_passau.apr.core.testrunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only file of deflate-compressed texts (test process output), addressed by offset,
+ * so evaluated candidates keep a long instead of the whole Maven log. Each record is
+ * [compressed length][original length][bytes]. No file handle is held between calls,
+ * reads work at any time (also after the run) and from any thread.
+ */
+public final class OutputLog {
+
+    private static final int HEADER_BYTES = 8;
+
+    private final Path file;
+    private long size;
+
+    public OutputLog(Path file) throws IOException {
+        this.file = Objects.requireNonNull(file);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.size = Files.exists(file) ? Files.size(file) : 0L;
+    }
+
+    /** A log in a new "apr-output-*.log" file in dir, deleted when the JVM exits. */
+    public static OutputLog createTemp(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, "apr-output-", ".log");
+        file.toFile().deleteOnExit();
+        return new OutputLog(file);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Bytes written so far. */
+    public synchronized long size() {
+        return size;
+    }
+
+    /** Compress and append text. @return the offset to read it back from */
+    public long append(String text) {
+        byte[] raw = Objects.requireNonNull(text).getBytes(StandardCharsets.UTF_8);
+        byte[] packed = deflate(raw);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + packed.length);
+        record.putInt(packed.length).putInt(raw.length).put(packed).flip();
+        synchronized (this) {
+            long offset = size;
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long at = offset;
+                while (record.hasRemaining()) at += ch.write(record, at);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write output log " + file, e);
+            }
+            size += HEADER_BYTES + packed.length;
+            return offset;
+        }
+    }
+
+    /** The text appended at offset. */
+    public String read(long offset) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(ch, header, offset);
+            int packedLength = header.getInt(0);
+            int rawLength = header.getInt(4);
+            ByteBuffer packed = ByteBuffer.allocate(packedLength);
+            readFully(ch, packed, offset + HEADER_BYTES);
+            return new String(inflate(packed.array(), rawLength), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read output log " + file + " at " + offset, e);
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        long at = position;
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, at);
+            if (n < 0) throw new IOException("unexpected end of output log");
+            at += n;
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] packed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packed);
+            byte[] raw = new byte[rawLength];
+            int at = 0;
+            while (at < rawLength) {
+                int n = inflater.inflate(raw, at, rawLength - at);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("corrupt output log record");
+                }
+                at += n;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt output log record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package de.uni_passau.apr.core.testrunner;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * TestResult that keeps only counts and flags in memory: the output lives in an OutputLog
+ * and is read back on every getOutput(), the failed tests are an interned BitSet over a
+ * TestCatalog. For candidates that stay in a population for a whole generation or longer.
+ */
+public final class SpilledTestResult extends TestResult {
+
+    private static final long NO_OUTPUT = -1L;
+
+    private final OutputLog log;
+    private final TestCatalog catalog;
+    private long outputOffset;
+    private BitSet failed;
+    private BitSet passed;
+    private BitSet errored;
+    private TestOutcomes outcomes;
+
+    /** Copy of source with its output appended to log. */
+    public SpilledTestResult(TestResult source, OutputLog log, TestCatalog catalog) {
+        super(source.getExitCode(), null, source.isAllPassed(), source.isTimedOut());
+        this.log = Objects.requireNonNull(log);
+        this.catalog = Objects.requireNonNull(catalog);
+        // the lists TestResult starts with are never used here
+        super.setFailedTests(null);
+        super.setPassedTests(null);
+        super.setErroredTests(null);
+        setTestsRun(source.getTestsRun());
+        setFailures(source.getFailures());
+        setErrors(source.getErrors());
+        setSkipped(source.getSkipped());
+        setCpuMillis(source.getCpuMillis());
+        setOutput(source.getOutput());
+        setFailedTests(source.getFailedTests());
+        setPassedTests(source.getPassedTests());
+        setErroredTests(source.getErroredTests());
+    }
+
+    /** Spill tr unless it is spilled already. */
+    public static TestResult of(TestResult tr, OutputLog log, TestCatalog catalog) {
+        return tr == null || tr instanceof SpilledTestResult ? tr : new SpilledTestResult(tr, log, catalog);
+    }
+
+    /** Read back from the log. */
+    @Override
+    public String getOutput() {
+        return outputOffset == NO_OUTPUT ? null : log.read(outputOffset);
+    }
+
+    @Override
+    public void setOutput(String output) {
+        outputOffset = output == null ? NO_OUTPUT : log.append(output);
+    }
+
+    /** A new list decoded from the bitset; changes to it are not kept, use setFailedTests. */
+    @Override
+    public List<String> getFailedTests() {
+        return catalog.decode(failed);
+    }
+
+    @Override
+    public void setFailedTests(List<String> failedTests) {
+        failed = encode(failedTests);
+    }
+
+    /** A new list decoded from the bitset, like getFailedTests(). */
+    @Override
+    public List<String> getPassedTests() {
+        return catalog.decode(passed);
+    }
+
+    @Override
+    public void setPassedTests(List<String> passedTests) {
+        passed = encode(passedTests);
+    }
+
+    /** A new list decoded from the bitset, like getFailedTests(). */
+    @Override
+    public List<String> getErroredTests() {
+        return catalog.decode(errored);
+    }
+
+    @Override
+    public void setErroredTests(List<String> erroredTests) {
+        errored = encode(erroredTests);
+    }
+
+    /** The failed tests as the catalog's shared set; do not modify. */
+    public BitSet failedTestSet() {
+        return failed;
+    }
+
+    /** Per-test outcomes on the catalog's shared sets, built on first use after a change. */
+    public TestOutcomes outcomes() {
+        TestOutcomes current = outcomes;
+        if (current == null) {
+            BitSet failedOnly = (BitSet) failed.clone();
+            failedOnly.andNot(errored);
+            BitSet passedOnly = (BitSet) passed.clone();
+            passedOnly.andNot(failed);
+            passedOnly.andNot(errored);
+            current = new TestOutcomes(catalog.intern(passedOnly), catalog.intern(failedOnly), errored);
+            outcomes = current;
+        }
+        return current;
+    }
+
+    private BitSet encode(List<String> testIds) {
+        outcomes = null;
+        return catalog.encode(testIds == null ? List.of() : testIds);
+    }
+}
@@ -0,0 +1,111 @@
+package de.uni_passau.apr.core.testrunner;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense indices for the test ids ("Class#method") of a benchmark, so a set of tests can be
+ * kept as a BitSet. Ids get the next free index on first use; discover(...) assigns the
+ * benchmark's tests their indices up front, in source order. Equal sets are interned:
+ * intern(...) hands out one shared BitSet per distinct set, which must not be modified.
+ * Thread safe.
+ */
+public final class TestCatalog {
+
+    // parameterized, repeated and dynamic tests are reported per invocation; a run registers those
+    private static final Set<String> TEST_ANNOTATIONS = Set.of("Test", "org.junit.Test", "org.junit.jupiter.api.Test");
+
+    private final Map<String, Integer> indexOf = new ConcurrentHashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final Map<BitSet, BitSet> interned = new HashMap<>();
+
+    /**
+     * A catalog holding the @Test methods of a test class source, with the ids Surefire
+     * reports for them: the binary class name (Outer$Inner for nested classes) and the method.
+     *
+     * @throws IllegalArgumentException if the source does not parse
+     */
+    public static TestCatalog discover(String testSource) {
+        ParseResult<CompilationUnit> result = new JavaParser(new ParserConfiguration())
+                .parse(Objects.requireNonNull(testSource));
+        CompilationUnit cu = result.getResult()
+                .filter(unit -> result.isSuccessful())
+                .orElseThrow(() -> new IllegalArgumentException("Parse failed : " + result.getProblems()));
+        String pkg = cu.getPackageDeclaration().map(d -> d.getNameAsString() + ".").orElse("");
+        TestCatalog catalog = new TestCatalog();
+        for (ClassOrInterfaceDeclaration type : cu.findAll(ClassOrInterfaceDeclaration.class)) {
+            String className = pkg + binaryName(type);
+            for (MethodDeclaration method : type.getMethods()) {
+                boolean test = method.getAnnotations().stream()
+                        .anyMatch(a -> TEST_ANNOTATIONS.contains(a.getNameAsString()));
+                if (test) catalog.indexOf(className + "#" + method.getNameAsString());
+            }
+        }
+        return catalog;
+    }
+
+    /** Index of a test id, assigned on first use. */
+    public int indexOf(String testId) {
+        Integer index = indexOf.get(Objects.requireNonNull(testId));
+        return index != null ? index : register(testId);
+    }
+
+    public synchronized String testId(int index) {
+        return ids.get(index);
+    }
+
+    /** Test ids known so far. */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /** The shared set of the given test ids. */
+    public BitSet encode(Collection<String> testIds) {
+        BitSet bits = new BitSet();
+        for (String id : testIds) bits.set(indexOf(id));
+        return intern(bits);
+    }
+
+    /** Test ids of a set, in index order. */
+    public List<String> decode(BitSet tests) {
+        List<String> out = new ArrayList<>(tests.cardinality());
+        synchronized (this) {
+            for (int i = tests.nextSetBit(0); i >= 0; i = tests.nextSetBit(i + 1)) out.add(ids.get(i));
+        }
+        return out;
+    }
+
+    /** One shared instance per distinct set; the argument is not modified but may be returned. */
+    public synchronized BitSet intern(BitSet tests) {
+        BitSet shared = interned.putIfAbsent(tests, tests);
+        return shared != null ? shared : tests;
+    }
+
+    private static String binaryName(ClassOrInterfaceDeclaration type) {
+        String name = type.getNameAsString();
+        Node parent = type.getParentNode().orElse(null);
+        while (parent instanceof TypeDeclaration<?> outer) {
+            name = outer.getNameAsString() + "$" + name;
+            parent = outer.getParentNode().orElse(null);
+        }
+        return name;
+    }
+
+    private synchronized int register(String testId) {
+        Integer index = indexOf.get(testId);
+        if (index != null) return index;
+        int next = ids.size();
+        ids.add(testId);
+        indexOf.put(testId, next);
+        return next;
+    }
+}
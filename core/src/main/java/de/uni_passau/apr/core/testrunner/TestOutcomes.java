@@ -0,0 +1,111 @@
+package de.uni_passau.apr.core.testrunner;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-test outcome of one test run as three disjoint sets over a TestCatalog: passed, failed
+ * (assertion failures) and errored. Skipped tests and tests that did not run are in none.
+ * Counts are popcounts, and two runs are compared with a few word-wise operations instead of
+ * list or string comparisons. The sets are the catalog's shared instances; do not modify them.
+ */
+public final class TestOutcomes {
+
+    private final BitSet passed;
+    private final BitSet failed;
+    private final BitSet errored;
+
+    public TestOutcomes(BitSet passed, BitSet failed, BitSet errored) {
+        this.passed = Objects.requireNonNull(passed);
+        this.failed = Objects.requireNonNull(failed);
+        this.errored = Objects.requireNonNull(errored);
+        if (passed.intersects(failed) || passed.intersects(errored) || failed.intersects(errored)) {
+            throw new IllegalArgumentException("A test can only have one outcome");
+        }
+    }
+
+    /**
+     * Outcomes of tr with its ids registered in catalog. A test listed as errored is not
+     * counted as failed, also when getFailedTests() (failures and errors) lists it too.
+     */
+    public static TestOutcomes of(TestResult tr, TestCatalog catalog) {
+        Objects.requireNonNull(tr);
+        Objects.requireNonNull(catalog);
+        BitSet errored = catalog.encode(orEmpty(tr.getErroredTests()));
+        BitSet failed = (BitSet) catalog.encode(orEmpty(tr.getFailedTests())).clone();
+        failed.andNot(errored);
+        BitSet passed = (BitSet) catalog.encode(orEmpty(tr.getPassedTests())).clone();
+        passed.andNot(failed);
+        passed.andNot(errored);
+        return new TestOutcomes(catalog.intern(passed), catalog.intern(failed), errored);
+    }
+
+    public BitSet passed() {
+        return passed;
+    }
+
+    public BitSet failed() {
+        return failed;
+    }
+
+    public BitSet errored() {
+        return errored;
+    }
+
+    public int passedCount() {
+        return passed.cardinality();
+    }
+
+    /** Failed or errored, the tests FitnessEvaluator counts against a candidate. */
+    public int badCount() {
+        return failed.cardinality() + errored.cardinality();
+    }
+
+    /** Tests with any outcome, i.e. run and not skipped. */
+    public int size() {
+        return passedCount() + badCount();
+    }
+
+    /** Number of tests whose outcome differs between this run and other. */
+    public int distance(TestOutcomes other) {
+        // the sets are disjoint, so a test differs iff its bit differs in at least one of them
+        BitSet diff = (BitSet) passed.clone();
+        diff.xor(other.passed);
+        BitSet x = (BitSet) failed.clone();
+        x.xor(other.failed);
+        diff.or(x);
+        x = (BitSet) errored.clone();
+        x.xor(other.errored);
+        diff.or(x);
+        return diff.cardinality();
+    }
+
+    /** Tests that pass in other but not here, e.g. a candidate's regressions against a baseline. */
+    public BitSet lostFrom(TestOutcomes other) {
+        BitSet lost = (BitSet) other.passed.clone();
+        lost.andNot(passed);
+        return lost;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TestOutcomes that)) return false;
+        return passed.equals(that.passed) && failed.equals(that.failed) && errored.equals(that.errored);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(passed, failed, errored);
+    }
+
+    @Override
+    public String toString() {
+        return "TestOutcomes{passed=" + passed + ", failed=" + failed + ", errored=" + errored + '}';
+    }
+
+    private static List<String> orEmpty(List<String> ids) {
+        return ids == null ? List.of() : ids;
+    }
+}
@@ -13,6 +13,9 @@ public class TestResult {
     private int errors = 0;
     private int skipped = 0;
     private List<String> failedTests = new ArrayList<>();
+    private List<String> passedTests = new ArrayList<>();
+    private List<String> erroredTests = new ArrayList<>();
+    private long cpuMillis = 0;
 
     public TestResult() {
     }
@@ -95,4 +98,30 @@ public class TestResult {
     public void setFailedTests(List<String> failedTests) {
         this.failedTests = failedTests;
     }
+
+    public List<String> getPassedTests() {
+        return passedTests;
+    }
+
+    public void setPassedTests(List<String> passedTests) {
+        this.passedTests = passedTests;
+    }
+
+    /** The failed tests that ended in an error rather than an assertion failure. */
+    public List<String> getErroredTests() {
+        return erroredTests;
+    }
+
+    public void setErroredTests(List<String> erroredTests) {
+        this.erroredTests = erroredTests;
+    }
+
+    /** CPU time used by the test process tree, sampled while it ran (0 if unknown). */
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+
+    public void setCpuMillis(long cpuMillis) {
+        this.cpuMillis = cpuMillis;
+    }
 }
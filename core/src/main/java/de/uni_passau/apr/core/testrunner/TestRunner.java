@@ -1,8 +1,31 @@
 package de.uni_passau.apr.core.testrunner;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface TestRunner {
 
     public TestResult runTests(Path workspaceDir);
+
+    /**
+     * Like runTests(workspaceDir), but stops early once the token is cancelled.
+     * The default ignores the token.
+     */
+    default TestResult runTests(Path workspaceDir, CancellationToken token) {
+        return runTests(workspaceDir);
+    }
+
+    /**
+     * Runs the tests of several modules of one aggregator project, see
+     * WorkspaceBuilder.buildReactor, and returns one result per module in the order of modules.
+     * The default runs each module on its own with runTests(moduleDir, token).
+     */
+    default List<TestResult> runReactor(Path reactorDir, List<String> modules, CancellationToken token) {
+        List<TestResult> results = new ArrayList<>(modules.size());
+        for (String module : modules) {
+            results.add(runTests(reactorDir.resolve(module), token));
+        }
+        return results;
+    }
 }
@@ -0,0 +1,95 @@
+package de.uni_passau.apr.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive longs (open addressing, linear probing), for dedup on encoded
+ * patches without boxing. Not thread safe.
+ */
+public final class LongHashSet {
+
+    // marks a free slot; the value itself is tracked by containsFree
+    private static final long FREE = 0L;
+
+    private long[] slots;
+    private int size;
+    private boolean containsFree;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be >= 0");
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    /** @return true if value was not in the set yet */
+    public boolean add(long value) {
+        if (value == FREE) {
+            if (containsFree) return false;
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (slots[i] != FREE) {
+            if (slots[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size * 2 > slots.length) grow();
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == FREE) return containsFree;
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (slots[i] != FREE) {
+            if (slots[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Empty the set, keeping its capacity. */
+    public void clear() {
+        Arrays.fill(slots, FREE);
+        size = 0;
+        containsFree = false;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value == FREE) continue;
+            int i = mix(value) & mask;
+            while (slots[i] != FREE) i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        return capacity;
+    }
+
+    private static int mix(long value) {
+        // the fields of a patch code sit in distinct bit ranges, spread them over the low bits
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,22 +1,30 @@
 package de.uni_passau.apr.core.utils;
 
-import org.w3c.dom.Element;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
  * To read Maven Surefire XML test report files and summarize the results
- * (how many tests ran, failed, errored, or were skipped)
- * and list the IDs of failed tests.
+ * (how many tests ran, failed, errored, or were skipped),
+ * list the IDs of passed, failed and errored tests and each testcase's status and time.
+ * The reports are streamed: system-out, stack traces and other text are skipped, not
+ * loaded, so memory use does not grow with the size of a report.
  */
 public class SurefireReportParser {
 
+    private static final String CDATA_CHUNK_SIZE = "jdk.xml.cdataChunkSize";
+    // configured once and only used to create readers, which is safe from several threads
+    private static final XMLInputFactory XML_INPUT = createInputFactory();
+
     /**
      * Parse the Surefire XML reports and summarize the test results.
      *
@@ -30,78 +38,154 @@ public class SurefireReportParser {
             return summary;
         }
         System.out.println("Parsing surefire reports in directory: " + reportPath);
-        LinkedHashSet<String> failTestsIds = new LinkedHashSet<>();
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        try {
-            dbFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-            dbFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            dbFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            dbFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        } catch (ParserConfigurationException e) {
-            throw new RuntimeException("Failed to configure XML parser for surefire report parsing", e);
-        }
 
         List<Path> reportFiles;
         try (var paths = Files.list(reportPath)) {
             reportFiles = paths
                     .filter(p -> p.getFileName().toString().startsWith("TEST-")
                             && p.getFileName().toString().endsWith(".xml")
-                            && Files.isRegularFile(p)).toList();
+                            && Files.isRegularFile(p)).sorted().toList();
         } catch (IOException e) {
             throw new IOException("Failed to list surefire report files in directory: " + reportPath, e);
         }
         System.out.println("Found " + reportFiles.size() + " surefire report files.");
 
+        List<TestCaseResult> testCases = new ArrayList<>();
         try {
-            var dBuilder = dbFactory.newDocumentBuilder();
             for (Path p : reportFiles) {
-                var doc = dBuilder.parse(p.toFile());
-                doc.getDocumentElement().normalize();
-                var testSuite = doc.getDocumentElement();
-                int tests = getIntAttribute(testSuite, "tests");
-                int failures = getIntAttribute(testSuite, "failures");
-                int errors = getIntAttribute(testSuite, "errors");
-                int skipped = getIntAttribute(testSuite, "skipped");
-                summary.setTestsRun(summary.getTestsRun() + tests);
-                summary.setFailures(summary.getFailures() + failures);
-                summary.setErrors(summary.getErrors() + errors);
-                summary.setSkipped(summary.getSkipped() + skipped);
-                // collect failed test IDs (classname#name)
-                var testCases = testSuite.getElementsByTagName("testcase");
-                for (int i = 0; i < testCases.getLength(); i++) {
-                    Element testCase = (Element) testCases.item(i);
-                    String className = testCase.getAttribute("classname");
-                    String testName = testCase.getAttribute("name");
-                    boolean isFailed = testCase.getElementsByTagName("failure").getLength() > 0 ||
-                            testCase.getElementsByTagName("error").getLength() > 0;
-                    if (isFailed) {
-                        String testID = className + "#" + testName;
-                        failTestsIds.add(testID);
-                    }
-                }
+                parseFile(p, summary, testCases);
             }
-        } catch (ParserConfigurationException e) {
-            throw new RuntimeException("Failed to create XML document builder for surefire report parsing", e);
-        } catch (Exception e) {
+        } catch (XMLStreamException | RuntimeException e) {
             throw new IOException("Failed to parse surefire report files in directory: " + reportPath, e);
         }
 
+        LinkedHashSet<String> failTestsIds = new LinkedHashSet<>();
+        LinkedHashSet<String> passedTestIds = new LinkedHashSet<>();
+        LinkedHashSet<String> erroredTestIds = new LinkedHashSet<>();
+        for (TestCaseResult testCase : testCases) {
+            switch (testCase.status()) {
+                case PASSED -> passedTestIds.add(testCase.id());
+                case FAILED -> failTestsIds.add(testCase.id());
+                case ERROR -> {
+                    failTestsIds.add(testCase.id());
+                    erroredTestIds.add(testCase.id());
+                }
+                case SKIPPED -> { }
+            }
+        }
         summary.setFailedTestIds(failTestsIds.stream().toList());
+        // an id reported more than once with different outcomes counts as failed
+        passedTestIds.removeAll(failTestsIds);
+        summary.setPassedTestIds(passedTestIds.stream().toList());
+        summary.setErroredTestIds(erroredTestIds.stream().toList());
+        summary.setTestCases(testCases);
         return summary;
     }
 
+    private static void parseFile(Path file, TestReportSummary summary, List<TestCaseResult> testCases)
+            throws IOException, XMLStreamException {
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader = XML_INPUT.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                    switch (reader.getLocalName()) {
+                        case "testsuite" -> {
+                            summary.setTestsRun(summary.getTestsRun() + getIntAttribute(reader, "tests"));
+                            summary.setFailures(summary.getFailures() + getIntAttribute(reader, "failures"));
+                            summary.setErrors(summary.getErrors() + getIntAttribute(reader, "errors"));
+                            summary.setSkipped(summary.getSkipped() + getIntAttribute(reader, "skipped"));
+                        }
+                        case "testcase" -> testCases.add(readTestCase(reader));
+                        // a wrapper around several suites, read on into it
+                        case "testsuites" -> { }
+                        // properties, suite-level system-out and anything else
+                        default -> skipElement(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /** Reads a testcase from its start element to its end element. */
+    private static TestCaseResult readTestCase(XMLStreamReader reader) throws XMLStreamException {
+        String className = attribute(reader, "classname");
+        String name = attribute(reader, "name");
+        double time = getDoubleAttribute(reader, "time");
+        boolean failed = false;
+        boolean errored = false;
+        boolean skipped = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) break;
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+            // rerunFailure, flakyFailure, system-out etc. don't change the outcome
+            switch (reader.getLocalName()) {
+                case "failure" -> failed = true;
+                case "error" -> errored = true;
+                case "skipped" -> skipped = true;
+                default -> { }
+            }
+            skipElement(reader);
+        }
+        TestCaseResult.Status status = errored ? TestCaseResult.Status.ERROR
+                : failed ? TestCaseResult.Status.FAILED
+                : skipped ? TestCaseResult.Status.SKIPPED
+                : TestCaseResult.Status.PASSED;
+        return new TestCaseResult(className, name, status, time);
+    }
+
+    /** Moves from a start element past its matching end element without keeping any content. */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // text is only skipped, don't merge it into one big string first
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        // the JDK's reader otherwise reads a whole CDATA section (surefire's system-out) into one buffer
+        if (factory.isPropertySupported(CDATA_CHUNK_SIZE)) {
+            factory.setProperty(CDATA_CHUNK_SIZE, "8192");
+        }
+        return factory;
+    }
+
+    private static String attribute(XMLStreamReader reader, String attributeName) {
+        String value = reader.getAttributeValue(null, attributeName);
+        return value == null ? "" : value;
+    }
+
     /**
      * To parse int attributes from XML elements.
      * returns 0 if the attribute is missing or not a valid int.
      *
-     * @param element       The XML element.
+     * @param reader        The reader, positioned on the XML element.
      * @param attributeName The name of the attribute to parse.
      * @return The int value of the attribute, or 0 if fails.
      */
-    private static int getIntAttribute(Element element, String attributeName) {
-        String attrValue = element.getAttribute(attributeName);
+    private static int getIntAttribute(XMLStreamReader reader, String attributeName) {
+        try {
+            return Integer.parseInt(attribute(reader, attributeName));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // times are like "0.012", with a grouping comma in some surefire versions ("1,234.5")
+    private static double getDoubleAttribute(XMLStreamReader reader, String attributeName) {
         try {
-            return Integer.parseInt(attrValue);
+            double value = Double.parseDouble(attribute(reader, attributeName).replace(",", ""));
+            return Double.isFinite(value) ? value : 0;
         } catch (NumberFormatException e) {
             return 0;
         }
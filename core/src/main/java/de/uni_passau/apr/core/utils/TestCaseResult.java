@@ -0,0 +1,31 @@
+package de.uni_passau.apr.core.utils;
+
+import java.util.Objects;
+
+/**
+ * One testcase of a Surefire report: its id parts, how it ended and how long it took.
+ *
+ * @param timeSeconds the report's time attribute, 0 if missing or not a number
+ */
+public record TestCaseResult(String className, String name, Status status, double timeSeconds) {
+
+    public enum Status {
+        PASSED,
+        /** an assertion failed */
+        FAILED,
+        /** an unexpected exception */
+        ERROR,
+        SKIPPED
+    }
+
+    public TestCaseResult {
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(status);
+    }
+
+    /** The test id used throughout, classname#name. */
+    public String id() {
+        return className + "#" + name;
+    }
+}
@@ -10,6 +10,9 @@ public class TestReportSummary {
     private int errors;
     private int skipped;
     private List<String> failedTestIds = new ArrayList<>();
+    private List<String> passedTestIds = new ArrayList<>();
+    private List<String> erroredTestIds = new ArrayList<>();
+    private List<TestCaseResult> testCases = new ArrayList<>();
 
     public TestReportSummary() {
     }
@@ -62,6 +65,32 @@ public class TestReportSummary {
         this.failedTestIds = failedTestIds;
     }
 
+    public List<String> getPassedTestIds() {
+        return passedTestIds;
+    }
+
+    public void setPassedTestIds(List<String> passedTestIds) {
+        this.passedTestIds = passedTestIds;
+    }
+
+    /** The failed test IDs that ended in an error rather than an assertion failure. */
+    public List<String> getErroredTestIds() {
+        return erroredTestIds;
+    }
+
+    public void setErroredTestIds(List<String> erroredTestIds) {
+        this.erroredTestIds = erroredTestIds;
+    }
+
+    /** Every testcase of the reports in file order, with its status and time. */
+    public List<TestCaseResult> getTestCases() {
+        return testCases;
+    }
+
+    public void setTestCases(List<TestCaseResult> testCases) {
+        this.testCases = testCases;
+    }
+
     @Override
     public String toString() {
         return "TestReportSummary{" +
@@ -3,15 +3,47 @@ package de.uni_passau.apr.core.workspace;
 import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
 
 /**
  * Build a new temp Maven workspace,
  * for one benchmark and one candidate.
+ * In reactor mode a batch of candidates goes into one workspace instead, see buildReactor.
+ * Without a WorkspaceManager workspaces go to java.io.tmpdir and are deleted right away.
  */
 public class WorkspaceBuilder {
 
+    /** Directory of the test suite shared by the modules of a reactor workspace. */
+    public static final String SHARED_TESTS_DIR = "tests";
+    private static final String MODULE_PREFIX = "candidate-";
+
+    private final WorkspaceManager manager;
+    private final boolean reactor;
+
+    public WorkspaceBuilder() {
+        this(null);
+    }
+
+    /** Builds workspaces in the manager's session and leaves their deletion to its reaper. */
+    public WorkspaceBuilder(WorkspaceManager manager) {
+        this(manager, false);
+    }
+
+    /**
+     * @param manager null for workspaces in java.io.tmpdir
+     * @param reactor whether evaluators should build batches of candidates with buildReactor
+     */
+    public WorkspaceBuilder(WorkspaceManager manager, boolean reactor) {
+        this.manager = manager;
+        this.reactor = reactor;
+    }
+
     private static final String pomContent = """
                 <project xmlns="http://maven.apache.org/POM/4.0.0"
                          xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
@@ -47,13 +79,40 @@ public class WorkspaceBuilder {
                     </build>
                 </project>
                 """;
+    private static final String modulePomContent = """
+                <project xmlns="http://maven.apache.org/POM/4.0.0"
+                         xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                         xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd">
+                    <modelVersion>4.0.0</modelVersion>
+                    <parent>
+                        <groupId>de.uni_passau.apr</groupId>
+                        <artifactId>workspace-reactor</artifactId>
+                        <version>1.0-SNAPSHOT</version>
+                    </parent>
+                    <artifactId>%s</artifactId>
+                    <build>
+                        <testSourceDirectory>../%s</testSourceDirectory>
+                    </build>
+                </project>
+                """;
+
+    /** Whether batches of candidates are to be built with buildReactor. */
+    public boolean isReactor() {
+        return reactor;
+    }
+
+    /** Directory of the index-th candidate's module in a reactor workspace. */
+    public static String moduleName(int index) {
+        return MODULE_PREFIX + index;
+    }
+
     /**
      * @param benchmarkConfig   the benchmark config.
      * @param candidate  The candidate source code.
      * @return The path to the created workspace.
      */
     public Path build(BenchmarkConfig benchmarkConfig, String candidate) throws IOException {
-        Path workSpacePath = Files.createTempDirectory("apr-" + benchmarkConfig.getName() + "-");
+        Path workSpacePath = createWorkspace(benchmarkConfig.getName());
 
         String testFileName = benchmarkConfig.getTestSuitePath().getFileName().toString();
         String programFileName = benchmarkConfig.getBuggyProgramPath().getFileName().toString();
@@ -75,4 +134,98 @@ public class WorkspaceBuilder {
         return workSpacePath;
     }
 
+    /**
+     * One workspace for a batch of candidates: an aggregator pom.xml with one module per
+     * candidate, moduleName(i) for the i-th, each with its candidate as main source. The test
+     * suite is copied once, to SHARED_TESTS_DIR, and every module compiles and runs it against
+     * its own candidate. Modules do not depend on each other, so a candidate that does not
+     * compile only fails its own module.
+     *
+     * @param candidates the candidate source codes.
+     * @return The path to the created workspace, with the aggregator pom.xml.
+     */
+    public Path buildReactor(BenchmarkConfig benchmarkConfig, List<String> candidates) throws IOException {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("A reactor workspace needs at least one candidate");
+        }
+        Path workSpacePath = createWorkspace(benchmarkConfig.getName() + "-reactor");
+
+        String testFileName = benchmarkConfig.getTestSuitePath().getFileName().toString();
+        String programFileName = benchmarkConfig.getBuggyProgramPath().getFileName().toString();
+
+        StringBuilder modules = new StringBuilder("<artifactId>workspace-reactor</artifactId>\n")
+                .append("    <packaging>pom</packaging>\n")
+                .append("    <modules>\n");
+        for (int i = 0; i < candidates.size(); i++) {
+            modules.append("        <module>").append(moduleName(i)).append("</module>\n");
+        }
+        modules.append("    </modules>");
+        Files.writeString(workSpacePath.resolve("pom.xml"),
+                pomContent.replace("<artifactId>workspace</artifactId>", modules));
+
+        Path tests = Files.createDirectories(workSpacePath.resolve(SHARED_TESTS_DIR));
+        Files.copy(benchmarkConfig.getTestSuitePath(), tests.resolve(testFileName), StandardCopyOption.REPLACE_EXISTING);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Path module = Files.createDirectories(workSpacePath.resolve(moduleName(i)));
+            Files.writeString(module.resolve("pom.xml"), modulePomContent.formatted(moduleName(i), SHARED_TESTS_DIR));
+            Path main = Files.createDirectories(module.resolve("src/main/java"));
+            Files.writeString(main.resolve(programFileName), candidates.get(i), StandardCharsets.UTF_8);
+        }
+        return workSpacePath;
+    }
+
+    /** Hand a workspace back once it is no longer needed: queued with a manager, deleted now without. */
+    public void release(Path workspace) throws IOException {
+        if (manager != null && manager.session().equals(workspace.toAbsolutePath().normalize().getParent())) {
+            manager.release(workspace);
+        } else {
+            WorkspaceCleaner.deleteRecursively(workspace);
+        }
+    }
+
+    /** Keep a workspace for inspection; a manager then neither counts nor sweeps it. */
+    public void keep(Path workspace) {
+        if (manager != null && manager.session().equals(workspace.toAbsolutePath().normalize().getParent())) {
+            manager.keep(workspace);
+        }
+    }
+
+    /**
+     * Keep only some modules of a reactor workspace for inspection: the other module
+     * directories are deleted and dropped from the aggregator pom.xml, then the workspace
+     * is kept like with keep. The shared tests stay.
+     *
+     * @param modules moduleName(i) of the candidates to keep
+     */
+    public void keepModules(Path reactor, Collection<String> modules) throws IOException {
+        List<Path> drop;
+        try (var entries = Files.list(reactor)) {
+            drop = entries.filter(p -> Files.isDirectory(p) && p.getFileName().toString().startsWith(MODULE_PREFIX))
+                    .filter(p -> !modules.contains(p.getFileName().toString()))
+                    .toList();
+        }
+        for (Path module : drop) {
+            WorkspaceCleaner.deleteTree(module);
+        }
+        Path pom = reactor.resolve("pom.xml");
+        if (Files.exists(pom)) {
+            StringBuilder kept = new StringBuilder("<modules>\n");
+            for (String module : modules) {
+                kept.append("        <module>").append(module).append("</module>\n");
+            }
+            kept.append("    </modules>");
+            String content = Files.readString(pom, StandardCharsets.UTF_8);
+            Files.writeString(pom, content.replaceFirst("(?s)<modules>.*</modules>", Matcher.quoteReplacement(kept.toString())),
+                    StandardCharsets.UTF_8);
+        }
+        keep(reactor);
+    }
+
+    private Path createWorkspace(String name) throws IOException {
+        return manager != null
+                ? manager.create(name)
+                : Files.createTempDirectory("apr-" + name + "-");
+    }
+
 }
@@ -3,6 +3,7 @@ package de.uni_passau.apr.core.workspace;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.util.Comparator;
 
@@ -13,23 +14,40 @@ public class WorkspaceCleaner {
 
     public static void deleteRecursively(Path root) throws IOException {
         // To clean the workspace directory recursively
-        if (root == null) return;
-        if (!Files.exists(root)) return;
+        deleteRecursively(root, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Deletes an apr-* directory tree below allowedRoot.
+     *
+     * @return the bytes of the files deleted
+     * @throws IllegalArgumentException if root does not start with apr- or is outside allowedRoot
+     */
+    public static long deleteRecursively(Path root, Path allowedRoot) throws IOException {
+        if (root == null) return 0;
+        if (!Files.exists(root)) return 0;
 
         if (!root.getFileName().toString().startsWith("apr-")) {
             throw new IllegalArgumentException("The dir does not start with 'apr-': " + root);
         }
-        Path tmp = Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        Path allowed = allowedRoot.toAbsolutePath().normalize();
         Path rootAbsPath = root.toAbsolutePath().normalize();
 
-        if (!rootAbsPath.startsWith(tmp)) {
+        if (!rootAbsPath.startsWith(allowed) || rootAbsPath.equals(allowed)) {
             throw new IllegalArgumentException("The dir is outside the temp dir: " + root);
         }
 
+        return deleteTree(root);
+    }
+
+    /** Deletes a directory tree without the apr- and allowedRoot checks; for parts of a checked workspace. */
+    static long deleteTree(Path root) throws IOException {
+        long[] bytes = {0};
         try (var walk = Files.walk(root)) {
             walk.sorted(Comparator.reverseOrder())
                     .forEach(p -> {
                         try {
+                            if (Files.isRegularFile(p, LinkOption.NOFOLLOW_LINKS)) bytes[0] += Files.size(p);
                             Files.deleteIfExists(p);
                         } catch (IOException e) {
                             throw new UncheckedIOException(e);
@@ -38,5 +56,6 @@ public class WorkspaceCleaner {
         } catch (UncheckedIOException e) {
             throw e.getCause();
         }
+        return bytes[0];
     }
 }
@@ -0,0 +1,294 @@
+package de.uni_passau.apr.core.workspace;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the workspaces of one run below a root directory, e.g. a tmpfs like /dev/shm.
+ * They live in a session directory root/apr-ws-*, locked for as long as the manager is open.
+ * release(...) only renames a workspace out of the way and queues it; a background reaper
+ * deletes queued workspaces in batches, so evaluations never wait on a tree walk.
+ * create(...) blocks while the workspaces created and not yet deleted are estimated to take
+ * more than the quota, until the reaper catches up. Opening a manager sweeps away the sessions
+ * of runs that died without closing theirs, except workspaces marked with keep(...).
+ * Thread safe.
+ */
+public final class WorkspaceManager implements AutoCloseable {
+
+    static final String SESSION_PREFIX = "apr-ws-";
+    static final String LOCK_FILE = ".lock";
+    static final String KEEP_MARKER = ".apr-keep";
+    private static final String TRASH_PREFIX = "apr-trash-";
+    private static final int BATCH_SIZE = 16;
+    // guess for the first workspaces, until deletions measured real ones
+    private static final long INITIAL_ESTIMATE = 1024 * 1024;
+    // a session this young may still be waiting for its lock file
+    private static final long SESSION_GRACE_MILLIS = 60_000;
+    // sessions of this JVM; probing their lock would release it, POSIX locks belong to the process
+    private static final Set<Path> OPEN_SESSIONS = ConcurrentHashMap.newKeySet();
+
+    private final Path root;
+    private final Path session;
+    private final long quotaBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final BlockingQueue<Path> queue = new LinkedBlockingQueue<>();
+    private final Thread reaper;
+    private final AtomicLong trashCounter = new AtomicLong();
+    // queued or being deleted
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object usage = new Object();
+    // workspaces created and not yet deleted, and what deletions measured so far
+    private int outstanding;
+    private long deletedBytes;
+    private int deletedCount;
+    private volatile boolean closed;
+
+    /**
+     * @param quotaBytes estimated disk use of undeleted workspaces at which create() waits, 0 for no quota
+     * @throws IOException if the session directory cannot be created or locked
+     */
+    public WorkspaceManager(Path root, long quotaBytes) throws IOException {
+        if (quotaBytes < 0) throw new IllegalArgumentException("quotaBytes must be >= 0");
+        this.root = Files.createDirectories(Objects.requireNonNull(root)).toAbsolutePath().normalize();
+        this.quotaBytes = quotaBytes;
+        sweepStaleSessions(this.root);
+        this.session = Files.createTempDirectory(this.root, SESSION_PREFIX);
+        OPEN_SESSIONS.add(session);
+        this.lockChannel = FileChannel.open(session.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.lock();
+        this.reaper = new Thread(this::reap, "apr-workspace-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    /** Manager below java.io.tmpdir, without a quota. */
+    public static WorkspaceManager inTempDir() throws IOException {
+        return new WorkspaceManager(Path.of(System.getProperty("java.io.tmpdir")), 0);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    public Path session() {
+        return session;
+    }
+
+    /**
+     * A new empty directory apr-{name}-* in this run's session. Waits while the quota is used up
+     * and deletions are pending.
+     */
+    public Path create(String name) throws IOException {
+        if (closed) throw new IllegalStateException("Workspace manager is closed");
+        synchronized (usage) {
+            while (quotaBytes > 0 && pending.get() > 0 && outstanding * estimatedBytes() >= quotaBytes) {
+                try {
+                    usage.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for workspace deletions", e);
+                }
+            }
+            outstanding++;
+        }
+        try {
+            return Files.createTempDirectory(session, "apr-" + name + "-");
+        } catch (IOException | RuntimeException e) {
+            finished(0, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Queue a workspace of this manager for deletion. Returns at once; the workspace is renamed
+     * first, so its name is free again and a crash leaves recognisable trash.
+     *
+     * @throws IllegalArgumentException if the workspace does not start with apr- or is not in this session
+     */
+    public void release(Path workspace) {
+        Path dir = checkOwned(workspace);
+        if (!Files.exists(dir)) {
+            finished(0, true);
+            return;
+        }
+        Path trash = session.resolve(TRASH_PREFIX + trashCounter.incrementAndGet());
+        try {
+            dir = Files.move(dir, trash, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            // delete it under its own name then
+        }
+        pending.incrementAndGet();
+        queue.add(dir);
+        // close() may have drained the queue already
+        if (closed && queue.remove(dir)) delete(dir);
+    }
+
+    /** Keep a workspace of this manager: it is not counted any more and outlives the session. */
+    public void keep(Path workspace) {
+        Path dir = checkOwned(workspace);
+        try {
+            Files.createFile(dir.resolve(KEEP_MARKER));
+        } catch (FileAlreadyExistsException e) {
+            return;
+        } catch (IOException e) {
+            System.err.println("Warning: failed to mark workspace " + dir + " as kept: " + e.getMessage());
+        }
+        finished(0, false);
+    }
+
+    /** Workspaces waiting for the reaper. */
+    public int pendingDeletions() {
+        return pending.get();
+    }
+
+    /** Average size of the deleted workspaces so far, or a default guess before the first one. */
+    public long estimatedBytes() {
+        synchronized (usage) {
+            return deletedCount == 0 ? INITIAL_ESTIMATE : Math.max(1, deletedBytes / deletedCount);
+        }
+    }
+
+    /**
+     * Deletes what is still queued, then the session unless it holds kept workspaces, and
+     * releases the lock.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        reaper.interrupt();
+        try {
+            reaper.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Path> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.forEach(this::delete);
+        try {
+            lock.release();
+            lockChannel.close();
+            Files.deleteIfExists(session.resolve(LOCK_FILE));
+            Files.deleteIfExists(session);
+        } catch (DirectoryNotEmptyException e) {
+            System.out.println("Kept workspaces remain in " + session);
+        } catch (IOException e) {
+            System.err.println("Warning: failed to remove workspace session " + session + ": " + e.getMessage());
+        } finally {
+            OPEN_SESSIONS.remove(session);
+        }
+    }
+
+    //-------------Reaper----------------
+
+    private void reap() {
+        List<Path> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            batch.forEach(this::delete);
+            batch.clear();
+        }
+    }
+
+    private void delete(Path dir) {
+        long bytes = 0;
+        try {
+            bytes = WorkspaceCleaner.deleteRecursively(dir, session);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Failed to delete workspace directory " + dir + ": " + e.getMessage());
+        }
+        pending.decrementAndGet();
+        finished(bytes, true);
+    }
+
+    private void finished(long bytes, boolean measured) {
+        synchronized (usage) {
+            outstanding = Math.max(0, outstanding - 1);
+            if (measured && bytes > 0) {
+                deletedBytes += bytes;
+                deletedCount++;
+            }
+            usage.notifyAll();
+        }
+    }
+
+    private Path checkOwned(Path workspace) {
+        Path dir = Objects.requireNonNull(workspace).toAbsolutePath().normalize();
+        if (!dir.getFileName().toString().startsWith("apr-")) {
+            throw new IllegalArgumentException("The dir does not start with 'apr-': " + workspace);
+        }
+        if (!session.equals(dir.getParent())) {
+            throw new IllegalArgumentException("The dir is outside the workspace session " + session + ": " + workspace);
+        }
+        return dir;
+    }
+
+    //-------------Startup sweep----------------
+
+    /** Removes sessions below root whose lock no process holds, keeping workspaces marked as kept. */
+    static void sweepStaleSessions(Path root) throws IOException {
+        List<Path> sessions;
+        try (var paths = Files.list(root)) {
+            sessions = paths.filter(p -> p.getFileName().toString().startsWith(SESSION_PREFIX) && Files.isDirectory(p))
+                    .toList();
+        }
+        for (Path stale : sessions) {
+            if (isLive(stale)) continue;
+            int removed = 0;
+            try (var children = Files.list(stale)) {
+                for (Path child : children.toList()) {
+                    String name = child.getFileName().toString();
+                    if (!name.startsWith("apr-") || Files.exists(child.resolve(KEEP_MARKER))) continue;
+                    WorkspaceCleaner.deleteRecursively(child, stale);
+                    removed++;
+                }
+                Files.deleteIfExists(stale.resolve(LOCK_FILE));
+                Files.deleteIfExists(stale);
+            } catch (DirectoryNotEmptyException e) {
+                // kept workspaces stay
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: failed to sweep stale workspaces in " + stale + ": " + e.getMessage());
+            }
+            if (removed > 0) {
+                System.out.println("Removed " + removed + " stale workspaces of an earlier run in " + stale);
+            }
+        }
+    }
+
+    private static boolean isLive(Path session) {
+        if (OPEN_SESSIONS.contains(session.toAbsolutePath().normalize())) return true;
+        Path lockFile = session.resolve(LOCK_FILE);
+        try {
+            if (!Files.exists(lockFile)) {
+                return System.currentTimeMillis() - Files.getLastModifiedTime(session).toMillis() < SESSION_GRACE_MILLIS;
+            }
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+                FileLock probe = channel.tryLock();
+                if (probe == null) return true;
+                probe.release();
+                return false;
+            }
+        } catch (OverlappingFileLockException | IOException e) {
+            // when in doubt, leave it
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.patch.models.*;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestFirstPrioritizerTest {
+
+    private static final StatementId A = new StatementId(4, 1, 4, 10);
+    private static final StatementId B = new StatementId(7, 1, 7, 10);
+    private static final StatementId C = new StatementId(9, 1, 9, 10);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void slotOrder_isIdentity() {
+        List<Patch> patches = List.of(delete(A), delete(B), delete(C));
+
+        assertArrayEquals(new int[]{0, 1, 2}, CandidatePrioritizer.slotOrder().order(patches, List.of()));
+    }
+
+    @Test
+    void order_coveredAndHeavierTargetsFirst_tiesKeepSlotOrder() {
+        BestFirstPrioritizer prioritizer = new BestFirstPrioritizer(Map.of(A, 0.1, B, 1.0));
+        // C is not covered by a failing test
+        List<Patch> patches = List.of(delete(C), delete(A), delete(B), new Patch(List.of(new ReplaceOp(A, C))));
+
+        assertArrayEquals(new int[]{2, 1, 3, 0}, prioritizer.order(patches, List.of()));
+    }
+
+    @Test
+    void order_fitterParentOnTheSameTarget_breaksTheTie() {
+        BestFirstPrioritizer prioritizer = new BestFirstPrioritizer(Map.of(A, 1.0, B, 1.0));
+        List<EvaluatedCandidate> parents = List.of(
+                new EvaluatedCandidate(delete(A), -20, null),
+                new EvaluatedCandidate(delete(B), -5, null));
+
+        assertArrayEquals(new int[]{1, 0}, prioritizer.order(List.of(delete(A), delete(B)), parents));
+    }
+
+    @Test
+    void run_bestFirst_evaluatesTheSameCandidatesAsSlotOrder() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "order");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+
+        RecordingEvaluator slot = new RecordingEvaluator();
+        RepairResult expected = IslandModelEngineTest.newEngine(benchmark, collector, slot, new Random(4))
+                .run(benchmark, new RunConfig(5, 6, 10, new Random(4)).withRngMode(RunConfig.RngMode.SPLIT));
+
+        RecordingEvaluator bestFirst = new RecordingEvaluator();
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, new Random(4));
+        RepairResult actual = IslandModelEngineTest.newEngine(benchmark, collector, bestFirst, new Random(4))
+                .withPrioritizer(new BestFirstPrioritizer(sampler.targetWeights()))
+                .run(benchmark, new RunConfig(5, 6, 10, new Random(4)).withRngMode(RunConfig.RngMode.SPLIT));
+
+        List<String> a = new ArrayList<>(slot.sources);
+        List<String> b = new ArrayList<>(bestFirst.sources);
+        Collections.sort(a);
+        Collections.sort(b);
+        assertEquals(a, b, "only the order of evaluation may change, not the search");
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    // ---------------- helpers ----------------
+
+    private static Patch delete(StatementId id) {
+        return new Patch(List.of(new DeleteOp(id)));
+    }
+
+    /** Never repairs; fitness varies with the source. */
+    private static final class RecordingEvaluator implements Evaluator {
+        private final List<String> sources = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            sources.add(candidateSource);
+            TestResult tr = new TestResult(0, "", false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1 + Math.floorMod(candidateSource.hashCode(), 3));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.uni_passau.apr.core.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetTrackerTest {
+
+    @Test
+    void budget_invalidLimits_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new Budget(Duration.ZERO, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> new Budget(null, -1, null));
+        assertThrows(IllegalArgumentException.class, () -> new Budget(null, 0, Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void unlimited_neverStops() {
+        try (BudgetTracker tracker = new BudgetTracker(Budget.UNLIMITED)) {
+            for (int i = 0; i < 1000; i++) {
+                tracker.recordEvaluation(1_000_000);
+            }
+            assertNull(tracker.stopReason());
+            assertFalse(tracker.token().isCancelled());
+        }
+    }
+
+    @Test
+    void maxEvaluations_stopsWithoutCancellingRunningWork() {
+        try (BudgetTracker tracker = new BudgetTracker(new Budget(null, 3, null))) {
+            tracker.recordEvaluation(0);
+            tracker.recordEvaluation(0);
+            assertNull(tracker.stopReason());
+
+            tracker.recordEvaluation(0);
+
+            assertEquals(StopReason.MAX_EVALUATIONS, tracker.stopReason());
+            assertFalse(tracker.token().isCancelled());
+            assertEquals(3, tracker.evaluations());
+        }
+    }
+
+    @Test
+    void wallClock_cancelsTokenAtDeadline() throws InterruptedException {
+        try (BudgetTracker tracker = new BudgetTracker(new Budget(Duration.ofMillis(50), 0, null))) {
+            for (int i = 0; i < 500 && !tracker.token().isCancelled(); i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(tracker.token().isCancelled());
+            assertEquals(StopReason.WALL_CLOCK, tracker.stopReason());
+        }
+    }
+
+    @Test
+    void cpuBudget_countsTestProcessTime_andCancels() {
+        try (BudgetTracker tracker = new BudgetTracker(new Budget(null, 0, Duration.ofSeconds(60)))) {
+            tracker.recordEvaluation(30_000);
+            assertNull(tracker.stopReason());
+
+            tracker.recordEvaluation(31_000);
+
+            assertEquals(StopReason.CPU_BUDGET, tracker.stopReason());
+            assertTrue(tracker.token().isCancelled());
+        }
+    }
+
+    @Test
+    void cpuBudget_runningTestProcesses_cancelBeforeTheirEvaluationEnds() throws InterruptedException {
+        AtomicLong running = new AtomicLong();
+        try (BudgetTracker tracker = new BudgetTracker(new Budget(null, 0, Duration.ofSeconds(60)), running::get, 10)) {
+            Thread.sleep(50);
+            assertFalse(tracker.token().isCancelled());
+
+            running.set(61_000);
+            for (int i = 0; i < 500 && !tracker.token().isCancelled(); i++) {
+                Thread.sleep(10);
+            }
+
+            assertTrue(tracker.token().isCancelled());
+            assertEquals(StopReason.CPU_BUDGET, tracker.stopReason());
+            assertEquals(0, tracker.evaluations());
+        }
+    }
+
+    @Test
+    void firstReasonWins() {
+        try (BudgetTracker tracker = new BudgetTracker(new Budget(null, 1, Duration.ofSeconds(1)))) {
+            tracker.recordEvaluation(5_000);
+            assertEquals(StopReason.MAX_EVALUATIONS, tracker.stopReason());
+            assertTrue(tracker.token().isCancelled(), "CPU budget still aborts running work");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.testrunner.TestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evaluator for IslandModelEngineTest.clampBenchmark that records every source it sees.
+ * Thread safe; passes all tests once the fix text is in the buggy branch, otherwise fitness varies with the source.
+ */
+final class ClampEvaluator implements Evaluator {
+
+    final List<String> sources = Collections.synchronizedList(new ArrayList<>());
+    private final String fix;
+
+    ClampEvaluator(String fix) {
+        this.fix = fix;
+    }
+
+    @Override
+    public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+        sources.add(candidateSource);
+        boolean fixed = candidateSource.replaceAll("\\s+", " ").contains("if (x > high) { " + fix);
+        TestResult tr = new TestResult(0, "", fixed, false);
+        tr.setTestsRun(3);
+        tr.setFailures(fixed ? 0 : 1 + Math.floorMod(candidateSource.hashCode(), 3));
+        return new EvaluationResult(tr, null, false);
+    }
+}
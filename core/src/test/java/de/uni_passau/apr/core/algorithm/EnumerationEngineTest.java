@@ -0,0 +1,170 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.CheckpointableRandom;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.patch.models.*;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumerationEngineTest {
+
+    private static final String NO_FIX = "this text never appears";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ctor_negativeStartIndex_throws() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, new Random(1));
+
+        assertThrows(IllegalArgumentException.class, () -> new EnumerationEngine(collector, sampler,
+                new ClampEvaluator(NO_FIX), new FitnessEvaluator(), EnumerationEngine.DonorPrior.proximity(), -1));
+    }
+
+    @Test
+    void rank_deletesAndTypeCompatibleReplaces_bestFirst() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        EnumerationEngine engine = newEngine(benchmark, collector, new ClampEvaluator(NO_FIX), 0);
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, new Random(1));
+
+        List<EnumerationEngine.RankedEdit> ranked = engine.rank();
+
+        int expected = 0;
+        for (StatementId target : sampler.targetWeights().keySet()) {
+            Class<?> type = collector.getStatement(target).getClass();
+            expected += 1 + (int) collector.allStatementIds().stream()
+                    .filter(d -> !d.equals(target) && collector.getStatement(d).getClass().equals(type))
+                    .count();
+        }
+        assertEquals(expected, ranked.size());
+        assertEquals(ranked.size(), new HashSet<>(ranked.stream().map(EnumerationEngine.RankedEdit::patch).toList()).size());
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(ranked.get(i - 1).score() >= ranked.get(i).score(), "ranked list must be best first");
+        }
+        for (EnumerationEngine.RankedEdit r : ranked) {
+            if (r.patch().edits().get(0) instanceof ReplaceOp rep) {
+                assertEquals(collector.getStatement(rep.target()).getClass(), collector.getStatement(rep.donor()).getClass());
+            }
+        }
+        // the heaviest fault-localized statement (line 7) comes first
+        assertEquals(7, targetOf(ranked.get(0).patch()).beginLine());
+    }
+
+    @Test
+    void run_fixInList_reportsItsRankAndStops() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        ClampEvaluator evaluator = new ClampEvaluator("return high;");
+        EnumerationEngine engine = newEngine(benchmark, collector, evaluator, 0);
+
+        RepairResult result = engine.run(benchmark, new RunConfig(1, 1, 10, new Random(1)));
+
+        assertTrue(result.repairedSuccessfully());
+        assertEquals(StopReason.REPAIRED, result.stopReason());
+        EnumerationEngine.Stats stats = engine.lastStats();
+        assertTrue(stats.fixRank() > 0);
+        assertEquals(stats.fixRank(), stats.evaluations() + stats.skipped());
+        assertEquals(stats.evaluations(), evaluator.sources.size());
+        assertTrue(stats.fixRank() < stats.candidates(), "the ranking should put the fix before the end of the list");
+    }
+
+    @Test
+    void run_noFix_evaluatesEverySourceOnceAndExhausts() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        ClampEvaluator evaluator = new ClampEvaluator(NO_FIX);
+        EnumerationEngine engine = newEngine(benchmark, collector, evaluator, 0);
+
+        RepairResult result = engine.run(benchmark, new RunConfig(1, 1, 10, new Random(1)));
+
+        assertFalse(result.repairedSuccessfully());
+        assertEquals(StopReason.EXHAUSTED, result.stopReason());
+        assertEquals(evaluator.sources.size(), new HashSet<>(evaluator.sources).size());
+        EnumerationEngine.Stats stats = engine.lastStats();
+        assertEquals(stats.candidates(), stats.evaluations() + stats.skipped());
+        assertEquals(-1, stats.fixRank());
+    }
+
+    @Test
+    void run_fourJobs_sameFixRankAsOne() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+
+        EnumerationEngine sequential = newEngine(benchmark, collector, new ClampEvaluator("return high;"), 0);
+        RepairResult expected = sequential.run(benchmark, new RunConfig(1, 1, 10, new Random(1)));
+        EnumerationEngine parallel = newEngine(benchmark, collector, new ClampEvaluator("return high;"), 0);
+        RepairResult actual = parallel.run(benchmark, new RunConfig(1, 1, 10, new Random(1)).withJobs(4));
+
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+        assertEquals(sequential.lastStats().fixRank(), parallel.lastStats().fixRank());
+    }
+
+    @Test
+    void run_startIndex_skipsTheBestRanked() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        ClampEvaluator all = new ClampEvaluator(NO_FIX);
+        newEngine(benchmark, collector, all, 0).run(benchmark, new RunConfig(1, 1, 10, new Random(1)));
+
+        ClampEvaluator tail = new ClampEvaluator(NO_FIX);
+        EnumerationEngine engine = newEngine(benchmark, collector, tail, 3);
+        engine.run(benchmark, new RunConfig(1, 1, 10, new Random(1)));
+
+        assertEquals(all.sources.subList(all.sources.size() - tail.sources.size(), all.sources.size()), tail.sources);
+        assertTrue(tail.sources.size() < all.sources.size());
+    }
+
+    @Test
+    void run_budgetStopThenResume_continuesWhereItStopped() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "enum");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        ClampEvaluator all = new ClampEvaluator(NO_FIX);
+        newEngine(benchmark, collector, all, 0).run(benchmark, new RunConfig(1, 1, 10, new Random(1)));
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("checkpoints"));
+        RunConfig limited = new RunConfig(1, 1, 10, new CheckpointableRandom(1))
+                .withCheckpoints(store, false)
+                .withBudget(new Budget(null, 4, null));
+        ClampEvaluator first = new ClampEvaluator(NO_FIX);
+        RepairResult stopped = newEngine(benchmark, collector, first, 0).run(benchmark, limited);
+        assertEquals(StopReason.MAX_EVALUATIONS, stopped.stopReason());
+        assertTrue(Files.exists(store.getDirectory().resolve("enumeration").resolve("enum.checkpoint.json")));
+
+        ClampEvaluator rest = new ClampEvaluator(NO_FIX);
+        RepairResult resumed = newEngine(benchmark, collector, rest, 0)
+                .run(benchmark, limited.withBudget(Budget.UNLIMITED).withCheckpoints(store, true));
+
+        assertEquals(StopReason.EXHAUSTED, resumed.stopReason());
+        List<String> combined = new ArrayList<>(first.sources);
+        combined.addAll(rest.sources);
+        assertEquals(all.sources, combined);
+    }
+
+    // ---------------- helpers ----------------
+
+    private static EnumerationEngine newEngine(LoadedBenchmark benchmark, StatementCollector collector,
+                                               Evaluator evaluator, int startIndex) {
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, new Random(1));
+        return new EnumerationEngine(collector, sampler, evaluator, new FitnessEvaluator(),
+                EnumerationEngine.DonorPrior.proximity(), startIndex);
+    }
+
+    private static StatementId targetOf(Patch patch) {
+        EditOp op = patch.edits().get(0);
+        return op instanceof DeleteOp d ? d.target() : ((ReplaceOp) op).target();
+    }
+}
@@ -0,0 +1,65 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.patch.models.DeleteOp;
+import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.patch.models.StatementId;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluatedCandidateTest {
+
+    @Test
+    void withoutOutcomeIds_dropsIdsFromACopy_andLeavesTheSharedResultAlone() {
+        TestResult shared = result();
+        EvaluatedCandidate cand = new EvaluatedCandidate(patch(), 3.0, new EvaluationResult(shared, null, false));
+
+        EvaluatedCandidate kept = cand.withoutOutcomeIds();
+
+        assertNotSame(cand, kept);
+        TestResult tr = kept.evaluation().getTestResult();
+        assertEquals(List.of(), tr.getPassedTests());
+        assertEquals(List.of(), tr.getErroredTests());
+        assertEquals(List.of("T#f"), tr.getFailedTests());
+        assertEquals(5, tr.getTestsRun());
+        assertEquals(42L, tr.getCpuMillis());
+        assertEquals("out", tr.getOutput());
+        assertEquals(3.0, kept.fitness());
+        // the evaluator's result, e.g. a cached one, is untouched
+        assertEquals(List.of("T#p"), shared.getPassedTests());
+        assertEquals(List.of("T#e"), shared.getErroredTests());
+        assertSame(shared, cand.evaluation().getTestResult());
+    }
+
+    @Test
+    void withoutOutcomeIds_nothingToDrop_returnsSameCandidate() {
+        TestResult tr = new TestResult(0, "", true, false);
+        EvaluatedCandidate cand = new EvaluatedCandidate(patch(), 1.0, new EvaluationResult(tr, null, false));
+
+        assertSame(cand, cand.withoutOutcomeIds());
+        EvaluatedCandidate unevaluated = new EvaluatedCandidate(patch(), -1e15, null);
+        assertSame(unevaluated, unevaluated.withoutOutcomeIds());
+    }
+
+    // ---------------- helpers ----------------
+
+    private static Patch patch() {
+        return new Patch(List.of(new DeleteOp(new StatementId(1, 1, 1, 10))));
+    }
+
+    private static TestResult result() {
+        TestResult tr = new TestResult(1, "out", false, false);
+        tr.setTestsRun(5);
+        tr.setFailures(1);
+        tr.setErrors(1);
+        tr.setCpuMillis(42);
+        tr.setFailedTests(List.of("T#f"));
+        tr.setPassedTests(List.of("T#p"));
+        tr.setErroredTests(List.of("T#e"));
+        return tr;
+    }
+}
@@ -0,0 +1,144 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.SpilledTestResult;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvolutionRunTest {
+
+    private static final int POPULATION = 6;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runConfig_eliteCountOutOfRange_throws() {
+        RunConfig config = new RunConfig(1, 4, 1, new Random(1));
+
+        assertThrows(IllegalArgumentException.class, () -> config.withEliteCount(-1));
+        assertThrows(IllegalArgumentException.class, () -> config.withEliteCount(4));
+        assertEquals(3, config.withEliteCount(3).eliteCount());
+    }
+
+    @Test
+    void step_elites_surviveWithTheirEvaluation() throws Exception {
+        CountingEvaluator evaluator = new CountingEvaluator();
+        EvolutionRun run = newRun(evaluator, 2, 11);
+        assertNull(run.initialize());
+        List<EvaluatedCandidate> elites = run.top(2);
+
+        assertNull(run.step());
+
+        List<EvaluatedCandidate> next = run.top(POPULATION);
+        assertEquals(POPULATION, next.size());
+        for (EvaluatedCandidate elite : elites) {
+            assertTrue(next.stream().anyMatch(c -> c == elite), "elite should be carried over as is");
+        }
+        assertTrue(run.top(1).get(0).fitness() >= elites.get(0).fitness());
+    }
+
+    @Test
+    void step_evaluatedPlusSaved_coversWholePopulation() throws Exception {
+        CountingEvaluator evaluator = new CountingEvaluator();
+        EvolutionRun run = newRun(evaluator, 1, 5);
+        run.initialize();
+        int afterInit = evaluator.calls.get();
+
+        for (int gen = 0; gen < 4; gen++) {
+            assertNull(run.step());
+        }
+
+        assertEquals(POPULATION, afterInit);
+        assertEquals(4 * POPULATION, evaluator.calls.get() - afterInit + run.evaluationsSaved());
+        assertTrue(run.evaluationsSaved() >= 4, "at least the elite is never re-evaluated");
+    }
+
+    @Test
+    void step_childIdenticalToParent_isNotEvaluatedAgain() throws Exception {
+        CountingEvaluator evaluator = new CountingEvaluator();
+        EvolutionRun run = newRun(evaluator, 0, 5);
+        run.initialize();
+
+        // single-edit crossover mostly copies one parent, so identical children are common
+        int saved = 0;
+        for (int gen = 0; gen < 10 && saved == 0; gen++) {
+            run.step();
+            saved = run.evaluationsSaved();
+        }
+
+        assertTrue(saved > 0);
+        assertEquals(evaluator.calls.get() + saved, POPULATION * (run.generation() + 1));
+    }
+
+    @Test
+    void outputSpill_populationKeepsOnlySpilledResults_andOutputReadsBack() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "spill");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        Random rng = new Random(3);
+        Evaluator evaluator = (config, source) -> {
+            TestResult tr = new TestResult(0, "output of " + source.hashCode(), false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1);
+            tr.setFailedTests(new ArrayList<>(List.of("ClampTest#t" + Math.floorMod(source.hashCode(), 2))));
+            return new EvaluationResult(tr, null, false);
+        };
+        GenProgEngine engine = IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, POPULATION)
+                .withOutputSpill(tempDir.resolve("spill"));
+        EvolutionRun run = new EvolutionRun(engine, benchmark, rng, null, new BudgetTracker(Budget.UNLIMITED), 1, null,
+                () -> false, "");
+
+        run.initialize();
+        run.step();
+
+        for (EvaluatedCandidate c : run.top(POPULATION)) {
+            if (c.evaluation() == null) continue;
+            SpilledTestResult tr = assertInstanceOf(SpilledTestResult.class, c.evaluation().getTestResult());
+            assertTrue(tr.getOutput().startsWith("output of "), tr.getOutput());
+            assertEquals(1, tr.getFailedTests().size());
+            assertEquals(3, tr.getTestsRun());
+        }
+        SpilledTestResult best = (SpilledTestResult) run.bestSoFar().evaluation().getTestResult();
+        assertTrue(run.top(POPULATION).stream()
+                .filter(c -> c.evaluation() != null)
+                .map(c -> ((SpilledTestResult) c.evaluation().getTestResult()).failedTestSet())
+                .anyMatch(set -> set == best.failedTestSet()), "equal failed-test sets are shared");
+    }
+
+    // ---------------- helpers ----------------
+
+    private EvolutionRun newRun(Evaluator evaluator, int eliteCount, long seed) throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "elite");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        Random rng = new Random(seed);
+        GenProgEngine engine = IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, POPULATION);
+        return new EvolutionRun(engine, benchmark, rng, null, new BudgetTracker(Budget.UNLIMITED), eliteCount, null, () -> false, "");
+    }
+
+    /** Never repairs; fitness varies with the source. */
+    private static final class CountingEvaluator implements Evaluator {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            calls.incrementAndGet();
+            TestResult tr = new TestResult(0, "", false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1 + Math.floorMod(candidateSource.hashCode(), 3));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.CheckpointableRandom;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineBudgetTest {
+
+    private static final int GENERATIONS = 5;
+    private static final int POPULATION = 6;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repairResult_legacyConstructor_derivesStopReason() {
+        assertEquals(StopReason.REPAIRED, new RepairResult("", new EvaluationResult(), true).stopReason());
+        assertEquals(StopReason.MAX_GENERATIONS, new RepairResult("", new EvaluationResult(), false).stopReason());
+        assertThrows(IllegalArgumentException.class, () -> new RepairResult("", new EvaluationResult(), false, null));
+    }
+
+    @Test
+    void run_unlimitedBudget_stopsAfterMaxGenerations() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "budget");
+        SlowEvaluator evaluator = new SlowEvaluator(Integer.MAX_VALUE);
+
+        RepairResult result = run(benchmark, evaluator, Budget.UNLIMITED, null, false);
+
+        assertEquals(StopReason.MAX_GENERATIONS, result.stopReason());
+        assertTrue(evaluator.sources.size() <= POPULATION * (GENERATIONS + 1));
+    }
+
+    @Test
+    void run_maxEvaluations_returnsBestSoFarAfterExactlyThatMany() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "budget");
+        SlowEvaluator evaluator = new SlowEvaluator(Integer.MAX_VALUE);
+
+        RepairResult result = run(benchmark, evaluator, new Budget(null, POPULATION + 2, null), null, false);
+
+        assertEquals(StopReason.MAX_EVALUATIONS, result.stopReason());
+        assertFalse(result.repairedSuccessfully());
+        assertEquals(POPULATION + 2, evaluator.sources.size());
+        assertFalse(result.bestCandidateSource().isEmpty());
+        assertNotNull(result.evaluationResult().getTestResult());
+    }
+
+    @Test
+    void run_wallClock_cancelsRunningEvaluationAndReturnsBestSoFar() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "budget");
+        // the initial population is fast, then every evaluation hangs until cancelled
+        SlowEvaluator evaluator = new SlowEvaluator(POPULATION);
+
+        long start = System.nanoTime();
+        RepairResult result = run(benchmark, evaluator, new Budget(Duration.ofMillis(300), 0, null), null, false);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(StopReason.WALL_CLOCK, result.stopReason());
+        assertTrue(elapsedMs < 5_000, "run should stop at the deadline, took " + elapsedMs + " ms");
+        assertTrue(evaluator.cancelled, "the hanging evaluation should have seen the cancellation");
+        assertFalse(result.bestCandidateSource().isEmpty());
+    }
+
+    @Test
+    void run_budgetStopsMidGeneration_lastFullGenerationStaysResumable() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "budget");
+
+        SlowEvaluator straight = new SlowEvaluator(Integer.MAX_VALUE);
+        run(benchmark, straight, Budget.UNLIMITED, null, false);
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("checkpoints"));
+        SlowEvaluator limited = new SlowEvaluator(Integer.MAX_VALUE);
+        int budget = straight.sources.size() - 1;
+        RepairResult stopped = run(benchmark, limited, new Budget(null, budget, null), store, false);
+        assertEquals(StopReason.MAX_EVALUATIONS, stopped.stopReason());
+        assertEquals(budget, limited.sources.size());
+        assertTrue(store.load("budget").isPresent(), "budget stop keeps the checkpoint");
+
+        SlowEvaluator resumed = new SlowEvaluator(Integer.MAX_VALUE);
+        run(benchmark, resumed, Budget.UNLIMITED, store, true);
+
+        assertFalse(resumed.sources.isEmpty());
+        assertEquals(straight.sources.subList(straight.sources.size() - resumed.sources.size(), straight.sources.size()),
+                resumed.sources);
+    }
+
+    // ---------------- helpers ----------------
+
+    private static RepairResult run(LoadedBenchmark benchmark, Evaluator evaluator, Budget budget,
+                                    CheckpointStore checkpoints, boolean resume) throws Exception {
+        CheckpointableRandom rng = new CheckpointableRandom(3);
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        GenProgEngine engine = IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, POPULATION);
+        RunConfig config = new RunConfig(GENERATIONS, POPULATION, 10, rng).withBudget(budget);
+        if (checkpoints != null) {
+            config = config.withCheckpoints(checkpoints, resume);
+        }
+        return engine.run(benchmark, config);
+    }
+
+    /**
+     * Never repairs. The first fastCalls evaluations return at once, later ones
+     * block until the token is cancelled, like a hanging test run.
+     */
+    private static final class SlowEvaluator implements Evaluator {
+        private final int fastCalls;
+        private final List<String> sources = new ArrayList<>();
+        private volatile boolean cancelled = false;
+
+        SlowEvaluator(int fastCalls) {
+            this.fastCalls = fastCalls;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            return evaluate(config, candidateSource, CancellationToken.none());
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource, CancellationToken token) {
+            if (sources.size() >= fastCalls) {
+                while (!token.isCancelled()) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                cancelled = true;
+            }
+            sources.add(candidateSource);
+            TestResult tr = new TestResult(0, "", false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1 + Math.floorMod(candidateSource.hashCode(), 3));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.CheckpointableRandom;
+import de.uni_passau.apr.core.checkpoint.RunCheckpoint;
+import de.uni_passau.apr.core.crossover.SingleEditCrossover;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.selection.PopulationInitializer;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.surrogate.PatchFeatures;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineCheckpointTest {
+
+    private static final int GENERATIONS = 5;
+    private static final int POPULATION = 6;
+    private static final int RESTART_GENERATIONS = 12;
+    private static final int FEEDBACK_GENERATIONS = 12;
+    private static final int SURROGATE_GENERATIONS = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runConfig_checkpointsWithPlainRandom_throws() {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        RunConfig config = new RunConfig(1, 1, 1, new java.util.Random(1));
+
+        assertThrows(IllegalArgumentException.class, () -> config.withCheckpoints(store, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RunConfig(1, 1, 1, new CheckpointableRandom(1), null, true, null, 0, RunConfig.RngMode.SHARED, 1, null, null));
+    }
+
+    @Test
+    void run_crashAfterGeneration_checkpointHoldsLastCompletedGeneration() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("checkpoints"));
+        RecordingEvaluator crashing = new RecordingEvaluator(POPULATION + 2);
+
+        assertThrows(IllegalStateException.class, () -> run(benchmark, store, crashing, 7, false));
+
+        RunCheckpoint checkpoint = store.load("ckpt").orElseThrow();
+        assertTrue(checkpoint.generation() < GENERATIONS);
+        assertEquals(POPULATION, checkpoint.population().size());
+        assertNotNull(checkpoint.best());
+        assertTrue(Files.list(store.getDirectory()).noneMatch(f -> f.toString().endsWith(".tmp")));
+    }
+
+    @Test
+    void run_resumeAfterCrash_matchesUninterruptedRun() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+
+        RecordingEvaluator straight = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult expected = run(benchmark, new CheckpointStore(tempDir.resolve("a")), straight, 7, false);
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("b"));
+        RecordingEvaluator crashing = new RecordingEvaluator(straight.sources.size() - 2);
+        assertThrows(IllegalStateException.class, () -> run(benchmark, store, crashing, 7, false));
+        int checkpointed = store.load("ckpt").orElseThrow().generation();
+
+        RecordingEvaluator resumed = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult actual = run(benchmark, store, resumed, 7, true);
+
+        // the crashed run followed the same path, the resumed one replays everything after the checkpoint
+        assertEquals(straight.sources.subList(0, crashing.sources.size()), crashing.sources);
+        assertFalse(resumed.sources.isEmpty());
+        assertEquals(straight.sources.subList(straight.sources.size() - resumed.sources.size(), straight.sources.size()),
+                resumed.sources);
+        assertTrue(checkpointed > 0);
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+        assertFalse(Files.exists(store.fileFor("ckpt")), "finished run should drop its checkpoint");
+    }
+
+    @Test
+    void run_resumeAfterCrash_withRestarts_matchesUninterruptedRun() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+        RestartPolicy restart = new RestartPolicy(2, 0.0, 2, 2.0);
+
+        RecordingEvaluator straight = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult expected = run(benchmark, new CheckpointStore(tempDir.resolve("a")), straight, 3, false,
+                RESTART_GENERATIONS, restart, EngineKind.PLAIN);
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("b"));
+        RecordingEvaluator crashing = new RecordingEvaluator(straight.sources.size() - 2);
+        assertThrows(IllegalStateException.class,
+                () -> run(benchmark, store, crashing, 3, false, RESTART_GENERATIONS, restart, EngineKind.PLAIN));
+        RunCheckpoint checkpoint = store.load("ckpt").orElseThrow();
+
+        RecordingEvaluator resumed = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult actual = run(benchmark, store, resumed, 3, true, RESTART_GENERATIONS, restart, EngineKind.PLAIN);
+
+        // the run restarted before the crash, so the archive and counters had to survive the resume
+        assertTrue(checkpoint.restart().restarts() > 0, "no restart before the crash");
+        assertFalse(checkpoint.restart().archive().isEmpty());
+        assertFalse(checkpoint.restart().targetCounts().isEmpty());
+        assertEquals(straight.sources.subList(straight.sources.size() - resumed.sources.size(), straight.sources.size()),
+                resumed.sources);
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    @Test
+    void run_resumeAfterCrash_withAdaptiveOperators_matchesUninterruptedRun() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+
+        RecordingEvaluator straight = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult expected = run(benchmark, new CheckpointStore(tempDir.resolve("a")), straight, 5, false,
+                GENERATIONS, null, EngineKind.ADAPTIVE);
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("b"));
+        RecordingEvaluator crashing = new RecordingEvaluator(straight.sources.size() - 2);
+        assertThrows(IllegalStateException.class,
+                () -> run(benchmark, store, crashing, 5, false, GENERATIONS, null, EngineKind.ADAPTIVE));
+        RunCheckpoint checkpoint = store.load("ckpt").orElseThrow();
+
+        RecordingEvaluator resumed = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult actual = run(benchmark, store, resumed, 5, true, GENERATIONS, null, EngineKind.ADAPTIVE);
+
+        assertTrue(checkpoint.operators().moves().values().stream().anyMatch(c -> c.uses() > 0));
+        assertNotNull(checkpoint.operators().editKinds());
+        assertEquals(straight.sources.subList(straight.sources.size() - resumed.sources.size(), straight.sources.size()),
+                resumed.sources);
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    @Test
+    void run_resumeAfterCrash_withTargetFeedback_matchesUninterruptedRun() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+
+        RecordingEvaluator straight = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult expected = run(benchmark, new CheckpointStore(tempDir.resolve("a")), straight, 7, false,
+                FEEDBACK_GENERATIONS, null, EngineKind.FEEDBACK);
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("b"));
+        RecordingEvaluator crashing = new RecordingEvaluator(straight.sources.size() - 2);
+        assertThrows(IllegalStateException.class,
+                () -> run(benchmark, store, crashing, 7, false, FEEDBACK_GENERATIONS, null, EngineKind.FEEDBACK));
+        RunCheckpoint checkpoint = store.load("ckpt").orElseThrow();
+
+        RecordingEvaluator resumed = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult actual = run(benchmark, store, resumed, 7, true, FEEDBACK_GENERATIONS, null, EngineKind.FEEDBACK);
+
+        assertFalse(checkpoint.targetFeedback().isEmpty(), "nothing observed before the crash");
+        assertEquals(straight.sources.subList(straight.sources.size() - resumed.sources.size(), straight.sources.size()),
+                resumed.sources);
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    @Test
+    void run_resumeAfterCrash_withSurrogate_matchesUninterruptedRun() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+
+        RecordingEvaluator straight = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult expected = run(benchmark, new CheckpointStore(tempDir.resolve("a")), straight, 7, false,
+                SURROGATE_GENERATIONS, null, EngineKind.SURROGATE);
+
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("b"));
+        RecordingEvaluator crashing = new RecordingEvaluator(straight.sources.size() - 2);
+        assertThrows(IllegalStateException.class,
+                () -> run(benchmark, store, crashing, 7, false, SURROGATE_GENERATIONS, null, EngineKind.SURROGATE));
+        RunCheckpoint checkpoint = store.load("ckpt").orElseThrow();
+
+        RecordingEvaluator resumed = new RecordingEvaluator(Integer.MAX_VALUE);
+        RepairResult actual = run(benchmark, store, resumed, 7, true, SURROGATE_GENERATIONS, null, EngineKind.SURROGATE);
+
+        assertTrue(checkpoint.surrogate().stats().skipped() > 0, "nothing skipped before the crash");
+        assertEquals(straight.sources.subList(straight.sources.size() - resumed.sources.size(), straight.sources.size()),
+                resumed.sources);
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    @Test
+    void run_resumeWithDifferentSeed_startsOver() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "ckpt");
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("checkpoints"));
+        assertThrows(IllegalStateException.class,
+                () -> run(benchmark, store, new RecordingEvaluator(POPULATION + 2), 7, false));
+        assertTrue(store.load("ckpt").isPresent());
+
+        RecordingEvaluator fresh = new RecordingEvaluator(Integer.MAX_VALUE);
+        run(benchmark, new CheckpointStore(tempDir.resolve("fresh")), fresh, 8, false);
+        RecordingEvaluator resumed = new RecordingEvaluator(Integer.MAX_VALUE);
+        run(benchmark, store, resumed, 8, true);
+
+        assertEquals(fresh.sources, resumed.sources);
+    }
+
+    // ---------------- helpers ----------------
+
+    private static RepairResult run(LoadedBenchmark benchmark, CheckpointStore store, Evaluator evaluator,
+                                    long seed, boolean resume) throws Exception {
+        return run(benchmark, store, evaluator, seed, resume, GENERATIONS, null, EngineKind.PLAIN);
+    }
+
+    /** What the engine learns during a run, and so what a checkpoint has to carry. */
+    private enum EngineKind {
+        PLAIN,
+        /** picks mutation moves and initial edit kinds with OperatorSchedulers */
+        ADAPTIVE,
+        /** reweights edit targets from evaluations (FaultLocPrioratizedSampler.observe) */
+        FEEDBACK,
+        /** skips children a SurrogateFilter scores low */
+        SURROGATE
+    }
+
+    private static RepairResult run(LoadedBenchmark benchmark, CheckpointStore store, Evaluator evaluator,
+                                    long seed, boolean resume, int generations, RestartPolicy restart,
+                                    EngineKind kind) throws Exception {
+        CheckpointableRandom rng = new CheckpointableRandom(seed);
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        GenProgEngine engine = switch (kind) {
+            case PLAIN -> IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, POPULATION);
+            case ADAPTIVE -> adaptiveEngine(benchmark, collector, evaluator, rng);
+            case FEEDBACK -> feedbackEngine(benchmark, collector, evaluator, rng);
+            case SURROGATE -> surrogateEngine(benchmark, collector, evaluator, rng);
+        };
+        RunConfig config = new RunConfig(generations, POPULATION, 10, rng).withCheckpoints(store, resume)
+                .withRestart(restart);
+        return engine.run(benchmark, config);
+    }
+
+    private static GenProgEngine adaptiveEngine(LoadedBenchmark benchmark, StatementCollector collector,
+                                                Evaluator evaluator, Random rng) {
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng);
+        return new GenProgEngine(
+                new PopulationInitializer(POPULATION, rng, collector, sampler, 0.1, true)
+                        .withScheduler(new OperatorScheduler<>(PopulationInitializer.EditKind.class, 0.05, 0.2)),
+                new FitnessEvaluator(),
+                evaluator,
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true)
+                        .withScheduler(new OperatorScheduler<>(SingleEditMutator.Move.class, 0.05, 0.2)));
+    }
+
+    private static GenProgEngine feedbackEngine(LoadedBenchmark benchmark, StatementCollector collector,
+                                                Evaluator evaluator, Random rng) {
+        FaultLocPrioratizedSampler sampler =
+                new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng, 0.5);
+        return new GenProgEngine(
+                new PopulationInitializer(POPULATION, rng, collector, sampler, 0.1, true),
+                new FitnessEvaluator(),
+                evaluator,
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true))
+                .withTargetFeedback(sampler);
+    }
+
+    private static GenProgEngine surrogateEngine(LoadedBenchmark benchmark, StatementCollector collector,
+                                                 Evaluator evaluator, Random rng) {
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng);
+        SurrogateFilter surrogate =
+                new SurrogateFilter(new PatchFeatures(collector, sampler.targetWeights()), 0.5, 0.2, POPULATION);
+        return new GenProgEngine(
+                new PopulationInitializer(POPULATION, rng, collector, sampler, 0.1, true),
+                new FitnessEvaluator(),
+                evaluator,
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true),
+                surrogate);
+    }
+
+    /** Never repairs; fitness varies with the source. Throws once the call budget is used up, like a dying JVM. */
+    private static final class RecordingEvaluator implements Evaluator {
+        private final int crashAfter;
+        private final List<String> sources = new ArrayList<>();
+
+        RecordingEvaluator(int crashAfter) {
+            this.crashAfter = crashAfter;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            if (sources.size() >= crashAfter) {
+                throw new IllegalStateException("simulated crash");
+            }
+            sources.add(candidateSource);
+            TestResult tr = new TestResult(0, "", false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1 + Math.floorMod(candidateSource.hashCode(), 3));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
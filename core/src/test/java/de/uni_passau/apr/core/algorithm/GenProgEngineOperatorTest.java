@@ -0,0 +1,108 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.crossover.SingleEditCrossover;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.models.StatementId;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.selection.PopulationInitializer;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineOperatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void run_creditsOperatorsAndTargetsOfEvaluatedPatches_andReportsThem() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "operators");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        Random rng = new Random(4);
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng, 2.0);
+        Map<StatementId, Double> prior = sampler.targetWeights();
+        OperatorScheduler<PopulationInitializer.EditKind> kinds =
+                new OperatorScheduler<>(PopulationInitializer.EditKind.class, 0.05, 0.2);
+        OperatorScheduler<SingleEditMutator.Move> moves = new OperatorScheduler<>(SingleEditMutator.Move.class, 0.05, 0.2);
+        GenProgEngine engine = new GenProgEngine(
+                new PopulationInitializer(6, rng, collector, sampler, 0.1, true).withScheduler(kinds),
+                new FitnessEvaluator(),
+                new CompileEvaluator(),
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true).withScheduler(moves))
+                .withTargetFeedback(sampler);
+
+        String log = captureOut(() -> engine.run(benchmark, new RunConfig(3, 6, 10, new Random(4))));
+
+        int kindUses = kinds.credits().values().stream().mapToInt(OperatorScheduler.Credit::uses).sum();
+        int moveUses = moves.credits().values().stream().mapToInt(OperatorScheduler.Credit::uses).sum();
+        assertEquals(6, kindUses, "every fresh initial patch is credited once");
+        assertTrue(moveUses > 0);
+        assertTrue(log.contains("Mutation operators: CHANGE_TARGET p="), log);
+        assertTrue(log.contains("Initial edit kinds: DELETE p="), log);
+        assertTrue(log.contains("Target feedback: "), log);
+        assertNotEquals(prior, sampler.targetWeights());
+    }
+
+    @Test
+    void run_withExploredRegistry_reportsTheExploredPatches() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "explored");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        Random rng = new Random(4);
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng);
+        GenProgEngine engine = new GenProgEngine(
+                new PopulationInitializer(6, rng, collector, sampler, 0.1, true),
+                new FitnessEvaluator(),
+                new CompileEvaluator(),
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true))
+                .withExploredRegistry(1000);
+
+        String log = captureOut(() -> engine.run(benchmark, new RunConfig(3, 6, 10, new Random(4))));
+
+        assertTrue(log.matches("(?s).*Explored patches: [1-9]\\d* patches.*"), log);
+        assertThrows(IllegalArgumentException.class, () -> engine.withExploredRegistry(-1));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static String captureOut(Runnable r) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            r.run();
+        } finally {
+            System.setOut(old);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Deletes do not compile, everything else compiles and fails one test. */
+    private static final class CompileEvaluator implements Evaluator {
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            boolean compiles = candidateSource.lines().count() >= config.getBuggyProgram().lines().count();
+            TestResult tr = new TestResult(compiles ? 0 : 1, "", false, false);
+            tr.setTestsRun(compiles ? 3 : 0);
+            tr.setFailures(compiles ? 1 : 0);
+            return new EvaluationResult(tr, null, !compiles);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.crossover.SingleEditCrossover;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.selection.PopulationInitializer;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineParallelTest {
+
+    private static final int GENERATIONS = 4;
+    private static final int POPULATION = 8;
+    private static final int SCHEDULED_POPULATION = 12;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runConfig_invalidJobs_throws() {
+        RunConfig config = new RunConfig(1, 2, 1, new Random(1));
+
+        assertThrows(IllegalArgumentException.class, () -> config.withJobs(0));
+        assertEquals(RunConfig.RngMode.SHARED, config.rngMode());
+        assertEquals(RunConfig.RngMode.SHARED, config.withRngMode(null).rngMode());
+        assertEquals(1, config.jobs());
+    }
+
+    @Test
+    void run_splitStreams_oneAndFourJobs_evaluateSamePopulations() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "jobs");
+
+        RecordingEvaluator sequential = new RecordingEvaluator("this text never appears", 0);
+        RepairResult expected = run(benchmark, sequential, RunConfig.RngMode.SPLIT, 1, 21);
+        RecordingEvaluator parallel = new RecordingEvaluator("this text never appears", 2);
+        RepairResult actual = run(benchmark, parallel, RunConfig.RngMode.SPLIT, 4, 21);
+
+        assertEquals(sorted(sequential.sources), sorted(parallel.sources));
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+        assertEquals(expected.stopReason(), actual.stopReason());
+        assertTrue(parallel.maxConcurrent.get() > 1, "four jobs should evaluate side by side");
+    }
+
+    @Test
+    void run_sharedStream_oneAndFourJobs_evaluateSamePopulations() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "jobs");
+
+        RecordingEvaluator sequential = new RecordingEvaluator("this text never appears", 0);
+        RepairResult expected = run(benchmark, sequential, RunConfig.RngMode.SHARED, 1, 21);
+        RecordingEvaluator parallel = new RecordingEvaluator("this text never appears", 0);
+        RepairResult actual = run(benchmark, parallel, RunConfig.RngMode.SHARED, 4, 21);
+
+        assertEquals(sorted(sequential.sources), sorted(parallel.sources));
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    @Test
+    void run_repairFound_parallelRunReturnsSameRepair() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "jobs");
+
+        for (long seed = 1; seed <= 3; seed++) {
+            RepairResult expected = run(benchmark, new RecordingEvaluator("return high;", 0),
+                    RunConfig.RngMode.SPLIT, 1, seed);
+            RepairResult actual = run(benchmark, new RecordingEvaluator("return high;", 1),
+                    RunConfig.RngMode.SPLIT, 4, seed);
+
+            assertEquals(expected.repairedSuccessfully(), actual.repairedSuccessfully());
+            assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+        }
+    }
+
+    @Test
+    void run_splitStreams_differentSeeds_differ() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "jobs");
+
+        RecordingEvaluator a = new RecordingEvaluator("this text never appears", 0);
+        run(benchmark, a, RunConfig.RngMode.SPLIT, 1, 1);
+        RecordingEvaluator b = new RecordingEvaluator("this text never appears", 0);
+        run(benchmark, b, RunConfig.RngMode.SPLIT, 1, 2);
+
+        assertNotEquals(a.sources, b.sources);
+    }
+
+    @Test
+    void run_batchEvaluator_getsWholeGenerations_andSameResult() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "jobs");
+
+        RecordingEvaluator plain = new RecordingEvaluator("this text never appears", 0);
+        RepairResult expected = run(benchmark, plain, RunConfig.RngMode.SPLIT, 1, 21);
+        BatchEvaluator batched = new BatchEvaluator(new RecordingEvaluator("this text never appears", 0));
+        RepairResult actual = run(benchmark, batched, RunConfig.RngMode.SPLIT, 4, 21);
+
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+        // the initial population and one batch per generation, never one call per candidate
+        assertEquals(GENERATIONS + 1, batched.batchSizes.size());
+        assertEquals(POPULATION, batched.batchSizes.get(0));
+        assertEquals(sorted(plain.sources), sorted(batched.delegate.sources));
+    }
+
+    @Test
+    void run_splitStreams_withOperatorScheduler_oneAndFourJobs_creditSameMoves() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "jobs");
+
+        // enough children that breeding forks into several tasks
+        for (long seed = 1; seed <= 3; seed++) {
+            OperatorScheduler<SingleEditMutator.Move> sequentialMoves = moveScheduler();
+            RecordingEvaluator sequential = new RecordingEvaluator("this text never appears", 0);
+            run(benchmark, sequential, sequentialMoves, 1, seed);
+            OperatorScheduler<SingleEditMutator.Move> parallelMoves = moveScheduler();
+            RecordingEvaluator parallel = new RecordingEvaluator("this text never appears", 1);
+            run(benchmark, parallel, parallelMoves, 4, seed);
+
+            assertEquals(sorted(sequential.sources), sorted(parallel.sources));
+            assertEquals(sequentialMoves.credits(), parallelMoves.credits(), "seed " + seed);
+            assertTrue(sequentialMoves.credits().values().stream().anyMatch(c -> c.uses() > 0));
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    private static RepairResult run(LoadedBenchmark benchmark, Evaluator evaluator, RunConfig.RngMode mode,
+                                    int jobs, long seed) throws Exception {
+        Random rng = new Random(seed);
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        GenProgEngine engine = IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, POPULATION);
+        RunConfig config = new RunConfig(GENERATIONS, POPULATION, 10, rng).withRngMode(mode).withJobs(jobs);
+        return engine.run(benchmark, config);
+    }
+
+    private static RepairResult run(LoadedBenchmark benchmark, Evaluator evaluator,
+                                    OperatorScheduler<SingleEditMutator.Move> moves, int jobs, long seed)
+            throws Exception {
+        Random rng = new Random(seed);
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng);
+        GenProgEngine engine = new GenProgEngine(
+                new PopulationInitializer(SCHEDULED_POPULATION, rng, collector, sampler, 0.1, true),
+                new FitnessEvaluator(),
+                evaluator,
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true).withScheduler(moves));
+        RunConfig config = new RunConfig(GENERATIONS, SCHEDULED_POPULATION, 10, rng)
+                .withRngMode(RunConfig.RngMode.SPLIT).withJobs(jobs);
+        return engine.run(benchmark, config);
+    }
+
+    private static OperatorScheduler<SingleEditMutator.Move> moveScheduler() {
+        return new OperatorScheduler<>(SingleEditMutator.Move.class, 0.05, 0.2);
+    }
+
+    private static List<String> sorted(List<String> sources) {
+        List<String> copy = new ArrayList<>(sources);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    /** Evaluates each batch in one evaluateAll call on the calling thread, like a backend sharing one build. */
+    private static final class BatchEvaluator implements Evaluator {
+        private final RecordingEvaluator delegate;
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        BatchEvaluator(RecordingEvaluator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            throw new AssertionError("candidates should come in batches");
+        }
+
+        @Override
+        public List<EvaluationResult> evaluateAll(BenchmarkConfig config, List<String> candidateSources,
+                                                  CancellationToken token, Executor executor, BatchListener listener) {
+            batchSizes.add(candidateSources.size());
+            return delegate.evaluateAll(config, candidateSources, token, null, listener);
+        }
+    }
+
+    /**
+     * Thread safe; passes all tests once the fix text is in the buggy branch, otherwise
+     * fitness varies with the source. Sleeps a little so parallel calls overlap.
+     */
+    private static final class RecordingEvaluator implements Evaluator {
+        private final String fix;
+        private final long sleepMillis;
+        private final List<String> sources = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        RecordingEvaluator(String fix, long sleepMillis) {
+            this.fix = fix;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            sources.add(candidateSource);
+            boolean fixed = candidateSource.replaceAll("\\s+", " ").contains("if (x > high) { " + fix);
+            TestResult tr = new TestResult(0, "", fixed, false);
+            tr.setTestsRun(3);
+            tr.setFailures(fixed ? 0 : 1 + Math.floorMod(candidateSource.hashCode(), 3));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
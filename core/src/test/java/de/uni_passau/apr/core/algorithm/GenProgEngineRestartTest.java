@@ -0,0 +1,92 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineRestartTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void policy_invalidArgs_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new RestartPolicy(0, 0.3, 2, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new RestartPolicy(3, 1.5, 2, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new RestartPolicy(3, 0.3, -1, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new RestartPolicy(3, 0.3, 2, -1.0));
+    }
+
+    @Test
+    void policy_isDue_onStagnationOrCollapsedDiversity() {
+        RestartPolicy policy = new RestartPolicy(3, 0.5, 2, 1.0);
+
+        assertFalse(policy.isDue(0, 0.1), "an improving population never restarts");
+        assertFalse(policy.isDue(2, 0.8));
+        assertTrue(policy.isDue(3, 1.0));
+        assertTrue(policy.isDue(1, 0.4));
+    }
+
+    @Test
+    void run_flatFitness_restartsAndKeepsGoing() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "restart");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        FlatEvaluator evaluator = new FlatEvaluator();
+
+        String log = captureOut(() -> IslandModelEngineTest.newEngine(benchmark, collector, evaluator, new Random(2))
+                .run(benchmark, new RunConfig(8, 6, 10, new Random(2)).withRestart(new RestartPolicy(2, 0.0, 1, 2.0))));
+
+        assertTrue(log.contains("restarting with"), log);
+        assertTrue(log.contains("Restart at generation"), log);
+        assertTrue(log.contains("kept 1 archived candidates"), log);
+    }
+
+    @Test
+    void run_withoutPolicy_neverRestarts() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "restart");
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+
+        String log = captureOut(() -> IslandModelEngineTest.newEngine(benchmark, collector, new FlatEvaluator(), new Random(2))
+                .run(benchmark, new RunConfig(8, 6, 10, new Random(2))));
+
+        assertFalse(log.contains("Restart at generation"));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static String captureOut(Runnable r) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            r.run();
+        } finally {
+            System.setOut(old);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Every candidate fails the same single test, so the best fitness never improves. */
+    private static final class FlatEvaluator implements Evaluator {
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            TestResult tr = new TestResult(0, "", false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1);
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
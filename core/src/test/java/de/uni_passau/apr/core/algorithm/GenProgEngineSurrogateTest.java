@@ -0,0 +1,97 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.crossover.SingleEditCrossover;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.selection.PopulationInitializer;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.surrogate.PatchFeatures;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineSurrogateTest {
+
+    private static final String NO_FIX = "this text never appears";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void run_surrogate_skipsChildrenAndSavesEvaluations() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "surrogate");
+
+        ClampEvaluator all = new ClampEvaluator(NO_FIX);
+        newEngine(benchmark, all, 0.0, null).run(benchmark, config(7));
+        ClampEvaluator filtered = new ClampEvaluator(NO_FIX);
+        SurrogateFilter[] filter = new SurrogateFilter[1];
+        newEngine(benchmark, filtered, 0.5, filter).run(benchmark, config(7));
+
+        SurrogateFilter.Stats stats = filter[0].stats();
+        assertTrue(stats.skipped() > 0);
+        assertTrue(filtered.sources.size() < all.sources.size(), "skipped children must not be evaluated");
+        // every evaluation trains the model once, patches that fail to apply train it without a test run
+        assertTrue(stats.trained() >= filtered.sources.size());
+    }
+
+    @Test
+    void run_surrogate_oneAndFourJobs_sameResult() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "surrogate");
+
+        ClampEvaluator sequential = new ClampEvaluator(NO_FIX);
+        RepairResult expected = newEngine(benchmark, sequential, 0.5, null).run(benchmark, config(11));
+        ClampEvaluator parallel = new ClampEvaluator(NO_FIX);
+        RepairResult actual = newEngine(benchmark, parallel, 0.5, null).run(benchmark, config(11).withJobs(4));
+
+        assertEquals(sorted(sequential.sources), sorted(parallel.sources));
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+    }
+
+    @Test
+    void run_surrogate_stillFindsRepair() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "surrogate");
+
+        RepairResult result = newEngine(benchmark, new ClampEvaluator("return high;"), 0.3, null)
+                .run(benchmark, new RunConfig(30, 8, 10, new Random(3)).withRngMode(RunConfig.RngMode.SPLIT));
+
+        assertTrue(result.repairedSuccessfully());
+    }
+
+    // ---------------- helpers ----------------
+
+    private static RunConfig config(long seed) {
+        return new RunConfig(6, 8, 10, new Random(seed)).withRngMode(RunConfig.RngMode.SPLIT);
+    }
+
+    private static GenProgEngine newEngine(LoadedBenchmark benchmark, Evaluator evaluator, double skip,
+                                           SurrogateFilter[] created) throws Exception {
+        Random rng = new Random(1);
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng);
+        SurrogateFilter surrogate = skip > 0
+                ? new SurrogateFilter(new PatchFeatures(collector, sampler.targetWeights()), skip, 0.0, 8)
+                : null;
+        if (created != null) created[0] = surrogate;
+        return new GenProgEngine(
+                new PopulationInitializer(8, rng, collector, sampler, 0.1, true),
+                new FitnessEvaluator(),
+                evaluator,
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true),
+                surrogate);
+    }
+
+    private static List<String> sorted(List<String> in) {
+        List<String> out = new ArrayList<>(in);
+        Collections.sort(out);
+        return out;
+    }
+}
@@ -0,0 +1,106 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.checkpoint.CheckpointStore;
+import de.uni_passau.apr.core.checkpoint.PatchArchive;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenProgEngineWarmStartTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void settings_invalidArgs_throw() {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        assertThrows(IllegalArgumentException.class, () -> new ArchiveSettings(store, 0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ArchiveSettings(store, 5, 1.5));
+        assertThrows(NullPointerException.class, () -> new ArchiveSettings(null, 5, 0.5));
+    }
+
+    @Test
+    void run_exportsArchive_andWarmStartSkipsEvaluatingArchivedSeeds() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "warm");
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("archives"));
+
+        run(benchmark, new ArchiveSettings(store, 4, 0.0), 0);
+        PatchArchive archive = store.loadArchive("warm").orElseThrow();
+        assertEquals(4, archive.entries().size());
+
+        // 3 of the 6 initial candidates come from the archive with their evaluation,
+        // so 3 evaluations are enough for the whole initial population
+        String log = captureOut(() -> run(benchmark, new ArchiveSettings(store, 4, 0.5), 3));
+
+        assertTrue(log.contains("Warm start from the patch archive: 3 patches, 3 of them need no evaluation."), log);
+        assertTrue(log.contains("3 of them from the archive"), log);
+        assertEquals(6, log.split("Evaluated initial population candidate", -1).length - 1, log);
+    }
+
+    @Test
+    void run_archiveOfOtherContent_seedsAreEvaluatedAgain() throws Exception {
+        LoadedBenchmark benchmark = IslandModelEngineTest.clampBenchmark(tempDir, "warm");
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("archives"));
+        run(benchmark, new ArchiveSettings(store, 4, 0.0), 0);
+        PatchArchive archive = store.loadArchive("warm").orElseThrow();
+        store.saveArchive(new PatchArchive(archive.version(), "warm", "other", archive.entries()));
+
+        String log = captureOut(() -> run(benchmark, new ArchiveSettings(store, 4, 0.5), 3));
+
+        assertTrue(log.contains("3 patches, 0 of them need no evaluation."), log);
+        assertTrue(log.split("Evaluated initial population candidate", -1).length - 1 < 6, log);
+        assertNotEquals("other", store.loadArchive("warm").orElseThrow().fingerprint());
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Two generations of 6 with the given archive; maxEvaluations 0 is unlimited. */
+    private static void run(LoadedBenchmark benchmark, ArchiveSettings archive, int maxEvaluations) {
+        StatementCollector collector;
+        try {
+            collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        IslandModelEngineTest.newEngine(benchmark, collector, new VaryingEvaluator(), new Random(3))
+                .run(benchmark, new RunConfig(2, 6, 10, new Random(3))
+                        .withBudget(new Budget(null, maxEvaluations, null))
+                        .withArchive(archive));
+    }
+
+    private static String captureOut(Runnable r) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            r.run();
+        } finally {
+            System.setOut(old);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Never repairs; fitness depends on the candidate so the archive has an order. */
+    private static final class VaryingEvaluator implements Evaluator {
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            TestResult tr = new TestResult(0, "", false, false);
+            tr.setTestsRun(3);
+            tr.setFailures(1 + Math.floorMod(candidateSource.hashCode(), 2));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+}
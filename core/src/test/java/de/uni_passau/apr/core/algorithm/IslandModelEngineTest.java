@@ -0,0 +1,198 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.crossover.SingleEditCrossover;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.faultlocalization.FaultLocalization;
+import de.uni_passau.apr.core.faultlocalization.WeightedLocation;
+import de.uni_passau.apr.core.fitness.FitnessEvaluator;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.selection.PopulationInitializer;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IslandModelEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ctor_invalidArgs_throw() {
+        IslandModelEngine.IslandFactory f = (i, rng) -> null;
+
+        assertThrows(IllegalArgumentException.class, () -> new IslandModelEngine(f, 0, 1, 1, IslandModelEngine.Topology.RING));
+        assertThrows(IllegalArgumentException.class, () -> new IslandModelEngine(f, 2, 0, 1, IslandModelEngine.Topology.RING));
+        assertThrows(IllegalArgumentException.class, () -> new IslandModelEngine(f, 2, 1, -1, IslandModelEngine.Topology.RING));
+        assertThrows(NullPointerException.class, () -> new IslandModelEngine(null, 2, 1, 1, IslandModelEngine.Topology.RING));
+        assertThrows(NullPointerException.class, () -> new IslandModelEngine(f, 2, 1, 1, null));
+    }
+
+    @Test
+    void sourceFor_ring_receivesFromPreviousIsland() {
+        Random rng = new Random(1);
+        assertEquals(3, IslandModelEngine.sourceFor(0, 4, IslandModelEngine.Topology.RING, rng));
+        assertEquals(0, IslandModelEngine.sourceFor(1, 4, IslandModelEngine.Topology.RING, rng));
+        assertEquals(2, IslandModelEngine.sourceFor(3, 4, IslandModelEngine.Topology.RING, rng));
+    }
+
+    @Test
+    void sourceFor_random_neverPicksItself() {
+        Random rng = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            int island = i % 3;
+            int source = IslandModelEngine.sourceFor(island, 3, IslandModelEngine.Topology.RANDOM, rng);
+            assertNotEquals(island, source);
+            assertTrue(source >= 0 && source < 3);
+        }
+    }
+
+    @Test
+    void run_repairableProgram_returnsSuccess_andEachIslandGetsOwnRng() throws Exception {
+        LoadedBenchmark benchmark = benchmark();
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        FixDetectingEvaluator evaluator = new FixDetectingEvaluator("return high;");
+
+        Set<Random> rngs = ConcurrentHashMap.newKeySet();
+        IslandModelEngine engine = new IslandModelEngine(
+                (island, rng) -> {
+                    rngs.add(rng);
+                    return newEngine(benchmark, collector, evaluator, rng);
+                },
+                3, 1, 1, IslandModelEngine.Topology.RING);
+
+        RepairResult result = engine.run(benchmark, new RunConfig(20, 6, 10, new Random(42)));
+
+        assertTrue(result.repairedSuccessfully());
+        assertTrue(result.bestCandidateSource().contains("return high;"));
+        assertEquals(3, rngs.size(), "every island must get a distinct Random");
+    }
+
+    @Test
+    void run_successOnOneIsland_stopsAllIslands() throws Exception {
+        LoadedBenchmark benchmark = benchmark();
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        // any evaluated candidate counts as a repair: the first evaluation must stop everyone
+        FixDetectingEvaluator evaluator = new FixDetectingEvaluator("");
+
+        IslandModelEngine engine = new IslandModelEngine(
+                (island, rng) -> newEngine(benchmark, collector, evaluator, rng),
+                4, 1, 1, IslandModelEngine.Topology.RANDOM);
+
+        RepairResult result = engine.run(benchmark, new RunConfig(50, 5, 10, new Random(3)));
+
+        assertTrue(result.repairedSuccessfully());
+        // at most one in-flight evaluation per island after the stop flag is raised
+        assertTrue(evaluator.calls.get() <= 4, "islands kept evaluating after a repair: " + evaluator.calls.get());
+    }
+
+    @Test
+    void run_noRepairPossible_returnsBestAcrossIslands_afterMaxGenerations() throws Exception {
+        LoadedBenchmark benchmark = benchmark();
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        FixDetectingEvaluator evaluator = new FixDetectingEvaluator("this text never appears");
+
+        IslandModelEngine engine = new IslandModelEngine(
+                (island, rng) -> newEngine(benchmark, collector, evaluator, rng),
+                2, 2, 2, IslandModelEngine.Topology.RING);
+
+        RepairResult result = engine.run(benchmark, new RunConfig(4, 4, 10, new Random(5)));
+
+        assertFalse(result.repairedSuccessfully());
+        assertNotNull(result.evaluationResult());
+        assertEquals(StopReason.MAX_GENERATIONS, result.stopReason());
+        // at most 2 islands * (initial population + 4 generations) * 6 candidates,
+        // children identical to a parent are not evaluated again
+        assertTrue(evaluator.calls.get() > 2 * 6);
+        assertTrue(evaluator.calls.get() <= 2 * 5 * 6);
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Passes all tests once the candidate source contains the fix text in the buggy branch. */
+    private static final class FixDetectingEvaluator implements Evaluator {
+        private final String fix;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FixDetectingEvaluator(String fix) {
+            this.fix = fix;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            calls.incrementAndGet();
+            boolean fixed = candidateSource.replaceAll("\\s+", " ").contains("if (x > high) { " + fix);
+            TestResult tr = new TestResult(0, "", fixed, false);
+            tr.setTestsRun(3);
+            tr.setFailures(fixed ? 0 : 1);
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+
+    static GenProgEngine newEngine(LoadedBenchmark benchmark, StatementCollector collector, Evaluator evaluator, Random rng) {
+        return newEngine(benchmark, collector, evaluator, rng, 6);
+    }
+
+    static GenProgEngine newEngine(LoadedBenchmark benchmark, StatementCollector collector, Evaluator evaluator,
+                                   Random rng, int populationSize) {
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(benchmark.faultLocalization(), collector, rng);
+        return new GenProgEngine(
+                new PopulationInitializer(populationSize, rng, collector, sampler, 0.1, true),
+                new FitnessEvaluator(),
+                evaluator,
+                new SingleEditCrossover(rng, collector, true),
+                new SingleEditMutator(0.06, rng, collector, sampler, true)
+        );
+    }
+
+    private LoadedBenchmark benchmark() throws Exception {
+        return clampBenchmark(tempDir, "island");
+    }
+
+    /** Clamp with a wrong return in the upper branch; line 7 is the fault, line 12 a donor for the fix. */
+    static LoadedBenchmark clampBenchmark(Path dir, String name) throws Exception {
+        String src = String.join("\n",
+                "public class Program {",
+                "    public static int clamp(int x, int low, int high) {",
+                "        if (x < low) {",
+                "            return low;",
+                "        }",
+                "        if (x > high) {",
+                "            return low;",
+                "        }",
+                "        return x;",
+                "    }",
+                "    private static int donor(int high) {",
+                "        return high;",
+                "    }",
+                "}"
+        ) + "\n";
+        Path file = dir.resolve("Program.java");
+        Files.writeString(file, src, StandardCharsets.UTF_8);
+
+        BenchmarkConfig config = new BenchmarkConfig();
+        config.setName(name);
+        config.setBuggyProgramPath(file);
+        config.setBuggyProgram(src);
+
+        FaultLocalization fl = new FaultLocalization("Program.java", List.of(
+                new WeightedLocation(4, 0.1),
+                new WeightedLocation(7, 1.0),
+                new WeightedLocation(9, 0.1)
+        ));
+        return new LoadedBenchmark(config, fl);
+    }
+}
@@ -0,0 +1,103 @@
+package de.uni_passau.apr.core.algorithm;
+
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.service.LoadedBenchmark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSearchEngineTest {
+
+    private static final String NO_FIX = "this text never appears";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ctor_invalidArgs_throw() throws Exception {
+        GenProgEngine engine = newEngine(new ClampEvaluator(NO_FIX), new Random(1));
+
+        assertThrows(IllegalArgumentException.class, () -> new LocalSearchEngine(engine, 0, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LocalSearchEngine(engine, 4, 0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LocalSearchEngine(engine, 4, 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LocalSearchEngine(engine, 4, 1, 1, -1));
+        assertThrows(NullPointerException.class, () -> new LocalSearchEngine(null, 4, 1, 1, 0));
+    }
+
+    @Test
+    void run_repairableProgram_findsTheFix() throws Exception {
+        ClampEvaluator evaluator = new ClampEvaluator("return high;");
+        LocalSearchEngine local = new LocalSearchEngine(newEngine(evaluator, new Random(3)), 8, 3, 3, 0);
+
+        RepairResult result = local.run(benchmark(), new RunConfig(30, 4, 10, new Random(3)));
+
+        assertTrue(result.repairedSuccessfully());
+        assertTrue(result.bestCandidateSource().contains("return high;"));
+    }
+
+    @Test
+    void run_noFix_neverEvaluatesASourceTwiceAndStops() throws Exception {
+        ClampEvaluator evaluator = new ClampEvaluator(NO_FIX);
+        LocalSearchEngine local = new LocalSearchEngine(newEngine(evaluator, new Random(5)), 6, 2, 2, 0);
+
+        RepairResult result = local.run(benchmark(), new RunConfig(40, 4, 10, new Random(5)));
+
+        assertFalse(result.repairedSuccessfully());
+        assertNotNull(result.stopReason());
+        // the initial population may contain the same source twice, neighbours are always new patches
+        List<String> neighbourSources = evaluator.sources.subList(4, evaluator.sources.size());
+        assertEquals(new HashSet<>(neighbourSources).size(), neighbourSources.size());
+    }
+
+    @Test
+    void run_fourJobs_sameResultAsOne() throws Exception {
+        ClampEvaluator seq = new ClampEvaluator(NO_FIX);
+        RepairResult expected = new LocalSearchEngine(newEngine(seq, new Random(9)), 6, 2, 2, 0)
+                .run(benchmark(), new RunConfig(10, 4, 10, new Random(9)));
+        ClampEvaluator par = new ClampEvaluator(NO_FIX);
+        RepairResult actual = new LocalSearchEngine(newEngine(par, new Random(9)), 6, 2, 2, 0)
+                .run(benchmark(), new RunConfig(10, 4, 10, new Random(9)).withJobs(4));
+
+        assertEquals(expected.bestCandidateSource(), actual.bestCandidateSource());
+        assertEquals(expected.stopReason(), actual.stopReason());
+    }
+
+    @Test
+    void run_hybrid_switchesToLocalSearchAfterStagnation() throws Exception {
+        ClampEvaluator evaluator = new ClampEvaluator(NO_FIX);
+        LocalSearchEngine hybrid = new LocalSearchEngine(newEngine(evaluator, new Random(2)), 4, 1, 1, 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            hybrid.run(benchmark(), new RunConfig(30, 4, 10, new Random(2)));
+        } finally {
+            System.setOut(old);
+        }
+
+        String log = out.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains("switching to local search"), log);
+        assertTrue(log.indexOf("switching to local search") < log.indexOf("Local step"));
+    }
+
+    // ---------------- helpers ----------------
+
+    private LoadedBenchmark benchmark() throws Exception {
+        return IslandModelEngineTest.clampBenchmark(tempDir, "local");
+    }
+
+    private GenProgEngine newEngine(Evaluator evaluator, Random rng) throws Exception {
+        LoadedBenchmark benchmark = benchmark();
+        StatementCollector collector = StatementCollector.fromFile(benchmark.config().getBuggyProgramPath());
+        return IslandModelEngineTest.newEngine(benchmark, collector, evaluator, rng, 4);
+    }
+}
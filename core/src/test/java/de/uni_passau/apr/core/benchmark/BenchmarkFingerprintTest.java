@@ -0,0 +1,50 @@
+package de.uni_passau.apr.core.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkFingerprintTest {
+
+    @Test
+    void of_null_throws() {
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkFingerprint.of(null));
+    }
+
+    @Test
+    void of_sameContent_sameFingerprint() {
+        assertEquals(BenchmarkFingerprint.of(config("bm1", "class A {}", "class T {}")),
+                BenchmarkFingerprint.of(config("bm1", "class A {}", "class T {}")));
+    }
+
+    @Test
+    void of_anyPartChanged_differentFingerprint() {
+        String base = BenchmarkFingerprint.of(config("bm1", "class A {}", "class T {}"));
+
+        assertNotEquals(base, BenchmarkFingerprint.of(config("bm2", "class A {}", "class T {}")));
+        assertNotEquals(base, BenchmarkFingerprint.of(config("bm1", "class B {}", "class T {}")));
+        assertNotEquals(base, BenchmarkFingerprint.of(config("bm1", "class A {}", "class U {}")));
+    }
+
+    @Test
+    void of_partsAreLengthPrefixed_soBoundariesMatter() {
+        assertNotEquals(BenchmarkFingerprint.of(config("bm", "ab", "c")),
+                BenchmarkFingerprint.of(config("bm", "a", "bc")));
+    }
+
+    @Test
+    void hash_isHexSha256() {
+        String h = BenchmarkFingerprint.hash("abc");
+        assertEquals(64, h.length());
+        assertEquals(h, BenchmarkFingerprint.hash("abc"));
+        assertNotEquals(h, BenchmarkFingerprint.hash("abd"));
+    }
+
+    private static BenchmarkConfig config(String name, String buggy, String tests) {
+        BenchmarkConfig c = new BenchmarkConfig();
+        c.setName(name);
+        c.setBuggyProgram(buggy);
+        c.setTestSuite(tests);
+        return c;
+    }
+}
@@ -0,0 +1,176 @@
+package de.uni_passau.apr.core.checkpoint;
+
+import de.uni_passau.apr.core.algorithm.EvaluatedCandidate;
+import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
+import de.uni_passau.apr.core.mutation.SingleEditMutator;
+import de.uni_passau.apr.core.patch.models.DeleteOp;
+import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.patch.models.ReplaceOp;
+import de.uni_passau.apr.core.patch.models.StatementId;
+import de.uni_passau.apr.core.patch.utils.PatchUtils;
+import de.uni_passau.apr.core.surrogate.SurrogateFilter;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void load_missing_returnsEmpty() throws IOException {
+        assertTrue(new CheckpointStore(tempDir).load("bm1").isEmpty());
+    }
+
+    @Test
+    void fileFor_blankName_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new CheckpointStore(tempDir).fileFor(" "));
+    }
+
+    @Test
+    void saveThenLoad_roundTripsPopulationBestAndRngState() throws IOException {
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("nested"));
+        EvaluatedCandidate evaluated = candidate(new Patch(List.of(
+                new ReplaceOp(new StatementId(7, 13, 7, 24), new StatementId(12, 9, 12, 21)))), -7.5);
+        EvaluatedCandidate unevaluated = new EvaluatedCandidate(
+                new Patch(List.of(new DeleteOp(new StatementId(4, 13, 4, 24)))), Double.NEGATIVE_INFINITY, null);
+
+        RunCheckpoint saved = new RunCheckpoint(RunCheckpoint.CURRENT_VERSION, "bm1", "abc", 11L, 12L, 3,
+                List.of(RunCheckpoint.CandidateState.of(evaluated), RunCheckpoint.CandidateState.of(unevaluated)),
+                RunCheckpoint.CandidateState.of(evaluated));
+        store.save(saved);
+
+        RunCheckpoint loaded = store.load("bm1").orElseThrow();
+        assertEquals(saved, loaded);
+
+        EvaluatedCandidate restored = loaded.population().get(0).toCandidate();
+        assertEquals(evaluated.patch(), restored.patch());
+        assertEquals(-7.5, restored.fitness());
+        assertEquals(List.of("ProgramTest#a"), restored.evaluation().getTestResult().getFailedTests());
+        assertEquals(2, restored.evaluation().getTestResult().getFailures());
+
+        EvaluatedCandidate restoredUnevaluated = loaded.population().get(1).toCandidate();
+        assertNull(restoredUnevaluated.evaluation());
+        assertEquals(Double.NEGATIVE_INFINITY, restoredUnevaluated.fitness());
+    }
+
+    @Test
+    void saveThenLoad_keepsRestartStateOperatorCreditsTargetFeedbackAndSurrogate() throws IOException {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        EvaluatedCandidate archived = candidate(new Patch(List.of(new DeleteOp(new StatementId(4, 13, 4, 24)))), -3.0);
+        RunCheckpoint.RestartState restart = new RunCheckpoint.RestartState(2, 1,
+                List.of(RunCheckpoint.CandidateState.of(archived)), Map.of("7:13-7:24", 4, "4:13-4:24", 1));
+
+        OperatorScheduler<SingleEditMutator.Move> moves = new OperatorScheduler<>(SingleEditMutator.Move.class, 0.05, 0.2);
+        moves.credit(SingleEditMutator.Move.FLIP_TYPE, 1.0);
+        RunCheckpoint.OperatorState operators = RunCheckpoint.OperatorState.of(moves, null);
+
+        Map<String, FaultLocPrioratizedSampler.Feedback> feedback =
+                Map.of("4:13-4:24", new FaultLocPrioratizedSampler.Feedback(0.5, 2));
+        RunCheckpoint.SurrogateState surrogate = new RunCheckpoint.SurrogateState(List.of(0.25, -1.5, 0.0),
+                new SurrogateFilter.Stats(9, 3, 2, 4, 1, 0), List.of(PatchUtils.encode(archived.patch())));
+
+        store.save(new RunCheckpoint(RunCheckpoint.CURRENT_VERSION, "bm1", "abc", 0L, 0L, 5, List.of(), null,
+                restart, operators, feedback, surrogate));
+
+        RunCheckpoint checkpoint = store.load("bm1").orElseThrow();
+        assertEquals(operators, checkpoint.operators());
+        assertEquals(feedback, checkpoint.targetFeedback());
+        assertEquals(surrogate, checkpoint.surrogate());
+        assertEquals(1, checkpoint.operators().moves().get("FLIP_TYPE").uses());
+        assertNull(checkpoint.operators().editKinds());
+        assertNull(RunCheckpoint.OperatorState.of(null, null));
+        RunCheckpoint.RestartState loaded = checkpoint.restart();
+        assertEquals(restart, loaded);
+        assertEquals(archived.patch(), loaded.archive().get(0).toCandidate().patch());
+        assertThrows(IllegalArgumentException.class, () -> new RunCheckpoint.RestartState(-1, 0, null, null));
+    }
+
+    @Test
+    void save_overwritesPreviousCheckpoint_andLeavesNoTempFiles() throws IOException {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        store.save(checkpoint(1));
+        store.save(checkpoint(2));
+
+        assertEquals(2, store.load("bm1").orElseThrow().generation());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(store.fileFor("bm1")), files.toList());
+        }
+    }
+
+    @Test
+    void load_otherVersion_throws() throws IOException {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        store.save(new RunCheckpoint(99, "bm1", "abc", 0L, 0L, 0, List.of(), null));
+
+        assertThrows(IOException.class, () -> store.load("bm1"));
+    }
+
+    @Test
+    void delete_removesCheckpoint() throws IOException {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        store.save(checkpoint(1));
+        store.delete("bm1");
+
+        assertTrue(store.load("bm1").isEmpty());
+    }
+
+    @Test
+    void saveArchiveThenLoad_roundTripsEntries_besideTheCheckpoint() throws IOException {
+        CheckpointStore store = new CheckpointStore(tempDir);
+        EvaluatedCandidate c = candidate(new Patch(List.of(new DeleteOp(new StatementId(7, 13, 7, 24)))), -3.0);
+        store.save(checkpoint(1));
+        store.saveArchive(PatchArchive.merge(null, "bm1", "abc", List.of(c), 5));
+
+        PatchArchive loaded = store.loadArchive("bm1").orElseThrow();
+        assertEquals("abc", loaded.fingerprint());
+        assertEquals(1, loaded.entries().size());
+        assertEquals(c.patch(), loaded.entries().get(0).toCandidate().patch());
+        assertEquals(-3.0, loaded.entries().get(0).fitness());
+        assertEquals(1, store.load("bm1").orElseThrow().generation(), "the archive must not replace the checkpoint");
+        assertTrue(store.loadArchive("bm2").isEmpty());
+    }
+
+    @Test
+    void mergeArchive_keepsBestDistinct_andDropsEntriesOfOtherContent() {
+        Patch a = new Patch(List.of(new DeleteOp(new StatementId(1, 1, 1, 5))));
+        Patch b = new Patch(List.of(new DeleteOp(new StatementId(2, 1, 2, 5))));
+        Patch c = new Patch(List.of(new DeleteOp(new StatementId(3, 1, 3, 5))));
+        PatchArchive first = PatchArchive.merge(null, "bm1", "abc",
+                List.of(candidate(a, -5.0), candidate(b, -1.0), new EvaluatedCandidate(c, 0.0, null)), 5);
+
+        assertEquals(2, first.entries().size(), "unevaluated candidates are not archived");
+
+        PatchArchive second = PatchArchive.merge(first, "bm1", "abc", List.of(candidate(a, -2.0), candidate(c, -9.0)), 2);
+        assertEquals(List.of(-1.0, -2.0), second.entries().stream().map(RunCheckpoint.CandidateState::fitness).toList());
+
+        PatchArchive changed = PatchArchive.merge(second, "bm1", "def", List.of(candidate(c, -9.0)), 2);
+        assertEquals(1, changed.entries().size());
+        assertEquals("def", changed.fingerprint());
+    }
+
+    // ---------------- helpers ----------------
+
+    private static RunCheckpoint checkpoint(int generation) {
+        return new RunCheckpoint(RunCheckpoint.CURRENT_VERSION, "bm1", "abc", 0L, 0L, generation, List.of(), null);
+    }
+
+    private static EvaluatedCandidate candidate(Patch patch, double fitness) {
+        TestResult tr = new TestResult(1, "long maven output", false, false);
+        tr.setTestsRun(5);
+        tr.setFailures(2);
+        tr.setFailedTests(List.of("ProgramTest#a"));
+        return new EvaluatedCandidate(patch, fitness, new EvaluationResult(tr, null, false));
+    }
+}
@@ -0,0 +1,51 @@
+package de.uni_passau.apr.core.checkpoint;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointableRandomTest {
+
+    @Test
+    void sameSeed_sameSequenceAsJavaUtilRandom() {
+        Random plain = new Random(42);
+        CheckpointableRandom rng = new CheckpointableRandom(42);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(plain.nextInt(17), rng.nextInt(17));
+            assertEquals(plain.nextDouble(), rng.nextDouble());
+            assertEquals(plain.nextLong(), rng.nextLong());
+            assertEquals(plain.nextBoolean(), rng.nextBoolean());
+        }
+    }
+
+    @Test
+    void setState_replaysSequenceFromThatPoint() {
+        CheckpointableRandom rng = new CheckpointableRandom(7);
+        rng.nextInt();
+        long state = rng.getState();
+        double[] expected = {rng.nextDouble(), rng.nextDouble(), rng.nextDouble()};
+
+        CheckpointableRandom other = new CheckpointableRandom(123);
+        other.setState(state);
+
+        assertArrayEquals(expected, new double[]{other.nextDouble(), other.nextDouble(), other.nextDouble()});
+    }
+
+    @Test
+    void setSeed_resetsState() {
+        CheckpointableRandom rng = new CheckpointableRandom(1);
+        rng.nextLong();
+        rng.setSeed(5);
+
+        assertEquals(new Random(5).nextLong(), rng.nextLong());
+    }
+
+    @Test
+    void setState_moreThan48Bits_throws() {
+        CheckpointableRandom rng = new CheckpointableRandom(1);
+        assertThrows(IllegalArgumentException.class, () -> rng.setState(1L << 48));
+    }
+}
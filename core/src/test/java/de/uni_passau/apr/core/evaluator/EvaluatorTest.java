@@ -0,0 +1,147 @@
+package de.uni_passau.apr.core.evaluator;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluatorTest {
+
+    @Test
+    void evaluateAll_withoutExecutor_returnsResultsInOrder_andStreamsEach() {
+        Evaluator evaluator = (config, source) -> result(source);
+        List<Integer> streamed = new ArrayList<>();
+
+        List<EvaluationResult> results = evaluator.evaluateAll(new BenchmarkConfig(), List.of("a", "bb", "ccc"),
+                CancellationToken.none(), null, (index, result) -> streamed.add(index));
+
+        assertEquals(List.of(1, 2, 3), results.stream().map(r -> r.getTestResult().getTestsRun()).toList());
+        assertEquals(List.of(0, 1, 2), streamed);
+    }
+
+    @Test
+    void evaluateAll_convenience_evaluatesEveryCandidate() {
+        Evaluator evaluator = (config, source) -> result(source);
+
+        List<EvaluationResult> results = evaluator.evaluateAll(new BenchmarkConfig(), List.of("x", "yy"));
+
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(1).getTestResult().getTestsRun());
+        assertTrue(evaluator.evaluateAll(new BenchmarkConfig(), List.of()).isEmpty());
+    }
+
+    @Test
+    void evaluateAll_cancelledByListener_leavesRestOut() {
+        AtomicInteger calls = new AtomicInteger();
+        Evaluator evaluator = (config, source) -> {
+            calls.incrementAndGet();
+            return result(source);
+        };
+        CancellationToken token = CancellationToken.none();
+
+        List<EvaluationResult> results = evaluator.evaluateAll(new BenchmarkConfig(), List.of("a", "b", "c"),
+                token, null, (index, result) -> {
+                    if (index == 1) token.cancel();
+                });
+
+        assertEquals(2, calls.get());
+        assertNotNull(results.get(0));
+        assertNotNull(results.get(1));
+        assertNull(results.get(2));
+    }
+
+    @Test
+    void evaluateAll_childTokenOfCancelledParent_evaluatesNothing() {
+        AtomicInteger calls = new AtomicInteger();
+        Evaluator evaluator = (config, source) -> {
+            calls.incrementAndGet();
+            return result(source);
+        };
+        CancellationToken parent = CancellationToken.none();
+        CancellationToken child = parent.child();
+        CancellationToken sibling = parent.child();
+
+        sibling.cancel();
+        assertFalse(parent.isCancelled());
+        assertFalse(child.isCancelled());
+        parent.cancel();
+
+        List<EvaluationResult> results = evaluator.evaluateAll(new BenchmarkConfig(), List.of("a", "b"),
+                child, null, (index, result) -> fail("nothing should be evaluated"));
+
+        assertEquals(0, calls.get());
+        assertEquals(2, results.size());
+        assertNull(results.get(0));
+    }
+
+    @Test
+    void evaluateAll_withExecutor_runsSideBySide_andKeepsOrder() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        Evaluator evaluator = (config, source) -> {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return result(source);
+        };
+        List<String> sources = List.of("a", "bb", "ccc", "dddd", "eeeee", "ffffff");
+        Map<Integer, EvaluationResult> streamed = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<EvaluationResult> results = evaluator.evaluateAll(new BenchmarkConfig(), sources,
+                    CancellationToken.none(), pool, streamed::put);
+
+            for (int i = 0; i < sources.size(); i++) {
+                assertEquals(i + 1, results.get(i).getTestResult().getTestsRun());
+                assertSame(results.get(i), streamed.get(i));
+            }
+            assertTrue(maxConcurrent.get() > 1, "three threads should evaluate side by side");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void evaluateAll_withExecutor_rethrowsFailure_afterTheOthersFinished() {
+        List<String> evaluated = Collections.synchronizedList(new ArrayList<>());
+        Evaluator evaluator = (config, source) -> {
+            if (source.equals("bad")) throw new IllegalStateException("broken backend");
+            evaluated.add(source);
+            return result(source);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> evaluator.evaluateAll(
+                    new BenchmarkConfig(), List.of("a", "bad", "c"), CancellationToken.none(), pool, (i, r) -> { }));
+
+            assertEquals("broken backend", e.getMessage());
+            assertEquals(2, evaluated.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    private static EvaluationResult result(String source) {
+        TestResult tr = new TestResult(0, "", true, false);
+        tr.setTestsRun(source.length());
+        return new EvaluationResult(tr, null, false);
+    }
+}
@@ -1,14 +1,20 @@
 package de.uni_passau.apr.core.evaluator;
 
 import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.testrunner.CancellationToken;
+import de.uni_passau.apr.core.testrunner.MavenTestRunner;
 import de.uni_passau.apr.core.testrunner.TestResult;
 import de.uni_passau.apr.core.testrunner.TestRunner;
 import de.uni_passau.apr.core.workspace.WorkspaceBuilder;
+import de.uni_passau.apr.core.workspace.WorkspaceCleaner;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -209,6 +215,134 @@ class WorkspaceMavenEvaluatorTest {
                 "Workspace should remain for debugging if runner crashed and keepOnFailure=true");
     }
 
+    @Test
+    void evaluate_cancelledToken_throwsWithoutBuildingWorkspace() {
+        WorkspaceBuilder builder = new WorkspaceBuilder() {
+            @Override
+            public Path build(BenchmarkConfig benchmarkConfig, String candidate) {
+                throw new AssertionError("workspace must not be built");
+            }
+        };
+        WorkspaceMavenEvaluator evaluator = new WorkspaceMavenEvaluator(builder, dir -> new TestResult(), false, true);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        assertThrows(CancellationException.class,
+                () -> evaluator.evaluate(new BenchmarkConfig(), "public class Program {}", token));
+    }
+
+    @Test
+    void evaluate_cancelledDuringRun_deletesWorkspaceEvenIfKeepOnFailureTrue() throws Exception {
+        Path workspace = createAprTempWorkspace();
+        CancellationToken token = new CancellationToken();
+        TestRunner runner = dir -> {
+            token.cancel();
+            return new TestResult(MavenTestRunner.EXIT_CANCELLED, "", false, false);
+        };
+        WorkspaceMavenEvaluator evaluator = new WorkspaceMavenEvaluator(new FakeBuilder(workspace), runner, false, true);
+
+        EvaluationResult result = evaluator.evaluate(new BenchmarkConfig(), "public class Program {}", token);
+
+        assertFalse(result.isWorkSpaceKept());
+        assertFalse(Files.exists(workspace));
+    }
+
+    @Test
+    void evaluateAll_reactorBuilder_runsOneReactor_andMapsModulesInOrder() throws Exception {
+        Path reactor = createAprTempWorkspace();
+        List<List<String>> reactorRuns = new ArrayList<>();
+        TestRunner runner = new TestRunner() {
+            @Override
+            public TestResult runTests(Path workspaceDir) {
+                throw new AssertionError("candidates should be tested in one reactor");
+            }
+
+            @Override
+            public List<TestResult> runReactor(Path reactorDir, List<String> modules, CancellationToken token) {
+                reactorRuns.add(modules);
+                List<TestResult> results = new ArrayList<>();
+                for (int i = 0; i < modules.size(); i++) {
+                    TestResult tr = new TestResult(0, "", true, false);
+                    tr.setTestsRun(i + 1);
+                    results.add(tr);
+                }
+                return results;
+            }
+        };
+        WorkspaceMavenEvaluator evaluator = new WorkspaceMavenEvaluator(new FakeReactorBuilder(reactor), runner, false, true);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+        List<Integer> streamed = new ArrayList<>();
+
+        List<EvaluationResult> results = evaluator.evaluateAll(cfg, List.of("class A {}", "class B {}", "class C {}"),
+                CancellationToken.none(), null, (index, result) -> streamed.add(index));
+
+        assertEquals(List.of(List.of("candidate-0", "candidate-1", "candidate-2")), reactorRuns);
+        assertEquals(List.of(1, 2, 3), results.stream().map(r -> r.getTestResult().getTestsRun()).toList());
+        assertEquals(List.of(0, 1, 2), streamed);
+        assertFalse(results.get(0).isWorkSpaceKept());
+        assertFalse(Files.exists(reactor), "Reactor workspace should be deleted when every candidate passes");
+    }
+
+    @Test
+    void evaluateAll_reactorBuilder_keepsOnlyTheFailingModules() throws Exception {
+        Path reactor = createAprTempWorkspace();
+        Files.createDirectories(reactor.resolve("candidate-0/src/main/java"));
+        Files.createDirectories(reactor.resolve("candidate-1/src/main/java"));
+        TestRunner runner = new TestRunner() {
+            @Override
+            public TestResult runTests(Path workspaceDir) {
+                throw new AssertionError("candidates should be tested in one reactor");
+            }
+
+            @Override
+            public List<TestResult> runReactor(Path reactorDir, List<String> modules, CancellationToken token) {
+                return List.of(new TestResult(0, "", true, false), new TestResult(1, "", false, false));
+            }
+        };
+        WorkspaceMavenEvaluator evaluator = new WorkspaceMavenEvaluator(new FakeReactorBuilder(reactor), runner, false, true);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+
+        List<EvaluationResult> results = evaluator.evaluateAll(cfg, List.of("class A {}", "class B {}"));
+
+        try {
+            assertFalse(results.get(0).isWorkSpaceKept());
+            assertNull(results.get(0).getWorkspaceDir());
+            assertFalse(Files.exists(reactor.resolve("candidate-0")), "a passing module should not be kept");
+            assertTrue(results.get(1).isWorkSpaceKept());
+            assertEquals(reactor.resolve("candidate-1"), results.get(1).getWorkspaceDir());
+            assertTrue(Files.exists(reactor.resolve("candidate-1")));
+        } finally {
+            WorkspaceCleaner.deleteRecursively(reactor);
+        }
+    }
+
+    @Test
+    void evaluateAll_plainBuilder_evaluatesEachCandidateInItsOwnWorkspace() throws Exception {
+        List<Path> workspaces = List.of(createAprTempWorkspace(), createAprTempWorkspace());
+        int[] built = {0};
+        WorkspaceBuilder builder = new WorkspaceBuilder() {
+            @Override
+            public Path build(BenchmarkConfig benchmarkConfig, String candidate) {
+                return workspaces.get(built[0]++);
+            }
+        };
+        List<Path> tested = new ArrayList<>();
+        TestRunner runner = dir -> {
+            tested.add(dir);
+            return new TestResult(0, "", true, false);
+        };
+        WorkspaceMavenEvaluator evaluator = new WorkspaceMavenEvaluator(builder, runner, false, false);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+
+        List<EvaluationResult> results = evaluator.evaluateAll(cfg, List.of("class A {}", "class B {}"));
+
+        assertEquals(2, results.size());
+        assertEquals(workspaces, tested);
+    }
+
     // ---- helpers ----
 
     private static Path createAprTempWorkspace() throws IOException {
@@ -231,4 +365,18 @@ class WorkspaceMavenEvaluatorTest {
             return workspace;
         }
     }
+
+    private static final class FakeReactorBuilder extends WorkspaceBuilder {
+        private final Path reactor;
+
+        private FakeReactorBuilder(Path reactor) {
+            super(null, true);
+            this.reactor = reactor;
+        }
+
+        @Override
+        public Path buildReactor(BenchmarkConfig benchmarkConfig, List<String> candidates) {
+            return reactor;
+        }
+    }
 }
@@ -0,0 +1,335 @@
+package de.uni_passau.apr.core.evaluator.remote;
+
+import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
+import de.uni_passau.apr.core.benchmark.BenchmarkLoader;
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.evaluator.Evaluator;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteEvaluationCoordinatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<RemoteEvaluationWorker> workers = new ArrayList<>();
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(RemoteEvaluationWorker::stop);
+        threads.shutdownNow();
+    }
+
+    @Test
+    void ctor_invalidDurations_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RemoteEvaluationCoordinator(0, Duration.ZERO, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RemoteEvaluationCoordinator(0, Duration.ofSeconds(1), null));
+    }
+
+    @Test
+    void evaluate_runsOnWorker_andReturnsItsResult() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator delegate = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator()) {
+            startWorker(coordinator, loader, delegate, "w1");
+
+            EvaluationResult result = coordinator.evaluate(config, "class Program { int a; }");
+
+            assertTrue(result.getTestResult().isAllPassed());
+            assertEquals(3, result.getTestResult().getTestsRun());
+            assertEquals(List.of("ProgramTest#a"), result.getTestResult().getFailedTests());
+            assertEquals("class Program { int a; }", result.getTestResult().getOutput());
+        }
+    }
+
+    @Test
+    void evaluate_sameSourceTwice_isEvaluatedOnce() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator delegate = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator()) {
+            startWorker(coordinator, loader, delegate, "w1");
+
+            coordinator.evaluate(config, "class Program { int a; }");
+            coordinator.evaluate(config, "class Program { int a; }");
+            coordinator.evaluate(config, "class Program { int b; }");
+
+            assertEquals(2, delegate.calls.get());
+            assertEquals(2, coordinator.getEvaluations());
+            assertEquals(1, coordinator.getDeduplicated());
+        }
+    }
+
+    @Test
+    void evaluate_manyCandidates_areSpreadOverWorkers() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator d1 = new CountingEvaluator(Duration.ofMillis(20));
+        CountingEvaluator d2 = new CountingEvaluator(Duration.ofMillis(20));
+
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator()) {
+            startWorker(coordinator, loader, d1, "w1");
+            startWorker(coordinator, loader, d2, "w2");
+            awaitWorkers(coordinator, 2);
+
+            List<Future<EvaluationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String src = "class Program { int f" + i + "; }";
+                futures.add(threads.submit(() -> coordinator.evaluate(config, src)));
+            }
+            for (Future<EvaluationResult> f : futures) {
+                assertNotNull(f.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(20, d1.calls.get() + d2.calls.get());
+            assertTrue(d1.calls.get() > 0 && d2.calls.get() > 0, "both workers should pull jobs");
+        }
+    }
+
+    @Test
+    void evaluate_workerDisconnectsMidJob_jobIsRequeuedToAnotherWorker() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator delegate = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator()) {
+            // a worker that takes one job and dies
+            CountDownLatch tookJob = new CountDownLatch(1);
+            threads.submit(() -> {
+                try (Socket s = new Socket("localhost", coordinator.getPort())) {
+                    DataInputStream in = handshake(s, "flaky", null);
+                    RemoteProtocol.readJob(in);
+                    tookJob.countDown();
+                }
+                return null;
+            });
+            awaitWorkers(coordinator, 1);
+
+            Future<EvaluationResult> result = threads.submit(() -> coordinator.evaluate(config, "class Program {}"));
+            assertTrue(tookJob.await(5, TimeUnit.SECONDS));
+
+            startWorker(coordinator, loader, delegate, "healthy");
+
+            assertNotNull(result.get(10, TimeUnit.SECONDS).getTestResult());
+            assertEquals(1, delegate.calls.get());
+        }
+    }
+
+    @Test
+    void evaluate_stragglingJob_isStolenByIdleWorker() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator slow = new CountingEvaluator(Duration.ofSeconds(5));
+        CountingEvaluator fast = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator =
+                     new RemoteEvaluationCoordinator(0, Duration.ofMillis(200), Duration.ofSeconds(30))) {
+            startWorker(coordinator, loader, slow, "slow");
+            awaitWorkers(coordinator, 1);
+
+            long start = System.nanoTime();
+            Future<EvaluationResult> result = threads.submit(() -> coordinator.evaluate(config, "class Program {}"));
+            while (slow.calls.get() == 0) Thread.sleep(10);
+
+            startWorker(coordinator, loader, fast, "fast");
+
+            assertNotNull(result.get(10, TimeUnit.SECONDS));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(elapsedMs < 4000, "idle worker should have taken over, took " + elapsedMs + " ms");
+            assertEquals(1, fast.calls.get());
+        }
+    }
+
+    @Test
+    void evaluate_fingerprintMismatch_failsWithoutCallingDelegate() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        // coordinator side has a different test suite than the worker checkout
+        config.setTestSuite(config.getTestSuite() + "\n// changed");
+        CountingEvaluator delegate = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator()) {
+            startWorker(coordinator, loader, delegate, "w1");
+
+            RuntimeException ex = assertThrows(RuntimeException.class,
+                    () -> coordinator.evaluate(config, "class Program {}"));
+            assertTrue(ex.getMessage().contains("fingerprint mismatch"));
+            assertEquals(0, delegate.calls.get());
+        }
+    }
+
+    @Test
+    void evaluate_workerReportsFailure_jobIsRequeuedToAnotherWorker() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator delegate = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator()) {
+            // a worker that fails its job once the healthy one is there, then stays connected
+            CountDownLatch tookJob = new CountDownLatch(1);
+            CountDownLatch failNow = new CountDownLatch(1);
+            threads.submit(() -> {
+                try (Socket s = new Socket("localhost", coordinator.getPort())) {
+                    DataInputStream in = handshake(s, "broken", null);
+                    RemoteProtocol.Job job = RemoteProtocol.readJob(in);
+                    tookJob.countDown();
+                    failNow.await();
+                    RemoteProtocol.writeFailed(new DataOutputStream(s.getOutputStream()), job.id(), "disk full");
+                    Thread.sleep(10_000);
+                }
+                return null;
+            });
+            awaitWorkers(coordinator, 1);
+
+            Future<EvaluationResult> result = threads.submit(() -> coordinator.evaluate(config, "class Program {}"));
+            assertTrue(tookJob.await(5, TimeUnit.SECONDS));
+            startWorker(coordinator, loader, delegate, "healthy");
+            awaitWorkers(coordinator, 2);
+            failNow.countDown();
+
+            assertNotNull(result.get(10, TimeUnit.SECONDS).getTestResult());
+            assertEquals(1, delegate.calls.get());
+        }
+    }
+
+    @Test
+    void evaluate_workerWithWrongSecret_isRejectedAndStops() throws Exception {
+        BenchmarkLoader loader = benchmarkRoot();
+        BenchmarkConfig config = loader.load("bm");
+        CountingEvaluator wrong = new CountingEvaluator(Duration.ZERO);
+        CountingEvaluator right = new CountingEvaluator(Duration.ZERO);
+
+        try (RemoteEvaluationCoordinator coordinator = new RemoteEvaluationCoordinator(
+                null, 0, Duration.ofSeconds(30), Duration.ofSeconds(30), "s3cret")) {
+            List<String> rejections = new CopyOnWriteArrayList<>();
+            RemoteEvaluationWorker intruder = new RemoteEvaluationWorker(
+                    "localhost", coordinator.getPort(), loader, wrong, "intruder", 5, Duration.ofMillis(100), "guess")
+                    .withListener(new RemoteEvaluationWorker.Listener() {
+                        @Override
+                        public void rejected(String reason) {
+                            rejections.add(reason);
+                        }
+                    });
+            workers.add(intruder);
+            Future<?> stopped = threads.submit(intruder);
+
+            stopped.get(10, TimeUnit.SECONDS);
+            assertEquals(0, coordinator.getConnectedWorkers());
+            assertEquals(List.of("wrong shared secret"), rejections);
+
+            RemoteEvaluationWorker worker = new RemoteEvaluationWorker(
+                    "localhost", coordinator.getPort(), loader, right, "w1", 5, Duration.ofMillis(100), "s3cret");
+            workers.add(worker);
+            threads.submit(worker);
+
+            assertNotNull(coordinator.evaluate(config, "class Program {}").getTestResult());
+            assertEquals(0, wrong.calls.get());
+            assertEquals(1, right.calls.get());
+        }
+    }
+
+    @Test
+    void evaluate_peerSendingHugeName_isDropped() throws Exception {
+        try (RemoteEvaluationCoordinator coordinator = newCoordinator();
+             Socket s = new Socket("localhost", coordinator.getPort())) {
+            DataOutputStream out = new DataOutputStream(s.getOutputStream());
+            out.writeInt(RemoteProtocol.MAGIC);
+            out.writeByte(RemoteProtocol.HELLO);
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+            s.setSoTimeout(5000);
+
+            assertEquals(-1, s.getInputStream().read(), "coordinator should close the connection");
+            assertEquals(0, coordinator.getConnectedWorkers());
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Raw worker side of HELLO and the challenge; returns the stream to read jobs from. */
+    private static DataInputStream handshake(Socket s, String name, String secret) throws IOException {
+        DataInputStream in = new DataInputStream(s.getInputStream());
+        DataOutputStream out = new DataOutputStream(s.getOutputStream());
+        RemoteProtocol.writeHello(out, name);
+        RemoteProtocol.answerChallenge(in, out, secret);
+        return in;
+    }
+
+    private static RemoteEvaluationCoordinator newCoordinator() throws IOException {
+        return new RemoteEvaluationCoordinator(0, Duration.ofSeconds(30), Duration.ofSeconds(30));
+    }
+
+    private void startWorker(RemoteEvaluationCoordinator coordinator, BenchmarkLoader loader,
+                             Evaluator delegate, String name) {
+        RemoteEvaluationWorker worker = new RemoteEvaluationWorker(
+                "localhost", coordinator.getPort(), loader, delegate, name, 5, Duration.ofMillis(100));
+        workers.add(worker);
+        threads.submit(worker);
+    }
+
+    private static void awaitWorkers(RemoteEvaluationCoordinator coordinator, int n) throws InterruptedException {
+        for (int i = 0; i < 500 && coordinator.getConnectedWorkers() < n; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(coordinator.getConnectedWorkers() >= n);
+    }
+
+    /** Echoes the candidate source as output and counts calls. */
+    private static final class CountingEvaluator implements Evaluator {
+        private final Duration delay;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingEvaluator(Duration delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public EvaluationResult evaluate(BenchmarkConfig config, String candidateSource) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TestResult tr = new TestResult(0, candidateSource, true, false);
+            tr.setTestsRun(3);
+            tr.setFailedTests(List.of("ProgramTest#a"));
+            return new EvaluationResult(tr, null, false);
+        }
+    }
+
+    private BenchmarkLoader benchmarkRoot() throws IOException {
+        Path bm = tempDir.resolve("bm");
+        write(bm.resolve("buggy/Program.java"), "public class Program { }");
+        write(bm.resolve("fixed/Program.java"), "public class Program { }");
+        write(bm.resolve("tests/ProgramTest.java"), "public class ProgramTest { }");
+        write(bm.resolve("faultloc.json"), "{\"file\":\"Program.java\",\"statements\":[]}");
+        return new BenchmarkLoader(tempDir);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package de.uni_passau.apr.core.evaluator.remote;
+
+import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.testrunner.TestResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteProtocolTest {
+
+    @Test
+    void readReply_roundTripsResultWithAllTestIds() throws IOException {
+        TestResult tr = new TestResult(1, "output", false, false);
+        tr.setTestsRun(4);
+        tr.setFailedTests(List.of("T#a", "T#b"));
+        tr.setPassedTests(List.of("T#c", "T#d"));
+        tr.setErroredTests(List.of("T#b"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RemoteProtocol.writeResult(new DataOutputStream(bytes), 7, new EvaluationResult(tr, null, false));
+
+        RemoteProtocol.Reply reply = RemoteProtocol.readReply(input(bytes.toByteArray()));
+
+        assertEquals(7, reply.jobId());
+        assertNull(reply.failure());
+        assertEquals("output", reply.result().getTestResult().getOutput());
+        assertEquals(List.of("T#a", "T#b"), reply.result().getTestResult().getFailedTests());
+        assertEquals(List.of("T#c", "T#d"), reply.result().getTestResult().getPassedTests());
+        assertEquals(List.of("T#b"), reply.result().getTestResult().getErroredTests());
+        assertEquals(4, reply.result().getTestResult().getTestsRun());
+    }
+
+    @Test
+    void readHello_nameLongerThanLimit_throwsWithoutAllocating() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(RemoteProtocol.MAGIC);
+        out.writeByte(RemoteProtocol.HELLO);
+        out.writeInt(RemoteProtocol.MAX_NAME_BYTES + 1);
+
+        IOException e = assertThrows(IOException.class, () -> RemoteProtocol.readHello(input(bytes.toByteArray())));
+        assertTrue(e.getMessage().contains("exceeds the limit"));
+    }
+
+    @Test
+    void readReply_oversizedFailureReason_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RemoteProtocol.FAILED);
+        out.writeLong(1);
+        out.writeInt(Integer.MAX_VALUE);
+
+        assertThrows(IOException.class, () -> RemoteProtocol.readReply(input(bytes.toByteArray())));
+    }
+
+    @Test
+    void readReply_negativeFailedTestCount_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeResultHeader(out);
+        out.writeInt(-5);
+
+        assertThrows(IOException.class, () -> RemoteProtocol.readReply(input(bytes.toByteArray())));
+    }
+
+    @Test
+    void readReply_tooManyPassedTests_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeResultHeader(out);
+        out.writeInt(0);   // failed
+        out.writeInt(RemoteProtocol.MAX_TEST_IDS + 1);   // passed
+
+        assertThrows(IOException.class, () -> RemoteProtocol.readReply(input(bytes.toByteArray())));
+    }
+
+    @Test
+    void challenge_sameSecret_isAccepted_otherSecretIsNot() throws IOException {
+        assertTrue(authenticate("s3cret", "s3cret"));
+        assertTrue(authenticate(null, ""));
+        assertFalse(authenticate("s3cret", "guess"));
+        assertFalse(authenticate("s3cret", null));
+    }
+
+    @Test
+    void readJob_rejectedFrame_throwsRejectedException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RemoteProtocol.writeRejected(new DataOutputStream(bytes), "wrong shared secret");
+
+        RemoteProtocol.RejectedException e = assertThrows(RemoteProtocol.RejectedException.class,
+                () -> RemoteProtocol.readJob(input(bytes.toByteArray())));
+        assertEquals("wrong shared secret", e.getMessage());
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Runs the challenge through in-memory streams: coordinator secret vs worker secret. */
+    private static boolean authenticate(String coordinatorSecret, String workerSecret) throws IOException {
+        ByteArrayOutputStream challenge = new ByteArrayOutputStream();
+        byte[] nonce = RemoteProtocol.writeChallenge(new DataOutputStream(challenge));
+
+        ByteArrayOutputStream answer = new ByteArrayOutputStream();
+        RemoteProtocol.answerChallenge(input(challenge.toByteArray()), new DataOutputStream(answer), workerSecret);
+
+        return RemoteProtocol.readAuth(input(answer.toByteArray()), coordinatorSecret, nonce);
+    }
+
+    /** A RESULT frame up to its first list of test ids. */
+    private static void writeResultHeader(DataOutputStream out) throws IOException {
+        out.writeByte(RemoteProtocol.RESULT);
+        out.writeLong(1);
+        out.writeBoolean(true);
+        out.writeInt(0);
+        out.writeInt(-1);   // no output
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeLong(0);
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
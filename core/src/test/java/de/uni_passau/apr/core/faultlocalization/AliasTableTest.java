@@ -0,0 +1,53 @@
+package de.uni_passau.apr.core.faultlocalization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+
+    @Test
+    void ctor_invalidWeights_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0.0, 0.0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1.0, -1.0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1.0, Double.NaN}));
+        assertThrows(NullPointerException.class, () -> new AliasTable(null));
+    }
+
+    @Test
+    void sample_followsTheWeights_andNeverPicksZeroWeights() {
+        double[] weights = {1.0, 0.0, 3.0, 6.0};
+        AliasTable table = new AliasTable(weights);
+        Random rng = new Random(7);
+
+        int[] hits = new int[weights.length];
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) hits[table.sample(rng)]++;
+
+        assertEquals(4, table.size());
+        assertEquals(0, hits[1]);
+        assertEquals(0.1, hits[0] / (double) draws, 0.01);
+        assertEquals(0.3, hits[2] / (double) draws, 0.01);
+        assertEquals(0.6, hits[3] / (double) draws, 0.01);
+    }
+
+    @Test
+    void sample_edgeDraws_stayInRange() {
+        AliasTable table = new AliasTable(new double[] {1.0, 2.0});
+
+        assertEquals(0, table.sample(new FixedRandom(0.0)));
+        int last = table.sample(new FixedRandom(Math.nextDown(1.0)));
+        assertTrue(last == 0 || last == 1);
+    }
+
+    // ---------- helpers ----------
+
+    private static final class FixedRandom extends Random {
+        private final double d;
+        FixedRandom(double d) { this.d = d; }
+        @Override public double nextDouble() { return d; }
+    }
+}
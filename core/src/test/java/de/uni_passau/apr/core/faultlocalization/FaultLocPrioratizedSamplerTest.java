@@ -9,6 +9,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -136,6 +137,114 @@ class FaultLocPrioratizedSamplerTest {
         assertEquals(idA, sampler.getTarget());
     }
 
+    @Test
+    void targetWeights_mergedPerStatement_inFaultLocOrder() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+
+        // line 4: int a = 1;  line 5: int b = 2;
+        FaultLocalization fl = new FaultLocalization("A.java", List.of(
+                new WeightedLocation(5, 4.0),
+                new WeightedLocation(4, 2.0),
+                new WeightedLocation(4, 3.0)
+        ));
+
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(fl, collector, new Random(1));
+        Map<StatementId, Double> weights = sampler.targetWeights();
+
+        assertEquals(List.of(5, 4), weights.keySet().stream().map(StatementId::beginLine).toList());
+        assertEquals(List.of(4.0, 5.0), List.copyOf(weights.values()));
+    }
+
+    @Test
+    void getTarget_givenRng_drawsOnlyFromIt() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+
+        // line 4: int a = 1;  line 5: int b = 2;
+        FaultLocalization fl = new FaultLocalization("A.java", List.of(
+                new WeightedLocation(4, 1.0),
+                new WeightedLocation(5, 9.0)
+        ));
+
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(fl, collector, new FixedRandom(0.95));
+        assertEquals(4, sampler.getTarget(new FixedRandom(0.05)).beginLine());
+        assertEquals(5, sampler.getTarget().beginLine());
+    }
+
+    @Test
+    void observe_withFeedback_shiftsWeightFromDeadEndsToProductiveTargets() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+
+        // line 4: int a = 1;  line 5: int b = 2;
+        FaultLocalization fl = new FaultLocalization("A.java", List.of(
+                new WeightedLocation(4, 3.0),
+                new WeightedLocation(5, 1.0)
+        ));
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(fl, collector, new Random(1), 2.0);
+        StatementId a = sampler.targetWeights().keySet().stream().filter(id -> id.beginLine() == 4).findFirst().orElseThrow();
+        StatementId b = sampler.targetWeights().keySet().stream().filter(id -> id.beginLine() == 5).findFirst().orElseThrow();
+
+        assertTrue(sampler.learnsFromFeedback());
+        assertEquals(List.of(3.0, 1.0), List.copyOf(sampler.targetWeights().values()), "no evidence keeps the prior");
+        assertEquals("no target observed yet", sampler.feedbackSummary());
+
+        for (int i = 0; i < 20; i++) {
+            sampler.observe(a, 0.0);
+            sampler.observe(b, 1.0);
+        }
+
+        Map<StatementId, Double> weights = sampler.targetWeights();
+        assertTrue(weights.get(b) > weights.get(a), weights.toString());
+        assertTrue(weights.get(a) > 0, "a dead end keeps some weight");
+        int hitsB = 0;
+        Random rng = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            if (sampler.getTarget(rng).equals(b)) hitsB++;
+        }
+        assertTrue(hitsB > 700, "draws follow the learned weights: " + hitsB);
+        assertTrue(sampler.feedbackSummary().startsWith("2 targets observed, up: line 5"), sampler.feedbackSummary());
+    }
+
+    @Test
+    void observe_withoutFeedback_keepsFaultLocWeights() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+        FaultLocalization fl = new FaultLocalization("A.java", List.of(
+                new WeightedLocation(4, 3.0),
+                new WeightedLocation(5, 1.0)
+        ));
+        FaultLocPrioratizedSampler sampler = new FaultLocPrioratizedSampler(fl, collector, new Random(1));
+        StatementId a = sampler.targetWeights().keySet().iterator().next();
+
+        sampler.observe(a, 0.0);
+
+        assertFalse(sampler.learnsFromFeedback());
+        assertEquals(List.of(3.0, 1.0), List.copyOf(sampler.targetWeights().values()));
+        assertThrows(IllegalArgumentException.class, () -> sampler.observe(a, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new FaultLocPrioratizedSampler(fl, collector, new Random(1), -1.0));
+    }
+
+    @Test
+    void restore_feedbackOfAnotherSampler_givesTheSameWeights() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+        FaultLocalization fl = new FaultLocalization("A.java", List.of(
+                new WeightedLocation(4, 3.0),
+                new WeightedLocation(5, 1.0)
+        ));
+        FaultLocPrioratizedSampler learned = new FaultLocPrioratizedSampler(fl, collector, new Random(1), 2.0);
+        StatementId a = learned.targetWeights().keySet().iterator().next();
+        learned.observe(a, 0.0);
+        learned.observe(a, 0.5);
+
+        FaultLocPrioratizedSampler restored = new FaultLocPrioratizedSampler(fl, collector, new Random(1), 2.0);
+        restored.observe(a, 1.0);
+        restored.restore(learned.feedback());
+
+        assertEquals(Map.of(a, new FaultLocPrioratizedSampler.Feedback(0.5, 2)), restored.feedback());
+        assertEquals(learned.targetWeights(), restored.targetWeights());
+        assertEquals(learned.getTarget(new Random(9)), restored.getTarget(new Random(9)));
+        assertThrows(IllegalArgumentException.class,
+                () -> restored.restore(Map.of(a, new FaultLocPrioratizedSampler.Feedback(3.0, 2))));
+    }
+
     // ---------- helpers ----------
 
     private StatementCollector collectorFrom(String program) throws Exception {
@@ -1,12 +1,15 @@
 package de.uni_passau.apr.core.fitness;
 
 import de.uni_passau.apr.core.evaluator.EvaluationResult;
+import de.uni_passau.apr.core.testrunner.TestCatalog;
+import de.uni_passau.apr.core.testrunner.TestOutcomes;
 import de.uni_passau.apr.core.testrunner.TestResult;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -123,6 +126,44 @@ class FitnessEvaluatorTest {
         assertEquals(-3.0, score, 1e-9);
     }
 
+    @Test
+    void computeFitness_fromOutcomes_matchesCountBasedScore() throws Exception {
+        // run=10, skipped=2, failures=1, errors=1 => passed=6, bad=2 => -14
+        FitnessEvaluator fe = new FitnessEvaluator();
+        TestResult tr = newTestResult(10, 1, 1, 2, false, false, 0);
+        tr.setPassedTests(List.of("T#p1", "T#p2", "T#p3", "T#p4", "T#p5", "T#p6"));
+        tr.setFailedTests(List.of("T#f", "T#e"));
+        tr.setErroredTests(List.of("T#e"));
+
+        TestOutcomes outcomes = TestOutcomes.of(tr, new TestCatalog());
+
+        assertEquals(fe.computeFitness(newEvalResultWithTestResult(tr)), fe.computeFitness(tr, outcomes), 1e-9);
+        assertEquals(-14.0, fe.computeFitness(tr, outcomes), 1e-9);
+        assertEquals(-14.0, fe.computeFitness(newEvalResultWithTestResult(tr), new TestCatalog()), 1e-9);
+        assertEquals(Double.NEGATIVE_INFINITY, fe.computeFitness(tr, null));
+    }
+
+    @Test
+    void computeFitness_withCatalog_scoresTheTestIdsNotTheCounts() throws Exception {
+        // the ids say 2 passed, 1 failed => 2 - 10 = -8, whatever the counts claim
+        FitnessEvaluator fe = new FitnessEvaluator();
+        TestResult tr = newTestResult(10, 0, 0, 0, false, false, 0);
+        tr.setPassedTests(List.of("T#a", "T#b"));
+        tr.setFailedTests(List.of("T#c"));
+
+        assertEquals(-8.0, fe.computeFitness(newEvalResultWithTestResult(tr), new TestCatalog()), 1e-9);
+    }
+
+    @Test
+    void computeFitness_withCatalog_resultWithoutTestIds_isScoredFromCounts() throws Exception {
+        FitnessEvaluator fe = new FitnessEvaluator();
+        TestResult tr = newTestResult(10, 1, 1, 2, false, false, 0);
+        EvaluationResult eval = newEvalResultWithTestResult(tr);
+
+        assertEquals(-14.0, fe.computeFitness(eval, new TestCatalog()), 1e-9);
+        assertEquals(Double.NEGATIVE_INFINITY, fe.computeFitness(null, new TestCatalog()));
+    }
+
     // ---------------------------------------------------------------------
     // Reflection helpers
     // ---------------------------------------------------------------------
@@ -0,0 +1,103 @@
+package de.uni_passau.apr.core.mutation;
+
+import de.uni_passau.apr.core.patch.models.DeleteOp;
+import de.uni_passau.apr.core.patch.models.Patch;
+import de.uni_passau.apr.core.patch.models.StatementId;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperatorSchedulerTest {
+
+    private enum Arm { A, B, C }
+
+    @Test
+    void ctor_invalidArgs_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new OperatorScheduler<>(Arm.class, 0.34, 0.2));
+        assertThrows(IllegalArgumentException.class, () -> new OperatorScheduler<>(Arm.class, -0.1, 0.2));
+        assertThrows(IllegalArgumentException.class, () -> new OperatorScheduler<>(Arm.class, 0.05, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new OperatorScheduler<>(Arm.class, Map.of(Arm.A, -1.0), 0.05, 0.2));
+        assertThrows(NullPointerException.class, () -> new OperatorScheduler<Arm>(null, 0.05, 0.2));
+    }
+
+    @Test
+    void priors_setTheInitialMix() {
+        OperatorScheduler<Arm> scheduler = new OperatorScheduler<>(Arm.class, Map.of(Arm.A, 0.1, Arm.B, 0.9, Arm.C, 0.0), 0.0, 0.2);
+
+        Map<Arm, OperatorScheduler.Credit> credits = scheduler.credits();
+        assertEquals(0.1, credits.get(Arm.A).probability(), 1e-9);
+        assertEquals(0.9, credits.get(Arm.B).probability(), 1e-9);
+        assertEquals(0.0, credits.get(Arm.C).probability(), 1e-9);
+        assertEquals(0, credits.get(Arm.A).uses());
+    }
+
+    @Test
+    void credit_shiftsTheMixTowardsProductiveOperators_butKeepsTheFloor() {
+        OperatorScheduler<Arm> scheduler = new OperatorScheduler<>(Arm.class, 0.05, 0.2);
+        for (int i = 0; i < 50; i++) {
+            scheduler.credit(Arm.A, 1.0);
+            scheduler.credit(Arm.B, 0.0);
+            scheduler.credit(Arm.C, 0.5);
+        }
+
+        Map<Arm, OperatorScheduler.Credit> credits = scheduler.credits();
+        assertTrue(credits.get(Arm.A).probability() > credits.get(Arm.C).probability());
+        assertEquals(0.05, credits.get(Arm.B).probability(), 1e-4);
+        assertEquals(1.0, credits.values().stream().mapToDouble(OperatorScheduler.Credit::probability).sum(), 1e-9);
+        assertEquals(50, credits.get(Arm.A).uses());
+
+        Random rng = new Random(1);
+        Map<Arm, Integer> picks = new EnumMap<>(Arm.class);
+        for (int i = 0; i < 2000; i++) picks.merge(scheduler.select(rng), 1, Integer::sum);
+        assertTrue(picks.get(Arm.A) > picks.get(Arm.C));
+        assertTrue(picks.getOrDefault(Arm.B, 0) > 0, "the floor keeps every operator in use");
+    }
+
+    @Test
+    void creditByPatch_creditsTheRecordedOperatorOnce() {
+        OperatorScheduler<Arm> scheduler = new OperatorScheduler<>(Arm.class, 0.05, 0.5);
+        Patch p = new Patch(List.of(new DeleteOp(new StatementId(1, 1, 1, 5))));
+        Patch other = new Patch(List.of(new DeleteOp(new StatementId(2, 1, 2, 5))));
+        scheduler.record(p, Arm.C);
+        scheduler.record(other, Arm.A);
+
+        assertEquals(Arm.C, scheduler.credit(p, 1.0));
+        assertNull(scheduler.credit(p, 1.0), "a record is consumed by its credit");
+        scheduler.forgetUncredited();
+        assertNull(scheduler.credit(other, 1.0));
+        assertEquals(1, scheduler.credits().get(Arm.C).uses());
+        assertEquals(0, scheduler.credits().get(Arm.A).uses());
+    }
+
+    @Test
+    void restore_takesOverSavedCredits_byArmName() {
+        OperatorScheduler<Arm> original = new OperatorScheduler<>(Arm.class, 0.05, 0.2);
+        for (int i = 0; i < 10; i++) original.credit(Arm.B, 1.0);
+        Map<String, OperatorScheduler.Credit> saved = new HashMap<>();
+        original.credits().forEach((arm, credit) -> saved.put(arm.name(), credit));
+
+        OperatorScheduler<Arm> restored = new OperatorScheduler<>(Arm.class, 0.05, 0.2);
+        restored.restore(saved);
+
+        assertEquals(original.credits(), restored.credits());
+        Random a = new Random(3);
+        Random b = new Random(3);
+        for (int i = 0; i < 100; i++) assertEquals(original.select(a), restored.select(b));
+        assertThrows(IllegalArgumentException.class,
+                () -> restored.restore(Map.of("A", new OperatorScheduler.Credit(-1, 0.5, 0.3))));
+    }
+
+    @Test
+    void reward_halfForCompiling_halfForBeatingTheReference() {
+        assertEquals(0.0, OperatorScheduler.reward(false, -10, -5));
+        assertEquals(0.5, OperatorScheduler.reward(true, -5, -5));
+        assertEquals(1.0, OperatorScheduler.reward(true, -1, -5));
+        assertThrows(IllegalArgumentException.class, () -> new OperatorScheduler<>(Arm.class, 0.05, 0.2).credit(Arm.A, 2.0));
+    }
+}
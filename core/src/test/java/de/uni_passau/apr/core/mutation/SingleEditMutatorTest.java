@@ -113,6 +113,48 @@ class SingleEditMutatorTest {
         assertSame(original, out);
     }
 
+    @Test
+    void apply_move_appliesExactlyThatMove() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+
+        StatementId target = idOfStatementContaining(collector, "int a = 1;");
+        StatementId other  = idOfStatementContaining(collector, "int b = 2;");
+        FaultLocPrioratizedSampler sampler = samplerForLine(collector, other.beginLine(), new ControlledRandom());
+        SingleEditMutator mut = new SingleEditMutator(0.0, new ControlledRandom(), collector, sampler, false);
+        Patch delete = new Patch(List.of(new DeleteOp(target)));
+
+        assertEquals(new Patch(List.of(new DeleteOp(other))),
+                mut.apply(delete, SingleEditMutator.Move.CHANGE_TARGET, new ControlledRandom()));
+        assertNull(mut.apply(delete, SingleEditMutator.Move.CHANGE_DONOR, new ControlledRandom()));
+
+        Patch flipped = mut.apply(new Patch(List.of(new ReplaceOp(target, other))),
+                SingleEditMutator.Move.FLIP_TYPE, new ControlledRandom());
+        assertEquals(new Patch(List.of(new DeleteOp(target))), flipped);
+    }
+
+    @Test
+    void mutateOnce_withScheduler_picksTheScheduledMove_andRecordsIt() throws Exception {
+        StatementCollector collector = collectorFrom(program());
+
+        StatementId target = idOfStatementContaining(collector, "int a = 1;");
+        StatementId donor  = idOfStatementContaining(collector, "int b = 2;");
+        Patch original = new Patch(List.of(new ReplaceOp(target, donor)));
+        FaultLocPrioratizedSampler sampler = samplerForLine(collector, target.beginLine(), new ControlledRandom());
+
+        // FLIP_TYPE only; nextDouble 0.0 would be CHANGE_TARGET under a uniform pick
+        OperatorScheduler<SingleEditMutator.Move> scheduler = new OperatorScheduler<>(SingleEditMutator.Move.class,
+                java.util.Map.of(SingleEditMutator.Move.CHANGE_TARGET, 0.0, SingleEditMutator.Move.CHANGE_DONOR, 0.0,
+                        SingleEditMutator.Move.FLIP_TYPE, 1.0), 0.0, 0.5);
+        SingleEditMutator mut = new SingleEditMutator(0.0, new ControlledRandom(), collector, sampler, false)
+                .withScheduler(scheduler);
+
+        Patch out = mut.mutateOnce(original);
+
+        assertEquals(new Patch(List.of(new DeleteOp(target))), out);
+        assertSame(scheduler, mut.scheduler());
+        assertEquals(SingleEditMutator.Move.FLIP_TYPE, scheduler.credit(out, 1.0));
+    }
+
     // ---------- helpers ----------
 
     private StatementCollector collectorFrom(String program) throws Exception {
@@ -0,0 +1,94 @@
+package de.uni_passau.apr.core.patch.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatchCodecTest {
+
+    @Test
+    void statements_areIndexedInOrder_andUnknownOnesAppended() {
+        PatchCodec codec = new PatchCodec(List.of(id(1), id(2), id(3)));
+
+        assertEquals(3, codec.size());
+        assertEquals(0, codec.indexOf(id(1)));
+        assertEquals(2, codec.indexOf(id(3)));
+        assertEquals(3, codec.indexOf(id(9)));
+        assertEquals(3, codec.indexOf(id(9)));
+        assertEquals(id(9), codec.statement(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.statement(4));
+    }
+
+    @Test
+    void edit_packsKindTargetAndDonor_andDecodesBack() {
+        PatchCodec codec = new PatchCodec(List.of(id(1), id(2), id(3)));
+
+        long delete = codec.encode(new DeleteOp(id(2)));
+        long replace = codec.encode(new ReplaceOp(id(3), id(1)));
+
+        assertEquals(PatchCodec.DELETE, PatchCodec.kind(delete));
+        assertEquals(1, PatchCodec.target(delete));
+        assertEquals(PatchCodec.REPLACE, PatchCodec.kind(replace));
+        assertEquals(2, PatchCodec.target(replace));
+        assertEquals(0, PatchCodec.donor(replace));
+        assertEquals(new DeleteOp(id(2)), codec.decode(delete));
+        assertEquals(new ReplaceOp(id(3), id(1)), codec.decode(replace));
+    }
+
+    @Test
+    void largestIndices_doNotOverlap() {
+        int max = Integer.MAX_VALUE;
+        long code = PatchCodec.replace(max, max - 1);
+
+        assertEquals(PatchCodec.REPLACE, PatchCodec.kind(code));
+        assertEquals(max, PatchCodec.target(code));
+        assertEquals(max - 1, PatchCodec.donor(code));
+        assertThrows(IllegalArgumentException.class, () -> PatchCodec.delete(-1));
+    }
+
+    @Test
+    void patch_roundTripsThroughLongArray_andEqualEditsHaveEqualKeys() {
+        PatchCodec codec = new PatchCodec(List.of(id(1), id(2), id(3)));
+        Patch patch = new Patch(List.of(new ReplaceOp(id(1), id(3)), new DeleteOp(id(2))));
+
+        long[] codes = codec.encode(patch);
+
+        assertEquals(2, codes.length);
+        assertEquals(patch, codec.decode(codes));
+        assertEquals(codec.key(new Patch(List.of(new DeleteOp(id(2))))),
+                codec.key(new Patch(List.of(new DeleteOp(id(2))))));
+        assertNotEquals(codec.key(new Patch(List.of(new DeleteOp(id(2))))),
+                codec.key(new Patch(List.of(new ReplaceOp(id(2), id(1))))));
+    }
+
+    @Test
+    void unknownStatements_fromSeveralThreads_getOneIndexEach() throws Exception {
+        PatchCodec codec = new PatchCodec(List.of());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    int[] out = new int[200];
+                    for (int i = 0; i < out.length; i++) out[i] = codec.indexOf(id(i));
+                    return out;
+                }));
+            }
+            int[] first = futures.get(0).get();
+            for (Future<int[]> f : futures) assertArrayEquals(first, f.get());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(200, codec.size());
+        for (int i = 0; i < 200; i++) assertEquals(id(i), codec.statement(codec.indexOf(id(i))));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static StatementId id(int line) {
+        return new StatementId(line, 1, line, 10);
+    }
+}
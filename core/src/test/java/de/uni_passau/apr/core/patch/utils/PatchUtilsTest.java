@@ -86,6 +86,36 @@ class PatchUtilsTest {
         // "\r" -> space, "\n" -> space, then trim => "hello  world" (two spaces between due to \r + \n)
     }
 
+    @Test
+    void parseId_inverseOfFormatId() {
+        StatementId id = new StatementId(3, 5, 4, 20);
+        assertEquals(id, PatchUtils.parseId(PatchUtils.formatId(id)));
+    }
+
+    @Test
+    void parseId_malformed_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> PatchUtils.parseId("3:5-4"));
+        assertThrows(IllegalArgumentException.class, () -> PatchUtils.parseId("a:b-c:d"));
+    }
+
+    @Test
+    void encodeDecode_roundTripsMultiEditPatch() {
+        Patch patch = new Patch(List.of(
+                new DeleteOp(new StatementId(3, 5, 3, 20)),
+                new ReplaceOp(new StatementId(7, 9, 7, 21), new StatementId(12, 9, 12, 21))));
+
+        String encoded = PatchUtils.encode(patch);
+
+        assertEquals("DEL 3:5-3:20;REP 7:9-7:21<-12:9-12:21", encoded);
+        assertEquals(patch, PatchUtils.decode(encoded));
+    }
+
+    @Test
+    void decode_unknownOp_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> PatchUtils.decode("INS 1:1-1:2"));
+        assertThrows(IllegalArgumentException.class, () -> PatchUtils.decode(""));
+    }
+
     // ---------------- helpers ----------------
 
     private Path writeJava(String name, String content) throws IOException {
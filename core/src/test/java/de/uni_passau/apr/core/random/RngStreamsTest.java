@@ -0,0 +1,78 @@
+package de.uni_passau.apr.core.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RngStreamsTest {
+
+    @Test
+    void stream_sameKey_sameSequence() {
+        assertEquals(draw(new RngStreams(7).stream(3, 1, 2)), draw(new RngStreams(7).stream(3, 1, 2)));
+        assertEquals(draw(new RngStreams(7).forInitialSlot(4)), draw(new RngStreams(7).forInitialSlot(4)));
+    }
+
+    @Test
+    void stream_anyKeyPartChanged_differentSequence() {
+        List<Integer> base = draw(new RngStreams(7).stream(3, 1, 2));
+
+        assertNotEquals(base, draw(new RngStreams(8).stream(3, 1, 2)));
+        assertNotEquals(base, draw(new RngStreams(7).stream(4, 1, 2)));
+        assertNotEquals(base, draw(new RngStreams(7).stream(3, 2, 2)));
+        assertNotEquals(base, draw(new RngStreams(7).stream(3, 1, 3)));
+        // key parts are not interchangeable
+        assertNotEquals(base, draw(new RngStreams(7).stream(1, 3, 2)));
+    }
+
+    @Test
+    void forChild_operatorsGetDistinctStreams() {
+        OperatorRandoms r = new RngStreams(7).forChild(2, 5);
+
+        Set<List<Integer>> sequences = new HashSet<>();
+        sequences.add(draw(r.selection()));
+        sequences.add(draw(r.crossover()));
+        sequences.add(draw(r.mutation()));
+        assertEquals(3, sequences.size());
+    }
+
+    @Test
+    void forChild_doesNotDependOnRequestOrder() {
+        RngStreams inOrder = new RngStreams(11);
+        List<List<Integer>> forward = new ArrayList<>();
+        for (int slot = 0; slot < 5; slot++) {
+            forward.add(draw(inOrder.forChild(1, slot).selection()));
+        }
+
+        RngStreams reversed = new RngStreams(11);
+        for (int slot = 4; slot >= 0; slot--) {
+            assertEquals(forward.get(slot), draw(reversed.forChild(1, slot).selection()));
+        }
+    }
+
+    @Test
+    void stream_cannotBeReseeded() {
+        Random r = new RngStreams(1).stream(1);
+        assertThrows(UnsupportedOperationException.class, () -> r.setSeed(2));
+    }
+
+    @Test
+    void stream_nextIntStaysInBound() {
+        Random r = new RngStreams(3).stream(9);
+        for (int i = 0; i < 1000; i++) {
+            int v = r.nextInt(7);
+            assertTrue(v >= 0 && v < 7);
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    private static List<Integer> draw(Random r) {
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            out.add(r.nextInt(1000));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,110 @@
+package de.uni_passau.apr.core.selection;
+
+import de.uni_passau.apr.core.patch.models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintRegistryTest {
+
+    @Test
+    void ctor_capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new FingerprintRegistry(0));
+    }
+
+    @Test
+    void record_thenExplored_singleAndMultiEdit() {
+        FingerprintRegistry registry = new FingerprintRegistry(100);
+        Patch single = new Patch(List.of(new DeleteOp(id(1))));
+        Patch multi = new Patch(List.of(new DeleteOp(id(1)), new ReplaceOp(id(2), id(3))));
+        Patch reordered = new Patch(List.of(new ReplaceOp(id(2), id(3)), new DeleteOp(id(1))));
+
+        assertTrue(registry.record(single));
+        assertFalse(registry.record(new Patch(List.of(new DeleteOp(id(1))))));
+        assertTrue(registry.record(multi));
+
+        assertTrue(registry.explored(single));
+        assertTrue(registry.explored(multi));
+        assertFalse(registry.explored(reordered));
+        assertFalse(registry.explored(new Patch(List.of(new ReplaceOp(id(1), id(2))))));
+        assertEquals(2, registry.size());
+        assertFalse(registry.saturated());
+    }
+
+    @Test
+    void pastCapacity_staysBounded_andNeverForgetsARecordedPatch() {
+        FingerprintRegistry registry = new FingerprintRegistry(1000);
+
+        for (int i = 0; i < 5000; i++) registry.record(patch(i));
+
+        assertTrue(registry.saturated());
+        for (int i = 0; i < 5000; i++) assertTrue(registry.explored(patch(i)), "forgot " + i);
+        // the Bloom filter is sized for eight times capacity at 1%
+        int falseHits = 0;
+        for (int i = 5000; i < 7000; i++) if (registry.explored(patch(i))) falseHits++;
+        assertTrue(falseHits < 100, "false hits " + falseHits);
+        assertFalse(registry.bloomFull());
+        assertTrue(registry.toString().contains("Bloom filter only past 1000"));
+    }
+
+    @Test
+    void farPastCapacity_bloomFilterFull_freshPatchesAreMostlyNotExplored() {
+        FingerprintRegistry registry = new FingerprintRegistry(1000);
+
+        for (int i = 0; i < 100_000; i++) registry.record(patch(i));
+
+        assertTrue(registry.bloomFull());
+        for (int i = 0; i < 1000; i++) assertTrue(registry.explored(patch(i)), "forgot " + i);
+        int falseHits = 0;
+        for (int i = 100_000; i < 110_000; i++) if (registry.explored(patch(i))) falseHits++;
+        assertTrue(falseHits < 500, "false hits " + falseHits);
+        // a new patch is not lost to a false hit, so size keeps counting
+        assertTrue(registry.size() > 99_000, "size " + registry.size());
+        assertTrue(registry.record(patch(200_000)));
+        assertTrue(registry.toString().contains("Bloom filter full, exact up to 1000"));
+    }
+
+    @Test
+    void ctor_bloomFilterMustCoverCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new FingerprintRegistry(1000, 999, new PatchCodec(List.of())));
+    }
+
+    @Test
+    void belowCapacity_unrecordedPatchesAreNeverExplored() {
+        FingerprintRegistry registry = new FingerprintRegistry(10000);
+        for (int i = 0; i < 5000; i++) registry.record(patch(i));
+
+        for (int i = 5000; i < 10000; i++) assertFalse(registry.explored(patch(i)));
+    }
+
+    @Test
+    void concurrentRecords_countEachPatchOnce() throws Exception {
+        FingerprintRegistry registry = new FingerprintRegistry(10000);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) registry.record(patch(i));
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(2000, registry.size());
+    }
+
+    // ---------------- helpers ----------------
+
+    private static StatementId id(int line) {
+        return new StatementId(line, 1, line, 10);
+    }
+
+    private static Patch patch(int i) {
+        return new Patch(List.of(new ReplaceOp(id(i), id(i + 1))));
+    }
+}
@@ -0,0 +1,90 @@
+package de.uni_passau.apr.core.selection;
+
+import de.uni_passau.apr.core.patch.models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexSelectorTest {
+
+    @Test
+    void factories_rejectBadParameters() {
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.tournament(1));
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.rank(0.9));
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.rank(2.1));
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.truncation(0.0));
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.truncation(1.5));
+    }
+
+    @Test
+    void select_emptyPopulation_throws() {
+        PopulationStore empty = new PopulationStore();
+
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.tournament(3).select(empty, new Random(1)));
+        assertThrows(IllegalArgumentException.class, () -> IndexSelector.rank(1.5).select(empty, new Random(1)));
+    }
+
+    @Test
+    void tournament_selectsLikeTournamentSelection_forTheSameSeed() {
+        // few distinct fitness values, so the tie-break draws are exercised too
+        Random values = new Random(5);
+        List<Individual> individuals = new ArrayList<>();
+        PopulationStore store = new PopulationStore();
+        for (int i = 0; i < 30; i++) {
+            Individual ind = new Individual(patch(i), values.nextInt(4));
+            individuals.add(ind);
+            store.add(ind.patch(), ind.fitness());
+        }
+        TournamentSelection<Individual> reference = TournamentSelection.maximize(new Random(9), 3, Individual::fitness);
+        IndexSelector selector = IndexSelector.tournament(3);
+        Random rng = new Random(9);
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(reference.selectOne(individuals).patch(), store.patch(selector.select(store, rng)));
+        }
+    }
+
+    @Test
+    void rank_prefersFitterMembers_andPressureOneIsUniform() {
+        PopulationStore store = population(10);
+        int[] counts = counts(IndexSelector.rank(2.0), store, 20000);
+        int[] uniform = counts(IndexSelector.rank(1.0), store, 20000);
+
+        // member 9 is the fittest, member 0 the weakest: expected shares 0.19 and 0.01
+        assertTrue(counts[9] > 3000 && counts[9] < 4600, "fittest " + counts[9]);
+        assertTrue(counts[0] < 500, "weakest " + counts[0]);
+        for (int c : uniform) assertTrue(c > 1600 && c < 2400, "uniform " + c);
+    }
+
+    @Test
+    void truncation_selectsOnlyTheTopFraction() {
+        PopulationStore store = population(10);
+        int[] counts = counts(IndexSelector.truncation(0.3), store, 3000);
+
+        for (int i = 0; i < 7; i++) assertEquals(0, counts[i]);
+        for (int i = 7; i < 10; i++) assertTrue(counts[i] > 800);
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Member i has fitness i. */
+    private static PopulationStore population(int n) {
+        PopulationStore store = new PopulationStore();
+        for (int i = 0; i < n; i++) store.add(patch(i), i);
+        return store;
+    }
+
+    private static int[] counts(IndexSelector selector, PopulationStore store, int draws) {
+        selector.prepare(store);
+        Random rng = new Random(42);
+        int[] counts = new int[store.size()];
+        for (int i = 0; i < draws; i++) counts[selector.select(store, rng)]++;
+        return counts;
+    }
+
+    private static Patch patch(int line) {
+        return new Patch(List.of(new DeleteOp(new StatementId(line, 1, line, 10))));
+    }
+}
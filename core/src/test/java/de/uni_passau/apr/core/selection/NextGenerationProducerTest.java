@@ -4,9 +4,11 @@ import de.uni_passau.apr.core.crossover.SingleEditCrossover;
 import de.uni_passau.apr.core.faultlocalization.FaultLocalization;
 import de.uni_passau.apr.core.faultlocalization.FaultLocPrioratizedSampler;
 import de.uni_passau.apr.core.faultlocalization.WeightedLocation;
+import de.uni_passau.apr.core.mutation.OperatorScheduler;
 import de.uni_passau.apr.core.mutation.SingleEditMutator;
 import de.uni_passau.apr.core.patch.models.*;
 import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import de.uni_passau.apr.core.random.OperatorRandoms;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -199,6 +201,172 @@ class NextGenerationProducerTest {
     // ---------------- helpers ----------------
 
     /** Deterministic selector cycling through population. */
+    @Test
+    void produce_slotStreams_childDependsOnlyOnItsSlot() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(10));
+        List<StatementId> ids = collector.allStatementIds();
+        List<Cand> pop = List.of(
+                new Cand(new Patch(List.of(new DeleteOp(ids.get(0))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(1), ids.get(2))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(2), ids.get(1)))))
+        );
+
+        List<List<Patch>> runs = new ArrayList<>();
+        for (int size : new int[]{4, 8}) {
+            // fresh operator generators each time, the slot streams must make them irrelevant
+            Random shared = new Random(size);
+            NextGenerationProducer<Cand> prod = new NextGenerationProducer<>(
+                    size,
+                    new StreamSelector<>(),
+                    Cand::patch,
+                    new SingleEditCrossover(shared, collector, false),
+                    new SingleEditMutator(0.5, shared, collector, sampler, false),
+                    true,
+                    5
+            );
+            runs.add(prod.produce(pop, slot -> new OperatorRandoms(
+                    new Random(slot * 3L), new Random(slot * 3L + 1), new Random(slot * 3L + 2))));
+        }
+
+        assertEquals(4, runs.get(0).size());
+        assertEquals(8, runs.get(1).size());
+        assertEquals(runs.get(0), runs.get(1).subList(0, 4));
+    }
+
+    @Test
+    void produce_forkJoinPool_sameChildrenAsSequential_forEveryPoolSize() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(10));
+        List<StatementId> ids = collector.allStatementIds();
+        List<Cand> pop = List.of(
+                new Cand(new Patch(List.of(new DeleteOp(ids.get(0))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(1), ids.get(2))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(2), ids.get(1)))))
+        );
+        // far more children than distinct patches, so slots keep competing for the same fingerprints
+        NextGenerationProducer<Cand> prod = new NextGenerationProducer<>(
+                300,
+                new StreamSelector<>(),
+                Cand::patch,
+                new SingleEditCrossover(new Random(1), collector, false),
+                new SingleEditMutator(0.5, new Random(1), collector, sampler, false),
+                true,
+                5
+        );
+        java.util.function.IntFunction<OperatorRandoms> streams = slot -> new OperatorRandoms(
+                new Random(slot * 3L), new Random(slot * 3L + 1), new Random(slot * 3L + 2));
+
+        List<Patch> sequential = prod.produce(pop, streams);
+        for (int threads : new int[]{1, 4}) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(threads);
+            try {
+                assertEquals(sequential, prod.produce(pop, streams, pool), threads + " threads");
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assertEquals(300, sequential.size());
+    }
+
+    @Test
+    void produce_forkJoinPool_withScheduler_recordsSameMovesAsSequential() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(10));
+        List<StatementId> ids = collector.allStatementIds();
+        List<Cand> pop = List.of(
+                new Cand(new Patch(List.of(new DeleteOp(ids.get(0))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(1), ids.get(2))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(2), ids.get(1)))))
+        );
+        java.util.function.IntFunction<OperatorRandoms> streams = slot -> new OperatorRandoms(
+                new Random(slot * 3L), new Random(slot * 3L + 1), new Random(slot * 3L + 2));
+
+        // crediting changes the move probabilities, so every run gets a fresh scheduler
+        List<SingleEditMutator.Move> sequential = bredMoves(collector, sampler, pop, streams, null);
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 5; run++) {
+                assertEquals(sequential, bredMoves(collector, sampler, pop, streams, pool), "run " + run);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(sequential.stream().anyMatch(Objects::nonNull));
+    }
+
+    @Test
+    void produce_withExplored_avoidsRecordedPatches_andStaysPoolIndependent() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(10));
+        List<StatementId> ids = collector.allStatementIds();
+        List<Cand> pop = List.of(
+                new Cand(new Patch(List.of(new DeleteOp(ids.get(0))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(1), ids.get(2))))),
+                new Cand(new Patch(List.of(new ReplaceOp(ids.get(2), ids.get(1)))))
+        );
+        FingerprintRegistry explored = new FingerprintRegistry(1000);
+        for (Cand c : pop) explored.record(c.patch());
+        NextGenerationProducer<Cand> prod = new NextGenerationProducer<>(
+                6,
+                new StreamSelector<>(),
+                Cand::patch,
+                new SingleEditCrossover(new Random(1), collector, false),
+                new SingleEditMutator(1.0, new Random(1), collector, sampler, false),
+                true,
+                50
+        ).withExplored(explored);
+        java.util.function.IntFunction<OperatorRandoms> streams = slot -> new OperatorRandoms(
+                new Random(slot * 3L), new Random(slot * 3L + 1), new Random(slot * 3L + 2));
+
+        List<Patch> children = prod.produce(pop, streams);
+
+        for (Patch child : children) assertFalse(explored.explored(child), "bred an explored patch: " + child);
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            assertEquals(children, prod.produce(pop, streams, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Breeds 300 children, many slots competing for few patches so speculative attempts often breed
+     * a child another slot keeps, and returns the move credited for each (null if none was recorded).
+     */
+    private static List<SingleEditMutator.Move> bredMoves(StatementCollector collector,
+                                                          FaultLocPrioratizedSampler sampler,
+                                                          List<Cand> pop,
+                                                          java.util.function.IntFunction<OperatorRandoms> streams,
+                                                          java.util.concurrent.ForkJoinPool pool) {
+        OperatorScheduler<SingleEditMutator.Move> moves = new OperatorScheduler<>(SingleEditMutator.Move.class, 0.05, 0.2);
+        NextGenerationProducer<Cand> prod = new NextGenerationProducer<>(
+                300,
+                new StreamSelector<>(),
+                Cand::patch,
+                new SingleEditCrossover(new Random(1), collector, false),
+                new SingleEditMutator(0.5, new Random(1), collector, sampler, false).withScheduler(moves),
+                true,
+                5
+        );
+        List<SingleEditMutator.Move> credited = new ArrayList<>();
+        for (Patch child : prod.produce(pop, streams, pool)) credited.add(moves.credit(child, 1.0));
+        return credited;
+    }
+
+    /** Picks uniformly with the generator it is handed; has none of its own. */
+    private static final class StreamSelector<E> implements ParentSelector<E> {
+        @Override
+        public E selectOne(List<E> population) {
+            throw new AssertionError("slot-keyed production must pass its stream");
+        }
+
+        @Override
+        public E selectOne(List<E> population, Random rng) {
+            return population.get(rng.nextInt(population.size()));
+        }
+    }
+
     private static final class RoundRobinSelector<E> implements ParentSelector<E> {
         private int i = 0;
         @Override
@@ -76,6 +76,23 @@ class PopulationInitializerTest {
         }
     }
 
+    @Test
+    void initialize_slotStreams_slotDependsOnlyOnItsOwnStream() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(2));
+
+        PopulationInitializer small = new PopulationInitializer(4, new Random(3), collector, sampler, 0.5, true);
+        PopulationInitializer large = new PopulationInitializer(8, new Random(99), collector, sampler, 0.5, true);
+
+        List<Patch> a = small.initialize(slot -> new Random(100 + slot));
+        List<Patch> b = large.initialize(slot -> new Random(100 + slot));
+
+        // neither the shared generators nor the later slots change the first four individuals
+        assertEquals(4, a.size());
+        assertEquals(8, b.size());
+        assertEquals(a, b.subList(0, 4));
+    }
+
     @Test
     void initialize_deleteProbabilityOne_producesOnlyDeleteOps() throws Exception {
         StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
@@ -150,6 +167,54 @@ class PopulationInitializerTest {
         }
     }
 
+    @Test
+    void initialize_withSeeds_seedsTakeTheFirstSlots_andAreDeduplicated() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(2));
+        PopulationInitializer init = new PopulationInitializer(6, new Random(3), collector, sampler, 0.5, true);
+        StatementId first = collector.allStatementIds().get(0);
+        Patch seed = new Patch(List.of(new DeleteOp(first)));
+
+        List<Patch> seeded = init.initialize(slot -> new Random(100 + slot), List.of(seed, seed));
+
+        assertEquals(6, seeded.size());
+        assertEquals(seed, seeded.get(0));
+        assertEquals(1, seeded.stream().filter(seed::equals).count(), "duplicate seeds are dropped");
+        assertEquals(seed, init.initialize(List.of(seed)).get(0));
+    }
+
+    @Test
+    void reseed_boost_favoursTargetsNotSeenYet_andAvoidsExcluded() throws Exception {
+        StatementCollector collector = StatementCollector.fromFile(writeJavaFile());
+        FaultLocPrioratizedSampler sampler = newSampler(collector, new Random(4));
+        PopulationInitializer init = new PopulationInitializer(12, new Random(5), collector, sampler, 1.0, true);
+
+        // every target but the lightest has been tried a lot
+        StatementId rare = sampler.targetWeights().entrySet().stream()
+                .min(Map.Entry.comparingByValue()).orElseThrow().getKey();
+        Map<StatementId, Integer> seen = new HashMap<>();
+        for (StatementId t : sampler.targetWeights().keySet()) {
+            if (!t.equals(rare)) seen.put(t, 1000);
+        }
+
+        List<Patch> plain = init.reseed(200, slot -> new Random(slot), seen, 0.0, Set.of());
+        List<Patch> boosted = init.reseed(200, slot -> new Random(slot), seen, 50.0, Set.of());
+
+        long plainRare = plain.stream().filter(p -> ((DeleteOp) p.edits().get(0)).target().equals(rare)).count();
+        long boostedRare = boosted.stream().filter(p -> ((DeleteOp) p.edits().get(0)).target().equals(rare)).count();
+        assertEquals(200, boosted.size());
+        assertTrue(boostedRare > plainRare, "boost must favour the rarely tried target: " + boostedRare + " vs " + plainRare);
+        assertThrows(IllegalArgumentException.class, () -> init.reseed(1, slot -> new Random(1), seen, -1.0, Set.of()));
+
+        // all deletes but one are taken by the survivors of the restart
+        Set<Patch> survivors = new HashSet<>();
+        for (StatementId t : sampler.targetWeights().keySet()) {
+            if (!t.equals(rare)) survivors.add(new Patch(List.of(new DeleteOp(t))));
+        }
+        assertEquals(List.of(new Patch(List.of(new DeleteOp(rare)))),
+                init.reseed(1, slot -> new Random(7), Map.of(), 0.0, survivors));
+    }
+
     // ---------------------------------------------------------------------
     // helpers
     // ---------------------------------------------------------------------
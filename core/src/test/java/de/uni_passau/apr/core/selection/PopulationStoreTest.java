@@ -0,0 +1,82 @@
+package de.uni_passau.apr.core.selection;
+
+import de.uni_passau.apr.core.patch.models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopulationStoreTest {
+
+    @Test
+    void add_keepsFitnessAndPatchByIndex_andGrows() {
+        PopulationStore store = new PopulationStore(1);
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, store.add(patch(i), i * 0.5));
+        }
+
+        assertEquals(40, store.size());
+        assertEquals(7.5, store.fitness(15));
+        assertEquals(patch(15), store.patch(15));
+        assertEquals(patch(39), store.patches().get(39));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.fitness(40));
+    }
+
+    @Test
+    void addByHandle_sharesThePatch_andClearDropsTheHandles() {
+        PopulationStore store = new PopulationStore();
+        store.add(patch(1), 1.0);
+        store.add(patch(2), 2.0);
+        int shared = store.add(store.handle(0), 3.0);
+
+        assertEquals(store.handle(0), store.handle(shared));
+        assertNotEquals(store.handle(0), store.handle(1));
+        assertEquals(patch(1), store.patch(shared));
+        assertEquals(3.0, store.fitness(shared));
+
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.add(0, 1.0));
+        store.add(patch(2), 0.0);
+        assertEquals(patch(2), store.patchOf(store.handle(0)));
+    }
+
+    @Test
+    void ranked_fittestFirst_tiesInIndexOrder() {
+        PopulationStore store = new PopulationStore();
+        double[] fitness = {0.2, 0.9, 0.5, 0.9, -1e15, 0.5};
+        for (int i = 0; i < fitness.length; i++) store.add(patch(i), fitness[i]);
+
+        int[] ranking = new int[fitness.length];
+        for (int r = 0; r < ranking.length; r++) ranking[r] = store.ranked(r);
+
+        assertArrayEquals(new int[]{1, 3, 2, 5, 0, 4}, ranking);
+    }
+
+    @Test
+    void ranked_largePopulation_matchesStableSort_andFollowsRefills() {
+        PopulationStore store = new PopulationStore();
+        Random rng = new Random(3);
+        for (int round = 0; round < 2; round++) {
+            store.clear();
+            int n = 500 + round * 300;
+            for (int i = 0; i < n; i++) store.add(patch(i), rng.nextInt(20));
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < n; i++) expected.add(i);
+            expected.sort(Comparator.comparingDouble(store::fitness).reversed());
+
+            for (int r = 0; r < n; r++) {
+                assertEquals(expected.get(r), store.ranked(r), "rank " + r);
+            }
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    private static Patch patch(int line) {
+        return new Patch(List.of(new DeleteOp(new StatementId(line, 1, line, 10))));
+    }
+}
@@ -86,6 +86,18 @@ class TournamentSelectionTest {
         assertEquals(5, chosen);
     }
 
+    @Test
+    void selectOne_givenRng_drawsOnlyFromIt() {
+        List<Integer> pop = List.of(5, 1, 9, 3);
+
+        // the selection's own generator has no values, using it would fail the test
+        TournamentSelection<Integer> sel = TournamentSelection.maximize(new FixedRandom(null, null), 3, x -> x);
+
+        Integer chosen = sel.selectOne(pop, new FixedRandom(new int[]{1, 0, 3}, new boolean[]{false}));
+
+        assertEquals(5, chosen);
+    }
+
     @Test
     void tieBreak_cmpZero_canReplaceBest_whenNextBooleanTrue() {
         // Use objects where comparator always returns 0 -> tie every time.
@@ -0,0 +1,46 @@
+package de.uni_passau.apr.core.surrogate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogisticSurrogateTest {
+
+    @Test
+    void ctor_invalidArgs_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new LogisticSurrogate(0));
+        assertThrows(IllegalArgumentException.class, () -> new LogisticSurrogate(2, 0.0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new LogisticSurrogate(2, 0.1, -1.0));
+    }
+
+    @Test
+    void predict_untrained_isOneHalf() {
+        LogisticSurrogate model = new LogisticSurrogate(3);
+
+        assertEquals(0.5, model.predict(new double[]{1, 0.3, 0.7}), 1e-12);
+        assertEquals(0, model.samples());
+    }
+
+    @Test
+    void update_separableData_learnsToRankPositivesFirst() {
+        LogisticSurrogate model = new LogisticSurrogate(2);
+        double[] positive = {1, 1};
+        double[] negative = {1, 0};
+
+        for (int i = 0; i < 200; i++) {
+            model.update(positive, true);
+            model.update(negative, false);
+        }
+
+        assertTrue(model.predict(positive) > 0.8);
+        assertTrue(model.predict(negative) < 0.2);
+        assertEquals(400, model.samples());
+    }
+
+    @Test
+    void predict_wrongFeatureCount_throws() {
+        LogisticSurrogate model = new LogisticSurrogate(2);
+
+        assertThrows(IllegalArgumentException.class, () -> model.predict(new double[]{1}));
+    }
+}
@@ -0,0 +1,171 @@
+package de.uni_passau.apr.core.surrogate;
+
+import de.uni_passau.apr.core.patch.models.*;
+import de.uni_passau.apr.core.patch.operators.StatementCollector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SurrogateFilterTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void ctor_invalidArgs_throw() throws Exception {
+        PatchFeatures features = features();
+
+        assertThrows(IllegalArgumentException.class, () -> new SurrogateFilter(features, 1.0, 0.1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SurrogateFilter(features, -0.1, 0.1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SurrogateFilter(features, 0.5, 1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SurrogateFilter(features, 0.5, 0.1, -1));
+        assertThrows(NullPointerException.class, () -> new SurrogateFilter(null, 0.5, 0.1, 0));
+    }
+
+    @Test
+    void features_deleteAndReplace_areDescribed() throws Exception {
+        StatementCollector collector = collector();
+        StatementId a = idOf(collector, "int a = 1;");
+        StatementId b = idOf(collector, "int b = 2;");
+        PatchFeatures features = new PatchFeatures(collector, Map.of(a, 2.0, b, 1.0));
+
+        double[] delete = features.of(new Patch(List.of(new DeleteOp(a))));
+        double[] replace = features.of(new Patch(List.of(new ReplaceOp(b, a))));
+
+        assertEquals(features.size(), delete.length);
+        assertArrayEquals(new double[]{1, 1, 0, 1.0, 0, 0}, Arrays.copyOf(delete, 6), 1e-12);
+        assertArrayEquals(new double[]{1, 0, 1, 0.5}, Arrays.copyOf(replace, 4), 1e-12);
+        // "int" is shared out of {int, a, 1} and {int, b, 2}; the statements are one line apart
+        assertEquals(0.2, replace[4], 1e-12);
+        assertEquals(0.5, replace[5], 1e-12);
+    }
+
+    @Test
+    void skipped_beforeWarmup_skipsNothing() throws Exception {
+        SurrogateFilter filter = new SurrogateFilter(features(), 0.5, 0.0, 5);
+        List<Patch> patches = allDeletes();
+
+        boolean[] skip = filter.skipped(patches, new Random(1));
+
+        for (boolean s : skip) assertFalse(s);
+        assertEquals(0, filter.stats().skipped());
+    }
+
+    @Test
+    void skipped_afterTraining_skipsTheLowestScored() throws Exception {
+        StatementCollector collector = collector();
+        StatementId good = idOf(collector, "int a = 1;");
+        SurrogateFilter filter = new SurrogateFilter(features(), 0.5, 0.0, 0);
+        List<Patch> patches = allDeletes();
+        Patch goodPatch = new Patch(List.of(new DeleteOp(good)));
+        for (int i = 0; i < 50; i++) {
+            for (Patch p : patches) {
+                filter.observe(p, p.equals(goodPatch));
+            }
+        }
+
+        boolean[] skip = filter.skipped(patches, new Random(1));
+
+        assertFalse(skip[patches.indexOf(goodPatch)], "the one positive patch must not be skipped");
+        int skipped = 0;
+        for (boolean s : skip) if (s) skipped++;
+        assertEquals(patches.size() / 2, skipped);
+        assertEquals(skipped, filter.stats().skipped());
+    }
+
+    @Test
+    void skipped_fullExploration_evaluatesEverythingAndMeasuresMisses() throws Exception {
+        SurrogateFilter filter = new SurrogateFilter(features(), 0.5, 1.0, 0);
+        List<Patch> patches = allDeletes();
+
+        boolean[] skip = filter.skipped(patches, new Random(1));
+        for (boolean s : skip) assertFalse(s);
+        for (Patch p : patches) {
+            filter.observe(p, true);
+        }
+
+        SurrogateFilter.Stats stats = filter.stats();
+        assertEquals(patches.size() / 2, stats.explored());
+        assertEquals(stats.explored(), stats.exploredPositive());
+        assertEquals(1.0, stats.missRate(), 1e-12);
+        assertEquals(patches.size(), stats.trained());
+    }
+
+    @Test
+    void stats_precision_countsPositivePredictionsOnly() {
+        SurrogateFilter.Stats stats = new SurrogateFilter.Stats(10, 4, 3, 0, 0, 0);
+
+        assertEquals(0.75, stats.precision(), 1e-12);
+        assertTrue(Double.isNaN(stats.missRate()));
+    }
+
+    @Test
+    void restore_fromWeightsAndStats_predictsAndCountsLikeTheOriginal() throws Exception {
+        SurrogateFilter original = new SurrogateFilter(features(), 0.5, 0.5, 3);
+        List<Patch> patches = allDeletes();
+        for (int i = 0; i < 5; i++) {
+            original.skipped(patches, new Random(i));
+            for (int k = 0; k < patches.size(); k++) {
+                original.observe(patches.get(k), k % 3 == 0);
+            }
+        }
+
+        SurrogateFilter restored = new SurrogateFilter(features(), 0.5, 0.5, 3);
+        restored.restore(original.weights(), original.stats());
+
+        assertEquals(original.stats(), restored.stats());
+        assertArrayEquals(original.weights(), restored.weights(), 0.0);
+        assertArrayEquals(original.skipped(patches, new Random(9)), restored.skipped(patches, new Random(9)));
+        assertEquals(original.stats(), restored.stats());
+        assertThrows(IllegalArgumentException.class,
+                () -> restored.restore(new double[1], original.stats()));
+        assertThrows(IllegalArgumentException.class,
+                () -> restored.restore(original.weights(), new SurrogateFilter.Stats(1, 1, 2, 0, 0, 0)));
+    }
+
+    // ---------------- helpers ----------------
+
+    private StatementCollector collector() throws Exception {
+        Path f = tmp.resolve("A.java");
+        Files.writeString(f, """
+                package t;
+                public class A {
+                  public int f(int x) {
+                    int a = 1;
+                    int b = 2;
+                    if (x > 0) {
+                      x++;
+                    }
+                    return a + b + x;
+                  }
+                }
+                """, StandardCharsets.UTF_8);
+        return StatementCollector.fromFile(f);
+    }
+
+    private PatchFeatures features() throws Exception {
+        StatementCollector collector = collector();
+        return new PatchFeatures(collector, Map.of(idOf(collector, "int a = 1;"), 1.0));
+    }
+
+    private List<Patch> allDeletes() throws Exception {
+        List<Patch> out = new ArrayList<>();
+        for (StatementId id : collector().allStatementIds()) {
+            out.add(new Patch(List.of(new DeleteOp(id))));
+        }
+        return out;
+    }
+
+    private static StatementId idOf(StatementCollector collector, String text) {
+        for (StatementId id : collector.allStatementIds()) {
+            if (collector.getStatement(id).toString().equals(text)) return id;
+        }
+        throw new AssertionError("no statement " + text);
+    }
+}
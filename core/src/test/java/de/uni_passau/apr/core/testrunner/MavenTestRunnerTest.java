@@ -4,6 +4,8 @@ import de.uni_passau.apr.core.benchmark.BenchmarkConfig;
 import de.uni_passau.apr.core.workspace.WorkspaceBuilder;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
@@ -11,6 +13,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +40,8 @@ class MavenTestRunnerTest {
                 """;
         String testSource = """
                 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
                 import static org.junit.jupiter.api.Assertions.*;
 
                 public class ProgramTest {
@@ -83,6 +89,8 @@ class MavenTestRunnerTest {
                 """;
         String testSource = """
                 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
                 import static org.junit.jupiter.api.Assertions.*;
 
                 public class ProgramTest {
@@ -113,4 +121,169 @@ class MavenTestRunnerTest {
         assertTrue(result.isAllPassed(), "Fixed program should pass all tests");
         assertNotNull(result.getOutput());
     }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void runTests_cancelled_killsProcessTreeAndReportsCancelled() throws Exception {
+        Path mvn = fakeMavenStartingChild(tempDir);
+        MavenTestRunner runner = new MavenTestRunner(mvn.toString(), Duration.ofSeconds(60));
+        CancellationToken token = new CancellationToken();
+
+        Thread canceller = new Thread(() -> {
+            awaitFile(tempDir.resolve("child.pid"));
+            token.cancel();
+        });
+        canceller.start();
+        long start = System.nanoTime();
+        TestResult result = runner.runTests(tempDir, token);
+        canceller.join();
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 10_000, "cancel should not wait for the 60s timeout");
+        assertEquals(MavenTestRunner.EXIT_CANCELLED, result.getExitCode());
+        assertFalse(result.isTimedOut());
+        assertFalse(result.isAllPassed());
+        assertChildDead(tempDir.resolve("child.pid"));
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void runTests_timeout_killsGrandchildrenToo() throws Exception {
+        Path mvn = fakeMavenStartingChild(tempDir);
+        MavenTestRunner runner = new MavenTestRunner(mvn.toString(), Duration.ofMillis(500));
+
+        TestResult result = runner.runTests(tempDir);
+
+        assertTrue(result.isTimedOut());
+        assertEquals(124, result.getExitCode());
+        assertChildDead(tempDir.resolve("child.pid"));
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void runTests_outputLimit_stopsARunawayProcess() throws Exception {
+        Path mvn = fakeMavenPrintingForever(tempDir);
+        MavenTestRunner runner = new MavenTestRunner(mvn.toString(), Duration.ofSeconds(60))
+                .withOutputCapture(64, 64, 100_000)
+                .withOutputSpill(true);
+
+        long start = System.nanoTime();
+        TestResult result = runner.runTests(tempDir);
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 10_000, "should not wait for the 60s timeout");
+        assertEquals(MavenTestRunner.EXIT_OUTPUT_LIMIT, result.getExitCode());
+        assertFalse(result.isTimedOut());
+        assertTrue(result.getOutput().length() < 1_000, "only head and tail are kept");
+        assertEquals(100_000, Files.size(tempDir.resolve(MavenTestRunner.SPILL_FILE)));
+    }
+
+    @Test
+    void runTests_alreadyCancelled_doesNotStartMaven() {
+        MavenTestRunner runner = new MavenTestRunner("does-not-exist", Duration.ofSeconds(1));
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        TestResult result = runner.runTests(tempDir, token);
+
+        assertEquals(MavenTestRunner.EXIT_CANCELLED, result.getExitCode());
+    }
+
+    @Test
+    void runReactor_mapsEachModule_andKeepsACompileFailureToItsModule() throws IOException {
+        Path buggyProgram = tempDir.resolve("buggy").resolve("Program.java");
+        Path tests = tempDir.resolve("tests").resolve("ProgramTest.java");
+        Files.createDirectories(buggyProgram.getParent());
+        Files.createDirectories(tests.getParent());
+        String buggySource = "public class Program { public static int add(int a, int b) { return a + b + 1; } }";
+        String fixedSource = "public class Program { public static int add(int a, int b) { return a + b; } }";
+        String brokenSource = "public class Program { public static int add(int a, int b) { return a + ; } }";
+        Files.writeString(buggyProgram, buggySource, StandardCharsets.UTF_8);
+        Files.writeString(tests, """
+                import org.junit.jupiter.api.Test;
+                import static org.junit.jupiter.api.Assertions.*;
+
+                public class ProgramTest {
+                    @Test void adds() { assertEquals(3, Program.add(1, 2)); }
+                    @Test void addsZero() { assertEquals(0, Program.add(0, 0)); }
+                }
+                """, StandardCharsets.UTF_8);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm-reactor");
+        cfg.setBuggyProgramPath(buggyProgram);
+        cfg.setTestSuitePath(tests);
+
+        WorkspaceBuilder builder = new WorkspaceBuilder(null, true);
+        Path reactor = builder.buildReactor(cfg, List.of(buggySource, brokenSource, fixedSource));
+        List<String> modules = List.of(WorkspaceBuilder.moduleName(0), WorkspaceBuilder.moduleName(1),
+                WorkspaceBuilder.moduleName(2));
+        MavenTestRunner runner = new MavenTestRunner("mvn", Duration.ofSeconds(120)).withReactorThreads(2);
+
+        List<TestResult> results = runner.runReactor(reactor, modules, CancellationToken.none());
+
+        assertEquals(3, results.size());
+        TestResult buggy = results.get(0);
+        assertEquals(2, buggy.getTestsRun());
+        assertEquals(2, buggy.getFailures());
+        assertNotEquals(0, buggy.getExitCode());
+        assertFalse(buggy.isAllPassed());
+        TestResult broken = results.get(1);
+        assertEquals(0, broken.getTestsRun());
+        assertNotEquals(0, broken.getExitCode());
+        assertFalse(broken.isTimedOut());
+        TestResult fixed = results.get(2);
+        assertEquals(2, fixed.getTestsRun());
+        assertEquals(0, fixed.getExitCode());
+        assertTrue(fixed.isAllPassed(), "a broken neighbour module must not fail this one");
+        assertEquals(Set.of("ProgramTest#adds", "ProgramTest#addsZero"), Set.copyOf(fixed.getPassedTests()));
+    }
+
+    @Test
+    void runReactor_alreadyCancelled_doesNotStartMaven() throws IOException {
+        MavenTestRunner runner = new MavenTestRunner("/nonexistent/mvn", Duration.ofSeconds(5));
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        List<TestResult> results = runner.runReactor(tempDir, List.of("candidate-0", "candidate-1"), token);
+
+        assertEquals(2, results.size());
+        assertEquals(MavenTestRunner.EXIT_CANCELLED, results.get(1).getExitCode());
+        assertTrue(runner.runReactor(tempDir, List.of(), CancellationToken.none()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> runner.withReactorThreads(0));
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Stands in for mvn: forks a long sleeping child (like surefire's JVM) and waits for it. */
+    private static Path fakeMavenStartingChild(Path dir) throws IOException {
+        Path script = dir.resolve("fake-mvn.sh");
+        Files.writeString(script, "#!/bin/sh\nsleep 60 &\necho $! > child.pid\nwait\n", StandardCharsets.UTF_8);
+        assertTrue(script.toFile().setExecutable(true));
+        return script;
+    }
+
+    /** Stands in for mvn stuck in a print loop. */
+    private static Path fakeMavenPrintingForever(Path dir) throws IOException {
+        Path script = dir.resolve("fake-mvn.sh");
+        Files.writeString(script, "#!/bin/sh\nwhile true; do echo spam spam spam; done\n", StandardCharsets.UTF_8);
+        assertTrue(script.toFile().setExecutable(true));
+        return script;
+    }
+
+    private static void awaitFile(Path file) {
+        for (int i = 0; i < 500 && !Files.exists(file); i++) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void assertChildDead(Path pidFile) throws Exception {
+        long pid = Long.parseLong(Files.readString(pidFile).trim());
+        for (int i = 0; i < 200 && ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false), "forked child should be killed");
+    }
 }
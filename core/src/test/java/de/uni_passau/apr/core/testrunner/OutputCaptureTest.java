@@ -0,0 +1,107 @@
+package de.uni_passau.apr.core.testrunner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputCaptureTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shortOutput_isKeptWhole() throws Exception {
+        OutputCapture capture = new OutputCapture(8, 8, 0, null);
+
+        capture.drain(stream("one\ntwo\n"));
+
+        assertEquals("one\ntwo\n", capture.text());
+        assertEquals(8, capture.totalBytes());
+        assertEquals(0, capture.omittedBytes());
+        assertFalse(capture.limitExceeded());
+    }
+
+    @Test
+    void longOutput_keepsHeadAndTail_andMarksTheGap() throws Exception {
+        OutputCapture capture = new OutputCapture(4, 6, 0, null);
+
+        // fed in small pieces so the tail wraps around its ring several times
+        String text = "HEAD" + "x".repeat(100) + "\nTAIL\n";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 3) capture.append(bytes, i, Math.min(3, bytes.length - i));
+
+        assertEquals(bytes.length - 10, capture.omittedBytes());
+        assertTrue(capture.text().startsWith("HEAD"));
+        assertTrue(capture.text().contains("... [" + (bytes.length - 10) + " bytes of output omitted] ..."));
+        assertTrue(capture.text().endsWith("] ..." + System.lineSeparator() + "\nTAIL\n"));
+        assertEquals("TAIL" + System.lineSeparator(), capture.lastLines(1));
+    }
+
+    @Test
+    void chunkLargerThanTail_keepsItsEnd() throws Exception {
+        OutputCapture capture = new OutputCapture(0, 4, 0, null);
+        byte[] bytes = "abcdefgh".getBytes(StandardCharsets.UTF_8);
+
+        capture.append(bytes, 0, bytes.length);
+
+        assertTrue(capture.text().endsWith("efgh"));
+        assertEquals(4, capture.omittedBytes());
+    }
+
+    @Test
+    void pastMaxBytes_outputIsDropped_andTheLimitReported() throws Exception {
+        OutputCapture capture = new OutputCapture(1024, 1024, 10, null);
+
+        capture.drain(stream("0123456789overflow"));
+
+        assertTrue(capture.limitExceeded());
+        assertEquals(10, capture.totalBytes());
+        assertEquals("0123456789", capture.text());
+    }
+
+    @Test
+    void spillFile_receivesTheWholeOutput() throws Exception {
+        Path spill = tempDir.resolve("out.log");
+        OutputCapture capture = new OutputCapture(2, 2, 0, spill);
+        String text = "a".repeat(50) + "b".repeat(50);
+
+        capture.drain(stream(text));
+
+        assertEquals(text, Files.readString(spill));
+        assertTrue(capture.text().contains("see " + spill));
+    }
+
+    @Test
+    void readError_isAppendedToTheText() throws Exception {
+        OutputCapture capture = new OutputCapture(16, 16, 0, null);
+
+        capture.drain(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("pipe broke");
+            }
+        });
+
+        assertTrue(capture.text().contains("pipe broke"));
+    }
+
+    @Test
+    void ctor_rejectsNegativeSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new OutputCapture(-1, 0, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> new OutputCapture(0, 0, -1, null));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
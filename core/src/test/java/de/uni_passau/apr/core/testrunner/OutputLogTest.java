@@ -0,0 +1,73 @@
+package de.uni_passau.apr.core.testrunner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void append_thenRead_returnsEachTextAtItsOffset() throws Exception {
+        OutputLog log = OutputLog.createTemp(tempDir.resolve("spill"));
+        String big = "[INFO] Tests run: 3, Failures: 1\n".repeat(3000);
+
+        long a = log.append("first");
+        long b = log.append("");
+        long c = log.append(big);
+        long d = log.append("ünïcödé ✓");
+
+        assertEquals("first", log.read(a));
+        assertEquals("", log.read(b));
+        assertEquals(big, log.read(c));
+        assertEquals("ünïcödé ✓", log.read(d));
+        assertTrue(log.size() < big.length() / 10, "repetitive Maven output compresses well: " + log.size());
+        assertTrue(log.file().getFileName().toString().startsWith("apr-output-"));
+    }
+
+    @Test
+    void reopenedLog_appendsAfterExistingRecords() throws Exception {
+        Path file = tempDir.resolve("out.log");
+        long first = new OutputLog(file).append("one");
+
+        OutputLog reopened = new OutputLog(file);
+        long second = reopened.append("two");
+
+        assertEquals(Files.size(file), reopened.size());
+        assertEquals("one", reopened.read(first));
+        assertEquals("two", reopened.read(second));
+    }
+
+    @Test
+    void concurrentAppends_allReadBack() throws Exception {
+        OutputLog log = new OutputLog(tempDir.resolve("concurrent.log"));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Map<Long, String> written = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        String text = "thread " + thread + " line " + i;
+                        written.put(log.append(text), text);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(200, written.size());
+        written.forEach((offset, text) -> assertEquals(text, log.read(offset)));
+    }
+}
@@ -0,0 +1,95 @@
+package de.uni_passau.apr.core.testrunner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpilledTestResultTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void keepsCountsAndFlags_andReadsOutputBack() throws Exception {
+        OutputLog log = new OutputLog(tempDir.resolve("out.log"));
+        TestResult source = result("BUILD FAILURE\n", "A#one", "B#two");
+        source.setCpuMillis(1234);
+
+        TestResult spilled = SpilledTestResult.of(source, log, new TestCatalog());
+
+        assertInstanceOf(SpilledTestResult.class, spilled);
+        assertEquals(1, spilled.getExitCode());
+        assertFalse(spilled.isAllPassed());
+        assertTrue(spilled.isTimedOut());
+        assertEquals(5, spilled.getTestsRun());
+        assertEquals(2, spilled.getFailures());
+        assertEquals(1, spilled.getErrors());
+        assertEquals(1234, spilled.getCpuMillis());
+        assertEquals("BUILD FAILURE\n", spilled.getOutput());
+        assertEquals(List.of("A#one", "B#two"), spilled.getFailedTests());
+        assertSame(spilled, SpilledTestResult.of(spilled, log, new TestCatalog()));
+        assertNull(SpilledTestResult.of(null, log, new TestCatalog()));
+    }
+
+    @Test
+    void equalFailedTestSets_shareOneBitSet() throws Exception {
+        OutputLog log = new OutputLog(tempDir.resolve("out.log"));
+        TestCatalog catalog = new TestCatalog();
+
+        SpilledTestResult a = new SpilledTestResult(result("a", "A#one", "B#two"), log, catalog);
+        SpilledTestResult b = new SpilledTestResult(result("b", "B#two", "A#one"), log, catalog);
+        SpilledTestResult c = new SpilledTestResult(result("c", "A#one"), log, catalog);
+
+        assertSame(a.failedTestSet(), b.failedTestSet());
+        assertNotSame(a.failedTestSet(), c.failedTestSet());
+        assertEquals(2, catalog.size());
+        assertEquals(List.of("A#one", "B#two"), b.getFailedTests());
+    }
+
+    @Test
+    void setters_replaceTheSpilledValues() throws Exception {
+        OutputLog log = new OutputLog(tempDir.resolve("out.log"));
+        SpilledTestResult tr = new SpilledTestResult(result(null), log, new TestCatalog());
+
+        assertNull(tr.getOutput());
+        tr.setOutput("later");
+        tr.setFailedTests(List.of("C#three"));
+
+        assertEquals("later", tr.getOutput());
+        assertEquals(List.of("C#three"), tr.getFailedTests());
+    }
+
+    @Test
+    void outcomes_areBuiltFromTheSpilledSets() throws Exception {
+        OutputLog log = new OutputLog(tempDir.resolve("out.log"));
+        TestCatalog catalog = new TestCatalog();
+        TestResult source = result("x", "A#one", "B#two");
+        source.setPassedTests(new ArrayList<>(List.of("C#three")));
+        source.setErroredTests(new ArrayList<>(List.of("B#two")));
+
+        SpilledTestResult spilled = new SpilledTestResult(source, log, catalog);
+
+        assertEquals(List.of("C#three"), spilled.getPassedTests());
+        assertEquals(List.of("B#two"), spilled.getErroredTests());
+        assertEquals(TestOutcomes.of(source, catalog), spilled.outcomes());
+        assertSame(spilled.outcomes(), spilled.outcomes());
+
+        spilled.setErroredTests(List.of());
+        assertEquals(List.of("A#one", "B#two"), catalog.decode(spilled.outcomes().failed()));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static TestResult result(String output, String... failed) {
+        TestResult tr = new TestResult(1, output, false, true);
+        tr.setTestsRun(5);
+        tr.setFailures(2);
+        tr.setErrors(1);
+        tr.setFailedTests(new ArrayList<>(List.of(failed)));
+        return tr;
+    }
+}
@@ -0,0 +1,80 @@
+package de.uni_passau.apr.core.testrunner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCatalogTest {
+
+    @Test
+    void discover_indexesTestMethodsInSourceOrder() {
+        TestCatalog catalog = TestCatalog.discover("""
+                import org.junit.jupiter.api.Test;
+
+                public class ProgramTest {
+                    @Test
+                    void first() {}
+
+                    void helper() {}
+
+                    @org.junit.jupiter.api.Test
+                    void second() {}
+                }
+                """);
+
+        assertEquals(2, catalog.size());
+        assertEquals("ProgramTest#first", catalog.testId(0));
+        assertEquals("ProgramTest#second", catalog.testId(1));
+        assertEquals(1, catalog.indexOf("ProgramTest#second"));
+    }
+
+    @Test
+    void discover_usesSurefireClassNames_forPackagesAndNestedClasses() {
+        TestCatalog catalog = TestCatalog.discover("""
+                package demo;
+
+                import org.junit.jupiter.api.*;
+
+                class OuterTest {
+                    @Test
+                    void top() {}
+
+                    @Nested
+                    class Inner {
+                        @Test
+                        void deep() {}
+                    }
+
+                    @ParameterizedTest
+                    void perInvocation(int x) {}
+                }
+                """);
+
+        assertEquals(List.of("demo.OuterTest#top", "demo.OuterTest$Inner#deep"), catalog.decode(all(catalog)));
+    }
+
+    @Test
+    void discover_rejectsSourceThatDoesNotParse() {
+        assertThrows(IllegalArgumentException.class, () -> TestCatalog.discover("class {"));
+    }
+
+    @Test
+    void unknownIds_getTheNextIndex_andEqualSetsAreShared() {
+        TestCatalog catalog = TestCatalog.discover("class T { @Test void a() {} }");
+
+        assertEquals(1, catalog.indexOf("T#b"));
+        assertEquals(2, catalog.size());
+        assertSame(catalog.encode(List.of("T#b", "T#a")), catalog.encode(List.of("T#a", "T#b")));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static BitSet all(TestCatalog catalog) {
+        BitSet bits = new BitSet();
+        bits.set(0, catalog.size());
+        return bits;
+    }
+}
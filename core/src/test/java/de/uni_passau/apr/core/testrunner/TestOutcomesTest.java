@@ -0,0 +1,84 @@
+package de.uni_passau.apr.core.testrunner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestOutcomesTest {
+
+    @Test
+    void of_splitsErrorsFromFailures_andCountsWithPopcounts() {
+        TestCatalog catalog = new TestCatalog();
+        TestOutcomes outcomes = TestOutcomes.of(
+                result(List.of("T#a", "T#b"), List.of("T#c", "T#d"), List.of("T#d")), catalog);
+
+        assertEquals(List.of("T#a", "T#b"), catalog.decode(outcomes.passed()));
+        assertEquals(List.of("T#c"), catalog.decode(outcomes.failed()));
+        assertEquals(List.of("T#d"), catalog.decode(outcomes.errored()));
+        assertEquals(2, outcomes.passedCount());
+        assertEquals(2, outcomes.badCount());
+        assertEquals(4, outcomes.size());
+    }
+
+    @Test
+    void of_missingLists_giveEmptyOutcomes() {
+        TestResult tr = new TestResult(1, "", false, false);
+        tr.setPassedTests(null);
+        tr.setFailedTests(null);
+        tr.setErroredTests(null);
+
+        TestOutcomes outcomes = TestOutcomes.of(tr, new TestCatalog());
+
+        assertEquals(0, outcomes.size());
+    }
+
+    @Test
+    void equalRuns_shareTheCatalogSets_andAreEqual() {
+        TestCatalog catalog = new TestCatalog();
+        TestOutcomes a = TestOutcomes.of(result(List.of("T#a"), List.of("T#b"), List.of()), catalog);
+        TestOutcomes b = TestOutcomes.of(result(List.of("T#a"), List.of("T#b"), List.of()), catalog);
+
+        assertSame(a.passed(), b.passed());
+        assertSame(a.failed(), b.failed());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(0, a.distance(b));
+    }
+
+    @Test
+    void distance_countsTestsWithAnotherOutcome() {
+        TestCatalog catalog = new TestCatalog();
+        TestOutcomes baseline = TestOutcomes.of(
+                result(List.of("T#a", "T#b"), List.of("T#c", "T#d"), List.of("T#d")), catalog);
+        // b now fails, c passes, d fails instead of erroring, e is new
+        TestOutcomes candidate = TestOutcomes.of(
+                result(List.of("T#a", "T#c", "T#e"), List.of("T#b", "T#d"), List.of()), catalog);
+
+        assertEquals(4, baseline.distance(candidate));
+        assertEquals(4, candidate.distance(baseline));
+        assertEquals(List.of("T#b"), catalog.decode(candidate.lostFrom(baseline)));
+        assertEquals(List.of("T#c", "T#e"), catalog.decode(baseline.lostFrom(candidate)));
+    }
+
+    @Test
+    void ctor_rejectsTestsWithTwoOutcomes() {
+        BitSet one = new BitSet();
+        one.set(3);
+
+        assertThrows(IllegalArgumentException.class, () -> new TestOutcomes(one, one, new BitSet()));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static TestResult result(List<String> passed, List<String> failed, List<String> errored) {
+        TestResult tr = new TestResult(1, "", false, false);
+        tr.setPassedTests(new ArrayList<>(passed));
+        tr.setFailedTests(new ArrayList<>(failed));
+        tr.setErroredTests(new ArrayList<>(errored));
+        return tr;
+    }
+}
@@ -0,0 +1,39 @@
+package de.uni_passau.apr.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void ctor_rejectsBadParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+    }
+
+    @Test
+    void addedKeys_areAlwaysFound_andFalseHitsStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (long k = 0; k < 10000; k++) filter.add(k << 31);
+
+        for (long k = 0; k < 10000; k++) assertTrue(filter.mightContain(k << 31));
+        int falseHits = 0;
+        for (long k = 10000; k < 60000; k++) if (filter.mightContain(k << 31)) falseHits++;
+        // 1% of 50000 is 500
+        assertTrue(falseHits < 1000, "false hits " + falseHits);
+        assertEquals(0, filter.bitCount() % 64);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void keysAt_matchesTheSizingRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+
+        long atOnePercent = filter.keysAt(0.01);
+        assertTrue(atOnePercent >= 9900 && atOnePercent <= 10100, "keys " + atOnePercent);
+        assertTrue(filter.keysAt(0.05) > 14000);
+        assertThrows(IllegalArgumentException.class, () -> filter.keysAt(1.0));
+    }
+}
@@ -0,0 +1,43 @@
+package de.uni_passau.apr.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void add_reportsNewValuesOnly_includingZero() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.add(-7L));
+        assertFalse(set.add(-7L));
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(0L));
+        assertFalse(set.contains(1L));
+    }
+
+    @Test
+    void manyValues_behaveLikeHashSet_andClearEmpties() {
+        LongHashSet set = new LongHashSet(2);
+        Set<Long> reference = new HashSet<>();
+        Random rng = new Random(4);
+
+        for (int i = 0; i < 5000; i++) {
+            // few distinct values, so there are plenty of duplicates
+            long v = (long) rng.nextInt(2000) << 31;
+            assertEquals(reference.add(v), set.add(v));
+        }
+        assertEquals(reference.size(), set.size());
+        for (long v : reference) assertTrue(set.contains(v));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(reference.iterator().next()));
+    }
+}
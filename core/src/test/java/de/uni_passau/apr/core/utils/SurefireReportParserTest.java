@@ -74,6 +74,8 @@ class SurefireReportParserTest {
         assertEquals(1, summary.getSkipped());
 
         assertEquals(List.of("ProgramTest#fails"), summary.getFailedTestIds());
+        assertEquals(List.of("ProgramTest#passes"), summary.getPassedTestIds());
+        assertEquals(List.of(), summary.getErroredTestIds());
     }
 
     @Test
@@ -100,6 +102,8 @@ class SurefireReportParserTest {
         assertEquals(1, summary.getErrors());
         assertEquals(0, summary.getSkipped());
         assertEquals(List.of("ErrSuite#boom"), summary.getFailedTestIds());
+        assertEquals(List.of("ErrSuite#boom"), summary.getErroredTestIds());
+        assertEquals(List.of("ErrSuite#ok"), summary.getPassedTestIds());
     }
 
     @Test
@@ -165,6 +169,83 @@ class SurefireReportParserTest {
         assertTrue(summary.getFailedTestIds() == null || summary.getFailedTestIds().isEmpty());
     }
 
+    @Test
+    void parse_recordsStatusAndTimePerTestcase_andSkipsTheirOutput() throws IOException {
+        Path reports = tempDir.resolve("surefire-reports");
+        Files.createDirectories(reports);
+
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="T" tests="4" failures="1" errors="1" skipped="1" time="1.5">
+                    <properties>
+                        <property name="java.version" value="17"/>
+                    </properties>
+                    <testcase classname="T" name="ok" time="0.25">
+                        <system-out><![CDATA[<testcase classname="Fake" name="fromOutput"/>]]></system-out>
+                    </testcase>
+                    <testcase classname="T" name="fails" time="1,234.5">
+                        <failure message="boom" type="AssertionError">at T.fails(T.java:3)</failure>
+                        <system-err>noise</system-err>
+                    </testcase>
+                    <testcase classname="T" name="errs" time="oops">
+                        <error type="NullPointerException"/>
+                    </testcase>
+                    <testcase classname="T" name="skip">
+                        <skipped/>
+                    </testcase>
+                    <system-out>suite output</system-out>
+                </testsuite>
+                """;
+        Files.writeString(reports.resolve("TEST-T.xml"), xml, StandardCharsets.UTF_8);
+
+        TestReportSummary summary = SurefireReportParser.parse(reports);
+
+        assertEquals(List.of(
+                new TestCaseResult("T", "ok", TestCaseResult.Status.PASSED, 0.25),
+                new TestCaseResult("T", "fails", TestCaseResult.Status.FAILED, 1234.5),
+                new TestCaseResult("T", "errs", TestCaseResult.Status.ERROR, 0),
+                new TestCaseResult("T", "skip", TestCaseResult.Status.SKIPPED, 0)), summary.getTestCases());
+        assertEquals(List.of("T#ok"), summary.getPassedTestIds());
+        assertEquals(List.of("T#fails", "T#errs"), summary.getFailedTestIds());
+        assertEquals(List.of("T#errs"), summary.getErroredTestIds());
+        assertEquals(4, summary.getTestsRun());
+    }
+
+    @Test
+    void parse_readsSuitesInsideATestsuitesWrapper() throws IOException {
+        Path reports = tempDir.resolve("surefire-reports");
+        Files.createDirectories(reports);
+
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuites>
+                    <testsuite name="A" tests="1" failures="0" errors="0" skipped="0">
+                        <testcase classname="A" name="a"/>
+                    </testsuite>
+                    <testsuite name="B" tests="1" failures="1" errors="0" skipped="0">
+                        <testcase classname="B" name="b"><failure/></testcase>
+                    </testsuite>
+                </testsuites>
+                """;
+        Files.writeString(reports.resolve("TEST-AB.xml"), xml, StandardCharsets.UTF_8);
+
+        TestReportSummary summary = SurefireReportParser.parse(reports);
+
+        assertEquals(2, summary.getTestsRun());
+        assertEquals(1, summary.getFailures());
+        assertEquals(List.of("A#a"), summary.getPassedTestIds());
+        assertEquals(List.of("B#b"), summary.getFailedTestIds());
+    }
+
+    @Test
+    void parse_malformedXml_throwsIOException() throws IOException {
+        Path reports = tempDir.resolve("surefire-reports");
+        Files.createDirectories(reports);
+        Files.writeString(reports.resolve("TEST-Bad.xml"), "<testsuite><testcase>", StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> SurefireReportParser.parse(reports));
+    }
+
 //    @Test
 //    void parse_handlesMalformedXml_gracefully_andStillParsesOtherFiles() throws IOException {
 //        Path reports = tempDir.resolve("surefire-reports");
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,4 +150,107 @@ class WorkspaceBuilderTest {
         assertThrows(NullPointerException.class,
                 () -> builder.build(cfg, "public class Program {}"));
     }
+
+    @Test
+    void build_withManager_usesItsSession_andReleaseQueuesTheDeletion() throws Exception {
+        Path buggy = tempDir.resolve("Program.java");
+        Path tests = tempDir.resolve("ProgramTest.java");
+        Files.writeString(buggy, "public class Program {}", StandardCharsets.UTF_8);
+        Files.writeString(tests, "public class ProgramTest {}", StandardCharsets.UTF_8);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+        cfg.setBuggyProgramPath(buggy);
+        cfg.setTestSuitePath(tests);
+
+        try (WorkspaceManager manager = new WorkspaceManager(tempDir.resolve("shm"), 0)) {
+            WorkspaceBuilder builder = new WorkspaceBuilder(manager);
+            Path workspace = builder.build(cfg, "public class Program {}");
+
+            assertEquals(manager.session(), workspace.getParent());
+            assertTrue(Files.exists(workspace.resolve("pom.xml")));
+
+            builder.release(workspace);
+
+            assertFalse(Files.exists(workspace));
+        }
+    }
+
+    @Test
+    void buildReactor_oneModulePerCandidate_sharingOneCopyOfTheTests() throws Exception {
+        Path buggy = tempDir.resolve("Program.java");
+        Path tests = tempDir.resolve("ProgramTest.java");
+        Files.writeString(buggy, "public class Program {}", StandardCharsets.UTF_8);
+        Files.writeString(tests, "public class ProgramTest {}", StandardCharsets.UTF_8);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+        cfg.setBuggyProgramPath(buggy);
+        cfg.setTestSuitePath(tests);
+        WorkspaceBuilder builder = new WorkspaceBuilder(null, true);
+
+        Path reactor = builder.buildReactor(cfg, List.of("class A {}", "class B {}", "class C {}"));
+
+        try {
+            assertTrue(builder.isReactor());
+            assertTrue(reactor.getFileName().toString().startsWith("apr-bm1-reactor-"));
+            String pom = Files.readString(reactor.resolve("pom.xml"), StandardCharsets.UTF_8);
+            assertTrue(pom.contains("<artifactId>workspace-reactor</artifactId>"));
+            assertTrue(pom.contains("<packaging>pom</packaging>"));
+            assertTrue(pom.contains("junit-jupiter"));
+            assertEquals("public class ProgramTest {}", Files.readString(
+                    reactor.resolve(WorkspaceBuilder.SHARED_TESTS_DIR).resolve("ProgramTest.java")));
+            List<String> candidates = List.of("class A {}", "class B {}", "class C {}");
+            for (int i = 0; i < candidates.size(); i++) {
+                String module = WorkspaceBuilder.moduleName(i);
+                assertTrue(pom.contains("<module>" + module + "</module>"));
+                String modulePom = Files.readString(reactor.resolve(module).resolve("pom.xml"), StandardCharsets.UTF_8);
+                assertTrue(modulePom.contains("<artifactId>" + module + "</artifactId>"));
+                assertTrue(modulePom.contains("<testSourceDirectory>../" + WorkspaceBuilder.SHARED_TESTS_DIR
+                        + "</testSourceDirectory>"));
+                assertEquals(candidates.get(i), Files.readString(
+                        reactor.resolve(module).resolve("src/main/java/Program.java"), StandardCharsets.UTF_8));
+                assertFalse(Files.exists(reactor.resolve(module).resolve("src/test")));
+            }
+        } finally {
+            builder.release(reactor);
+        }
+        assertFalse(Files.exists(reactor));
+    }
+
+    @Test
+    void keepModules_deletesTheOtherModules_andDropsThemFromThePom() throws Exception {
+        Path buggy = tempDir.resolve("Program.java");
+        Path tests = tempDir.resolve("ProgramTest.java");
+        Files.writeString(buggy, "public class Program {}", StandardCharsets.UTF_8);
+        Files.writeString(tests, "public class ProgramTest {}", StandardCharsets.UTF_8);
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+        cfg.setBuggyProgramPath(buggy);
+        cfg.setTestSuitePath(tests);
+        WorkspaceBuilder builder = new WorkspaceBuilder(null, true);
+        Path reactor = builder.buildReactor(cfg, List.of("class A {}", "class B {}", "class C {}"));
+
+        try {
+            builder.keepModules(reactor, List.of(WorkspaceBuilder.moduleName(1)));
+
+            String pom = Files.readString(reactor.resolve("pom.xml"), StandardCharsets.UTF_8);
+            assertTrue(pom.contains("<module>candidate-1</module>"));
+            assertFalse(pom.contains("<module>candidate-0</module>"));
+            assertFalse(pom.contains("<module>candidate-2</module>"));
+            assertFalse(Files.exists(reactor.resolve(WorkspaceBuilder.moduleName(0))));
+            assertFalse(Files.exists(reactor.resolve(WorkspaceBuilder.moduleName(2))));
+            assertTrue(Files.exists(reactor.resolve(WorkspaceBuilder.moduleName(1)).resolve("src/main/java/Program.java")));
+            assertTrue(Files.exists(reactor.resolve(WorkspaceBuilder.SHARED_TESTS_DIR).resolve("ProgramTest.java")));
+        } finally {
+            builder.release(reactor);
+        }
+    }
+
+    @Test
+    void buildReactor_withoutCandidates_throws() {
+        BenchmarkConfig cfg = new BenchmarkConfig();
+        cfg.setName("bm1");
+
+        assertFalse(new WorkspaceBuilder().isReactor());
+        assertThrows(IllegalArgumentException.class, () -> new WorkspaceBuilder(null, true).buildReactor(cfg, List.of()));
+    }
 }
@@ -81,6 +81,29 @@ class WorkspaceCleanerTest {
         assertTrue(Files.exists(outside), "Directory should not be deleted when outside temp");
     }
 
+    @Test
+    void deleteRecursively_withAllowedRoot_deletesBelowIt_andCountsBytes() throws IOException {
+        Path workspace = Files.createDirectories(tempDir.resolve("apr-ws/a"));
+        Files.writeString(workspace.resolve("one.txt"), "12345", StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve("apr-ws/two.txt"), "123", StandardCharsets.UTF_8);
+
+        long bytes = WorkspaceCleaner.deleteRecursively(tempDir.resolve("apr-ws"), tempDir);
+
+        assertEquals(8, bytes);
+        assertFalse(Files.exists(tempDir.resolve("apr-ws")));
+    }
+
+    @Test
+    void deleteRecursively_withAllowedRoot_refusesTheRootItselfAndWhatIsOutside() throws IOException {
+        Path allowed = Files.createDirectories(tempDir.resolve("apr-root"));
+        Path outside = Files.createDirectories(tempDir.resolve("apr-outside"));
+
+        assertThrows(IllegalArgumentException.class, () -> WorkspaceCleaner.deleteRecursively(allowed, allowed));
+        assertThrows(IllegalArgumentException.class, () -> WorkspaceCleaner.deleteRecursively(outside, allowed));
+        assertTrue(Files.exists(allowed));
+        assertTrue(Files.exists(outside));
+    }
+
     @Test
     void deleteRecursively_noOpOnNullOrMissing() throws IOException {
         // null should not throw
@@ -0,0 +1,145 @@
+package de.uni_passau.apr.core.workspace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void create_makesAprDirectoriesInALockedSession() throws Exception {
+        try (WorkspaceManager manager = new WorkspaceManager(tempDir.resolve("shm"), 0)) {
+            Path workspace = manager.create("bm1");
+
+            assertTrue(Files.isDirectory(workspace));
+            assertTrue(workspace.getFileName().toString().startsWith("apr-bm1-"));
+            assertEquals(manager.session(), workspace.getParent());
+            assertTrue(manager.session().getFileName().toString().startsWith(WorkspaceManager.SESSION_PREFIX));
+            assertEquals(tempDir.resolve("shm").toAbsolutePath().normalize(), manager.root());
+        }
+    }
+
+    @Test
+    void release_returnsAtOnce_andTheReaperDeletesTheWorkspace() throws Exception {
+        try (WorkspaceManager manager = new WorkspaceManager(tempDir, 0)) {
+            Path workspace = filled(manager.create("bm1"), 3000);
+
+            manager.release(workspace);
+
+            assertFalse(Files.exists(workspace), "renamed away at once");
+            awaitNoPending(manager);
+            try (var left = Files.list(manager.session())) {
+                assertEquals(1, left.count(), "only the lock file is left");
+            }
+            assertEquals(3000, manager.estimatedBytes());
+        }
+    }
+
+    @Test
+    void release_refusesDirectoriesItDoesNotOwn() throws Exception {
+        try (WorkspaceManager manager = new WorkspaceManager(tempDir.resolve("root"), 0)) {
+            Path foreign = Files.createDirectories(tempDir.resolve("apr-foreign"));
+            Path notApr = Files.createDirectories(manager.session().resolve("other"));
+
+            assertThrows(IllegalArgumentException.class, () -> manager.release(foreign));
+            assertThrows(IllegalArgumentException.class, () -> manager.release(notApr));
+            assertTrue(Files.exists(foreign));
+            assertTrue(Files.exists(notApr));
+        }
+    }
+
+    @Test
+    void close_deletesQueuedWorkspaces_andTheSession_butNotKeptOnes() throws Exception {
+        WorkspaceManager manager = new WorkspaceManager(tempDir, 0);
+        Path released = filled(manager.create("a"), 10);
+        Path kept = filled(manager.create("b"), 10);
+        manager.release(released);
+        manager.keep(kept);
+
+        manager.close();
+
+        assertFalse(Files.exists(released));
+        assertTrue(Files.exists(kept));
+        assertThrows(IllegalStateException.class, () -> manager.create("c"));
+
+        WorkspaceManager empty = new WorkspaceManager(tempDir.resolve("other"), 0);
+        empty.close();
+        assertFalse(Files.exists(empty.session()));
+    }
+
+    @Test
+    void opening_sweepsSessionsOfDeadRuns_butLeavesLiveAndKeptOnes() throws Exception {
+        // a run that crashed: unlocked lock file, one workspace, one kept workspace, some trash
+        Path stale = Files.createDirectories(tempDir.resolve(WorkspaceManager.SESSION_PREFIX + "dead"));
+        Files.createFile(stale.resolve(WorkspaceManager.LOCK_FILE));
+        Path leftover = filled(Files.createDirectories(stale.resolve("apr-bm1-1")), 10);
+        Path trash = filled(Files.createDirectories(stale.resolve("apr-trash-3")), 10);
+        Path kept = Files.createDirectories(stale.resolve("apr-bm1-2"));
+        Files.createFile(kept.resolve(WorkspaceManager.KEEP_MARKER));
+        Path unrelated = Files.createDirectories(tempDir.resolve("apr-output-logs"));
+
+        try (WorkspaceManager live = new WorkspaceManager(tempDir, 0)) {
+            Path liveWorkspace = live.create("bm1");
+
+            try (WorkspaceManager second = new WorkspaceManager(tempDir, 0)) {
+                assertNotEquals(live.session(), second.session());
+                assertTrue(Files.exists(liveWorkspace), "a live session is not swept");
+            }
+        }
+
+        assertFalse(Files.exists(leftover));
+        assertFalse(Files.exists(trash));
+        assertTrue(Files.exists(kept));
+        assertTrue(Files.exists(unrelated));
+    }
+
+    @Test
+    void create_waitsForPendingDeletions_whileOverQuota() throws Exception {
+        try (WorkspaceManager manager = new WorkspaceManager(tempDir, 1)) {
+            Path first = manager.create("a");
+            // nothing is pending, so being over the quota must not block
+            Path second = assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> manager.create("b"));
+
+            manager.release(first);
+            CompletableFuture<Path> third = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return manager.create("c");
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            assertNotNull(third.get(5, TimeUnit.SECONDS), "the reaper's deletion wakes it up");
+            assertTrue(Files.exists(second));
+        }
+    }
+
+    @Test
+    void ctor_rejectsNegativeQuota() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkspaceManager(tempDir, -1));
+    }
+
+    // ---------------- helpers ----------------
+
+    private static Path filled(Path dir, int bytes) throws IOException {
+        Files.createDirectories(dir.resolve("target/classes"));
+        Files.writeString(dir.resolve("target/classes/data.bin"), "x".repeat(bytes), StandardCharsets.UTF_8);
+        return dir;
+    }
+
+    private static void awaitNoPending(WorkspaceManager manager) throws InterruptedException {
+        for (int i = 0; i < 500 && manager.pendingDeletions() > 0; i++) Thread.sleep(10);
+        assertEquals(0, manager.pendingDeletions());
+    }
+}